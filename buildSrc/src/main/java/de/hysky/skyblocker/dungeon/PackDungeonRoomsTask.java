@@ -0,0 +1,123 @@
+package de.hysky.skyblocker.dungeon;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Packs the dungeon room {@code .skeleton} files into a single archive which the mod memory maps at runtime, see {@code RoomArchive} in the mod.
+ * <p>
+ * The skeleton files are found at {@code <dungeon>/<shape>/<room>.skeleton} in {@link #getSkeletonsDirectory()}, and each one is a
+ * deflated, serialized, and sorted {@code int[]} of encoded blocks. The archive is big-endian and laid out as follows:
+ * <ul>
+ *     <li>{@code int} magic {@value #MAGIC}, {@code int} version {@value #VERSION}</li>
+ *     <li>{@code int} length of the header in bytes, which is where the block data starts</li>
+ *     <li>{@code int} length of the block data in bytes, {@code int} CRC32 of the block data</li>
+ *     <li>{@code int} number of rooms, then for each room: the dungeon, shape, and room names each as an unsigned {@code short} length followed by UTF-8 bytes,
+ *     then the {@code int} offset of the room's blocks in the block data in bytes and the {@code int} number of blocks</li>
+ *     <li>the sorted blocks of each room as {@code int}s</li>
+ * </ul>
+ */
+public abstract class PackDungeonRoomsTask extends DefaultTask {
+	public static final int MAGIC = 0x534B4452;
+	public static final int VERSION = 1;
+
+	@InputDirectory
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public abstract DirectoryProperty getSkeletonsDirectory();
+
+	@OutputFile
+	public abstract RegularFileProperty getArchiveFile();
+
+	@TaskAction
+	public void pack() throws IOException {
+		long start = System.currentTimeMillis();
+		Path skeletonsDirectory = getSkeletonsDirectory().get().getAsFile().toPath();
+		List<Path> skeletons;
+		try (Stream<Path> files = Files.walk(skeletonsDirectory)) {
+			// Sort the files so that the archive is reproducible
+			skeletons = files.filter(path -> path.toString().endsWith(".skeleton")).sorted().toList();
+		}
+
+		ByteArrayOutputStream entriesBytes = new ByteArrayOutputStream();
+		DataOutputStream entries = new DataOutputStream(entriesBytes);
+		ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(dataBytes);
+		List<String> invalid = new ArrayList<>();
+		int rooms = 0;
+
+		for (Path skeleton : skeletons) {
+			Path relative = skeletonsDirectory.relativize(skeleton);
+			if (relative.getNameCount() != 3) {
+				invalid.add(relative.toString());
+				continue;
+			}
+			String room = relative.getFileName().toString();
+			int[] blocks = readSkeleton(skeleton);
+
+			writeString(entries, relative.getName(0).toString());
+			writeString(entries, relative.getName(1).toString());
+			writeString(entries, room.substring(0, room.length() - ".skeleton".length()));
+			entries.writeInt(data.size());
+			entries.writeInt(blocks.length);
+			for (int block : blocks) {
+				data.writeInt(block);
+			}
+			rooms++;
+		}
+		if (!invalid.isEmpty()) throw new IllegalStateException("Dungeon room skeletons must be at <dungeon>/<shape>/<room>.skeleton: " + invalid);
+
+		CRC32 crc = new CRC32();
+		crc.update(dataBytes.toByteArray());
+		// Magic, version, header length, data length, crc, and room count
+		int headerLength = 6 * Integer.BYTES + entries.size();
+
+		Path archive = getArchiveFile().get().getAsFile().toPath();
+		Files.createDirectories(archive.getParent());
+		try (OutputStream outputStream = Files.newOutputStream(archive); DataOutputStream out = new DataOutputStream(outputStream)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(headerLength);
+			out.writeInt(data.size());
+			out.writeInt((int) crc.getValue());
+			out.writeInt(rooms);
+			entriesBytes.writeTo(out);
+			dataBytes.writeTo(out);
+		}
+
+		System.out.println("Packing " + rooms + " dungeon rooms took: " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	private static int[] readSkeleton(Path skeleton) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(Files.newInputStream(skeleton)))) {
+			return (int[]) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Invalid dungeon room skeleton " + skeleton, e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+}
@@ -62,8 +62,8 @@ public class SkyblockerMod implements ClientModInitializer {
 
         init();
         Scheduler.INSTANCE.scheduleCyclic(Utils::update, 20);
-        Scheduler.INSTANCE.scheduleCyclic(DiscordRPCManager::updateDataAndPresence, 200);
-        Scheduler.INSTANCE.scheduleCyclic(BackpackPreview::tick, 50);
+        Scheduler.INSTANCE.scheduleCyclic(DiscordRPCManager::updateDataAndPresence, 200, false, true);
+        Scheduler.INSTANCE.scheduleCyclic(BackpackPreview::tick, 50, false, true);
         Scheduler.INSTANCE.scheduleCyclic(PlayerListManager::updateList, 20);
     }
 
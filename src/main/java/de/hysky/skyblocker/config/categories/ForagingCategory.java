@@ -4,7 +4,6 @@ import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.config.ConfigUtils;
 import de.hysky.skyblocker.config.SkyblockerConfig;
 import de.hysky.skyblocker.skyblock.foraging.SweepOverlay;
-import de.hysky.skyblocker.skyblock.galatea.SeaLumiesHighlighter;
 import de.hysky.skyblocker.skyblock.galatea.TreeBreakProgressHud;
 import de.hysky.skyblocker.skyblock.tabhud.config.WidgetsConfigurationScreen;
 import de.hysky.skyblocker.utils.Location;
@@ -59,10 +58,7 @@ public class ForagingCategory {
 								.description(Text.translatable("skyblocker.config.foraging.galatea.enableSeaLumiesHighlighter.@Tooltip"))
 								.binding(defaults.foraging.galatea.enableSeaLumiesHighlighter,
 										() -> config.foraging.galatea.enableSeaLumiesHighlighter,
-										newValue -> {
-											config.foraging.galatea.enableSeaLumiesHighlighter = newValue;
-											SeaLumiesHighlighter.INSTANCE.configCallback();
-										})
+										newValue -> config.foraging.galatea.enableSeaLumiesHighlighter = newValue)
 								.controller(ConfigUtils.createBooleanController())
 								.build())
 						.option(Option.<Boolean>createBuilder()
@@ -83,10 +79,7 @@ public class ForagingCategory {
 								.description(Text.translatable("skyblocker.config.foraging.galatea.seaLumieMinCount.@Tooltip"))
 								.binding(defaults.foraging.galatea.seaLumiesMinimumCount,
 										() -> config.foraging.galatea.seaLumiesMinimumCount,
-										newValue -> {
-											config.foraging.galatea.seaLumiesMinimumCount = newValue;
-											SeaLumiesHighlighter.INSTANCE.configCallback();
-										})
+										newValue -> config.foraging.galatea.seaLumiesMinimumCount = newValue)
 								.controller(IntegerController.createBuilder().range(1, 4).slider(1).build())
 								.build())
 						.option(Option.<Boolean>createBuilder()
@@ -7,7 +7,7 @@ import de.hysky.skyblocker.config.ConfigUtils;
 import de.hysky.skyblocker.config.SkyblockerConfig;
 import de.hysky.skyblocker.config.backup.ConfigBackupScreen;
 import de.hysky.skyblocker.config.configs.GeneralConfig;
-import de.hysky.skyblocker.skyblock.item.tooltip.adders.CraftPriceTooltip;
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCosts;
 import de.hysky.skyblocker.skyblock.item.wikilookup.WikiLookupManager;
 import de.hysky.skyblocker.skyblock.shortcut.ShortcutsConfigScreen;
 import de.hysky.skyblocker.skyblock.speedpreset.SpeedPresetsScreen;
@@ -247,7 +247,7 @@ public class GeneralCategory {
                                         () -> config.general.itemTooltip.enableCraftingCost,
                                         newValue -> config.general.itemTooltip.enableCraftingCost = newValue)
                                 .listener((ignored, updateType) -> {
-                                    if (updateType == UpdateType.VALUE_CHANGE) CraftPriceTooltip.clearCache();
+                                    if (updateType == UpdateType.VALUE_CHANGE) CraftCosts.recompute();
                                 })
                                 .controller(ConfigUtils.createEnumController())
                                 .build())
@@ -11,9 +11,16 @@ import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.mixins.accessors.HandledScreenAccessor;
 import de.hysky.skyblocker.mixins.accessors.InGameHudInvoker;
 import de.hysky.skyblocker.skyblock.events.EventNotifications;
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCosts;
+import de.hysky.skyblocker.skyblock.item.tooltip.TooltipManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.packet.PacketCapture;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
+import de.hysky.skyblocker.utils.scheduler.Scheduler;
+import de.hysky.skyblocker.utils.world.BlockIndex;
 import de.hysky.skyblocker.utils.networth.NetworthCalculator;
 import net.azureaaron.networth.Calculation;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -80,6 +87,7 @@ public class Debug {
 						.then(dumpPlayersCommand())
 						.then(ItemUtils.dumpHeldItemCommand())
 						.then(ItemUtils.dumpHeldItemNetworthCalculationsCommand())
+						.then(CraftCosts.dumpHeldItemCraftCostCommand())
 						.then(toggleShowingInvisibleArmorStands())
 						.then(dumpArmorStandHeadTextures())
 						.then(toggleWebSocketDebug())
@@ -87,6 +95,12 @@ public class Debug {
 						.then(dumpBiome())
 						.then(dumpActionBar())
 						.then(auditMixins())
+						.then(Scheduler.debugCommand())
+						.then(ChatDispatcher.debugCommand())
+						.then(PacketRouter.debugCommand())
+						.then(PacketCapture.debugCommand())
+						.then(BlockIndex.debugCommand())
+						.then(TooltipManager.debugCommand())
 				)
 		));
 		ClientTickEvents.END_CLIENT_TICK.register(client -> {
@@ -1,10 +1,14 @@
 package de.hysky.skyblocker.injected;
 
 import de.hysky.skyblocker.skyblock.item.SkyblockItemRarity;
+import it.unimi.dsi.fastutil.ints.IntIntPair;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import de.hysky.skyblocker.skyblock.item.PetInfo;
 
+import java.util.List;
+
 public interface SkyblockerStack {
 	@NotNull
 	default String getSkyblockId() {
@@ -33,4 +37,20 @@ public interface SkyblockerStack {
 
 	@NotNull
 	default SkyblockItemRarity getSkyblockRarity() { return SkyblockItemRarity.UNKNOWN; }
+
+	/**
+	 * @return the cached result of {@link de.hysky.skyblocker.utils.ItemUtils#getDurability(net.minecraft.item.ItemStack) ItemUtils#getDurability(ItemStack)}
+	 */
+	@Nullable
+	default IntIntPair getSkyblockDurability() {
+		return null;
+	}
+
+	/**
+	 * @return the unstyled strings of the lore lines, cached until the lore changes
+	 */
+	@NotNull
+	default List<String> getLoreStrings() {
+		return List.of();
+	}
 }
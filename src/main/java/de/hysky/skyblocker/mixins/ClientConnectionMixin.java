@@ -0,0 +1,18 @@
+package de.hysky.skyblocker.mixins;
+
+import de.hysky.skyblocker.utils.packet.PacketCapture;
+import io.netty.channel.ChannelHandlerContext;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.packet.Packet;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientConnection.class)
+public class ClientConnectionMixin {
+	@Inject(method = "channelRead0(Lio/netty/channel/ChannelHandlerContext;Lnet/minecraft/network/packet/Packet;)V", at = @At("HEAD"))
+	private void skyblocker$capturePacket(ChannelHandlerContext context, Packet<?> packet, CallbackInfo ci) {
+		PacketCapture.onPacketReceived(packet);
+	}
+}
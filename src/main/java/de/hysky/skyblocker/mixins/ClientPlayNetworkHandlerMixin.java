@@ -28,6 +28,7 @@ import de.hysky.skyblocker.skyblock.slayers.SlayerManager;
 import de.hysky.skyblocker.skyblock.slayers.boss.demonlord.FirePillarAnnouncer;
 import de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientCommonNetworkHandler;
 import net.minecraft.client.network.ClientConnectionState;
@@ -138,6 +139,11 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
 		PlayerListManager.updateFooter(packet.footer());
 	}
 
+	@Inject(method = {"onPlayerRemove", "onPlayerList"}, at = @At("TAIL"))
+	private void skyblocker$markPlayerListDirty(CallbackInfo ci) {
+		PlayerListManager.markDirty();
+	}
+
 	@WrapWithCondition(method = "onPlayerList", at = @At(value = "INVOKE", target = "Lorg/slf4j/Logger;warn(Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)V", remap = false))
 	private boolean skyblocker$cancelPlayerListWarning(Logger instance, String format, Object arg1, Object arg2) {
 		return !Utils.isOnHypixel();
@@ -145,6 +151,7 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
 
 	@Inject(method = "onPlaySound", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/NetworkThreadUtils;forceMainThread(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/listener/PacketListener;Lnet/minecraft/util/thread/ThreadExecutor;)V", shift = At.Shift.AFTER))
 	private void skyblocker$onPlaySound(PlaySoundS2CPacket packet, CallbackInfo ci) {
+		PacketRouter.SOUNDS.dispatch(packet);
 		PlaySoundEvents.FROM_SERVER.invoker().onPlaySoundFromServer(packet);
 	}
 
@@ -165,6 +172,7 @@ public abstract class ClientPlayNetworkHandlerMixin extends ClientCommonNetworkH
 
 	@Inject(method = "onParticle", at = @At("RETURN"))
 	private void skyblocker$onParticle(ParticleS2CPacket packet, CallbackInfo ci) {
+		PacketRouter.PARTICLES.dispatch(packet);
 		ParticleEvents.FROM_SERVER.invoker().onParticleFromServer(packet);
 	}
 
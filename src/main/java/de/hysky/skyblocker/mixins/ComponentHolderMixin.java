@@ -7,10 +7,8 @@ import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.item.custom.CustomArmorTrims;
-import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Utils;
 import net.minecraft.item.Items;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import de.hysky.skyblocker.skyblock.item.custom.CustomHelmetTextures;
 import net.minecraft.component.ComponentHolder;
 import net.minecraft.component.ComponentType;
@@ -21,23 +19,31 @@ import net.minecraft.item.equipment.trim.ArmorTrim;
 @Mixin(ComponentHolder.class)
 public interface ComponentHolderMixin {
 
+	/**
+	 * Replaces the trim and profile components of items with custom trims and helmet textures.
+	 * <p>
+	 * This runs for every component lookup of every item stack, so the component type is checked first and
+	 * items without a uuid, including all vanilla items, exit before any config lookup.
+	 * The uuid is cached per stack, see {@link de.hysky.skyblocker.skyblock.item.DerivedStackData DerivedStackData}.
+	 */
 	@SuppressWarnings("unchecked")
 	@ModifyReturnValue(method = "get", at = @At("RETURN"))
 	private <T> T skyblocker$customComponents(T original, ComponentType<? extends T> dataComponentType) {
-		if (Utils.isOnSkyblock() && ((Object) this) instanceof ItemStack stack) {
-			String itemUuid = ItemUtils.getItemUuid(stack);
-			if (dataComponentType == DataComponentTypes.TRIM) {
-				Object2ObjectOpenHashMap<String, CustomArmorTrims.ArmorTrimId> customTrims = SkyblockerConfigManager.get().general.customArmorTrims;
-				if (customTrims.containsKey(itemUuid)) {
-					CustomArmorTrims.ArmorTrimId trimKey = customTrims.get(itemUuid);
-					return (T) CustomArmorTrims.TRIMS_CACHE.getOrDefault(trimKey, (ArmorTrim) original);
-				}
-			} else if (dataComponentType == DataComponentTypes.PROFILE && stack.isOf(Items.PLAYER_HEAD)) {
-				Object2ObjectOpenHashMap<String, String> customTextures = SkyblockerConfigManager.get().general.customHelmetTextures;
-				if (customTextures.containsKey(itemUuid)) {
-					String tex = customTextures.get(itemUuid);
-					return (T) CustomHelmetTextures.getProfile(tex);
-				}
+		if (dataComponentType != DataComponentTypes.TRIM && dataComponentType != DataComponentTypes.PROFILE) return original;
+		if (!Utils.isOnSkyblock() || !(((Object) this) instanceof ItemStack stack)) return original;
+
+		String itemUuid = stack.getUuid();
+		if (itemUuid.isEmpty()) return original;
+
+		if (dataComponentType == DataComponentTypes.TRIM) {
+			CustomArmorTrims.ArmorTrimId trimKey = SkyblockerConfigManager.get().general.customArmorTrims.get(itemUuid);
+			if (trimKey != null) {
+				return (T) CustomArmorTrims.TRIMS_CACHE.getOrDefault(trimKey, (ArmorTrim) original);
+			}
+		} else if (stack.isOf(Items.PLAYER_HEAD)) {
+			String tex = SkyblockerConfigManager.get().general.customHelmetTextures.get(itemUuid);
+			if (tex != null) {
+				return (T) CustomHelmetTextures.getProfile(tex);
 			}
 		}
 
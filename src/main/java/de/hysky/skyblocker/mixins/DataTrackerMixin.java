@@ -42,6 +42,13 @@ public abstract class DataTrackerMixin {
         }
     }
 
+    @Inject(method = "writeUpdatedEntries", at = @At("TAIL"))
+    private void skyblocker$onUpdatedEntriesWritten(CallbackInfo ci) {
+        if (trackedEntity instanceof Entity entity) {
+            MobGlow.onTrackedDataChanged(entity);
+        }
+    }
+
     @Inject(method = "copyToFrom", at = @At(value = "NEW", target = "Ljava/lang/IllegalStateException;"), cancellable = true)
     public void skyblocker$ignoreInvalidDataExceptions(CallbackInfo ci) {
         //These exceptions cause annoying small lag spikes for some reason
@@ -5,7 +5,6 @@ import com.llamalad7.mixinextras.sugar.Local;
 
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.item.custom.CustomArmorAnimatedDyes;
-import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Utils;
 import net.minecraft.component.type.DyedColorComponent;
 import net.minecraft.item.ItemStack;
@@ -20,7 +19,7 @@ public class DyedColorComponentMixin {
 	@ModifyReturnValue(method = "getColor", at = @At("RETURN"))
 	private static int skyblocker$customDyeColor(int originalColor, @Local(argsOnly = true) ItemStack stack) {
 		if (Utils.isOnSkyblock()) {
-			String itemUuid = ItemUtils.getItemUuid(stack);
+			String itemUuid = stack.getUuid();
 
 			if (SkyblockerConfigManager.get().general.customAnimatedDyes.containsKey(itemUuid)) {
 				return ColorHelper.fullAlpha(CustomArmorAnimatedDyes.animateColorTransition(SkyblockerConfigManager.get().general.customAnimatedDyes.get(itemUuid)));
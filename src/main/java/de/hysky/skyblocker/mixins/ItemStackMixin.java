@@ -6,6 +6,7 @@ import com.llamalad7.mixinextras.sugar.Local;
 
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.injected.SkyblockerStack;
+import de.hysky.skyblocker.skyblock.item.DerivedStackData;
 import de.hysky.skyblocker.skyblock.item.PetInfo;
 import de.hysky.skyblocker.skyblock.item.SkyblockItemRarity;
 import de.hysky.skyblocker.skyblock.profileviewer.ProfileViewerScreen;
@@ -20,9 +21,11 @@ import net.minecraft.item.tooltip.TooltipAppender;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -37,22 +40,7 @@ public abstract class ItemStackMixin implements ComponentHolder, SkyblockerStack
 	private int maxDamage;
 
 	@Unique
-	private String skyblockId;
-
-	@Unique
-	private String skyblockApiId;
-
-	@Unique
-	private String neuName;
-
-	@Unique
-	private String uuid;
-
-	@Unique
-	private PetInfo petInfo;
-
-	@Unique
-	private SkyblockItemRarity skyblockRarity;
+	private DerivedStackData derivedData;
 
 	@Shadow
 	public abstract int getDamage();
@@ -63,12 +51,21 @@ public abstract class ItemStackMixin implements ComponentHolder, SkyblockerStack
 	@ModifyReturnValue(method = "getName", at = @At("RETURN"))
 	private Text skyblocker$customItemNames(Text original) {
 		if (Utils.isOnSkyblock()) {
-			return SkyblockerConfigManager.get().general.customItemNames.getOrDefault(ItemUtils.getItemUuid(this), original);
+			return SkyblockerConfigManager.get().general.customItemNames.getOrDefault(getUuid(), original);
 		}
 
 		return original;
 	}
 
+	/**
+	 * Shares the derived data with the copy, since the copy has the same component values until either stack is modified.
+	 */
+	@ModifyReturnValue(method = "copy", at = @At("RETURN"))
+	private ItemStack skyblocker$copyDerivedData(ItemStack copy) {
+		if (!copy.isEmpty()) ((ItemStackMixin) (Object) copy).derivedData = derivedData;
+		return copy;
+	}
+
 	@ModifyExpressionValue(method = "appendComponentTooltip", at = @At(value = "INVOKE", target = "Lnet/minecraft/component/type/TooltipDisplayComponent;shouldDisplay(Lnet/minecraft/component/ComponentType;)Z"))
 	private boolean skyblocker$hideVanillaEnchants(boolean shouldDisplay, @Local TooltipAppender component) {
 		return shouldDisplay && !(Utils.isOnSkyblock() && component instanceof ItemEnchantmentsComponent);
@@ -138,7 +135,7 @@ public abstract class ItemStackMixin implements ComponentHolder, SkyblockerStack
 	@Unique
 	private boolean skyblocker$getAndCacheDurability() {
 		// Calculate the durability
-		IntIntPair durability = ItemUtils.getDurability((ItemStack) (Object) this);
+		IntIntPair durability = skyblocker$getDerivedData().getDurability((ItemStack) (Object) this);
 		// Return if calculating the durability failed
 		if (durability == null) {
 			return false;
@@ -149,46 +146,56 @@ public abstract class ItemStackMixin implements ComponentHolder, SkyblockerStack
 		return true;
 	}
 
+	@Unique
+	private DerivedStackData skyblocker$getDerivedData() {
+		return derivedData = DerivedStackData.of((ItemStack) (Object) this, derivedData);
+	}
+
 	@Override
 	@NotNull
 	public String getSkyblockId() {
-		if (skyblockId != null && !skyblockId.isEmpty()) return skyblockId;
-		return skyblockId = ItemUtils.getItemId(this);
+		return skyblocker$getDerivedData().getSkyblockId((ItemStack) (Object) this);
 	}
 
 	@Override
 	@NotNull
 	public String getSkyblockApiId() {
-		if (skyblockApiId != null && !skyblockApiId.isEmpty()) return skyblockApiId;
-		return skyblockApiId = ItemUtils.getSkyblockApiId(this);
+		return skyblocker$getDerivedData().getSkyblockApiId((ItemStack) (Object) this);
 	}
 
 	@Override
 	@NotNull
 	public String getNeuName() {
-		if (neuName != null && !neuName.isEmpty()) return neuName;
-		return neuName = ItemUtils.getNeuId((ItemStack) (Object) this);
+		return skyblocker$getDerivedData().getNeuName((ItemStack) (Object) this);
 	}
 
 	@Override
 	@NotNull
 	public String getUuid() {
-		if (uuid != null && !uuid.isEmpty()) return uuid;
-		return uuid = ItemUtils.getItemUuid(this);
+		return skyblocker$getDerivedData().getUuid((ItemStack) (Object) this);
 	}
 
 	@Override
 	@NotNull
 	public PetInfo getPetInfo() {
-		if (petInfo != null) return petInfo;
-		return petInfo = ItemUtils.getPetInfo((ItemStack) (Object) this);
+		return skyblocker$getDerivedData().getPetInfo((ItemStack) (Object) this);
 	}
 
 	@Override
 	@NotNull
-	@SuppressWarnings("deprecation")
 	public SkyblockItemRarity getSkyblockRarity() {
-		if (skyblockRarity != null) return skyblockRarity;
-		return skyblockRarity = ItemUtils.getItemRarity((ItemStack) (Object) this);
+		return skyblocker$getDerivedData().getRarity((ItemStack) (Object) this);
+	}
+
+	@Override
+	@Nullable
+	public IntIntPair getSkyblockDurability() {
+		return skyblocker$getDerivedData().getDurability((ItemStack) (Object) this);
+	}
+
+	@Override
+	@NotNull
+	public List<String> getLoreStrings() {
+		return skyblocker$getDerivedData().getLoreStrings();
 	}
 }
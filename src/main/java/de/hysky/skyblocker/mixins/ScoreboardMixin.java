@@ -6,6 +6,9 @@ import net.minecraft.scoreboard.Scoreboard;
 import org.slf4j.Logger;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(Scoreboard.class)
 public abstract class ScoreboardMixin {
@@ -13,4 +16,17 @@ public abstract class ScoreboardMixin {
     private boolean skyblocker$cancelTeamWarning(Logger instance, String format, Object arg) {
         return !Utils.isOnHypixel();
     }
+
+    /**
+     * Marks the sidebar as changed when a score, team or objective changes, so that {@link Utils} parses it again at the end of the tick.
+     */
+    @Inject(method = {"updateScore", "onScoreRemoved", "onScoreHolderRemoved", "updateScoreboardTeam", "updateRemovedTeam", "removeScoreHolderFromTeam", "updateExistingObjective", "updateRemovedObjective", "setObjectiveSlot"}, at = @At("RETURN"))
+    private void skyblocker$markScoreboardDirty(CallbackInfo ci) {
+        Utils.markScoreboardDirty();
+    }
+
+    @Inject(method = "addScoreHolderToTeam", at = @At("RETURN"))
+    private void skyblocker$markScoreboardDirtyOnTeamJoin(CallbackInfoReturnable<Boolean> cir) {
+        Utils.markScoreboardDirty();
+    }
 }
@@ -11,10 +11,11 @@ import de.hysky.skyblocker.skyblock.tabhud.widget.component.SeparatorComponent;
 import de.hysky.skyblocker.utils.Formatters;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.NEURepoManager;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import io.github.moulberry.repo.data.NEUItem;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.ItemStack;
@@ -48,7 +49,7 @@ public class ItemPickupWidget extends ComponentBasedWidget {
 		super(Text.literal("Items"), Formatting.AQUA.getColorValue(), "Item Pickup");
 		instance = this;
 
-		ClientReceiveMessageEvents.ALLOW_GAME.register(instance::onChatMessage);
+		ChatDispatcher.register("ItemPickupWidget", ChatDispatcher.Channel.ALL, false, instance::onChatMessage, SACKS_MESSAGE_START);
 		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> changingLobby = true);
 		// Make changingLobby true for a short period while the player loads into a new lobby and their items are loading
 		SkyblockEvents.LOCATION_CHANGE.register(location -> Scheduler.INSTANCE.schedule(() -> changingLobby = false, LOBBY_CHANGE_DELAY));
@@ -74,11 +75,10 @@ public class ItemPickupWidget extends ComponentBasedWidget {
 	/**
 	 * Checks chat messages for a stack update message, then finds the items linked to it
 	 */
-	private boolean onChatMessage(Text message, boolean overlay) {
-		if (!Formatting.strip(message.getString()).startsWith(SACKS_MESSAGE_START)) return true;
-		if (!SkyblockerConfigManager.get().uiAndVisuals.itemPickup.sackNotifications) return true;
-		HoverEvent hoverEvent = message.getSiblings().getFirst().getStyle().getHoverEvent();
-		if (hoverEvent == null || hoverEvent.getAction() != HoverEvent.Action.SHOW_TEXT) return true;
+	private ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
+		if (!SkyblockerConfigManager.get().uiAndVisuals.itemPickup.sackNotifications) return ChatFilterResult.PASS;
+		HoverEvent hoverEvent = message.text().getSiblings().getFirst().getStyle().getHoverEvent();
+		if (hoverEvent == null || hoverEvent.getAction() != HoverEvent.Action.SHOW_TEXT) return ChatFilterResult.PASS;
 		String hoverMessage = ((HoverEvent.ShowText) hoverEvent).value().getString();
 
 		Matcher matcher = CHANGE_REGEX.matcher(hoverMessage);
@@ -102,7 +102,7 @@ public class ItemPickupWidget extends ComponentBasedWidget {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	@Override
@@ -8,11 +8,12 @@ import de.hysky.skyblocker.skyblock.itemlist.ItemRepository;
 import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.RegexUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.data.ProfiledData;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import net.azureaaron.networth.utils.PetConstants;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.minecraft.client.gui.screen.ingame.GenericContainerScreen;
 import net.minecraft.component.DataComponentTypes;
@@ -21,8 +22,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.text.OrderedText;
-import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.jetbrains.annotations.Nullable;
@@ -74,7 +73,7 @@ public class PetCache {
 				}
 			}
 		});
-		ClientReceiveMessageEvents.ALLOW_GAME.register(PetCache::onMessage);
+		ChatDispatcher.register("PetCache", ChatDispatcher.Channel.CHAT, true, PetCache::onMessage, ChatDispatcher.prefixes(AUTOPET_PATTERN));
 	}
 
 	public static void handlePetEquip(Slot slot, int slotId) {
@@ -112,17 +111,15 @@ public class PetCache {
 	/**
 	 * Parses the Auto Pet messages to try and detect the active pet
 	 */
-	private static boolean onMessage(Text text, boolean overlay) {
-		if (!Utils.isOnSkyblock() || overlay) return true;
-
-		String stringified = Formatting.strip(text.getString());
+	private static ChatFilterResult onMessage(ChatDispatcher.Message message) {
+		String stringified = message.plain();
 		Matcher matcher = AUTOPET_PATTERN.matcher(stringified);
 
 		if (matcher.matches()) {
 			int level = RegexUtils.parseIntFromMatcher(matcher, "level");
 			String name = matcher.group("name");
 
-			OrderedText ordered = text.asOrderedText();
+			OrderedText ordered = message.text().asOrderedText();
 			int nameIndex = stringified.indexOf(name);
 			MutableInt codePointIndex = new MutableInt(0);
 			MutableInt color = new MutableInt(-1);
@@ -173,7 +170,7 @@ public class PetCache {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	@Nullable
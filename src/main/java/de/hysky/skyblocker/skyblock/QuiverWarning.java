@@ -3,8 +3,9 @@ package de.hysky.skyblocker.skyblock;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.text.Text;
@@ -12,28 +13,31 @@ import net.minecraft.util.Formatting;
 import org.jetbrains.annotations.Nullable;
 
 public class QuiverWarning {
+    private static final String FIFTY_LEFT_MESSAGE = "You only have 50";
+    private static final String TEN_LEFT_MESSAGE = "You only have 10";
+    private static final String EMPTY_MESSAGE = "You don't have any more";
     @Nullable
     private static Type warning = null;
 
     @Init
     public static void init() {
-        ClientReceiveMessageEvents.ALLOW_GAME.register(QuiverWarning::onChatMessage);
+        ChatDispatcher.register("QuiverWarning", ChatDispatcher.Channel.ALL, false, QuiverWarning::onChatMessage, FIFTY_LEFT_MESSAGE, TEN_LEFT_MESSAGE, EMPTY_MESSAGE);
         Scheduler.INSTANCE.scheduleCyclic(QuiverWarning::update, 10);
     }
 
-    public static boolean onChatMessage(Text text, boolean overlay) {
-        String message = text.getString();
+    public static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
+        String message = chatMessage.raw();
         if (SkyblockerConfigManager.get().general.quiverWarning.enableQuiverWarning && message.endsWith("left in your Quiver!")) {
             MinecraftClient.getInstance().inGameHud.setDefaultTitleFade();
-            if (message.startsWith("You only have 50")) {
+            if (message.startsWith(FIFTY_LEFT_MESSAGE)) {
                 onChatMessage(Type.FIFTY_LEFT);
-            } else if (message.startsWith("You only have 10")) {
+            } else if (message.startsWith(TEN_LEFT_MESSAGE)) {
                 onChatMessage(Type.TEN_LEFT);
-            } else if (message.startsWith("You don't have any more")) {
+            } else if (message.startsWith(EMPTY_MESSAGE)) {
                 onChatMessage(Type.EMPTY);
             }
         }
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void onChatMessage(Type warning) {
@@ -9,8 +9,9 @@ import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.RegexUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.ItemStack;
 import net.minecraft.text.Text;
@@ -33,8 +34,8 @@ public class StatusBarTracker {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(StatusBarTracker::allowOverlayMessage);
-		ClientReceiveMessageEvents.MODIFY_GAME.register(StatusBarTracker::onOverlayMessage);
+		ChatDispatcher.register("StatusBarTracker", ChatDispatcher.Channel.OVERLAY, true, StatusBarTracker::allowOverlayMessage);
+		ChatDispatcher.registerModifier("StatusBarTracker (modifier)", ChatDispatcher.Channel.OVERLAY, true, StatusBarTracker::onOverlayMessage);
 		Scheduler.INSTANCE.scheduleCyclic(StatusBarTracker::tick, 1);
 	}
 
@@ -65,21 +66,22 @@ public class StatusBarTracker {
 		updateAir();
 	}
 
-	private static boolean allowOverlayMessage(Text text, boolean overlay) {
-		onOverlayMessage(text, overlay);
-		return true;
+	private static ChatFilterResult allowOverlayMessage(ChatDispatcher.Message message) {
+		onOverlayMessage(message.text(), message);
+		return ChatFilterResult.PASS;
 	}
 
-	private static Text onOverlayMessage(Text text, boolean overlay) {
-		if (!overlay || !Utils.isOnSkyblock() ||  Utils.isInTheRift()) {
+	private static Text onOverlayMessage(Text text, ChatDispatcher.Message message) {
+		if (Utils.isInTheRift()) {
 			return text;
 		}
+		String actionBar = text == message.text() ? message.raw() : text.getString();
 		if (!SkyblockerConfigManager.get().uiAndVisuals.bars.enableBars) {
 			//still update values for other parts of the mod to use
-			update(text.getString(), SkyblockerConfigManager.get().chat.hideMana);
+			update(actionBar, SkyblockerConfigManager.get().chat.hideMana);
 			return text;
 		}
-		return Text.of(update(text.getString(), SkyblockerConfigManager.get().chat.hideMana));
+		return Text.of(update(actionBar, SkyblockerConfigManager.get().chat.hideMana));
 	}
 
 	public static String update(String actionBar, boolean filterManaUse) {
@@ -3,14 +3,14 @@ package de.hysky.skyblocker.skyblock.accessories.newyearcakes;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Formatters;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.render.gui.ColorHighlight;
 import de.hysky.skyblocker.utils.container.SimpleContainerSolver;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.item.ItemStack;
-import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,7 +28,7 @@ public class NewYearCakesHelper extends SimpleContainerSolver {
 
     private NewYearCakesHelper() {
         super("Auctions: \".*\"");
-        ClientReceiveMessageEvents.ALLOW_GAME.register(this::onChatMessage);
+        ChatDispatcher.register("NewYearCakesHelper", ChatDispatcher.Channel.ALL, false, this::onChatMessage, ChatDispatcher.prefixes(NEW_YEAR_CAKE_PURCHASE));
     }
 
     public static int getCakeYear(ItemStack stack) {
@@ -57,12 +57,12 @@ public class NewYearCakesHelper extends SimpleContainerSolver {
         return cakes.computeIfAbsent(Utils.getProfile(), _profile -> new IntOpenHashSet()).add(year);
     }
 
-    private boolean onChatMessage(Text message, boolean overlay) {
+    private ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
         if (isEnabled()) {
-            addCake(getCakeYear(NEW_YEAR_CAKE_PURCHASE, message.getString()));
+            addCake(getCakeYear(NEW_YEAR_CAKE_PURCHASE, message.raw()));
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     @Override
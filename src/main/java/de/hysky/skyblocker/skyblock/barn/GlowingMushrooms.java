@@ -2,9 +2,9 @@ package de.hysky.skyblocker.skyblock.barn;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import de.hysky.skyblocker.utils.waypoint.SeenWaypoint;
@@ -23,6 +23,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class GlowingMushrooms {
@@ -31,7 +32,7 @@ public class GlowingMushrooms {
 
 	@Init
 	public static void init() {
-		ParticleEvents.FROM_SERVER.register(GlowingMushrooms::onParticle);
+		PacketRouter.PARTICLES.registerBatched("GlowingMushrooms", GlowingMushrooms::shouldProcess, GlowingMushrooms::onParticles, ParticleTypes.ENTITY_EFFECT);
 		Scheduler.INSTANCE.scheduleCyclic(GlowingMushrooms::update, 1);
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(GlowingMushrooms::render);
 		AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
@@ -41,10 +42,18 @@ public class GlowingMushrooms {
 		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
 	}
 
-	public static void onParticle(ParticleS2CPacket packet) {
-		if (!shouldProcess() || client.world == null) return;
-		if (!ParticleTypes.ENTITY_EFFECT.equals(packet.getParameters().getType())) return;
+	/**
+	 * Entity effect particles are sent for every entity with a potion effect, so they are received in batches once per tick.
+	 */
+	private static void onParticles(List<ParticleS2CPacket> packets) {
+		if (client.world == null) return;
+
+		for (ParticleS2CPacket packet : packets) {
+			onParticle(packet);
+		}
+	}
 
+	private static void onParticle(ParticleS2CPacket packet) {
 		BlockPos pos = BlockPos.ofFloored(packet.getX(), packet.getY(), packet.getZ());
 
 		Block block = client.world.getBlockState(pos).getBlock();
@@ -5,11 +5,12 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.ClickEvent;
 import net.minecraft.text.MutableText;
@@ -38,7 +39,8 @@ public class ChatPositionShare {
 		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher.register(
 				ClientCommandManager.literal("skyblocker").then(ClientCommandManager.literal("sharePosition").executes(context -> sharePlayerPosition(context.getSource())))
 		));
-        ClientReceiveMessageEvents.ALLOW_GAME.register(ChatPositionShare::onMessage);
+        // Coordinates can be anywhere in a message, so it can't be routed by prefix
+        ChatDispatcher.register("ChatPositionShare", ChatDispatcher.Channel.ALL, true, ChatPositionShare::onMessage);
     }
 
 	private static int sharePlayerPosition(FabricClientCommandSource source) {
@@ -47,13 +49,13 @@ public class ChatPositionShare {
 		return Command.SINGLE_SUCCESS;
 	}
 
-    private static boolean onMessage(Text text, boolean overlay) {
-        if (Utils.isOnSkyblock() && SkyblockerConfigManager.get().uiAndVisuals.waypoints.enableWaypoints) {
-            String message = text.getString();
+    private static ChatFilterResult onMessage(ChatDispatcher.Message chatMessage) {
+        if (SkyblockerConfigManager.get().uiAndVisuals.waypoints.enableWaypoints) {
+            String message = chatMessage.raw();
 
 			// prevents parsing skyblocker's own messages. Also prevents TH solver from parsing as it already has own waypoint
 			if (message.startsWith("[Skyblocker]") || message.startsWith("§e[NPC] Treasure Hunter§f:")) {
-				return true;
+				return ChatFilterResult.PASS;
 			}
 
             for (Pattern pattern : PATTERNS) {
@@ -73,7 +75,7 @@ public class ChatPositionShare {
             }
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void requestWaypoint(String x, String y, String z, @NotNull String area) {
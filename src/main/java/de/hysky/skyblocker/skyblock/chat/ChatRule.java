@@ -50,6 +50,10 @@ public class ChatRule {
 	).apply(instance, ChatRule::new));
 
 	public static final Codec<List<ChatRule>> LIST_CODEC = CODEC.listOf();
+	/**
+	 * Incremented whenever an input option of any rule changes, used to know when the {@link ChatRuleEngine} needs to be rebuilt.
+	 */
+	private static int inputsVersion = 0;
 
 	private String name;
 	private Pattern pattern; // Only compile Regex patterns once
@@ -122,6 +126,7 @@ public class ChatRule {
 
 	protected void setEnabled(boolean enabled) {
 		this.enabled = enabled;
+		inputsVersion++;
 	}
 
 	protected boolean getPartialMatch() {
@@ -130,6 +135,7 @@ public class ChatRule {
 
 	protected void setPartialMatch(boolean partialMatch) {
 		isPartialMatch = partialMatch;
+		inputsVersion++;
 	}
 
 	protected boolean getRegex() {
@@ -139,6 +145,7 @@ public class ChatRule {
 	protected void setRegex(boolean regex) {
 		isRegex = regex;
 		this.pattern = null;
+		inputsVersion++;
 	}
 
 	protected boolean getIgnoreCase() {
@@ -148,6 +155,7 @@ public class ChatRule {
 	protected void setIgnoreCase(boolean ignoreCase) {
 		isIgnoreCase = ignoreCase;
 		this.pattern = null;
+		inputsVersion++;
 	}
 
 	protected String getFilter() {
@@ -157,6 +165,7 @@ public class ChatRule {
 	protected void setFilter(String filter) {
 		this.filter = filter;
 		this.pattern = null;
+		inputsVersion++;
 	}
 
 	protected boolean getHideMessage() {
@@ -213,6 +222,40 @@ public class ChatRule {
 
 	protected void setValidLocations(EnumSet<Location> validLocations) {
 		this.validLocations = validLocations;
+		inputsVersion++;
+	}
+
+	static int getInputsVersion() {
+		return inputsVersion;
+	}
+
+	/**
+	 * @return the filter with the case normalized according to {@link #getIgnoreCase()}
+	 */
+	String getTestFilter() {
+		return isIgnoreCase ? filter.toLowerCase(Locale.ENGLISH) : filter;
+	}
+
+	/**
+	 * @return the compiled regex pattern of this rule, or {@code null} if the filter is not a valid regex
+	 */
+	@Nullable
+	Pattern getPattern() {
+		compilePattern(getTestFilter());
+		return pattern;
+	}
+
+	/**
+	 * @return whether this rule applies in the given location
+	 */
+	boolean isValidIn(Location location) {
+		// As a special case, if there are no valid locations, all locations are valid.
+		// This exists because it doesn't make sense to remove all valid locations, you should disable the chat rule if you want to do that.
+		// This way, we can also default to an empty set for validLocations.
+		if (validLocations.isEmpty()) return true;
+		// UNKNOWN isn't a valid location, so we act the same as the list being empty.
+		if (validLocations.size() == 1 && validLocations.contains(Location.UNKNOWN)) return true;
+		return validLocations.contains(location);
 	}
 
 	private void compilePattern(String filterText) {
@@ -240,7 +283,7 @@ public class ChatRule {
 
 		//ignore case
 		String testString = isIgnoreCase ? inputString.toLowerCase(Locale.ENGLISH) : inputString;
-		String testFilter = isIgnoreCase ? filter.toLowerCase(Locale.ENGLISH) : filter;
+		String testFilter = getTestFilter();
 		if (testFilter.isBlank()) return Match.noMatch();
 
 		//filter
@@ -263,13 +306,8 @@ public class ChatRule {
 			}
 		}
 
-		// As a special case, if there are no valid locations, all locations are valid.
-		// This exists because it doesn't make sense to remove all valid locations, you should disable the chat rule if you want to do that.
-		// This way, we can also default to an empty set for validLocations.
 		if (validLocations.isEmpty()) return match;
-		// UNKNOWN isn't a valid location, so we act the same as the list being empty.
-		if (validLocations.size() == 1 && validLocations.contains(Location.UNKNOWN)) return match;
-		return validLocations.contains(Utils.getLocation()) ? match : Match.noMatch();
+		return isValidIn(Utils.getLocation()) ? match : Match.noMatch();
 	}
 
 	// This maps invalid entries to `Location.UNKNOWN`, which is better than failing outright.
@@ -0,0 +1,210 @@
+package de.hysky.skyblocker.skyblock.chat;
+
+import de.hysky.skyblocker.utils.AhoCorasick;
+import de.hysky.skyblocker.utils.Location;
+import de.hysky.skyblocker.utils.RegexUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled form of a list of {@link ChatRule}s that finds the first matching rule for a message while scanning the message only once.
+ * <ul>
+ *     <li>Partial match filters and the required literals of regex filters (see {@link RegexUtils#requiredLiterals(String)}) are all searched
+ *     for with a single {@link AhoCorasick} automaton over the lower case message.</li>
+ *     <li>Exact match filters are looked up in a hash map.</li>
+ *     <li>Rules are narrowed down by location with a precomputed bitmask per {@link Location}.</li>
+ *     <li>Only regex rules whose literals were found (or that have no extractable literals) are run with their {@link Matcher}.</li>
+ * </ul>
+ * Rules are tracked with bitmasks in rule order, so the rule that matches is the same one {@link ChatRule#isMatch(String)} would find first.
+ * <p>
+ * This class reuses internal buffers between calls and must only be used from one thread at a time.
+ */
+class ChatRuleEngine implements AhoCorasick.MatchConsumer {
+	private static final int[] NO_RULES = new int[0];
+
+	private final ChatRule[] rules;
+	private final int words;
+	/**
+	 * Rules that apply in each location, indexed by {@link Location#ordinal()}.
+	 */
+	private final long[][] locationMasks;
+	/**
+	 * Regex rules that have no required literals, so they have to be run on every message.
+	 */
+	private final long[] unfilteredRules;
+	private final boolean[] ignoreCase;
+	private final Pattern[] patterns;
+	private final AhoCorasick keywords;
+	private final int[] keywordRules;
+	/**
+	 * The keywords with their original case, to verify occurrences for case-sensitive rules.
+	 */
+	private final String[] keywordTexts;
+	private final Object2ObjectOpenHashMap<String, int[]> exactIgnoreCase = new Object2ObjectOpenHashMap<>();
+	private final Object2ObjectOpenHashMap<String, int[]> exactCaseSensitive = new Object2ObjectOpenHashMap<>();
+
+	private final long[] candidates;
+	private String message;
+
+	private ChatRuleEngine(List<ChatRule> ruleList) {
+		rules = ruleList.toArray(ChatRule[]::new);
+		words = (rules.length + 63) >>> 6;
+		locationMasks = new long[Location.values().length][words];
+		unfilteredRules = new long[words];
+		ignoreCase = new boolean[rules.length];
+		patterns = new Pattern[rules.length];
+		candidates = new long[words];
+
+		AhoCorasick.Builder builder = AhoCorasick.builder();
+		IntArrayList keywordRuleList = new IntArrayList();
+		List<String> keywordTextList = new ArrayList<>();
+
+		for (int i = 0; i < rules.length; i++) {
+			ChatRule rule = rules[i];
+			String filter = rule.getTestFilter();
+			if (!rule.getEnabled() || filter.isBlank()) continue;
+			ignoreCase[i] = rule.getIgnoreCase();
+
+			if (rule.getRegex()) {
+				patterns[i] = rule.getPattern();
+				if (patterns[i] == null) continue;
+				Optional<List<String>> literals = RegexUtils.requiredLiterals(filter);
+
+				if (literals.isPresent()) {
+					for (String literal : literals.get()) {
+						builder.add(literal.toLowerCase(Locale.ENGLISH));
+						keywordRuleList.add(i);
+						keywordTextList.add(literal);
+					}
+				} else {
+					set(unfilteredRules, i);
+				}
+			} else if (rule.getPartialMatch()) {
+				builder.add(filter.toLowerCase(Locale.ENGLISH));
+				keywordRuleList.add(i);
+				keywordTextList.add(filter);
+			} else {
+				(ignoreCase[i] ? exactIgnoreCase : exactCaseSensitive).merge(filter, new int[]{i}, ChatRuleEngine::concat);
+			}
+
+			for (Location location : Location.values()) {
+				if (rule.isValidIn(location)) set(locationMasks[location.ordinal()], i);
+			}
+		}
+
+		keywords = builder.build();
+		keywordRules = keywordRuleList.toIntArray();
+		keywordTexts = keywordTextList.toArray(String[]::new);
+	}
+
+	static ChatRuleEngine compile(List<ChatRule> rules) {
+		return new ChatRuleEngine(rules);
+	}
+
+	/**
+	 * Finds the first rule that matches the message in the given location.
+	 *
+	 * @param plain the message with formatting codes stripped
+	 * @return the matching rule and its match, or {@code null} if no rule matches
+	 */
+	@Nullable
+	Result match(String plain, Location location) {
+		long[] locationMask = locationMasks[location.ordinal()];
+		if (isEmpty(locationMask)) return null;
+		String lowerCase = plain.toLowerCase(Locale.ENGLISH);
+
+		// Lower casing can change the length of some exotic strings, which would break mapping keyword occurrences back onto the original message.
+		// Fall back to checking every rule one by one in that case.
+		if (lowerCase.length() != plain.length()) return matchSlow(plain, locationMask);
+
+		System.arraycopy(unfilteredRules, 0, candidates, 0, words);
+		message = plain;
+		keywords.search(lowerCase, this);
+		message = null;
+		setAll(candidates, exactIgnoreCase.getOrDefault(lowerCase, NO_RULES));
+		setAll(candidates, exactCaseSensitive.getOrDefault(plain, NO_RULES));
+
+		for (int word = 0; word < words; word++) {
+			long bits = candidates[word] & locationMask[word];
+
+			while (bits != 0) {
+				int i = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				ChatRule.Match match = confirm(i, plain, lowerCase);
+				if (match.matches()) return new Result(rules[i], match);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Marks the rule of a keyword occurrence as a candidate. Occurrences for case-sensitive rules are compared against the original message.
+	 */
+	@Override
+	public void accept(int keyword, int end) {
+		int rule = keywordRules[keyword];
+		if (ignoreCase[rule]) {
+			set(candidates, rule);
+			return;
+		}
+
+		String text = keywordTexts[keyword];
+		if (message.startsWith(text, end - text.length())) set(candidates, rule);
+	}
+
+	/**
+	 * Confirms that a candidate rule matches. Only regex rules need more work, literal candidates are already known to match.
+	 */
+	private ChatRule.Match confirm(int rule, String plain, String lowerCase) {
+		if (patterns[rule] == null) return ChatRule.Match.ofString();
+		Matcher matcher = patterns[rule].matcher(ignoreCase[rule] ? lowerCase : plain);
+		boolean found = rules[rule].getPartialMatch() ? matcher.find() : matcher.matches();
+
+		return found ? ChatRule.Match.ofRegex(matcher) : ChatRule.Match.noMatch();
+	}
+
+	private Result matchSlow(String plain, long[] locationMask) {
+		for (int i = 0; i < rules.length; i++) {
+			if ((locationMask[i >>> 6] & (1L << i)) == 0) continue;
+			ChatRule.Match match = rules[i].isMatch(plain);
+			if (match.matches()) return new Result(rules[i], match);
+		}
+
+		return null;
+	}
+
+	private static void set(long[] mask, int index) {
+		mask[index >>> 6] |= 1L << index;
+	}
+
+	private static void setAll(long[] mask, int[] indices) {
+		for (int index : indices) set(mask, index);
+	}
+
+	private static boolean isEmpty(long[] mask) {
+		for (long word : mask) {
+			if (word != 0) return false;
+		}
+
+		return true;
+	}
+
+	private static int[] concat(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		System.arraycopy(a, 0, result, 0, a.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+
+		return result;
+	}
+
+	record Result(ChatRule rule, ChatRule.Match match) {}
+}
@@ -8,16 +8,16 @@ import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.TextTransformer;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.data.JsonData;
 import de.hysky.skyblocker.utils.render.title.Title;
 import de.hysky.skyblocker.utils.render.title.TitleContainer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -42,11 +42,16 @@ public class ChatRulesHandler {
 	);
 
 	protected static final JsonData<List<ChatRule>> chatRuleList = new JsonData<>(CHAT_RULE_FILE, UNBOXING_CODEC, getDefaultChatRules());
+	private static ChatRuleEngine engine;
+	private static List<ChatRule> engineRules;
+	private static int engineRulesSize;
+	private static int engineInputsVersion;
 
 	@Init
 	public static void init() {
 		ClientLifecycleEvents.CLIENT_STARTED.register(client -> chatRuleList.init());
-		ClientReceiveMessageEvents.ALLOW_GAME.register(ChatRulesHandler::checkMessage);
+		// Chat rules match anywhere in a message, so they can't be routed by prefix
+		ChatDispatcher.register("ChatRulesHandler", ChatDispatcher.Channel.CHAT, true, ChatRulesHandler::checkMessage);
 	}
 
 	@VisibleForTesting
@@ -58,24 +63,38 @@ public class ChatRulesHandler {
 	}
 
 	/**
-	 * Checks each rule in {@link ChatRulesHandler#chatRuleList} to see if they are a match for the message and if so change outputs based on the options set in the {@link ChatRule}.
+	 * Returns the compiled {@link ChatRuleEngine} for the rules, recompiling it if the rules were edited since it was last compiled.
 	 */
-	private static boolean checkMessage(Text message, boolean overlay) {
-		if (overlay || !Utils.isOnSkyblock()) return true;
+	private static ChatRuleEngine getEngine(List<ChatRule> rules) {
+		if (engine == null || engineRules != rules || engineRulesSize != rules.size() || engineInputsVersion != ChatRule.getInputsVersion()) {
+			engine = ChatRuleEngine.compile(rules);
+			engineRules = rules;
+			engineRulesSize = rules.size();
+			engineInputsVersion = ChatRule.getInputsVersion();
+		}
+
+		return engine;
+	}
+
+	/**
+	 * Finds the first rule in {@link ChatRulesHandler#chatRuleList} that is a match for the message with the {@link ChatRuleEngine}, and if there is one change outputs based on the options set in the {@link ChatRule}.
+	 */
+	private static ChatFilterResult checkMessage(ChatDispatcher.Message message) {
 		List<ChatRule> rules = chatRuleList.getData();
-		if (!chatRuleList.isLoaded() || rules.isEmpty()) return true;
-		String plain = Formatting.strip(message.getString());
+		if (!chatRuleList.isLoaded() || rules.isEmpty()) return ChatFilterResult.PASS;
+		String plain = message.plain();
 
-		for (ChatRule rule : rules) {
-			ChatRule.Match match = rule.isMatch(plain);
-			if (!match.matches()) continue;
+		ChatRuleEngine.Result result = getEngine(rules).match(plain, Utils.getLocation());
+		if (result != null) {
+			ChatRule rule = result.rule();
+			ChatRule.Match match = result.match();
 
 			// Get a replacement message
 			Text newMessage;
 			if (!rule.getReplaceMessage().isBlank()) {
 				newMessage = formatText(match.insertCaptureGroups(rule.getReplaceMessage()));
 			} else {
-				newMessage = message;
+				newMessage = message.text();
 			}
 
 			if (rule.getShowAnnouncement()) {
@@ -99,9 +118,9 @@ public class ChatRulesHandler {
 			}
 
 			// Do not send the original message
-			return false;
+			return ChatFilterResult.FILTER;
 		}
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	/**
@@ -121,5 +140,7 @@ public class ChatRulesHandler {
 
 	public static void saveChatRules() {
 		if (chatRuleList.getData() != null) chatRuleList.save();
+		// Rules may have been reordered or replaced without changing the size of the list
+		engine = null;
 	}
 }
@@ -7,8 +7,9 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenMouseEvents;
@@ -42,7 +43,7 @@ public class ConfirmationPromptHelper {
 	private static long commandFoundAt;
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(ConfirmationPromptHelper::onMessage);
+		ChatDispatcher.register("ConfirmationPromptHelper", ChatDispatcher.Channel.CHAT, true, ConfirmationPromptHelper::onMessage);
 		ScreenEvents.AFTER_INIT.register((_client, screen, _scaledWidth, _scaledHeight) -> {
 			//Don't check for the command being present in case the user opens the chat before the prompt is sent
 			if (Utils.isOnSkyblock() && screen instanceof ChatScreen && SkyblockerConfigManager.get().chat.confirmationPromptHelper) {
@@ -73,8 +74,7 @@ public class ConfirmationPromptHelper {
 		return command != null && commandFoundAt + 60_000 > System.currentTimeMillis();
 	}
 
-	private static boolean containsConfirmationPhrase(Text message) {
-		String messageStr = message.getString();
+	private static boolean containsConfirmationPhrase(String messageStr) {
 		for (String phrase : CONFIRMATION_PHRASES) {
 			if (messageStr.contains(phrase)) {
 				return true;
@@ -83,9 +83,9 @@ public class ConfirmationPromptHelper {
 		return false;
 	}
 
-	private static boolean onMessage(Text message, boolean overlay) {
-		if (Utils.isOnSkyblock() && !overlay && SkyblockerConfigManager.get().chat.confirmationPromptHelper && containsConfirmationPhrase(message)) {
-			Optional<String> confirmationCommand = message.visit((style, asString) -> {
+	private static ChatFilterResult onMessage(ChatDispatcher.Message message) {
+		if (SkyblockerConfigManager.get().chat.confirmationPromptHelper && containsConfirmationPhrase(message.raw())) {
+			Optional<String> confirmationCommand = message.text().visit((style, asString) -> {
 				ClickEvent event = style.getClickEvent();
 				asString = asString.replaceAll("\\s+", " ").trim();	// clear newline '\n' and trim spaces
 
@@ -106,6 +106,6 @@ public class ConfirmationPromptHelper {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 }
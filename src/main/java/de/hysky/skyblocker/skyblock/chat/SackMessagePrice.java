@@ -7,9 +7,9 @@ import de.hysky.skyblocker.skyblock.item.tooltip.info.TooltipInfoType;
 import de.hysky.skyblocker.utils.BazaarProduct;
 import de.hysky.skyblocker.utils.NEURepoManager;
 import de.hysky.skyblocker.utils.RegexUtils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
 import io.github.moulberry.repo.data.NEUItem;
 import it.unimi.dsi.fastutil.objects.*;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.screen.ScreenTexts;
 import net.minecraft.text.HoverEvent.ShowText;
 import net.minecraft.text.MutableText;
@@ -38,16 +38,11 @@ public class SackMessagePrice {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.MODIFY_GAME.register(SackMessagePrice::onMessage);
+		ChatDispatcher.registerModifier("SackMessagePrice", ChatDispatcher.Channel.CHAT, false, SackMessagePrice::onMessage, "[Sacks] ");
 	}
 
 	// This can probably be split into a few methods, but it'll require so much argument passing that it's going to be a mess anyhow.
-	private static Text onMessage(Text original, boolean overlay) {
-		if (overlay) return original;
-
-		String string = original.getString();
-		if (!string.startsWith("[Sacks] ")) return original;
-
+	private static Text onMessage(Text original, ChatDispatcher.Message message) {
 		MutableText copy = deepCopy(original); // We need to copy the original since it's completely immutable when constructed from a packet.
 
 		ObjectArrayList<List<Text>> listList = getHoverEventSiblings(copy); // We use the copied one here so that any changes to the lists do not mutate the original
@@ -56,7 +51,7 @@ public class SackMessagePrice {
 		for (List<Text> textList : listList) {
 			Object2IntMap<String> items = parseItems(textList);
 			if (items.isEmpty()) {
-				LOGGER.warn("No items found in sack message: `{}`", original.getString());
+				LOGGER.warn("No items found in sack message: `{}`", message.raw());
 				return original; // If we couldn't parse any items, we return the original text
 			}
 			double npcPrice = 0;
@@ -3,12 +3,11 @@ package de.hysky.skyblocker.skyblock.chat;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Constants;
-import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.text.Text;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,13 +19,13 @@ public class SkyblockXpMessages {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(SkyblockXpMessages::onMessage);
+		// The XP is shown in the middle of the action bar, so it can't be routed by prefix
+		ChatDispatcher.register("SkyblockXpMessages", ChatDispatcher.Channel.OVERLAY, true, SkyblockXpMessages::onMessage);
 	}
 
-	private static boolean onMessage(Text text, boolean overlay) {
-		if (Utils.isOnSkyblock() && overlay && SkyblockerConfigManager.get().chat.skyblockXpMessages) {
-			String message = text.getString();
-			Matcher matcher = SKYBLOCK_XP_PATTERN.matcher(message);
+	private static ChatFilterResult onMessage(ChatDispatcher.Message message) {
+		if (SkyblockerConfigManager.get().chat.skyblockXpMessages) {
+			Matcher matcher = SKYBLOCK_XP_PATTERN.matcher(message.raw());
 
 			if (matcher.find()) {
 				String xpMessage = matcher.group();
@@ -40,6 +39,6 @@ public class SkyblockXpMessages {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 }
@@ -6,6 +6,8 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.events.SkyblockEvents;
 import de.hysky.skyblocker.utils.*;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.command.argumenttypes.EggTypeArgumentType;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientBlockPosArgumentType;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientPosArgument;
@@ -14,7 +16,6 @@ import de.hysky.skyblocker.utils.waypoint.SeenWaypoint;
 import it.unimi.dsi.fastutil.objects.ObjectImmutableList;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -69,7 +70,7 @@ public class EggFinder {
 			}
 		});
 		SkyblockEvents.LOCATION_CHANGE.register(EggFinder::handleLocationChange);
-		ClientReceiveMessageEvents.ALLOW_GAME.register(EggFinder::onChatMessage);
+		ChatDispatcher.register("EggFinder", ChatDispatcher.Channel.CHAT, false, EggFinder::onChatMessage, ChatDispatcher.prefixes(eggFoundPattern));
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(EggFinder::renderWaypoints);
 		ClientTickEvents.END_CLIENT_TICK.register(client -> {
 			if (!SkyblockerConfigManager.get().helpers.chocolateFactory.enableEggFinder || client.player == null) return;
@@ -154,9 +155,9 @@ public class EggFinder {
 		}
 	}
 
-	private static boolean onChatMessage(Text text, boolean overlay) {
-		if (overlay || !SkyblockerConfigManager.get().helpers.chocolateFactory.enableEggFinder) return true;
-		Matcher matcher = eggFoundPattern.matcher(text.getString());
+	private static ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
+		if (!SkyblockerConfigManager.get().helpers.chocolateFactory.enableEggFinder) return ChatFilterResult.PASS;
+		Matcher matcher = eggFoundPattern.matcher(message.raw());
 		if (matcher.find()) {
 			try {
 				EggType eggType = EggType.valueOf(matcher.group(1).toUpperCase(Locale.ENGLISH));
@@ -177,7 +178,7 @@ public class EggFinder {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	@SuppressWarnings("DataFlowIssue") //Removes that pesky "unboxing of Integer might cause NPE" warning when we already know it's not null
@@ -1,14 +1,14 @@
 package de.hysky.skyblocker.skyblock.chocolatefactory;
 
-import com.mojang.brigadier.Message;
 import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.events.SkyblockEvents;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
@@ -34,11 +34,11 @@ public class TimeTowerReminder {
 	@Init
 	public static void init() {
 		SkyblockEvents.JOIN.register(TimeTowerReminder::checkTempFile);
-		ClientReceiveMessageEvents.ALLOW_GAME.register(TimeTowerReminder::checkIfTimeTower);
+		ChatDispatcher.register("TimeTowerReminder", ChatDispatcher.Channel.ALL, false, TimeTowerReminder::checkIfTimeTower, ChatDispatcher.prefixes(TIME_TOWER_PATTERN));
 	}
 
-	public static boolean checkIfTimeTower(Message message, boolean overlay) {
-		if (!TIME_TOWER_PATTERN.matcher(message.getString()).matches() || scheduled) return true;
+	public static ChatFilterResult checkIfTimeTower(ChatDispatcher.Message message) {
+		if (!TIME_TOWER_PATTERN.matcher(message.raw()).matches() || scheduled) return ChatFilterResult.PASS;
 		Scheduler.INSTANCE.schedule(TimeTowerReminder::sendMessage, 60 * 60 * 20); // 1 hour
 		scheduled = true;
 		File tempFile = SkyblockerMod.CONFIG_DIR.resolve(TIME_TOWER_FILE).toFile();
@@ -47,7 +47,7 @@ public class TimeTowerReminder {
 				tempFile.createNewFile();
 			} catch (IOException e) {
 				LOGGER.error("[Skyblocker Time Tower Reminder] Failed to create temp file for Time Tower Reminder!", e);
-				return true;
+				return ChatFilterResult.PASS;
 			}
 		}
 
@@ -57,7 +57,7 @@ public class TimeTowerReminder {
 			LOGGER.error("[Skyblocker Time Tower Reminder] Failed to write to temp file for Time Tower Reminder!", e);
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static void sendMessage() {
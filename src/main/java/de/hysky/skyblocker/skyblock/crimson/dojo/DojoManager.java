@@ -2,13 +2,14 @@ package de.hysky.skyblocker.skyblock.crimson.dojo;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.events.WorldEvents;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import it.unimi.dsi.fastutil.booleans.BooleanPredicate;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -20,10 +21,8 @@ import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.network.packet.c2s.query.QueryPingC2SPacket;
-import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
-import net.minecraft.text.Text;
+import net.minecraft.particle.ParticleTypes;
 import net.minecraft.util.ActionResult;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.Hand;
 import net.minecraft.util.Util;
 import net.minecraft.util.hit.EntityHitResult;
@@ -72,7 +71,8 @@ public class DojoManager {
 
     @Init
     public static void init() {
-        ClientReceiveMessageEvents.ALLOW_GAME.register(DojoManager::onMessage);
+        // The test names are indented with spaces, so they can't be routed by prefix
+        ChatDispatcher.register("DojoManager", ChatDispatcher.Channel.CHAT, false, DojoManager::onMessage);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(DojoManager::render);
         ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
         ClientEntityEvents.ENTITY_LOAD.register(DojoManager::onEntitySpawn);
@@ -80,7 +80,7 @@ public class DojoManager {
         AttackEntityCallback.EVENT.register(DojoManager::onEntityAttacked);
         Scheduler.INSTANCE.scheduleCyclic(DojoManager::update, 3);
         WorldEvents.BLOCK_STATE_UPDATE.register(DojoManager::onBlockUpdate);
-        ParticleEvents.FROM_SERVER.register(DojoManager::onParticle);
+        PacketRouter.PARTICLES.register("DojoManager (tenacity)", () -> Utils.isInCrimson() && inArena && currentChallenge == DojoChallenges.TENACITY, TenacityTestHelper::onParticle, ParticleTypes.FLAME);
     }
 
     private static void reset() {
@@ -97,32 +97,31 @@ public class DojoManager {
     /**
      * works out if the player is in dojo and if so what challenge based on chat messages
      *
-     * @param text    message
-     * @param overlay is overlay
+     * @param message message
      */
-    private static boolean onMessage(Text text, Boolean overlay) {
-        if (!Utils.isInCrimson() || overlay) {
-            return true;
+    private static ChatFilterResult onMessage(ChatDispatcher.Message message) {
+        if (!Utils.isInCrimson()) {
+            return ChatFilterResult.PASS;
         }
-        if (Objects.equals(Formatting.strip(text.getString()), START_MESSAGE)) {
+        if (Objects.equals(message.plain(), START_MESSAGE)) {
             inArena = true;
             //update the players ping
             getPing();
-            return true;
+            return ChatFilterResult.PASS;
         }
         if (!inArena) {
-            return true;
+            return ChatFilterResult.PASS;
         }
-        if (text.getString().matches(CHALLENGE_FINISHED_REGEX)) {
+        if (message.raw().matches(CHALLENGE_FINISHED_REGEX)) {
             reset();
-            return true;
+            return ChatFilterResult.PASS;
         }
 
         //look for a message saying what challenge is starting if one has not already been found
         if (currentChallenge != DojoChallenges.NONE) {
-            return true;
+            return ChatFilterResult.PASS;
         }
-        Matcher nextChallenge = TEST_OF_PATTERN.matcher(text.getString());
+        Matcher nextChallenge = TEST_OF_PATTERN.matcher(message.raw());
         if (nextChallenge.matches()) {
             currentChallenge = DojoChallenges.from(nextChallenge.group(1));
             if (!currentChallenge.enabled.test(true)) {
@@ -130,7 +129,7 @@ public class DojoManager {
             }
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void getPing() {
@@ -238,15 +237,6 @@ public class DojoManager {
         return ActionResult.PASS;
     }
 
-    private static void onParticle(ParticleS2CPacket packet) {
-        if (!Utils.isInCrimson() || !inArena) {
-            return;
-        }
-        if (currentChallenge == DojoChallenges.TENACITY) {
-            TenacityTestHelper.onParticle(packet);
-        }
-    }
-
     private static void render(WorldRenderContext context) {
         if (!Utils.isInCrimson() || !inArena) {
             return;
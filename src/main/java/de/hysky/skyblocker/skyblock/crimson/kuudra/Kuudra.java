@@ -2,44 +2,47 @@ package de.hysky.skyblocker.skyblock.crimson.kuudra;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.utils.Utils;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
-import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 
 public class Kuudra {
 	public static final int KUUDRA_MAGMA_CUBE_SIZE = 30;
+	private static final String SUPPLIES_MESSAGE = "[NPC] Elle: ARGH! All of the supplies fell into the lava! You need to retrieve them quickly!";
+	private static final String BALLISTA_MESSAGE = "[NPC] Elle: Phew! The Ballista is finally ready! It should be strong enough to tank Kuudra's blows now!";
+	private static final String STUNNED_MESSAGE = "[NPC] Elle: POW! SURELY THAT'S IT! I don't think he has any more in him!";
+	private static final String LAIR_MESSAGE = "[NPC] Elle: What just happened!? Is this Kuudra's real lair?";
 
 	static KuudraPhase phase = KuudraPhase.OTHER;
 
 	@Init
 	public static void init() {
 		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
-		ClientReceiveMessageEvents.ALLOW_GAME.register(Kuudra::onMessage);
+		ChatDispatcher.register("Kuudra", ChatDispatcher.Channel.CHAT, false, Kuudra::onMessage, SUPPLIES_MESSAGE, BALLISTA_MESSAGE, STUNNED_MESSAGE, LAIR_MESSAGE);
 	}
 
-	private static boolean onMessage(Text text, boolean overlay) {
-		if (Utils.isInKuudra() && !overlay) {
-			String message = Formatting.strip(text.getString());
+	private static ChatFilterResult onMessage(ChatDispatcher.Message chatMessage) {
+		if (Utils.isInKuudra()) {
+			String message = chatMessage.plain();
 
-			if (message.equals("[NPC] Elle: ARGH! All of the supplies fell into the lava! You need to retrieve them quickly!")) {
+			if (message.equals(SUPPLIES_MESSAGE)) {
 				phase = KuudraPhase.RETRIEVE_SUPPLIES;
 			}
 
-			if (message.equals("[NPC] Elle: Phew! The Ballista is finally ready! It should be strong enough to tank Kuudra's blows now!")) {
+			if (message.equals(BALLISTA_MESSAGE)) {
 				phase = KuudraPhase.DPS;
 			}
 
-			if (message.equals("[NPC] Elle: POW! SURELY THAT'S IT! I don't think he has any more in him!")) {
+			if (message.equals(STUNNED_MESSAGE)) {
 				phase = KuudraPhase.OTHER;
 			}
 
-			if (message.equals("[NPC] Elle: What just happened!? Is this Kuudra's real lair?")) {
+			if (message.equals(LAIR_MESSAGE)) {
 				phase = KuudraPhase.KUUDRA_LAIR;
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static void reset() {
@@ -12,10 +12,11 @@ import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.ProfileUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.mayor.MayorUtils;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
@@ -81,9 +82,10 @@ public class DungeonScore {
 		Scheduler.INSTANCE.scheduleCyclic(DungeonScore::tick, 20);
 		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
 		DungeonEvents.DUNGEON_STARTED.register(DungeonScore::onDungeonStart);
-		ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
-			if (overlay || !Utils.isInDungeons()) return true;
-			String str = message.getString();
+		// Mimic and prince kills are announced anywhere in a message, so they can't be routed by prefix
+		ChatDispatcher.register("DungeonScore", ChatDispatcher.Channel.CHAT, false, message -> {
+			if (!Utils.isInDungeons()) return ChatFilterResult.PASS;
+			String str = message.raw();
 			if (dungeonStarted) {
 				checkMessageForDeaths(str);
 				checkMessageForWatcher(str);
@@ -91,7 +93,7 @@ public class DungeonScore {
 				checkMessageForPrince(str);
 			}
 
-			return true;
+			return ChatFilterResult.PASS;
 		});
 	}
 
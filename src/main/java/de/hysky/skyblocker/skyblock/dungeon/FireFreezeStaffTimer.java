@@ -2,7 +2,8 @@ package de.hysky.skyblocker.skyblock.dungeon;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.VanillaHudElements;
@@ -10,19 +11,18 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.render.RenderTickCounter;
-import net.minecraft.text.Text;
 import net.minecraft.util.Colors;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 
 public class FireFreezeStaffTimer {
 	private static final Identifier FIRE_FREEZE_STAFF_TIMER = Identifier.of("skyblocker", "fire_freeze_staff_timer");
+	private static final String GUARDIANS_WEAKNESS_MESSAGE = "[BOSS] The Professor: Oh? You found my Guardians' one weakness?";
     private static long fireFreezeTimer;
 
     @Init
     public static void init() {
 		HudElementRegistry.attachElementAfter(VanillaHudElements.OVERLAY_MESSAGE, FIRE_FREEZE_STAFF_TIMER, FireFreezeStaffTimer::onDraw);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(FireFreezeStaffTimer::onChatMessage);
+        ChatDispatcher.register("FireFreezeStaffTimer", ChatDispatcher.Channel.CHAT, false, FireFreezeStaffTimer::onChatMessage, GUARDIANS_WEAKNESS_MESSAGE);
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> FireFreezeStaffTimer.reset());
     }
 
@@ -57,12 +57,11 @@ public class FireFreezeStaffTimer {
         fireFreezeTimer = 0;
     }
 
-    private static boolean onChatMessage(Text text, boolean overlay) {
-        if (!overlay && SkyblockerConfigManager.get().dungeons.theProfessor.fireFreezeStaffTimer && Formatting.strip(text.getString())
-                .equals("[BOSS] The Professor: Oh? You found my Guardians' one weakness?")) {
+    private static ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
+        if (SkyblockerConfigManager.get().dungeons.theProfessor.fireFreezeStaffTimer && message.plain().equals(GUARDIANS_WEAKNESS_MESSAGE)) {
             fireFreezeTimer = System.currentTimeMillis() + 5000L;
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 }
@@ -10,11 +10,12 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.dungeon.secrets.DungeonManager;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.waypoint.NamedWaypoint;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -66,7 +67,8 @@ public class GoldorWaypointsManager {
 	public static void init() {
         WorldRenderEvents.AFTER_TRANSLUCENT.register(GoldorWaypointsManager::render);
         ClientLifecycleEvents.CLIENT_STARTED.register(GoldorWaypointsManager::load);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(GoldorWaypointsManager::onChatMessage);
+        // Activation messages start with the name of the player, so they can't be routed by prefix
+        ChatDispatcher.register("GoldorWaypointsManager", ChatDispatcher.Channel.CHAT, false, GoldorWaypointsManager::onChatMessage);
         ClientPlayConnectionEvents.JOIN.register(((handler, sender, client) -> reset()));
     }
 
@@ -153,9 +155,9 @@ public class GoldorWaypointsManager {
         return matcher.matches() ? matcher.group("name") : null;
     }
 
-    private static boolean onChatMessage(Text text, boolean overlay) {
-        if (overlay || !shouldProcessMsgs()) return true;
-        String message = text.getString();
+    private static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
+        if (!shouldProcessMsgs()) return ChatFilterResult.PASS;
+        String message = chatMessage.raw();
 
         if (active) {
             if (PHASE_COMPLETE.matcher(message).matches()) {
@@ -182,7 +184,7 @@ public class GoldorWaypointsManager {
             }
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void renderWaypoints(WorldRenderContext context, ObjectArrayList<GoldorWaypoint> waypoints) {
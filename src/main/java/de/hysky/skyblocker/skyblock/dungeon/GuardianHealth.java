@@ -3,8 +3,9 @@ package de.hysky.skyblocker.skyblock.dungeon;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.render.RenderHelper;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -28,7 +29,7 @@ public class GuardianHealth {
 
     @Init
     public static void init() {
-        ClientReceiveMessageEvents.ALLOW_GAME.register(GuardianHealth::onChatMessage);
+        ChatDispatcher.register("GuardianHealth", ChatDispatcher.Channel.ALL, false, GuardianHealth::onChatMessage, DungeonBoss.PROFESSOR.message());
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> GuardianHealth.reset());
         WorldRenderEvents.AFTER_ENTITIES.register(GuardianHealth::onWorldRender);
     }
@@ -80,14 +81,14 @@ public class GuardianHealth {
         inBoss = false;
     }
 
-    private static boolean onChatMessage(Text text, boolean overlay) {
+    private static ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
         if (Utils.isInDungeons() && SkyblockerConfigManager.get().dungeons.theProfessor.floor3GuardianHealthDisplay && !inBoss) {
-            String unformatted = Formatting.strip(text.getString());
+            String unformatted = message.plain();
 
-            inBoss = unformatted.equals("[BOSS] The Professor: I was burdened with terrible news recently...");
+            inBoss = unformatted.equals(DungeonBoss.PROFESSOR.message());
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static boolean isGuardianName(ArmorStandEntity entity) {
@@ -1,6 +1,5 @@
 package de.hysky.skyblocker.skyblock.dungeon.puzzle;
 
-import com.google.common.primitives.Booleans;
 import com.mojang.brigadier.Command;
 import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.annotations.Init;
@@ -20,12 +19,10 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 import org.joml.Vector2i;
 import org.joml.Vector2ic;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -117,44 +114,22 @@ public class IceFill extends DungeonPuzzle {
 		return boardChanged;
 	}
 
+	/**
+	 * Searches for a path through every cell of the board.
+	 */
 	@NotNull
 	List<Vector2ic> solve(boolean[][] iceFillBoard) {
-		Vector2ic start = new Vector2i(iceFillBoard.length - 1, iceFillBoard[0].length / 2);
-		int count = iceFillBoard.length * iceFillBoard[0].length - Arrays.stream(iceFillBoard).mapToInt(Booleans::countTrue).sum();
-
-		boolean[][] visited = new boolean[iceFillBoard.length][iceFillBoard[0].length];
-		visited[start.x()][start.y()] = true;
-
-		List<Vector2ic> newPath = solveDfs(iceFillBoard, count - 1, new ArrayList<>(List.of(start)), visited);
-		return newPath != null ? newPath : List.of();
-	}
-
-	@Nullable
-	private List<Vector2ic> solveDfs(boolean[][] iceFillBoard, int count, List<Vector2ic> path, boolean[][] visited) {
-		Vector2ic pos = path.getLast();
-		if (count == 0) {
-			if (pos.x() == 0 && pos.y() == iceFillBoard[0].length / 2) {
-				return path;
-			} else {
-				return null;
-			}
+		int rows = iceFillBoard.length;
+		int columns = iceFillBoard[0].length;
+		long blocked = IceFillSolver.encode(iceFillBoard);
+		int[] path = IceFillSolver.solve(rows, columns, blocked);
+		if (path == null) return List.of();
+
+		List<Vector2ic> newPath = new ArrayList<>(path.length);
+		for (int cell : path) {
+			newPath.add(new Vector2i(cell / columns, cell % columns));
 		}
-
-        Vector2ic[] newPosArray = {pos.add(1, 0, new Vector2i()), pos.add(-1, 0, new Vector2i()), pos.add(0, 1, new Vector2i()), pos.add(0, -1, new Vector2i())};
-        for (Vector2ic newPos : newPosArray) {
-            if (newPos.x() >= 0 && newPos.x() < iceFillBoard.length && newPos.y() >= 0 && newPos.y() < iceFillBoard[0].length && !iceFillBoard[newPos.x()][newPos.y()] && !visited[newPos.x()][newPos.y()]) {
-                path.add(newPos);
-                visited[newPos.x()][newPos.y()] = true;
-                List<Vector2ic> newPath = solveDfs(iceFillBoard, count - 1, path, visited);
-                if (newPath != null) {
-                    return newPath;
-                }
-                path.removeLast();
-                visited[newPos.x()][newPos.y()] = false;
-            }
-        }
-
-		return null;
+		return newPath;
 	}
 
 	@Override
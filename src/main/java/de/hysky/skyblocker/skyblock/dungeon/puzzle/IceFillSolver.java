@@ -0,0 +1,88 @@
+package de.hysky.skyblocker.skyblock.dungeon.puzzle;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds a path through every free cell of an Ice Fill board with a depth first search over a bitboard.
+ * <p>
+ * A board of {@code rows} by {@code columns} cells is a long with bit {@code row * columns + column} set for each blocked cell.
+ * The search keeps the path and the next direction to try at each step in arrays and the visited cells in a long,
+ * so it doesn't allocate while searching. Steps that cut the remaining cells off from each other are skipped,
+ * which is checked with a flood fill of bit shifts and doesn't change which path is found first.
+ */
+final class IceFillSolver {
+	private static final int[] DX = {1, -1, 0, 0};
+	private static final int[] DY = {0, 0, 1, -1};
+
+	private IceFillSolver() {}
+
+	static long encode(boolean[][] board) {
+		long blocked = 0;
+		for (int row = 0; row < board.length; row++) {
+			for (int col = 0; col < board[row].length; col++) {
+				if (board[row][col]) blocked |= 1L << row * board[row].length + col;
+			}
+		}
+		return blocked;
+	}
+
+	/**
+	 * @return the cells ({@code row * columns + column}) of the path from the middle of the last row to the middle of the first row
+	 * which goes through every free cell, or {@code null} if there is no such path
+	 */
+	static int @Nullable [] solve(int rows, int columns, long blocked) {
+		int start = (rows - 1) * columns + columns / 2;
+		int end = columns / 2;
+		int free = rows * columns - Long.bitCount(blocked);
+		if (free <= 0) return null;
+		long board = rows * columns == Long.SIZE ? -1 : (1L << rows * columns) - 1;
+		long firstColumn = 0;
+		for (int row = 0; row < rows; row++) {
+			firstColumn |= 1L << row * columns;
+		}
+		long lastColumn = firstColumn << columns - 1;
+
+		int[] path = new int[free];
+		int[] directions = new int[free];
+		path[0] = start;
+		long visited = 1L << start;
+		int depth = 0;
+
+		while (depth >= 0) {
+			int pos = path[depth];
+			if (depth == free - 1 || directions[depth] == DX.length) {
+				if (depth == free - 1 && pos == end) return path;
+				visited &= ~(1L << pos);
+				depth--;
+				continue;
+			}
+
+			int direction = directions[depth]++;
+			int row = pos / columns + DX[direction];
+			int col = pos % columns + DY[direction];
+			if (row < 0 || row >= rows || col < 0 || col >= columns) continue;
+			long bit = 1L << row * columns + col;
+			if (((blocked | visited) & bit) != 0) continue;
+			if (!isConnected(bit, board & ~blocked & ~visited & ~bit, columns, firstColumn, lastColumn)) continue;
+
+			depth++;
+			path[depth] = row * columns + col;
+			directions[depth] = 0;
+			visited |= bit;
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return whether all the remaining cells can be reached from the cell
+	 */
+	private static boolean isConnected(long cell, long remaining, int columns, long firstColumn, long lastColumn) {
+		long reached = cell;
+		while (true) {
+			long next = (reached | reached << columns | reached >>> columns | (reached & ~lastColumn) << 1 | (reached & ~firstColumn) >>> 1) & remaining;
+			if (next == (reached & remaining)) return next == remaining;
+			reached = next;
+		}
+	}
+}
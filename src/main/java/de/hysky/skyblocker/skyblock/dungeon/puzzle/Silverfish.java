@@ -22,7 +22,9 @@ import net.minecraft.util.math.Vec3d;
 import org.joml.Vector2i;
 import org.joml.Vector2ic;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
 
@@ -100,59 +102,22 @@ public class Silverfish extends DungeonPuzzle {
         }
     }
 
+    /**
+     * Searches for the shortest path of the silverfish to the exit.
+     */
     void solve() {
         if (silverfishPos == null) {
             return;
         }
-        Set<Vector2ic> visited = new HashSet<>();
-        Queue<List<Vector2ic>> queue = new ArrayDeque<>();
-        queue.add(List.of(silverfishPos));
-        visited.add(silverfishPos);
-        while (!queue.isEmpty()) {
-            List<Vector2ic> path = queue.poll();
-            Vector2ic pos = path.get(path.size() - 1);
-            if (pos.x() == 0 && pos.y() >= 7 && pos.y() <= 9) {
-                silverfishPath.clear();
-                silverfishPath.addAll(path);
-                return;
-            }
-
-            Vector2i posMutable = new Vector2i(pos);
-            while (posMutable.x() < 17 && !silverfishBoard[posMutable.x()][posMutable.y()]) {
-                posMutable.add(1, 0);
-            }
-            posMutable.add(-1, 0);
-            addQueue(visited, queue, path, posMutable);
-
-            posMutable = new Vector2i(pos);
-            while (posMutable.x() >= 0 && !silverfishBoard[posMutable.x()][posMutable.y()]) {
-                posMutable.add(-1, 0);
-            }
-            posMutable.add(1, 0);
-            addQueue(visited, queue, path, posMutable);
-
-            posMutable = new Vector2i(pos);
-            while (posMutable.y() < 17 && !silverfishBoard[posMutable.x()][posMutable.y()]) {
-                posMutable.add(0, 1);
-            }
-            posMutable.add(0, -1);
-            addQueue(visited, queue, path, posMutable);
-
-            posMutable = new Vector2i(pos);
-            while (posMutable.y() >= 0 && !silverfishBoard[posMutable.x()][posMutable.y()]) {
-                posMutable.add(0, -1);
-            }
-            posMutable.add(0, 1);
-            addQueue(visited, queue, path, posMutable);
+        int[] rows = SilverfishSolver.encode(silverfishBoard);
+        int start = silverfishPos.x() * SilverfishSolver.SIZE + silverfishPos.y();
+        int[] path = SilverfishSolver.solve(rows, start);
+        if (path == null) {
+            return;
         }
-    }
-
-    private void addQueue(Set<Vector2ic> visited, Queue<List<Vector2ic>> queue, List<Vector2ic> path, Vector2ic newPos) {
-        if (!visited.contains(newPos)) {
-            List<Vector2ic> newPath = new ArrayList<>(path);
-            newPath.add(newPos);
-            queue.add(newPath);
-            visited.add(newPos);
+        silverfishPath.clear();
+        for (int cell : path) {
+            silverfishPath.add(new Vector2i(cell / SilverfishSolver.SIZE, cell % SilverfishSolver.SIZE));
         }
     }
 
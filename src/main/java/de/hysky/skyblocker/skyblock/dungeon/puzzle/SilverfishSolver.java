@@ -0,0 +1,107 @@
+package de.hysky.skyblocker.skyblock.dungeon.puzzle;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Finds the shortest sequence of slides for the silverfish to reach the exit with a breadth first search over a bitboard.
+ * <p>
+ * Each row of the {@value #SIZE} by {@value #SIZE} board is an int with bit {@code column} set for each blocked cell,
+ * and the search keeps the same for each column, so the end of a slide is found with a single bit scan instead of stepping through the cells.
+ * Cells are numbered {@code row * SIZE + column}.
+ */
+final class SilverfishSolver {
+	static final int SIZE = 17;
+	private static final int CELLS = SIZE * SIZE;
+
+	private SilverfishSolver() {}
+
+	static int[] encode(boolean[][] board) {
+		int[] rows = new int[SIZE];
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				if (board[row][col]) rows[row] |= 1 << col;
+			}
+		}
+		return rows;
+	}
+
+	static boolean isExit(int cell) {
+		int col = cell % SIZE;
+		return cell / SIZE == 0 && col >= 7 && col <= 9;
+	}
+
+	/**
+	 * @return the cells the silverfish stops at, from the start to the exit, or {@code null} if the exit can't be reached
+	 */
+	static int @Nullable [] solve(int[] rows, int start) {
+		int[] columns = new int[SIZE];
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				if ((rows[row] >>> col & 1) != 0) columns[col] |= 1 << row;
+			}
+		}
+
+		int[] parents = new int[CELLS];
+		Arrays.fill(parents, -1);
+		int[] queue = new int[CELLS];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		parents[start] = start;
+
+		while (head < tail) {
+			int pos = queue[head++];
+			if (isExit(pos)) return path(parents, pos);
+
+			int row = pos / SIZE;
+			int col = pos % SIZE;
+			tail = visit(parents, queue, tail, pos, slideForward(columns[col], row), col);
+			tail = visit(parents, queue, tail, pos, slideBackward(columns[col], row), col);
+			tail = visit(parents, queue, tail, pos, row, slideForward(rows[row], col));
+			tail = visit(parents, queue, tail, pos, row, slideBackward(rows[row], col));
+		}
+
+		return null;
+	}
+
+	private static int visit(int[] parents, int[] queue, int tail, int pos, int row, int col) {
+		// Only out of bounds if the silverfish started inside a block
+		if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return tail;
+		int cell = row * SIZE + col;
+		if (parents[cell] == -1) {
+			parents[cell] = pos;
+			queue[tail++] = cell;
+		}
+		return tail;
+	}
+
+	/**
+	 * @return the index before the first block at or after {@code index} in the line
+	 */
+	private static int slideForward(int line, int index) {
+		int blocks = line >>> index;
+		return (blocks == 0 ? SIZE : index + Integer.numberOfTrailingZeros(blocks)) - 1;
+	}
+
+	/**
+	 * @return the index after the last block at or before {@code index} in the line
+	 */
+	private static int slideBackward(int line, int index) {
+		int blocks = line & (2 << index) - 1;
+		return (blocks == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(blocks)) + 1;
+	}
+
+	private static int[] path(int[] parents, int end) {
+		int length = 1;
+		for (int cell = end; parents[cell] != cell; cell = parents[cell]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int i = length - 1, cell = end; i >= 0; i--, cell = parents[cell]) {
+			path[i] = cell;
+		}
+		return path;
+	}
+}
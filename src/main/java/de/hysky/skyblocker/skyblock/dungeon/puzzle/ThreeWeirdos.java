@@ -4,8 +4,9 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.dungeon.secrets.DungeonManager;
 import de.hysky.skyblocker.skyblock.dungeon.secrets.Room;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.render.RenderHelper;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.minecraft.client.MinecraftClient;
@@ -32,13 +33,12 @@ public class ThreeWeirdos extends DungeonPuzzle {
 
     private ThreeWeirdos() {
         super("three-weirdos", "three-chests");
-        ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
+        ChatDispatcher.register("ThreeWeirdos", ChatDispatcher.Channel.CHAT, false, message -> {
             ClientWorld world = MinecraftClient.getInstance().world;
-            if (overlay || !shouldSolve() || !SkyblockerConfigManager.get().dungeons.puzzleSolvers.solveThreeWeirdos || world == null || !DungeonManager.isCurrentRoomMatched()) return true;
+            if (!shouldSolve() || !SkyblockerConfigManager.get().dungeons.puzzleSolvers.solveThreeWeirdos || world == null || !DungeonManager.isCurrentRoomMatched()) return ChatFilterResult.PASS;
 
-            @SuppressWarnings("DataFlowIssue")
-            Matcher matcher = PATTERN.matcher(Formatting.strip(message.getString()));
-            if (!matcher.matches()) return true;
+            Matcher matcher = PATTERN.matcher(message.plain());
+            if (!matcher.matches()) return ChatFilterResult.PASS;
             String name = matcher.group(1);
             Room room = DungeonManager.getCurrentRoom();
 
@@ -46,8 +46,8 @@ public class ThreeWeirdos extends DungeonPuzzle {
             checkForNPC(world, room, new BlockPos(15, 69, 25), name);
             checkForNPC(world, room, new BlockPos(17, 69, 24), name);
 
-            return true;
-        });
+            return ChatFilterResult.PASS;
+        }, ChatDispatcher.prefixes(PATTERN));
         UseBlockCallback.EVENT.register((player, world, hand, blockHitResult) -> {
             if (blockHitResult.getType() == HitResult.Type.BLOCK && blockHitResult.getBlockPos().equals(pos)) {
                 pos = null;
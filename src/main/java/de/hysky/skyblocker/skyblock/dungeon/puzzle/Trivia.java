@@ -8,9 +8,10 @@ import de.hysky.skyblocker.skyblock.dungeon.secrets.Room;
 import de.hysky.skyblocker.skyblock.waypoint.FairySouls;
 import de.hysky.skyblocker.utils.SkyblockTime;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
@@ -53,7 +54,7 @@ public class Trivia extends DungeonPuzzle {
 
 	public Trivia() {
 		super("trivia", "trivia-room");
-		ClientReceiveMessageEvents.ALLOW_GAME.register(this::onMessage);
+		ChatDispatcher.register("Trivia", ChatDispatcher.Channel.CHAT, false, this::onMessage, ChatDispatcher.prefixes(PATTERN));
 	}
 
 
@@ -62,16 +63,16 @@ public class Trivia extends DungeonPuzzle {
 		return Utils.isInDungeons() && SkyblockerConfigManager.get().dungeons.puzzleSolvers.solveTrivia;
 	}
 
-	public boolean onMessage(Text message, boolean overlay) {
-		if (!shouldRun() || overlay) return true;
+	public ChatFilterResult onMessage(ChatDispatcher.Message message) {
+		if (!shouldRun()) return ChatFilterResult.PASS;
 
-		Matcher matcher = PATTERN.matcher(Formatting.strip(message.getString()));
-		if (!matcher.matches()) return true;
+		Matcher matcher = PATTERN.matcher(message.plain());
+		if (!matcher.matches()) return ChatFilterResult.PASS;
 
 		// Reset state when a question is answered and when the puzzle is failed or completed.
 		if (matcher.group(4) != null) {
 			reset();
-			return true;
+			return ChatFilterResult.PASS;
 		}
 
 		String answerChoice = matcher.group(3);
@@ -80,18 +81,18 @@ public class Trivia extends DungeonPuzzle {
 			updateSolutions(matcher.group(0));
 			reset();
 		} else {
-			if (solutions.isEmpty()) return true;
+			if (solutions.isEmpty()) return ChatFilterResult.PASS;
 			if (!solutions.contains(answerChoice)) {
 				// Incorrect answer choice
 				ClientPlayerEntity player = MinecraftClient.getInstance().player;
-				if (player == null) return true;
+				if (player == null) return ChatFilterResult.PASS;
 				Utils.sendMessageToBypassEvents(Text.of("    " + Formatting.GOLD + " " + matcher.group(2) + " " + Formatting.RED + answerChoice));
-				return false;
+				return ChatFilterResult.FILTER;
 			}
 			currentSolution = matcher.group(2);
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private void updateSolutions(String question) {
@@ -1,14 +1,19 @@
 package de.hysky.skyblocker.skyblock.dungeon.puzzle.boulder;
 
+import com.mojang.brigadier.Command;
+import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
+import de.hysky.skyblocker.debug.Debug;
 import de.hysky.skyblocker.skyblock.dungeon.puzzle.DungeonPuzzle;
 import de.hysky.skyblocker.skyblock.dungeon.secrets.DungeonManager;
 import de.hysky.skyblocker.skyblock.dungeon.secrets.Room;
 import de.hysky.skyblocker.utils.ColorUtils;
+import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import de.hysky.skyblocker.utils.render.title.Title;
 import de.hysky.skyblocker.utils.render.title.TitleContainer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
@@ -20,15 +25,19 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.Arrays;
-import java.util.List;
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
 
 public class Boulder extends DungeonPuzzle {
-    @SuppressWarnings("unused")
 	private static final Boulder INSTANCE = new Boulder();
     private static final float[] RED_COLOR_COMPONENTS = ColorUtils.getFloatComponents(DyeColor.RED);
     private static final float[] ORANGE_COLOR_COMPONENTS = ColorUtils.getFloatComponents(DyeColor.ORANGE);
     private static final int BASE_Y = 65;
+    private static final BoulderSolver SOLVER = new BoulderSolver();
+    /**
+     * The layout that was last searched, or {@code -1} if none was, so that a layout without a solution isn't searched again every tick.
+     */
+    private static long layout = -1;
+    private static int[] solution;
     static Vec3d[] linePoints;
     static Box boundingBox;
 
@@ -38,6 +47,14 @@ public class Boulder extends DungeonPuzzle {
 
     @Init
     public static void init() {
+        if (Debug.debugEnabled()) {
+            ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher.register(literal(SkyblockerMod.NAMESPACE).then(literal("dungeons").then(literal("puzzle").then(literal(INSTANCE.puzzleName)
+                    .then(literal("printBoard").executes(context -> {
+                        context.getSource().sendFeedback(Constants.PREFIX.get().append(BoulderSolver.layoutToString(layout)));
+                        return Command.SINGLE_SUCCESS;
+                    }))
+            )))));
+        }
     }
 
     @Override
@@ -73,28 +90,28 @@ public class Boulder extends DungeonPuzzle {
             }
         }
 
-        // Generate initial game states for the A* solver
-        char[][] boardArray = board.getBoardCharArray();
-        List<BoulderSolver.GameState> initialStates = Arrays.asList(
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 0),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 1),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 2),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 3),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 4),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 5),
-                new BoulderSolver.GameState(boardArray, board.getHeight() - 1, 6)
-        );
-
-        // Solve the puzzle using the A* algorithm
-        List<int[]> solution = BoulderSolver.aStarSolve(initialStates);
+        // Solve the puzzle using the A* algorithm.
+        // The layout only changes when a boulder is moved, so the solution, or the lack of one, is kept until then.
+        long newLayout = BoulderSolver.encode(board.getBoardCharArray());
+        if (newLayout != layout) {
+            layout = newLayout;
+            solution = SOLVER.solve(layout);
+            if (solution == null) {
+                // Display a title message once for each layout without a solution
+                linePoints = null;
+                boundingBox = null;
+                Title title = new Title("skyblocker.dungeons.puzzle.boulder.noSolution", Formatting.GREEN);
+                TitleContainer.addTitleAndPlaySound(title, 15);
+            }
+        }
 
         if (solution != null) {
-            linePoints = new Vec3d[solution.size()];
+            linePoints = new Vec3d[solution.length];
             int index = 0;
-            // Convert solution coordinates to Vec3d points for rendering
-            for (int[] coord : solution) {
-                int x = coord[0];
-                int y = coord[1];
+            // Convert solution cells to Vec3d points for rendering
+            for (int cell : solution) {
+                int x = cell / BoulderSolver.WIDTH;
+                int y = cell % BoulderSolver.WIDTH;
                 // Convert relative coordinates to actual coordinates
                 linePoints[index++] = Vec3d.ofCenter(room.relativeToActual(board.getObject3DPosition(x, y)));
             }
@@ -117,11 +134,6 @@ public class Boulder extends DungeonPuzzle {
                     reset();
                 }
             }
-        } else {
-            // If no solution is found, display a title message and reset the puzzle
-            Title title = new Title("skyblocker.dungeons.puzzle.boulder.noSolution", Formatting.GREEN);
-            TitleContainer.addTitleAndPlaySound(title, 15);
-            reset();
         }
     }
 
@@ -206,5 +218,7 @@ public class Boulder extends DungeonPuzzle {
         super.reset();
         linePoints = null;
         boundingBox = null;
+        layout = -1;
+        solution = null;
     }
 }
@@ -1,60 +1,155 @@
 package de.hysky.skyblocker.skyblock.dungeon.puzzle.boulder;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
-import it.unimi.dsi.fastutil.Pair;
 
 /**
- * A utility class that provides methods to solve the Boulder puzzle using the A* search algorithm.
- * The BoulderSolver class is responsible for finding the shortest path from the starting position
- * to the target position by exploring possible moves and evaluating their costs.
+ * Solves the Boulder puzzle using the A* search algorithm over bit-packed game states.
+ * <p>
+ * The board has {@value #HEIGHT} rows of {@value #WIDTH} cells. The first row is the wall of boulders with the target in the middle
+ * and the last row is where the theoretical player starts, so the boulders that can move are all in the rows in between.
+ * A layout is a long with bit {@code (x - 1) * WIDTH + y} set for a boulder at row {@code x} and column {@code y},
+ * and a game state is the layout with the cell of the player, {@code x * WIDTH + y}, in the bits above it.
+ * <p>
+ * The open list is a bucket queue indexed by the estimated cost, and the open and closed sets are primitive collections
+ * that are cleared instead of recreated, so a search doesn't allocate for the states it expands.
  */
 public class BoulderSolver {
+    public static final int HEIGHT = 8;
+    public static final int WIDTH = 7;
+    private static final int LAYOUT_BITS = (HEIGHT - 2) * WIDTH;
+    private static final long LAYOUT_MASK = (1L << LAYOUT_BITS) - 1;
+    /**
+     * The cell of the target, in the middle of the first row.
+     */
+    private static final int TARGET = WIDTH / 2;
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final int[][] DIRECTIONS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+    private final Long2IntOpenHashMap costs = new Long2IntOpenHashMap();
+    private final Long2LongOpenHashMap parents = new Long2LongOpenHashMap();
+    private final LongOpenHashSet closed = new LongOpenHashSet();
+    /**
+     * The open list, where the bucket at index {@code i} holds the states with an estimated total cost of {@code i}.
+     */
+    private final List<LongArrayList> open = new ArrayList<>();
+
+    public BoulderSolver() {
+        costs.defaultReturnValue(Integer.MAX_VALUE);
+        parents.defaultReturnValue(-1);
+    }
 
     /**
-     * Finds the shortest path to solve the Boulder puzzle using the A* search algorithm.
+     * Encodes the boulders of the board into a layout.
      *
-     * @param initialStates The list of initial game states from which to start the search.
-     * @return A list of coordinates representing the shortest path to solve the puzzle,
-     *         or null if no solution is found within the maximum number of iterations.
+     * @param grid The board as returned by {@link BoulderBoard#getBoardCharArray()}.
+     * @return The layout with a bit set for each boulder that can move.
      */
-    public static List<int[]> aStarSolve(List<GameState> initialStates) {
-        Set<GameState> visited = new HashSet<>();
-        PriorityQueue<Pair<GameState, List<int[]>>> queue = new PriorityQueue<>(new AStarComparator());
+    public static long encode(char[][] grid) {
+        long layout = 0;
+        for (int x = 1; x < HEIGHT - 1; x++) {
+            for (int y = 0; y < WIDTH; y++) {
+                if (grid[x][y] == 'B') {
+                    layout |= 1L << boulderBit(x, y);
+                }
+            }
+        }
+        return layout;
+    }
 
-        for (GameState initialState : initialStates) {
-            queue.add(Pair.of(initialState, new ArrayList<>()));
+    /**
+     * Generates the rows of the layout that can change, with {@code B} for a boulder and {@code .} for an empty space.
+     */
+    public static String layoutToString(long layout) {
+        StringBuilder sb = new StringBuilder();
+        for (int x = 1; x < HEIGHT - 1; x++) {
+            sb.append("\n");
+            for (int y = 0; y < WIDTH; y++) {
+                sb.append((layout >>> boulderBit(x, y) & 1) != 0 ? 'B' : '.');
+            }
         }
+        return sb.toString();
+    }
 
-        int maxIterations = 10000;
-        int iterations = 0;
+    /**
+     * Finds the shortest path of the theoretical player from any cell of the last row to the target.
+     *
+     * @param layout The layout of the boulders, see {@link #encode(char[][])}.
+     * @return The cells ({@code x * WIDTH + y}) the player walks through, from the starting cell to the cell before the target,
+     *         or null if no solution is found within the maximum number of iterations.
+     */
+    public int @Nullable [] solve(long layout) {
+        costs.clear();
+        parents.clear();
+        closed.clear();
+        for (LongArrayList bucket : open) {
+            bucket.clear();
+        }
 
-        while (!queue.isEmpty() && iterations < maxIterations) {
-            Pair<GameState, List<int[]>> pair = queue.poll();
-            GameState state = pair.left();
-            List<int[]> path = pair.right();
+        for (int y = 0; y < WIDTH; y++) {
+            int start = (HEIGHT - 1) * WIDTH + y;
+            long state = state(layout, start);
+            costs.put(state, 0);
+            push(heuristic(start), state);
+        }
 
-            if (state.isSolved()) {
-                return path;
+        int iterations = 0;
+        int estimate = 0;
+        while (estimate < open.size() && iterations < MAX_ITERATIONS) {
+            LongArrayList bucket = open.get(estimate);
+            if (bucket.isEmpty()) {
+                // The heuristic is consistent, so the estimate of a new state is never lower than that of the state it was reached from
+                estimate++;
+                continue;
             }
 
-            if (visited.contains(state)) {
+            long state = bucket.removeLong(bucket.size() - 1);
+            int player = (int) (state >>> LAYOUT_BITS);
+            int cost = estimate - heuristic(player);
+            if (cost > costs.get(state) || !closed.add(state)) {
                 continue;
             }
-            visited.add(state);
+            if (player == TARGET) {
+                return path(parents.get(state));
+            }
 
-            int[] currentCoord = {state.playerX, state.playerY};
-            path.add(currentCoord);
+            long boulders = state & LAYOUT_MASK;
+            int x = player / WIDTH;
+            int y = player % WIDTH;
+            for (int[] direction : DIRECTIONS) {
+                int newX = x + direction[0];
+                int newY = y + direction[1];
+                if (!isValidPosition(newX, newY)) {
+                    continue;
+                }
 
-            for (int[] direction : new int[][]{{-1, 0}, {0, -1}, {0, 1}, {1, 0}}) {
-                GameState newState = new GameState(state.grid, state.playerX, state.playerY);
-                if (newState.movePlayer(direction[0], direction[1])) {
-                    queue.add(Pair.of(newState, new ArrayList<>(path)));
+                int newPlayer = newX * WIDTH + newY;
+                long newBoulders = boulders;
+                if (newX == 0) {
+                    // The first row is a wall of boulders except for the target
+                    if (newPlayer != TARGET) {
+                        continue;
+                    }
+                } else if (newX < HEIGHT - 1 && (boulders >>> boulderBit(newX, newY) & 1) != 0) {
+                    int nextToBoxX = newX + direction[0];
+                    int nextToBoxY = newY + direction[1];
+                    if (nextToBoxX < 1 || nextToBoxX >= HEIGHT - 1 || nextToBoxY < 0 || nextToBoxY >= WIDTH || (boulders >>> boulderBit(nextToBoxX, nextToBoxY) & 1) != 0) {
+                        continue;
+                    }
+                    newBoulders = boulders & ~(1L << boulderBit(newX, newY)) | 1L << boulderBit(nextToBoxX, nextToBoxY);
+                }
+
+                long newState = state(newBoulders, newPlayer);
+                if (cost + 1 < costs.get(newState)) {
+                    costs.put(newState, cost + 1);
+                    parents.put(newState, state);
+                    push(cost + 1 + heuristic(newPlayer), newState);
                 }
             }
             iterations++;
@@ -63,140 +158,43 @@ public class BoulderSolver {
         return null;
     }
 
-    /**
-     * A comparator used to compare game states based on their A* search cost.
-     * States with lower costs are prioritized for exploration.
-     */
-    private static class AStarComparator implements Comparator<Pair<GameState, List<int[]>>> {
-        /**
-         * Compares two pairs of game states and their associated paths based on their costs.
-         *
-         * @param a The first pair to compare.
-         * @param b The second pair to compare.
-         * @return A negative integer if a has a lower cost than b,
-         *         a positive integer if a has a higher cost than b,
-         *         or zero if both have the same cost.
-         */
-        @Override
-        public int compare(Pair<GameState, List<int[]>> a, Pair<GameState, List<int[]>> b) {
-            int costA = a.right().size() + a.left().heuristic();
-            int costB = b.right().size() + b.left().heuristic();
-            return Integer.compare(costA, costB);
+    private void push(int estimate, long state) {
+        while (open.size() <= estimate) {
+            open.add(new LongArrayList());
         }
+        open.get(estimate).add(state);
     }
 
-    /**
-     * Represents the game state for the Boulder puzzle, including the current grid configuration
-     * and the position of the theoretical player.
-     */
-    public static class GameState {
-        private final char[][] grid;
-        private int playerX;
-        private int playerY;
-
-        /**
-         * Constructs a new game state with the specified grid and theoretical player position.
-         *
-         * @param grid     The grid representing the Boulder puzzle configuration.
-         * @param playerX  The x-coordinate of the player's position.
-         * @param playerY  The y-coordinate of the player's position.
-         */
-        public GameState(char[][] grid, int playerX, int playerY) {
-            this.grid = copyGrid(grid);
-            this.playerX = playerX;
-            this.playerY = playerY;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            GameState gameState = (GameState) obj;
-            return Arrays.deepEquals(grid, gameState.grid) && playerX == gameState.playerX && playerY == gameState.playerY;
-        }
-
-        @Override
-        public int hashCode() {
-            int result = Arrays.deepHashCode(grid);
-            result = 31 * result + playerX;
-            result = 31 * result + playerY;
-            return result;
+    private int[] path(long state) {
+        IntArrayList path = new IntArrayList();
+        for (; state != -1; state = parents.get(state)) {
+            path.add((int) (state >>> LAYOUT_BITS));
         }
-
-        /**
-         * Moves the theoretical player in the specified direction and updates the game state accordingly.
-         *
-         * @param dx The change in x-coordinate (horizontal movement).
-         * @param dy The change in y-coordinate (vertical movement).
-         * @return true if the move is valid and the player is moved, false otherwise.
-         */
-        public boolean movePlayer(int dx, int dy) {
-            int newX = playerX + dx;
-            int newY = playerY + dy;
-
-            if (isValidPosition(newX, newY)) {
-                if (grid[newX][newY] == 'B') {
-                    int nextToBoxX = newX + dx;
-                    int nextToBoxY = newY + dy;
-                    if (isValidPosition(nextToBoxX, nextToBoxY) && grid[nextToBoxX][nextToBoxY] == '.') {
-                        grid[newX][newY] = '.';
-                        grid[nextToBoxX][nextToBoxY] = 'B';
-                        playerX = newX;
-                        playerY = newY;
-                        return true;
-                    }
-                } else {
-                    playerX = newX;
-                    playerY = newY;
-                    return true;
-                }
-            }
-            return false;
+        int[] cells = path.toIntArray();
+        for (int i = 0, j = cells.length - 1; i < j; i++, j--) {
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
         }
+        return cells;
+    }
 
-        private boolean isValidPosition(int x, int y) {
-            return x >= 0 && y >= 0 && x < grid.length && y < grid[0].length;
-        }
+    private static long state(long layout, int player) {
+        return layout | (long) player << LAYOUT_BITS;
+    }
 
-        /**
-         * Checks if the puzzle is solved, i.e., if the player is positioned on the target BoulderObject.
-         *
-         * @return true if the theoretical puzzle is solved, false otherwise.
-         */
-        public boolean isSolved() {
-            return grid[playerX][playerY] == 'T';
-        }
+    private static int boulderBit(int x, int y) {
+        return (x - 1) * WIDTH + y;
+    }
 
-        /**
-         * Calculates the heuristic value for the current game state, representing the estimated
-         * distance from the player's position to the target BoulderObject.
-         *
-         * @return The heuristic value for the current game state.
-         */
-        public int heuristic() {
-            // should be improved maybe prioritize empty path first
-            for (int i = 0; i < grid.length; i++) {
-                for (int j = 0; j < grid[0].length; j++) {
-                    if (grid[i][j] == 'T') {
-                        return Math.abs(playerX - i) + Math.abs(playerY - j);
-                    }
-                }
-            }
-            return Integer.MAX_VALUE;
-        }
+    private static boolean isValidPosition(int x, int y) {
+        return x >= 0 && y >= 0 && x < HEIGHT && y < WIDTH;
+    }
 
-        /**
-         * Creates a deep copy of the grid array to avoid modifying the original grid.
-         *
-         * @param original The original grid array to copy.
-         * @return A deep copy of the original grid array.
-         */
-        private char[][] copyGrid(char[][] original) {
-            char[][] copy = new char[original.length][];
-            for (int i = 0; i < original.length; i++) {
-                copy[i] = original[i].clone();
-            }
-            return copy;
-        }
+    /**
+     * Calculates the Manhattan distance from the player's cell to the target.
+     */
+    private static int heuristic(int player) {
+        return player / WIDTH + Math.abs(player % WIDTH - TARGET);
     }
 }
@@ -0,0 +1,51 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * A set of block positions stored as one bit per block, in 16 by 16 by 16 sections that are allocated when a block in them is first added.
+ * Uses 512 bytes per touched section instead of a boxed {@link net.minecraft.util.math.BlockPos BlockPos} and hash entry per block.
+ * <p>
+ * This class is not thread-safe.
+ */
+class BlockPosBitSet {
+	private static final int SECTION_WORDS = 16 * 16 * 16 / 64;
+
+	private final Long2ObjectMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+	private int size;
+
+	/**
+	 * @return {@code true} if the position was not already in the set
+	 */
+	boolean add(int x, int y, int z) {
+		long[] section = sections.computeIfAbsent(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4), key -> new long[SECTION_WORDS]);
+		int bit = bit(x, y, z);
+		long mask = 1L << bit;
+		if ((section[bit >>> 6] & mask) != 0) return false;
+
+		section[bit >>> 6] |= mask;
+		size++;
+		return true;
+	}
+
+	boolean contains(int x, int y, int z) {
+		long[] section = sections.get(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+		if (section == null) return false;
+
+		int bit = bit(x, y, z);
+		return (section[bit >>> 6] & 1L << bit) != 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the index of the position within its section
+	 */
+	private static int bit(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+	}
+}
@@ -5,10 +5,7 @@ import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
 import it.unimi.dsi.fastutil.ints.IntSortedSets;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
-import net.minecraft.client.world.ClientWorld;
-import net.minecraft.registry.Registries;
 import net.minecraft.util.math.BlockPos;
-import org.apache.commons.lang3.tuple.MutableTriple;
 import org.joml.Vector2ic;
 
 import java.util.*;
@@ -20,29 +17,34 @@ public class DebugRoom extends Room {
         super(type, physicalPositions);
     }
 
-    public static DebugRoom ofSinglePossibleRoom(Type type, Vector2ic physicalPositions, String roomName, int[] roomData, Direction direction) {
-        return ofSinglePossibleRoom(type, new Vector2ic[]{physicalPositions}, roomName, roomData, direction);
+    public static DebugRoom ofSinglePossibleRoom(Type type, Vector2ic physicalPositions, RoomIndex roomIndex, int roomId, Direction direction) {
+        return ofSinglePossibleRoom(type, new Vector2ic[]{physicalPositions}, roomIndex, roomId, direction);
     }
 
-    public static DebugRoom ofSinglePossibleRoom(Type type, Vector2ic[] physicalPositions, String roomName, int[] roomData, Direction direction) {
+    public static DebugRoom ofSinglePossibleRoom(Type type, Vector2ic[] physicalPositions, RoomIndex roomIndex, int roomId, Direction direction) {
         DebugRoom room = new DebugRoom(type, physicalPositions);
         IntSortedSet segmentsX = IntSortedSets.unmodifiable(new IntRBTreeSet(room.segments.stream().mapToInt(Vector2ic::x).toArray()));
         IntSortedSet segmentsY = IntSortedSets.unmodifiable(new IntRBTreeSet(room.segments.stream().mapToInt(Vector2ic::y).toArray()));
-        room.roomsData = Map.of(roomName, roomData);
-        room.possibleRooms = List.of(MutableTriple.of(direction, DungeonMapUtils.getPhysicalCornerPos(direction, segmentsX, segmentsY), List.of(roomName)));
+        long[] possibleRooms = new long[roomIndex.words()];
+        possibleRooms[roomId >>> 6] |= 1L << roomId;
+        room.roomIndex = roomIndex;
+        room.possibleDirections = new Direction[]{direction};
+        room.physicalCornerPositions = new Vector2ic[]{DungeonMapUtils.getPhysicalCornerPos(direction, segmentsX, segmentsY)};
+        room.possibleRooms = new long[][]{possibleRooms};
         return room;
     }
 
     @Override
-    protected boolean checkBlock(ClientWorld world, BlockPos pos) {
-        byte id = DungeonManager.NUMERIC_ID.getByte(Registries.BLOCK.getId(world.getBlockState(pos).getBlock()).toString());
-        if (id == 0) {
-            return false;
-        }
-        for (MutableTriple<Direction, Vector2ic, List<String>> directionRooms : possibleRooms) {
-            int block = posIdToInt(DungeonMapUtils.actualToRelative(directionRooms.getLeft(), directionRooms.getMiddle(), pos), id);
-            for (String room : directionRooms.getRight()) {
-                checkedBlocks.add(new Waypoint(pos, SecretWaypoint.TYPE_SUPPLIER, Arrays.binarySearch(roomsData.get(room), block) >= 0 ? Room.GREEN_COLOR_COMPONENTS : Room.RED_COLOR_COMPONENTS));
+    protected boolean checkBlock(int x, int y, int z, byte id) {
+        BlockPos pos = new BlockPos(x, y, z);
+        for (int i = 0; i < possibleDirections.length; i++) {
+            int block = RoomIndex.encode(possibleDirections[i], physicalCornerPositions[i], x, y, z, id);
+            long[] rooms = possibleRooms[i];
+            for (int word = 0; word < rooms.length; word++) {
+                for (long bits = rooms[word]; bits != 0; bits &= bits - 1) {
+                    int room = word << 6 | Long.numberOfTrailingZeros(bits);
+                    checkedBlocks.add(new Waypoint(pos, SecretWaypoint.TYPE_SUPPLIER, roomIndex.contains(room, block) ? Room.GREEN_COLOR_COMPONENTS : Room.RED_COLOR_COMPONENTS));
+                }
             }
         }
         return false;
@@ -9,21 +9,22 @@ import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.lit
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import java.util.zip.InflaterInputStream;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -56,6 +57,8 @@ import de.hysky.skyblocker.skyblock.dungeon.DungeonMap;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Tickable;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientBlockPosArgumentType;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientPosArgument;
 import de.hysky.skyblocker.utils.render.RenderHelper;
@@ -67,7 +70,6 @@ import it.unimi.dsi.fastutil.objects.ObjectIntPair;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -92,6 +94,7 @@ import net.minecraft.registry.Registry;
 import net.minecraft.resource.Resource;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
@@ -103,11 +106,14 @@ import net.minecraft.world.World;
 
 public class DungeonManager {
 	protected static final Logger LOGGER = LoggerFactory.getLogger(DungeonManager.class);
-	private static final String DUNGEONS_PATH = "dungeons";
+	private static final Identifier ROOM_ARCHIVE = Identifier.of(SkyblockerMod.NAMESPACE, "dungeons/rooms.bin");
+	private static Path ROOM_ARCHIVE_CACHE;
 	private static Path CUSTOM_WAYPOINTS_DIR;
 	private static final Pattern KEY_FOUND = Pattern.compile("^RIGHT CLICK on (?:the BLOOD DOOR|a WITHER door) to open it. This key can only be used to open 1 door!$");
 	private static final Pattern WITHER_DOOR_OPENED = Pattern.compile("^\\w+ opened a WITHER door!$");
 	private static final String BLOOD_DOOR_OPENED = "The BLOOD DOOR has been opened!";
+	private static final String WITHER_DOOR_OPENED_SUFFIX = " opened a WITHER door!";
+	private static final String MORT_MESSAGE = "§e[NPC] §bMort§f: You should find it useful if you get lost.";
 	protected static final float[] RED_COLOR_COMPONENTS = {1, 0, 0};
 	protected static final float[] GREEN_COLOR_COMPONENTS = {0, 1, 0};
 	/**
@@ -141,10 +147,15 @@ public class DungeonManager {
 	)));
 	/**
 	 * Block data for dungeon rooms. See {@link de.hysky.skyblocker.skyblock.dungeon.secrets.DungeonRoomsDFU DungeonRoomsDFU} for format details and how it's generated.
-	 * All access to this map must check {@link #isRoomsLoaded()} to prevent concurrent modification.
+	 * Null until {@link #isRoomsLoaded()}.
 	 */
 	@SuppressWarnings("JavadocReference")
-	protected static final HashMap<String, Map<String, Map<String, int[]>>> ROOMS_DATA = new HashMap<>();
+	@Nullable
+	private static volatile RoomArchive roomArchive;
+	/**
+	 * Indices of the block data by dungeon and room shape, each decoded from {@link #roomArchive} the first time a room with that shape is needed.
+	 */
+	private static final Map<String, CompletableFuture<RoomIndex>> roomIndices = new ConcurrentHashMap<>();
 	@NotNull
 	private static final Map<Vector2ic, Room> rooms = new HashMap<>();
 	private static final Map<String, JsonElement> roomsJson = new HashMap<>();
@@ -181,6 +192,29 @@ public class DungeonManager {
 		return roomsLoaded != null && roomsLoaded.isDone();
 	}
 
+	/**
+	 * Starts decoding the index of the catacombs rooms with the given shape if it hasn't been decoded yet.
+	 *
+	 * @return the index, or {@link RoomIndex#EMPTY} until {@link #isRoomsLoaded()} and the index is decoded
+	 */
+	protected static RoomIndex getRoomIndex(Room.Shape shape) {
+		return loadRoomIndex("catacombs", shape.shape.toLowerCase(Locale.ENGLISH)).getNow(RoomIndex.EMPTY);
+	}
+
+	private static CompletableFuture<RoomIndex> loadRoomIndex(String dungeon, String shape) {
+		RoomArchive archive = roomArchive;
+		if (archive == null) return CompletableFuture.completedFuture(RoomIndex.EMPTY);
+		return roomIndices.computeIfAbsent(dungeon + "/" + shape, key -> CompletableFuture.supplyAsync(() -> {
+			long startTime = System.currentTimeMillis();
+			RoomIndex index = RoomIndex.build(archive.readShape(dungeon, shape));
+			LOGGER.info("[Skyblocker Dungeon Secrets] Decoded dungeon {} room shape {} with {} rooms and {} blocks in {} ms", dungeon, shape, index.size(), index.blockCount(), System.currentTimeMillis() - startTime);
+			return index;
+		}).exceptionally(e -> {
+			LOGGER.error("[Skyblocker Dungeon Secrets] Failed to decode dungeon {} room shape {}", dungeon, shape, e);
+			return RoomIndex.EMPTY;
+		}));
+	}
+
 	public static Stream<Room> getRoomsStream() {
 		return rooms.values().stream();
 	}
@@ -264,6 +298,7 @@ public class DungeonManager {
 	 */
 	@Init
 	public static void init() {
+		ROOM_ARCHIVE_CACHE = SkyblockerMod.CONFIG_DIR.resolve("dungeon_rooms.bin");
 		CUSTOM_WAYPOINTS_DIR = SkyblockerMod.CONFIG_DIR.resolve("custom_secret_waypoints.json");
 
 		// Execute with MinecraftClient as executor since we need to wait for MinecraftClient#resourceManager to be set
@@ -274,7 +309,9 @@ public class DungeonManager {
 		ClientLifecycleEvents.CLIENT_STOPPING.register(DungeonManager::saveCustomWaypoints);
 		Scheduler.INSTANCE.scheduleCyclic(DungeonManager::update, 5);
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(DungeonManager::render);
-		ClientReceiveMessageEvents.ALLOW_GAME.register(DungeonManager::onChatMessage);
+		ChatDispatcher.register("DungeonManager", ChatDispatcher.Channel.ALL, false, DungeonManager::onChatMessage, chatMessagePrefixes());
+		// Wither door messages start with the name of the player, so they can't be routed by prefix
+		ChatDispatcher.register("DungeonManager (wither doors)", ChatDispatcher.Channel.ALL, false, DungeonManager::onWitherDoorMessage);
 		UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> onUseBlock(world, hitResult));
 		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher.register(literal(SkyblockerMod.NAMESPACE).then(literal("dungeons").then(literal("secrets")
 				.then(literal("markAsFound").then(markSecretsCommand(true)))
@@ -299,6 +336,7 @@ public class DungeonManager {
 						}
 						return Command.SINGLE_SUCCESS;
 					}))
+					.then(literal("matchingStats").executes(DungeonManager::sendMatchingStats))
 					.then(literal("getCheckmarkColour").executes(context -> {
 						MapState state = getMapState(context.getSource().getClient());
 
@@ -324,25 +362,15 @@ public class DungeonManager {
 	private static void load() {
 		long startTime = System.currentTimeMillis();
 		List<CompletableFuture<Void>> dungeonFutures = new ArrayList<>();
-		for (Map.Entry<Identifier, Resource> resourceEntry : MinecraftClient.getInstance().getResourceManager().findResources(DUNGEONS_PATH, id -> id.getPath().endsWith(".skeleton")).entrySet()) {
-			String[] path = resourceEntry.getKey().getPath().split("/");
-			if (path.length != 4) {
-				LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load dungeon secrets, invalid resource identifier {}", resourceEntry.getKey());
-				break;
-			}
-			String dungeon = path[1];
-			String roomShape = path[2];
-			String room = path[3].substring(0, path[3].length() - ".skeleton".length());
-			ROOMS_DATA.computeIfAbsent(dungeon, dungeonKey -> new HashMap<>());
-			ROOMS_DATA.get(dungeon).computeIfAbsent(roomShape, roomShapeKey -> new HashMap<>());
-			dungeonFutures.add(CompletableFuture.supplyAsync(() -> readRoom(resourceEntry.getValue())).thenAcceptAsync(rooms -> {
-				Map<String, int[]> roomsMap = ROOMS_DATA.get(dungeon).get(roomShape);
-				synchronized (roomsMap) {
-					roomsMap.put(room, rooms);
-				}
-				LOGGER.debug("[Skyblocker Dungeon Secrets] Loaded dungeon secrets dungeon {} room shape {} room {}", dungeon, roomShape, room);
+		Resource archiveResource = MinecraftClient.getInstance().getResourceManager().getResource(ROOM_ARCHIVE).orElse(null);
+		if (archiveResource == null) {
+			LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load dungeon secrets, missing resource {}", ROOM_ARCHIVE);
+		} else {
+			dungeonFutures.add(CompletableFuture.runAsync(() -> {
+				roomArchive = openRoomArchive(archiveResource);
+				LOGGER.debug("[Skyblocker Dungeon Secrets] Loaded dungeon room archive");
 			}).exceptionally(e -> {
-				LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load dungeon secrets dungeon {} room shape {} room {}", dungeon, roomShape, room, e);
+				LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load dungeon room archive", e);
 				return null;
 			}));
 		}
@@ -366,7 +394,7 @@ public class DungeonManager {
 				LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load custom dungeon secret waypoints", e);
 			}
 		}));
-		roomsLoaded = CompletableFuture.allOf(dungeonFutures.toArray(CompletableFuture[]::new)).thenRun(() -> LOGGER.info("[Skyblocker Dungeon Secrets] Loaded dungeon secrets for {} dungeon(s), {} room shapes, {} rooms, and {} custom secret waypoints total in {} ms", ROOMS_DATA.size(), ROOMS_DATA.values().stream().mapToInt(Map::size).sum(), ROOMS_DATA.values().stream().map(Map::values).flatMap(Collection::stream).mapToInt(Map::size).sum(), customWaypoints.size(), System.currentTimeMillis() - startTime)).exceptionally(e -> {
+		roomsLoaded = CompletableFuture.allOf(dungeonFutures.toArray(CompletableFuture[]::new)).thenRun(() -> LOGGER.info("[Skyblocker Dungeon Secrets] Loaded dungeon secrets for {} dungeon(s), {} room shapes, {} rooms, and {} custom secret waypoints total in {} ms", roomArchive != null ? roomArchive.getDungeonCount() : 0, roomArchive != null ? roomArchive.getShapeCount() : 0, roomArchive != null ? roomArchive.getRoomCount() : 0, customWaypoints.size(), System.currentTimeMillis() - startTime)).exceptionally(e -> {
 			LOGGER.error("[Skyblocker Dungeon Secrets] Failed to load dungeon secrets", e);
 			return null;
 		});
@@ -386,10 +414,18 @@ public class DungeonManager {
 		}
 	}
 
-	private static int[] readRoom(Resource resource) throws RuntimeException {
-		try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(resource.getInputStream()))) {
-			return (int[]) in.readObject();
-		} catch (IOException | ClassNotFoundException e) {
+	/**
+	 * Memory maps the room archive through a copy in the config directory, or reads it onto the heap if that fails.
+	 */
+	private static RoomArchive openRoomArchive(Resource resource) {
+		try {
+			return RoomArchive.open(resource.getInputStream(), ROOM_ARCHIVE_CACHE);
+		} catch (IOException e) {
+			LOGGER.warn("[Skyblocker Dungeon Secrets] Failed to memory map dungeon room archive, reading it into memory instead", e);
+		}
+		try {
+			return RoomArchive.read(resource.getInputStream());
+		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
@@ -434,6 +470,27 @@ public class DungeonManager {
 		});
 	}
 
+	/**
+	 * Reports how many blocks were checked to match each room, including the blocks checked so far for rooms that are still being matched.
+	 */
+	private static int sendMatchingStats(CommandContext<FabricClientCommandSource> context) {
+		List<Room> scannedRooms = rooms.values().stream().distinct().filter(room -> room.getType().needsScanning()).toList();
+		if (scannedRooms.isEmpty()) {
+			context.getSource().sendError(Constants.PREFIX.get().append("§cNo rooms have been scanned yet."));
+			return Command.SINGLE_SUCCESS;
+		}
+
+		int total = 0;
+		for (Room room : scannedRooms) {
+			int checkedBlocks = room.getCheckedBlocks();
+			total += checkedBlocks;
+			String name = room.isMatched() ? room.getName() : room.getType().toString();
+			context.getSource().sendFeedback(Constants.PREFIX.get().append("§r%s (%s): %d block(s) checked".formatted(name, room.matchState, checkedBlocks)));
+		}
+		context.getSource().sendFeedback(Constants.PREFIX.get().append("§rTotal: %d block(s) checked in %d room(s)".formatted(total, scannedRooms.size())));
+		return Command.SINGLE_SUCCESS;
+	}
+
 	private static int getRelativePos(CommandContext<FabricClientCommandSource> context) {
 		return getRelativePos(context.getSource(), context.getSource().getPlayer().getBlockPos());
 	}
@@ -517,7 +574,7 @@ public class DungeonManager {
 	}
 
 	private static RequiredArgumentBuilder<FabricClientCommandSource, String> matchAgainstCommand() {
-		return argument("room", StringArgumentType.string()).suggests((context, builder) -> CommandSource.suggestMatching(ROOMS_DATA.values().stream().map(Map::values).flatMap(Collection::stream).map(Map::keySet).flatMap(Collection::stream), builder)).then(argument("direction", Room.Direction.DirectionArgumentType.direction()).executes(context -> {
+		return argument("room", StringArgumentType.string()).suggests((context, builder) -> CommandSource.suggestMatching(roomArchive != null ? roomArchive.getRoomNames() : List.of(), builder)).then(argument("direction", Room.Direction.DirectionArgumentType.direction()).executes(context -> {
 			if (!isClearingDungeon()) {
 				context.getSource().sendError(Constants.PREFIX.get().append("§cYou are not in a dungeon."));
 				return Command.SINGLE_SUCCESS;
@@ -559,19 +616,19 @@ public class DungeonManager {
 
 	@Nullable
 	private static Room newDebugRoom(String roomName, Room.Direction direction, PlayerEntity player, MapState map) {
-		Room room = null;
-		int[] roomData;
-		if ((roomData = ROOMS_DATA.get("catacombs").get(Room.Shape.PUZZLE.shape).get(roomName)) != null) {
-			room = DebugRoom.ofSinglePossibleRoom(Room.Type.PUZZLE, DungeonMapUtils.getPhysicalRoomPos(player.getPos()), roomName, roomData, direction);
-		} else if ((roomData = ROOMS_DATA.get("catacombs").get(Room.Shape.TRAP.shape).get(roomName)) != null) {
-			room = DebugRoom.ofSinglePossibleRoom(Room.Type.TRAP, DungeonMapUtils.getPhysicalRoomPos(player.getPos()), roomName, roomData, direction);
-		} else if ((roomData = ROOMS_DATA.get("catacombs").values().stream().map(Map::entrySet).flatMap(Collection::stream).filter(entry -> entry.getKey().equals(roomName)).findAny().map(Map.Entry::getValue).orElse(null)) != null) {
-			room = DebugRoom.ofSinglePossibleRoom(Room.Type.ROOM, DungeonMapUtils.getPhysicalPosFromMap(mapEntrancePos, mapRoomSize, physicalEntrancePos, DungeonMapUtils.getRoomSegments(map, DungeonMapUtils.getMapRoomPos(map, mapEntrancePos, mapRoomSize), mapRoomSize, Room.Type.ROOM.color)), roomName, roomData, direction);
+		RoomArchive archive = roomArchive;
+		String shape = archive != null ? archive.getShape("catacombs", roomName) : null;
+		if (shape == null) return null;
+		RoomIndex index = loadRoomIndex("catacombs", shape).join();
+		if (shape.equals(Room.Shape.PUZZLE.shape)) {
+			return DebugRoom.ofSinglePossibleRoom(Room.Type.PUZZLE, DungeonMapUtils.getPhysicalRoomPos(player.getPos()), index, index.indexOf(roomName), direction);
+		} else if (shape.equals(Room.Shape.TRAP.shape)) {
+			return DebugRoom.ofSinglePossibleRoom(Room.Type.TRAP, DungeonMapUtils.getPhysicalRoomPos(player.getPos()), index, index.indexOf(roomName), direction);
+		} else {
+			return DebugRoom.ofSinglePossibleRoom(Room.Type.ROOM, DungeonMapUtils.getPhysicalPosFromMap(mapEntrancePos, mapRoomSize, physicalEntrancePos, DungeonMapUtils.getRoomSegments(map, DungeonMapUtils.getMapRoomPos(map, mapEntrancePos, mapRoomSize), mapRoomSize, Room.Type.ROOM.color)), index, index.indexOf(roomName), direction);
 		}
-		return room;
 	}
 
-
 	/**
 	 * Gets the Mort NPC's location. This allows us to precisely locate the dungeon entrance
 	 */
@@ -724,16 +781,28 @@ public class DungeonManager {
 	}
 
 	/**
-	 * Calls {@link Room#onChatMessage(String)} on {@link #currentRoom} if the message is an overlay message and {@link #isCurrentRoomMatched()} and processes key obtained messages.
-	 * <p>Used to detect when all secrets in a room are found and detect when a wither or blood door is unlocked.
+	 * @return the prefixes of the messages processed by {@link #onChatMessage(ChatDispatcher.Message)}, taken from the same constants and patterns it matches against
+	 */
+	private static String[] chatMessagePrefixes() {
+		return Stream.of(
+				Stream.of(Room.LOCKED_CHEST, BLOOD_DOOR_OPENED, Formatting.strip(MORT_MESSAGE)),
+				Arrays.stream(ChatDispatcher.prefixes(KEY_FOUND)),
+				Arrays.stream(DungeonBoss.values()).filter(DungeonBoss::isInBoss).map(DungeonBoss::message)
+		).flatMap(Function.identity()).toArray(String[]::new);
+	}
+
+	/**
+	 * Calls {@link Room#onChatMessage(String)} on {@link #currentRoom} if {@link #isCurrentRoomMatched()} and processes key obtained messages.
+	 * <p>Used to detect when a chest is locked and detect when the blood door is unlocked or a key is obtained.
 	 * To process key obtained messages, this method checks if door highlight is enabled and if the message matches a key obtained message.
+	 * Wither door messages are processed in {@link #onWitherDoorMessage(ChatDispatcher.Message)}.
 	 */
-	private static boolean onChatMessage(Text text, boolean overlay) {
+	private static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
 		if (!shouldProcess()) {
-			return true;
+			return ChatFilterResult.PASS;
 		}
 
-		String message = text.getString();
+		String message = chatMessage.raw();
 
 		if (isCurrentRoomMatched()) {
 			currentRoom.onChatMessage(message);
@@ -748,13 +817,9 @@ public class DungeonManager {
 			if (KEY_FOUND.matcher(message).matches()) {
 				hasKey = true;
 			}
-
-			if (WITHER_DOOR_OPENED.matcher(message).matches()) {
-				hasKey = false;
-			}
 		}
 
-		if (message.equals("§e[NPC] §bMort§f: You should find it useful if you get lost.")) {
+		if (message.equals(MORT_MESSAGE)) {
 			DungeonEvents.DUNGEON_STARTED.invoker().onDungeonStarted();
 		}
 
@@ -764,7 +829,19 @@ public class DungeonManager {
 			boss = newBoss;
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
+	}
+
+	private static ChatFilterResult onWitherDoorMessage(ChatDispatcher.Message chatMessage) {
+		if (!shouldProcess() || !chatMessage.raw().endsWith(WITHER_DOOR_OPENED_SUFFIX)) {
+			return ChatFilterResult.PASS;
+		}
+
+		if (SkyblockerConfigManager.get().dungeons.doorHighlight.enableDoorHighlight && !bloodOpened && WITHER_DOOR_OPENED.matcher(chatMessage.raw()).matches()) {
+			hasKey = false;
+		}
+
+		return ChatFilterResult.PASS;
 	}
 
 	/**
@@ -5,12 +5,12 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.events.DungeonEvents;
 import de.hysky.skyblocker.skyblock.dungeon.DungeonClass;
 import de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.text.Text;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
@@ -45,7 +45,8 @@ public class DungeonPlayerManager {
 	public static void init() {
 		DungeonEvents.DUNGEON_LOADED.register(() -> dungeonLoaded = true);
 		Scheduler.INSTANCE.scheduleCyclic(DungeonPlayerManager::updatePlayers, 1);
-		ClientReceiveMessageEvents.ALLOW_GAME.register(DungeonPlayerManager::onPlayerGhost);
+		// The ghost message is searched for anywhere in the message, so it can't be routed by prefix
+		ChatDispatcher.register("DungeonPlayerManager", ChatDispatcher.Channel.ALL, false, DungeonPlayerManager::onPlayerGhost);
 		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
 	}
 
@@ -97,11 +98,11 @@ public class DungeonPlayerManager {
 		return PlayerListManager.regexAt(1 + (index - 1) * 4, PLAYER_TAB_PATTERN);
 	}
 
-	private static boolean onPlayerGhost(Text text, boolean overlay) {
-		if (!dungeonLoaded) return true;
+	private static ChatFilterResult onPlayerGhost(ChatDispatcher.Message message) {
+		if (!dungeonLoaded) return ChatFilterResult.PASS;
 
-		Matcher matcher = PLAYER_GHOST_PATTERN.matcher(text.getString());
-		if (!matcher.find()) return true;
+		Matcher matcher = PLAYER_GHOST_PATTERN.matcher(message.raw());
+		if (!matcher.find()) return ChatFilterResult.PASS;
 
 		String name = matcher.group("name");
 		if (name.equals("You")) {
@@ -110,7 +111,7 @@ public class DungeonPlayerManager {
 		}
 		getPlayer(name).ifPresentOrElse(DungeonPlayer::ghost, () -> DungeonManager.LOGGER.error("[Skyblocker Dungeon Player Manager] Received ghost message for player '{}' but player was not found in the player list: {}", matcher.group("name"), Arrays.toString(players)));
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static void reset() {
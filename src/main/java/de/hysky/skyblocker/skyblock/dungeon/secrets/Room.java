@@ -29,14 +29,11 @@ import net.minecraft.client.world.ClientWorld;
 import net.minecraft.command.argument.EnumArgumentType;
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.entity.mob.AmbientEntity;
-import net.minecraft.registry.Registries;
 import net.minecraft.text.Text;
 import net.minecraft.util.StringIdentifiable;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
-import org.apache.commons.lang3.tuple.MutableTriple;
-import org.apache.commons.lang3.tuple.Triple;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Vector2i;
@@ -50,7 +47,7 @@ import java.util.regex.Pattern;
 public class Room implements Tickable, Renderable {
     private static final Pattern SECRET_INDEX = Pattern.compile("^(\\d+)");
     private static final Pattern SECRETS = Pattern.compile("§7(\\d{1,2})/(\\d{1,2}) Secrets");
-    private static final String LOCKED_CHEST = "That chest is locked!";
+    protected static final String LOCKED_CHEST = "That chest is locked!";
     protected static final float[] RED_COLOR_COMPONENTS = {1, 0, 0};
     protected static final float[] GREEN_COLOR_COMPONENTS = {0, 1, 0};
     @NotNull
@@ -70,22 +67,32 @@ public class Room implements Tickable, Renderable {
     @NotNull
     private final Shape shape;
     /**
-     * The room data containing all rooms for a specific dungeon and {@link #shape}.
+     * The index of the room data containing all rooms for a specific dungeon and {@link #shape}.
      */
-    protected Map<String, int[]> roomsData;
+    protected RoomIndex roomIndex;
     /**
-     * Contains all possible dungeon rooms for this room. The list is gradually shrunk by checking blocks until only one room is left.
+     * The possible directions of this room and the physical corner position for each direction.
      */
-    protected List<MutableTriple<Direction, Vector2ic, List<String>>> possibleRooms;
+    protected Direction[] possibleDirections;
+    protected Vector2ic[] physicalCornerPositions;
     /**
-     * Contains all blocks that have been checked to prevent checking the same block multiple times.
+     * Contains a bitset of all possible dungeon rooms in {@link #roomIndex} for each of {@link #possibleDirections}.
+     * The bitsets are gradually shrunk by checking blocks until only one room is left.
      */
-    private Set<BlockPos> checkedBlocks = new HashSet<>();
+    protected long[][] possibleRooms;
+    /**
+     * Contains all blocks that have been checked to prevent checking the same block multiple times. Only accessed on the {@link RoomMatcher} worker.
+     */
+    private BlockPosBitSet checkedBlocks = new BlockPosBitSet();
     /**
      * The task that is used to check blocks. This is used to ensure only one such task can run at a time.
      */
     protected CompletableFuture<Void> findRoom;
     private int doubleCheckBlocks;
+    /**
+     * The number of blocks checked until the room was confirmed, kept after {@link #checkedBlocks} is discarded.
+     */
+    private int confirmedAfterBlocks;
     /**
      * Represents the matching state of the room with the following possible values:
      * <li>{@link MatchState#MATCHING} means that the room has not been checked, is being processed, or does not {@link Type#needsScanning() need to be processed}.</li>
@@ -110,8 +117,7 @@ public class Room implements Tickable, Renderable {
         IntSortedSet segmentsX = IntSortedSets.unmodifiable(new IntRBTreeSet(segments.stream().mapToInt(Vector2ic::x).toArray()));
         IntSortedSet segmentsY = IntSortedSets.unmodifiable(new IntRBTreeSet(segments.stream().mapToInt(Vector2ic::y).toArray()));
         shape = getShape(segmentsX, segmentsY);
-        roomsData = DungeonManager.ROOMS_DATA.getOrDefault("catacombs", Collections.emptyMap()).getOrDefault(shape.shape.toLowerCase(Locale.ENGLISH), Collections.emptyMap());
-        possibleRooms = getPossibleRooms(segmentsX, segmentsY);
+        setPossibleRooms(segmentsX, segmentsY);
     }
 
     @NotNull
@@ -137,6 +143,14 @@ public class Room implements Tickable, Renderable {
         return direction;
     }
 
+    /**
+     * @return the number of blocks checked so far, or until the room was confirmed if it has been
+     */
+    int getCheckedBlocks() {
+        BlockPosBitSet checkedBlocks = this.checkedBlocks;
+        return checkedBlocks != null ? checkedBlocks.size() : confirmedAfterBlocks;
+    }
+
     @Override
     public String toString() {
         return "Room{type=%s, segments=%s, shape=%s, matchState=%s, name=%s, direction=%s, physicalCornerPos=%s}".formatted(type, Arrays.toString(segments.toArray()), shape, matchState, name, direction, physicalCornerPos);
@@ -157,13 +171,15 @@ public class Room implements Tickable, Renderable {
         };
     }
 
-    private List<MutableTriple<Direction, Vector2ic, List<String>>> getPossibleRooms(IntSortedSet segmentsX, IntSortedSet segmentsY) {
-        List<String> possibleDirectionRooms = new ArrayList<>(roomsData.keySet());
-        List<MutableTriple<Direction, Vector2ic, List<String>>> possibleRooms = new ArrayList<>();
-        for (Direction direction : getPossibleDirections(segmentsX, segmentsY)) {
-            possibleRooms.add(MutableTriple.of(direction, DungeonMapUtils.getPhysicalCornerPos(direction, segmentsX, segmentsY), possibleDirectionRooms));
+    private void setPossibleRooms(IntSortedSet segmentsX, IntSortedSet segmentsY) {
+        roomIndex = DungeonManager.getRoomIndex(shape);
+        possibleDirections = getPossibleDirections(segmentsX, segmentsY);
+        physicalCornerPositions = new Vector2ic[possibleDirections.length];
+        possibleRooms = new long[possibleDirections.length][];
+        for (int i = 0; i < possibleDirections.length; i++) {
+            physicalCornerPositions[i] = DungeonMapUtils.getPhysicalCornerPos(possibleDirections[i], segmentsX, segmentsY);
+            possibleRooms[i] = roomIndex.allRooms();
         }
-        return possibleRooms;
     }
 
     @NotNull
@@ -281,14 +297,14 @@ public class Room implements Tickable, Renderable {
      * <ul>
      *     <li> The room does not need to be scanned and matched. (When the room is not of type {@link Type.ROOM}, {@link Type.PUZZLE}, or {@link Type.TRAP}. See {@link Type#needsScanning()}) </li>
      *     <li> The room has been matched or failed to match and is on cooldown. See {@link #matchState}. </li>
+     *     <li> The dungeon rooms data has not been loaded yet. See {@link #isRoomIndexLoaded()}. </li>
      *     <li> {@link #findRoom The previous update} has not completed. </li>
      * </ul>
      * Then this method tries to match this room through:
      * <ul>
-     *     <li> Iterate over a 11 by 11 by 11 box around the player. </li>
-     *     <li> Check it the block is part of this room and not part of a doorway. See {@link #segments} and {@link #notInDoorway(BlockPos)}. </li>
-     *     <li> Checks if the position has been checked and adds it to {@link #checkedBlocks}. </li>
-     *     <li> Calls {@link #checkBlock(ClientWorld, BlockPos)} </li>
+     *     <li> Take a {@link RoomMatcher#snapshot(ClientWorld, BlockPos, Set) snapshot} of the blocks in a 11 by 11 by 11 box around the player
+     *     which are part of this room and not part of a doorway. See {@link #segments} and {@link #notInDoorway(BlockPos)}. </li>
+     *     <li> Check the snapshot on the {@link RoomMatcher} worker with {@link #checkSnapshot(RoomMatcher.Snapshot)}. </li>
      * </ul>
      */
     @SuppressWarnings("JavadocReference")
@@ -304,26 +320,35 @@ public class Room implements Tickable, Renderable {
 
         // Room scanning and matching
         // Logical AND has higher precedence than logical OR
-        if (!type.needsScanning() || matchState != MatchState.MATCHING && matchState != MatchState.DOUBLE_CHECKING || !DungeonManager.isRoomsLoaded() || findRoom != null && !findRoom.isDone()) {
+        if (!type.needsScanning() || matchState != MatchState.MATCHING && matchState != MatchState.DOUBLE_CHECKING || !DungeonManager.isRoomsLoaded() || !isRoomIndexLoaded() || findRoom != null && !findRoom.isDone()) {
             return;
         }
         ClientPlayerEntity player = client.player;
         if (player == null) {
             return;
         }
-        findRoom = CompletableFuture.runAsync(() -> {
-            for (BlockPos pos : BlockPos.iterate(player.getBlockPos().add(-5, -5, -5), player.getBlockPos().add(5, 5, 5))) {
-                if (segments.contains(DungeonMapUtils.getPhysicalRoomPos(pos)) && notInDoorway(pos) && checkedBlocks.add(pos) && checkBlock(client.world, pos)) {
-                    break;
-                }
-            }
-        }).exceptionally(e -> {
+        findRoom = RoomMatcher.match(this, RoomMatcher.snapshot(client.world, player.getBlockPos(), segments)).exceptionally(e -> {
             DungeonManager.LOGGER.error("[Skyblocker Dungeon Secrets] Encountered an unknown exception while matching room {}", this, e);
             return null;
         });
     }
 
-    private static boolean notInDoorway(BlockPos pos) {
+    /**
+     * The room index is decoded asynchronously when a room with its shape is first created,
+     * so the index is fetched again once it's ready if this room was created before then.
+     */
+    private boolean isRoomIndexLoaded() {
+        if (roomIndex != RoomIndex.EMPTY) {
+            return true;
+        }
+        if (DungeonManager.getRoomIndex(shape) == RoomIndex.EMPTY) {
+            return false;
+        }
+        reset();
+        return true;
+    }
+
+    static boolean notInDoorway(BlockPos pos) {
         if (pos.getY() < 66 || pos.getY() > 73) {
             return true;
         }
@@ -332,22 +357,34 @@ public class Room implements Tickable, Renderable {
         return (x < 13 || x > 17 || z > 2 && z < 28) && (z < 13 || z > 17 || x > 2 && x < 28);
     }
 
+    /**
+     * Checks the blocks of the snapshot which haven't been checked yet, starting with the blocks that rule out the most rooms.
+     * See {@link RoomMatcher#order(RoomMatcher.Snapshot, BlockPosBitSet, RoomIndex, Direction[], Vector2ic[])}.
+     * Stops after {@link RoomMatcher#MAX_BLOCKS_PER_BATCH} blocks or when {@link #checkBlock(int, int, int, byte)} ends matching.
+     */
+    void checkSnapshot(RoomMatcher.Snapshot snapshot) {
+        int[] order = RoomMatcher.order(snapshot, checkedBlocks, roomIndex, possibleDirections, physicalCornerPositions);
+        for (int i = 0; i < order.length && i < RoomMatcher.MAX_BLOCKS_PER_BATCH; i++) {
+            long pos = snapshot.positions()[order[i]];
+            int x = BlockPos.unpackLongX(pos);
+            int y = BlockPos.unpackLongY(pos);
+            int z = BlockPos.unpackLongZ(pos);
+            checkedBlocks.add(x, y, z);
+            if (checkBlock(x, y, z, snapshot.ids()[order[i]])) {
+                break;
+            }
+        }
+    }
+
     /**
      * Filters out dungeon rooms which does not contain the block at the given position.
      * <p></p>
      * This method:
      * <ul>
-     *     <li> Checks if the block type is included in the dungeon rooms data. See {@link DungeonManager#NUMERIC_ID}. </li>
      *     <li> For each possible direction: </li>
      *     <ul>
-     *         <li> Rotate and convert the position to a relative position. See {@link DungeonMapUtils#actualToRelative(Direction, Vector2ic, BlockPos)}. </li>
-     *         <li> Encode the block based on the relative position and the custom numeric block id. See {@link #posIdToInt(BlockPos, byte)}. </li>
-     *         <li> For each possible room in the current direction: </li>
-     *         <ul>
-     *             <li> Check if {@link #roomsData} contains the encoded block. </li>
-     *             <li> If so, add the room to the new list of possible rooms for this direction. </li>
-     *         </ul>
-     *         <li> Replace the old possible room list for the current direction with the new one. </li>
+     *         <li> Rotate, convert, and encode the position and the custom numeric block id. See {@link RoomIndex#encode(Direction, Vector2ic, int, int, int, byte)}. </li>
+     *         <li> Remove the rooms which do not contain the encoded block from the possible rooms bitset of the current direction. See {@link RoomIndex#retain(long[], int)}. </li>
      *     </ul>
      *     <li> If there are no matching rooms left: </li>
      *     <ul>
@@ -373,27 +410,15 @@ public class Room implements Tickable, Renderable {
      *     <li> Return {@code false} </li>
      * </ul>
      *
-     * @param world the world to get the block from
-     * @param pos   the position of the block to check
+     * @param id the custom numeric id of the block, see {@link DungeonManager#NUMERIC_ID}
      * @return whether room matching should end. Either a match is found or there are no valid rooms left
      */
-    protected boolean checkBlock(ClientWorld world, BlockPos pos) {
-        byte id = DungeonManager.NUMERIC_ID.getByte(Registries.BLOCK.getId(world.getBlockState(pos).getBlock()).toString());
-        if (id == 0) {
-            return false;
-        }
-        for (MutableTriple<Direction, Vector2ic, List<String>> directionRooms : possibleRooms) {
-            int block = posIdToInt(DungeonMapUtils.actualToRelative(directionRooms.getLeft(), directionRooms.getMiddle(), pos), id);
-            List<String> possibleDirectionRooms = new ArrayList<>();
-            for (String room : directionRooms.getRight()) {
-                if (Arrays.binarySearch(roomsData.get(room), block) >= 0) {
-                    possibleDirectionRooms.add(room);
-                }
-            }
-            directionRooms.setRight(possibleDirectionRooms);
+    protected boolean checkBlock(int x, int y, int z, byte id) {
+        int matchingRoomsSize = 0;
+        for (int i = 0; i < possibleDirections.length; i++) {
+            matchingRoomsSize += roomIndex.retain(possibleRooms[i], RoomIndex.encode(possibleDirections[i], physicalCornerPositions[i], x, y, z, id));
         }
 
-        int matchingRoomsSize = possibleRooms.stream().map(Triple::getRight).mapToInt(Collection::size).sum();
         if (matchingRoomsSize == 0) synchronized (this) {
             // If no rooms match, reset the fields and scan again after 50 ticks.
             matchState = MatchState.FAILED;
@@ -405,16 +430,14 @@ public class Room implements Tickable, Renderable {
         else if (matchingRoomsSize == 1) {
             if (matchState == MatchState.MATCHING) {
                 // If one room matches, load the secrets for that room and set state to double-checking.
-                Triple<Direction, Vector2ic, List<String>> directionRoom = possibleRooms.stream().filter(directionRooms -> directionRooms.getRight().size() == 1).findAny().orElseThrow();
-                name = directionRoom.getRight().getFirst();
-                direction = directionRoom.getLeft();
-                physicalCornerPos = directionRoom.getMiddle();
+                matchedRoom();
                 DungeonManager.LOGGER.info("[Skyblocker Dungeon Secrets] Room {} matched after checking {} block(s), starting double checking", name, checkedBlocks.size());
                 roomMatched();
                 return false;
             } else if (matchState == MatchState.DOUBLE_CHECKING && ++doubleCheckBlocks >= 10) {
                 // If double-checked, set state to matched and discard the no longer needed fields.
                 matchState = MatchState.MATCHED;
+                confirmedAfterBlocks = checkedBlocks.size();
                 DungeonEvents.ROOM_MATCHED.invoker().onRoomMatched(this);
                 DungeonManager.LOGGER.info("[Skyblocker Dungeon Secrets] Room {} confirmed after checking {} block(s) including double checking {} block(s)", name, checkedBlocks.size(), doubleCheckBlocks);
                 discard();
@@ -427,6 +450,24 @@ public class Room implements Tickable, Renderable {
         }
     }
 
+    /**
+     * Sets {@link #name}, {@link #direction}, and {@link #physicalCornerPos} from the only room left in {@link #possibleRooms}.
+     */
+    private void matchedRoom() {
+        for (int i = 0; i < possibleDirections.length; i++) {
+            long[] rooms = possibleRooms[i];
+            for (int word = 0; word < rooms.length; word++) {
+                if (rooms[word] != 0) {
+                    name = roomIndex.getName(word << 6 | Long.numberOfTrailingZeros(rooms[word]));
+                    direction = possibleDirections[i];
+                    physicalCornerPos = physicalCornerPositions[i];
+                    return;
+                }
+            }
+        }
+        throw new NoSuchElementException("No possible room left");
+    }
+
     /**
      * Encodes a {@link BlockPos} and the custom numeric block id into an integer.
      *
@@ -468,8 +509,8 @@ public class Room implements Tickable, Renderable {
     protected void reset() {
         IntSortedSet segmentsX = IntSortedSets.unmodifiable(new IntRBTreeSet(segments.stream().mapToInt(Vector2ic::x).toArray()));
         IntSortedSet segmentsY = IntSortedSets.unmodifiable(new IntRBTreeSet(segments.stream().mapToInt(Vector2ic::y).toArray()));
-        possibleRooms = getPossibleRooms(segmentsX, segmentsY);
-        checkedBlocks = new HashSet<>();
+        setPossibleRooms(segmentsX, segmentsY);
+        checkedBlocks = new BlockPosBitSet();
         doubleCheckBlocks = 0;
         secretWaypoints = null;
         name = null;
@@ -482,7 +523,9 @@ public class Room implements Tickable, Renderable {
      * These fields are no longer needed and are discarded to save memory.
      */
     private void discard() {
-        roomsData = null;
+        roomIndex = null;
+        possibleDirections = null;
+        physicalCornerPositions = null;
         possibleRooms = null;
         checkedBlocks = null;
         doubleCheckBlocks = 0;
@@ -0,0 +1,187 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import de.hysky.skyblocker.utils.FileUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The packed blocks of all dungeon rooms, generated at build time from the {@code .skeleton} files by the {@code packDungeonRooms} task.
+ * See {@code PackDungeonRoomsTask} in {@code buildSrc} for the format.
+ * <p>
+ * Only the header is parsed when the archive is opened. The blocks of the rooms stay in the (usually memory mapped) buffer
+ * until they are decoded one room shape at a time with {@link #readShape(String, String)}.
+ */
+class RoomArchive {
+	private static final int MAGIC = 0x534B4452;
+	private static final int VERSION = 1;
+	/**
+	 * Magic, version, header length, data length, crc, and room count.
+	 */
+	private static final int FIXED_HEADER_LENGTH = 6 * Integer.BYTES;
+
+	private final ByteBuffer buffer;
+	private final int dataStart;
+	/**
+	 * Maps dungeons to shapes to rooms to their entry in the archive.
+	 */
+	private final Map<String, Map<String, Map<String, Entry>>> entries = new HashMap<>();
+
+	private RoomArchive(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		int magic = buffer.getInt(0);
+		int version = buffer.getInt(4);
+		if (magic != MAGIC || version != VERSION) throw new IOException("Unsupported dungeon room archive with magic %x and version %d".formatted(magic, version));
+		dataStart = buffer.getInt(8);
+		int dataLength = buffer.getInt(12);
+		if (buffer.capacity() != dataStart + dataLength) throw new IOException("Truncated dungeon room archive");
+
+		ByteBuffer header = buffer.slice(FIXED_HEADER_LENGTH, dataStart - FIXED_HEADER_LENGTH);
+		int rooms = buffer.getInt(20);
+		for (int i = 0; i < rooms; i++) {
+			String dungeon = readString(header);
+			String shape = readString(header);
+			String room = readString(header);
+			Entry entry = new Entry(header.getInt(), header.getInt());
+			if (entry.offset < 0 || entry.length < 0 || (long) entry.offset + (long) entry.length * Integer.BYTES > dataLength) throw new IOException("Invalid dungeon room archive entry for room " + room);
+			entries.computeIfAbsent(dungeon, dungeonKey -> new HashMap<>()).computeIfAbsent(shape, shapeKey -> new LinkedHashMap<>()).put(room, entry);
+		}
+	}
+
+	/**
+	 * Opens the archive by memory mapping a copy of it in {@code cacheFile}.
+	 * The archive is only copied when the cached copy is missing or has a different header, such as after the mod is updated.
+	 */
+	static RoomArchive open(InputStream archive, Path cacheFile) throws IOException {
+		try (DataInputStream in = new DataInputStream(archive)) {
+			byte[] header = readHeader(in);
+			if (!isCached(cacheFile, header)) {
+				Files.createDirectories(cacheFile.getParent());
+				Path tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+				try {
+					try (OutputStream out = Files.newOutputStream(tempFile)) {
+						out.write(header);
+						in.transferTo(out);
+					}
+					FileUtils.replace(tempFile, cacheFile);
+				} finally {
+					Files.deleteIfExists(tempFile);
+				}
+			}
+		}
+
+		// The mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+			return new RoomArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Reads the whole archive onto the heap. Used when the archive can't be memory mapped.
+	 */
+	static RoomArchive read(InputStream archive) throws IOException {
+		try (archive) {
+			return new RoomArchive(ByteBuffer.wrap(archive.readAllBytes()));
+		}
+	}
+
+	private static byte[] readHeader(DataInputStream in) throws IOException {
+		byte[] fixedHeader = new byte[FIXED_HEADER_LENGTH];
+		in.readFully(fixedHeader);
+		int headerLength = ByteBuffer.wrap(fixedHeader).getInt(8);
+		if (headerLength < FIXED_HEADER_LENGTH) throw new IOException("Invalid dungeon room archive header length " + headerLength);
+		byte[] header = Arrays.copyOf(fixedHeader, headerLength);
+		in.readFully(header, FIXED_HEADER_LENGTH, headerLength - FIXED_HEADER_LENGTH);
+		return header;
+	}
+
+	/**
+	 * The header contains the length and CRC of the data, so an identical header with the right file size means the cached archive is up to date.
+	 */
+	private static boolean isCached(Path cacheFile, byte[] header) {
+		if (!Files.isRegularFile(cacheFile)) return false;
+		try (InputStream in = Files.newInputStream(cacheFile)) {
+			return Files.size(cacheFile) == header.length + (long) ByteBuffer.wrap(header).getInt(12) && Arrays.equals(in.readNBytes(header.length), header);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static String readString(ByteBuffer header) {
+		byte[] bytes = new byte[Short.toUnsignedInt(header.getShort())];
+		header.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks the CRC of the block data. This reads the whole archive, so it's only meant for tests.
+	 */
+	boolean verify() {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.slice(dataStart, buffer.capacity() - dataStart));
+		return (int) crc.getValue() == buffer.getInt(16);
+	}
+
+	int getDungeonCount() {
+		return entries.size();
+	}
+
+	int getShapeCount() {
+		return entries.values().stream().mapToInt(Map::size).sum();
+	}
+
+	int getRoomCount() {
+		return entries.values().stream().flatMap(shapes -> shapes.values().stream()).mapToInt(Map::size).sum();
+	}
+
+	List<String> getRoomNames() {
+		return entries.values().stream().flatMap(shapes -> shapes.values().stream()).flatMap(rooms -> rooms.keySet().stream()).toList();
+	}
+
+	/**
+	 * @return the shape of the room with the given name, or {@code null} if there is no such room
+	 */
+	@Nullable
+	String getShape(String dungeon, String room) {
+		for (Map.Entry<String, Map<String, Entry>> shape : entries.getOrDefault(dungeon, Map.of()).entrySet()) {
+			if (shape.getValue().containsKey(room)) return shape.getKey();
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes the blocks of all rooms with the given dungeon and shape.
+	 *
+	 * @return the map of room names to the sorted encoded blocks of each room, which is empty if there are no such rooms
+	 */
+	Map<String, int[]> readShape(String dungeon, String shape) {
+		Map<String, int[]> rooms = new HashMap<>();
+		entries.getOrDefault(dungeon, Map.of()).getOrDefault(shape, Map.of()).forEach((room, entry) -> {
+			int[] blocks = new int[entry.length];
+			buffer.slice(dataStart + entry.offset, entry.length * Integer.BYTES).asIntBuffer().get(blocks);
+			rooms.put(room, blocks);
+		});
+		return rooms;
+	}
+
+	/**
+	 * @param offset the offset of the blocks in the block data in bytes
+	 * @param length the number of blocks
+	 */
+	record Entry(int offset, int length) {}
+}
@@ -0,0 +1,191 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import org.joml.Vector2ic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the blocks of all dungeon rooms of one shape, used to narrow down the rooms a {@link Room} can be while scanning it.
+ * <p>
+ * Every block of every room is encoded with {@link #encode(Room.Direction, Vector2ic, int, int, int, byte)} into a sorted array of unique blocks,
+ * and each block maps to a bitset of the rooms containing it. Candidate rooms are tracked as a bitset per direction,
+ * so checking a block is one binary search and one bitwise AND per direction, without allocating.
+ * <p>
+ * Rotations are applied to the scanned position instead of storing four rotated copies of the index, since the rotation is only a few integer operations.
+ */
+class RoomIndex {
+	static final RoomIndex EMPTY = new RoomIndex(new String[0], new int[0], new long[0]);
+
+	private final String[] names;
+	/**
+	 * The number of longs in the bitset of each block.
+	 */
+	private final int words;
+	/**
+	 * The sorted unique encoded blocks of all rooms.
+	 */
+	private final int[] blocks;
+	/**
+	 * The bitsets of rooms containing each block, {@link #words} longs per block in the same order as {@link #blocks}.
+	 */
+	private final long[] rooms;
+	/**
+	 * The number of rooms containing each block, in the same order as {@link #blocks}.
+	 */
+	private final int[] frequencies;
+
+	private RoomIndex(String[] names, int[] blocks, long[] rooms) {
+		this.names = names;
+		this.words = words(names.length);
+		this.blocks = blocks;
+		this.rooms = rooms;
+		this.frequencies = new int[blocks.length];
+		for (int i = 0; i < blocks.length; i++) {
+			for (int word = 0; word < words; word++) {
+				frequencies[i] += Long.bitCount(rooms[i * words + word]);
+			}
+		}
+	}
+
+	/**
+	 * Builds the index from the sorted encoded blocks of each room.
+	 *
+	 * @param roomsData the map of room names to the sorted encoded blocks of each room
+	 */
+	static RoomIndex build(Map<String, int[]> roomsData) {
+		String[] names = roomsData.keySet().stream().sorted().toArray(String[]::new);
+		if (names.length > 0xFF) throw new IllegalArgumentException("Too many rooms for one shape: " + names.length);
+		int words = words(names.length);
+
+		// Pack each block with the room containing it so that sorting groups rooms by block
+		long[] pairs = new long[roomsData.values().stream().mapToInt(data -> data.length).sum()];
+		int size = 0;
+		for (int room = 0; room < names.length; room++) {
+			for (int block : roomsData.get(names[room])) {
+				pairs[size++] = (long) block << 8 | room;
+			}
+		}
+		LongArrays.parallelQuickSort(pairs, 0, size);
+
+		int[] blocks = new int[size];
+		long[] rooms = new long[size * words];
+		int unique = -1;
+		for (int i = 0; i < size; i++) {
+			int block = (int) (pairs[i] >> 8);
+			int room = (int) (pairs[i] & 0xFF);
+			if (unique < 0 || blocks[unique] != block) blocks[++unique] = block;
+			rooms[unique * words + (room >>> 6)] |= 1L << room;
+		}
+		unique++;
+
+		return new RoomIndex(names, Arrays.copyOf(blocks, unique), Arrays.copyOf(rooms, unique * words));
+	}
+
+	private static int words(int rooms) {
+		return (rooms + 63) >>> 6;
+	}
+
+	/**
+	 * Encodes a block into the format of the dungeon rooms data. See {@link Room#posIdToInt(net.minecraft.util.math.BlockPos, byte)}.
+	 * The position is rotated and converted to a position relative to the room the same way as
+	 * {@link DungeonMapUtils#actualToRelative(Room.Direction, Vector2ic, net.minecraft.util.math.BlockPos)}, but without allocating.
+	 */
+	static int encode(Room.Direction direction, Vector2ic physicalCornerPos, int x, int y, int z, byte id) {
+		int relativeX = switch (direction) {
+			case NW -> x - physicalCornerPos.x();
+			case NE -> z - physicalCornerPos.y();
+			case SW -> -z + physicalCornerPos.y();
+			case SE -> -x + physicalCornerPos.x();
+		};
+		int relativeZ = switch (direction) {
+			case NW -> z - physicalCornerPos.y();
+			case NE -> -x + physicalCornerPos.x();
+			case SW -> x - physicalCornerPos.x();
+			case SE -> -z + physicalCornerPos.y();
+		};
+		return relativeX << 24 | y << 16 | relativeZ << 8 | id;
+	}
+
+	int size() {
+		return names.length;
+	}
+
+	int words() {
+		return words;
+	}
+
+	String getName(int room) {
+		return names[room];
+	}
+
+	/**
+	 * @return the index of the room with the given name, or -1 if there is no such room
+	 */
+	int indexOf(String name) {
+		int room = Arrays.binarySearch(names, name);
+		return room >= 0 ? room : -1;
+	}
+
+	List<String> getNames() {
+		return List.of(names);
+	}
+
+	/**
+	 * @return a new bitset containing all rooms
+	 */
+	long[] allRooms() {
+		long[] candidates = new long[words];
+		for (int room = 0; room < names.length; room++) {
+			candidates[room >>> 6] |= 1L << room;
+		}
+		return candidates;
+	}
+
+	/**
+	 * Removes the rooms which do not contain the block from the candidates.
+	 *
+	 * @param candidates the bitset of candidate rooms, which is modified in place
+	 * @param block      the encoded block
+	 * @return the number of remaining candidates
+	 */
+	int retain(long[] candidates, int block) {
+		if (isEmpty(candidates)) return 0;
+		int index = Arrays.binarySearch(blocks, block);
+		int remaining = 0;
+		for (int word = 0; word < words; word++) {
+			candidates[word] &= index >= 0 ? rooms[index * words + word] : 0;
+			remaining += Long.bitCount(candidates[word]);
+		}
+		return remaining;
+	}
+
+	private static boolean isEmpty(long[] candidates) {
+		for (long word : candidates) {
+			if (word != 0) return false;
+		}
+		return true;
+	}
+
+	boolean contains(int room, int block) {
+		int index = Arrays.binarySearch(blocks, block);
+		return index >= 0 && (rooms[index * words + (room >>> 6)] & 1L << room) != 0;
+	}
+
+	/**
+	 * @return the number of rooms containing the block, where blocks contained in fewer rooms rule out more rooms when checked
+	 */
+	int frequency(int block) {
+		int index = Arrays.binarySearch(blocks, block);
+		return index >= 0 ? frequencies[index] : 0;
+	}
+
+	/**
+	 * @return the number of unique blocks in the index
+	 */
+	int blockCount() {
+		return blocks.length;
+	}
+}
@@ -0,0 +1,129 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.objects.Reference2ByteMap;
+import it.unimi.dsi.fastutil.objects.Reference2ByteOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.math.BlockPos;
+import org.joml.Vector2ic;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Matches {@link Room rooms} against the dungeon rooms data on a dedicated worker thread.
+ * <p>
+ * The blocks around the player are read into a {@link Snapshot} on the render thread, so the world is never accessed off-thread.
+ * The worker then checks the blocks that rule out the most rooms first, using how many rooms of the shape contain each block
+ * according to the {@link RoomIndex}, and checks at most {@link #MAX_BLOCKS_PER_BATCH} blocks per snapshot.
+ */
+final class RoomMatcher {
+	/**
+	 * Blocks in the snapshot that are not checked are taken again by the next snapshot if they're still around the player.
+	 */
+	static final int MAX_BLOCKS_PER_BATCH = 256;
+	private static final int RADIUS = 5;
+	private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+			.name("Skyblocker Room Matcher")
+			.daemon()
+			.factory());
+	/**
+	 * Caches the custom numeric id of each block so that taking a snapshot doesn't convert every block id to a string. Only accessed on the render thread.
+	 */
+	private static final Reference2ByteMap<Block> NUMERIC_IDS = new Reference2ByteOpenHashMap<>();
+
+	private RoomMatcher() {}
+
+	/**
+	 * Reads the blocks in the 11 by 11 by 11 box around the center that are in the segments of the room, not in a doorway, and in the dungeon rooms data.
+	 * Must be called on the render thread.
+	 */
+	static Snapshot snapshot(ClientWorld world, BlockPos center, Set<Vector2ic> segments) {
+		int diameter = RADIUS * 2 + 1;
+		long[] positions = new long[diameter * diameter * diameter];
+		byte[] ids = new byte[positions.length];
+		int size = 0;
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+
+		for (int x = center.getX() - RADIUS; x <= center.getX() + RADIUS; x++) {
+			for (int z = center.getZ() - RADIUS; z <= center.getZ() + RADIUS; z++) {
+				if (!segments.contains(DungeonMapUtils.getPhysicalRoomPos(x, z))) continue;
+
+				for (int y = center.getY() - RADIUS; y <= center.getY() + RADIUS; y++) {
+					if (!Room.notInDoorway(pos.set(x, y, z))) continue;
+
+					byte id = getNumericId(world.getBlockState(pos).getBlock());
+					if (id == 0) continue;
+
+					positions[size] = pos.asLong();
+					ids[size++] = id;
+				}
+			}
+		}
+
+		return new Snapshot(positions, ids, size);
+	}
+
+	private static byte getNumericId(Block block) {
+		if (NUMERIC_IDS.containsKey(block)) return NUMERIC_IDS.getByte(block);
+
+		byte id = DungeonManager.NUMERIC_ID.getByte(Registries.BLOCK.getId(block).toString());
+		NUMERIC_IDS.put(block, id);
+		return id;
+	}
+
+	/**
+	 * Checks the snapshot against the room on the worker thread.
+	 */
+	static CompletableFuture<Void> match(Room room, Snapshot snapshot) {
+		return CompletableFuture.runAsync(() -> room.checkSnapshot(snapshot), WORKER);
+	}
+
+	/**
+	 * Orders the blocks of the snapshot so that the blocks contained in the fewest rooms across all possible directions come first, since they rule out the most rooms.
+	 * Blocks that aren't in any room come last, as they are usually blocks that changed since the room data was recorded, such as opened chests or broken blocks.
+	 *
+	 * @param checked the blocks that have already been checked, which are left out
+	 * @return the indices of the blocks to check in the snapshot, in the order to check them
+	 */
+	static int[] order(Snapshot snapshot, BlockPosBitSet checked, RoomIndex roomIndex, Room.Direction[] directions, Vector2ic[] physicalCornerPositions) {
+		// Pack the score and the index into a long so that sorting doesn't box
+		long[] keys = new long[snapshot.size];
+		int size = 0;
+		for (int i = 0; i < snapshot.size; i++) {
+			long pos = snapshot.positions[i];
+			int x = BlockPos.unpackLongX(pos);
+			int y = BlockPos.unpackLongY(pos);
+			int z = BlockPos.unpackLongZ(pos);
+			if (checked.contains(x, y, z)) continue;
+
+			long score = 0;
+			for (int direction = 0; direction < directions.length; direction++) {
+				score += roomIndex.frequency(RoomIndex.encode(directions[direction], physicalCornerPositions[direction], x, y, z, snapshot.ids[i]));
+			}
+			if (score == 0) score = Integer.MAX_VALUE;
+
+			keys[size++] = score << 32 | i;
+		}
+		LongArrays.quickSort(keys, 0, size);
+
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = (int) keys[i];
+		}
+		return order;
+	}
+
+	/**
+	 * The blocks around the player at the time of the snapshot.
+	 *
+	 * @param positions the {@link BlockPos#asLong() packed} positions of the blocks
+	 * @param ids       the custom numeric ids of the blocks, see {@link DungeonManager#NUMERIC_ID}
+	 * @param size      the number of blocks, the arrays can be longer
+	 */
+	record Snapshot(long[] positions, byte[] ids, int size) {}
+}
@@ -10,13 +10,13 @@ import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Http;
 import de.hysky.skyblocker.utils.Http.ApiResponse;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.text.HoverEvent;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,7 +39,7 @@ public class SecretsTracker {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(SecretsTracker::onMessage);
+		ChatDispatcher.register("SecretsTracker", ChatDispatcher.Channel.CHAT, false, SecretsTracker::onMessage, ChatDispatcher.prefixes(TEAM_SCORE_PATTERN));
 		DungeonEvents.DUNGEON_STARTED.register(() -> calculate(RunPhase.START));
 	}
 
@@ -116,9 +116,9 @@ public class SecretsTracker {
 				new HoverEvent.ShowText(cached ? Text.translatable("skyblocker.api.cache.HIT", cacheAge) : Text.translatable("skyblocker.api.cache.MISS"))));
 	}
 
-	private static boolean onMessage(Text text, boolean overlay) {
-		if (Utils.isInDungeons() && SkyblockerConfigManager.get().dungeons.playerSecretsTracker && !overlay) {
-			String message = Formatting.strip(text.getString());
+	private static ChatFilterResult onMessage(ChatDispatcher.Message chatMessage) {
+		if (Utils.isInDungeons() && SkyblockerConfigManager.get().dungeons.playerSecretsTracker) {
+			String message = chatMessage.plain();
 
 			try {
 				if (TEAM_SCORE_PATTERN.matcher(message).matches()) calculate(RunPhase.END);
@@ -127,7 +127,7 @@ public class SecretsTracker {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static String getPlayerNameAt(int index) {
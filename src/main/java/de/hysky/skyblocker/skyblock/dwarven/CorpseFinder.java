@@ -8,12 +8,13 @@ import de.hysky.skyblocker.debug.Debug;
 import de.hysky.skyblocker.events.SkyblockEvents;
 import de.hysky.skyblocker.skyblock.dwarven.CorpseType.CorpseTypeArgumentType;
 import de.hysky.skyblocker.utils.*;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientBlockPosArgumentType;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -54,7 +55,8 @@ public class CorpseFinder {
 			corpsesByType.clear();
 		});
 		SkyblockEvents.LOCATION_CHANGE.register(CorpseFinder::handleLocationChange);
-		ClientReceiveMessageEvents.ALLOW_GAME.register(CorpseFinder::onChatMessage);
+		// Coordinates can be anywhere in a message, so it can't be routed by prefix
+		ChatDispatcher.register("CorpseFinder", ChatDispatcher.Channel.CHAT, false, CorpseFinder::onChatMessage);
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(CorpseFinder::renderWaypoints);
 		ClientTickEvents.END_CLIENT_TICK.register(client -> {
 			if (!SkyblockerConfigManager.get().mining.glacite.enableCorpseFinder || client.player == null) return;
@@ -133,14 +135,14 @@ public class CorpseFinder {
 		}
 	}
 
-	private static boolean onChatMessage(Text text, boolean overlay) {
-		if (overlay || !isLocationCorrect || !SkyblockerConfigManager.get().mining.glacite.enableCorpseFinder || MinecraftClient.getInstance().player == null) return true;
-		String string = text.getString();
-		if (string.contains(MinecraftClient.getInstance().getSession().getUsername())) return true; // Ignore your own messages
-		if (SkyblockerConfigManager.get().mining.glacite.enableParsingChatCorpseFinder) parseCords(text);  // parsing cords from chat
+	private static ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
+		if (!isLocationCorrect || !SkyblockerConfigManager.get().mining.glacite.enableCorpseFinder || MinecraftClient.getInstance().player == null) return ChatFilterResult.PASS;
+		String string = message.raw();
+		if (string.contains(MinecraftClient.getInstance().getSession().getUsername())) return ChatFilterResult.PASS; // Ignore your own messages
+		if (SkyblockerConfigManager.get().mining.glacite.enableParsingChatCorpseFinder) parseCords(message.text());  // parsing cords from chat
 
 		Matcher matcherCorpse = CORPSE_FOUND_PATTERN.matcher(string);
-		if (!matcherCorpse.find()) return true;
+		if (!matcherCorpse.find()) return ChatFilterResult.PASS;
 
 		LOGGER.debug(PREFIX + "Triggered code for onChatMessage");
 		LOGGER.debug(PREFIX + "State of corpsesByType: {}", corpsesByType);
@@ -150,7 +152,7 @@ public class CorpseFinder {
 		List<Corpse> corpses = corpsesByType.get(corpseType);
 		if (corpses == null) {
 			LOGGER.warn(PREFIX + "Couldn't get corpses! corpse type string: {}, parsed corpse type: {}", corpseTypeString, corpseType);
-			return true;
+			return ChatFilterResult.PASS;
 		}
 		corpses.stream() // Since squared distance comparison will yield the same result as normal distance comparison, we can use squared distance to avoid square root calculation
 				.min(Comparator.comparingDouble(corpse -> corpse.entity.squaredDistanceTo(MinecraftClient.getInstance().player)))
@@ -162,7 +164,7 @@ public class CorpseFinder {
 						() -> LOGGER.warn(PREFIX + "Couldn't find the closest corpse despite triggering onChatMessage!")
 				);
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	@SuppressWarnings("DataFlowIssue")
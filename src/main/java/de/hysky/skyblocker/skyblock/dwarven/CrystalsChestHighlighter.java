@@ -2,13 +2,13 @@ package de.hysky.skyblocker.skyblock.dwarven;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
-import de.hysky.skyblocker.events.PlaySoundEvents;
-import de.hysky.skyblocker.events.WorldEvents;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.render.RenderHelper;
+import de.hysky.skyblocker.utils.world.BlockIndex;
 import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -47,12 +47,26 @@ public class CrystalsChestHighlighter {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(CrystalsChestHighlighter::extractLocationFromMessage);
+		ChatDispatcher.register("CrystalsChestHighlighter", ChatDispatcher.Channel.ALL, false, CrystalsChestHighlighter::extractLocationFromMessage, CHEST_SPAWN_MESSAGE);
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(CrystalsChestHighlighter::render);
 		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
-		WorldEvents.BLOCK_STATE_UPDATE.register(CrystalsChestHighlighter::onBlockUpdate);
-		ParticleEvents.FROM_SERVER.register(CrystalsChestHighlighter::onParticle);
-		PlaySoundEvents.FROM_SERVER.register(CrystalsChestHighlighter::onSound);
+		BlockIndex.register("CrystalsChestHighlighter", CrystalsChestHighlighter::isEnabled, state -> state.isOf(Blocks.CHEST)).listener(new BlockIndex.Listener() {
+			@Override
+			public void onAdded(BlockPos pos, BlockState state, boolean scanned) {
+				if (!scanned) onChestPlaced(pos);
+			}
+
+			@Override
+			public void onRemoved(BlockPos pos) {
+				onChestRemoved(pos);
+			}
+		});
+		PacketRouter.PARTICLES.register("CrystalsChestHighlighter", CrystalsChestHighlighter::isEnabled, CrystalsChestHighlighter::onParticle, ParticleTypes.CRIT);
+		PacketRouter.SOUNDS.register("CrystalsChestHighlighter", CrystalsChestHighlighter::isEnabled, CrystalsChestHighlighter::onSound, SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, SoundEvents.ENTITY_VILLAGER_NO, SoundEvents.BLOCK_CHEST_OPEN);
+	}
+
+	private static boolean isEnabled() {
+		return Utils.isInCrystalHollows() && SkyblockerConfigManager.get().mining.crystalHollows.chestHighlighter;
 	}
 
 	private static void reset() {
@@ -62,42 +76,45 @@ public class CrystalsChestHighlighter {
 		currentLockCount = 0;
 	}
 
-	private static boolean extractLocationFromMessage(Text text, boolean b) {
+	private static ChatFilterResult extractLocationFromMessage(ChatDispatcher.Message message) {
 		if (!Utils.isInCrystalHollows() || !SkyblockerConfigManager.get().mining.crystalHollows.chestHighlighter) {
-			return true;
+			return ChatFilterResult.PASS;
 		}
 		//if a chest is spawned add chest to look for
-		if (text.getString().matches(CHEST_SPAWN_MESSAGE)) {
+		if (message.raw().equals(CHEST_SPAWN_MESSAGE)) {
 			waitingForChest += 1;
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	/**
-	 * When a block is updated in the crystal hollows if looking for a chest see if it's a chest and if so add to active. or remove active chests from where air is placed
+	 * When a chest is placed in the crystal hollows while looking for a chest, add it to the active chests if it is close to the player.
 	 *
-	 * @param pos   location of block update
-	 * @param newState the new state of the block
+	 * @param pos location of the chest
 	 */
-	private static void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState) {
-		if (!SkyblockerConfigManager.get().mining.crystalHollows.chestHighlighter || CLIENT.player == null || !Utils.isInCrystalHollows()) {
+	private static void onChestPlaced(BlockPos pos) {
+		if (waitingForChest <= 0 || CLIENT.player == null) {
 			return;
 		}
 
-		BlockPos immutable = pos.toImmutable();
+		//make sure it is not too far from the player (more than 10 blocks away)
+		if (pos.getSquaredDistance(CLIENT.player.getPos()) > 100) {
+			return;
+		}
+		activeChests.add(pos);
+		currentLockCount = 0;
+		waitingForChest -= 1;
+	}
 
-		if (waitingForChest > 0 && newState.isOf(Blocks.CHEST)) {
-			//make sure it is not too far from the player (more than 10 blocks away)
-			if (immutable.getSquaredDistance(CLIENT.player.getPos()) > 100) {
-				return;
-			}
-			activeChests.add(immutable);
-			currentLockCount = 0;
-			waitingForChest -= 1;
-		} else if (newState.isAir() && activeChests.contains(immutable)) {
+	/**
+	 * Removes active chests that are opened or unloaded.
+	 *
+	 * @param pos location of the removed chest
+	 */
+	private static void onChestRemoved(BlockPos pos) {
+		if (activeChests.remove(pos)) {
 			currentLockCount = 0;
-			activeChests.remove(immutable);
 		}
 	}
 
@@ -107,12 +124,7 @@ public class CrystalsChestHighlighter {
 	 * @param packet particle spawn packet
 	 */
 	private static void onParticle(ParticleS2CPacket packet) {
-		if (!Utils.isInCrystalHollows() || !SkyblockerConfigManager.get().mining.crystalHollows.chestHighlighter) {
-			return;
-		}
-		if (ParticleTypes.CRIT.equals(packet.getParameters().getType())) {
-			activeParticles.put(new Vec3d(packet.getX(), packet.getY(), packet.getZ()), System.currentTimeMillis());
-		}
+		activeParticles.put(new Vec3d(packet.getX(), packet.getY(), packet.getZ()), System.currentTimeMillis());
 	}
 
 	/**
@@ -122,7 +134,7 @@ public class CrystalsChestHighlighter {
 	 */
 	private static void onSound(PlaySoundS2CPacket packet) {
 		ClientPlayerEntity player = MinecraftClient.getInstance().player;
-		if (player == null || !Utils.isInCrystalHollows() || !SkyblockerConfigManager.get().mining.crystalHollows.chestHighlighter) {
+		if (player == null) {
 			return;
 		}
 		SoundEvent sound = packet.getSound().value();
@@ -11,10 +11,13 @@ import de.hysky.skyblocker.events.SkyblockEvents;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientBlockPosArgumentType;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientPosArgument;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
+import de.hysky.skyblocker.utils.waypoint.WaypointIndex;
 import de.hysky.skyblocker.utils.ws.WsMessageHandler;
 import de.hysky.skyblocker.utils.ws.Service;
 import de.hysky.skyblocker.utils.ws.WsStateManager;
@@ -22,7 +25,6 @@ import de.hysky.skyblocker.utils.ws.message.CrystalsWaypointMessage;
 import de.hysky.skyblocker.utils.ws.message.CrystalsWaypointSubscribeMessage;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -34,6 +36,7 @@ import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.util.*;
@@ -49,7 +52,7 @@ import static net.minecraft.command.CommandSource.suggestMatching;
 
 /**
  * Manager for Crystal Hollows waypoints that handles {@link #update() location detection},
- * {@link #extractLocationFromMessage(Text, Boolean) waypoints receiving}, {@link #shareWaypoint(String) sharing},
+ * {@link #extractLocationFromMessage(ChatDispatcher.Message) waypoints receiving}, {@link #shareWaypoint(String) sharing},
  * {@link #registerWaypointLocationCommands(CommandDispatcher, CommandRegistryAccess) commands}, and
  * {@link #render(WorldRenderContext) rendering}.
  */
@@ -66,6 +69,11 @@ public class CrystalsLocationsManager {
     private static final int REMOVE_UNKNOWN_DISTANCE = 50;
 
     protected static Map<String, MiningLocationLabel> activeWaypoints = new HashMap<>();
+    /**
+     * Spatial index of the {@link #activeWaypoints} for rendering, set to null whenever they change and rebuilt on the next frame.
+     */
+    @Nullable
+    private static WaypointIndex<MiningLocationLabel> activeWaypointsIndex;
     protected static List<String> verifiedWaypoints = new ArrayList<>();
     private static final List<MiningLocationLabel.CrystalHollowsLocationsCategory> waypointsSent2Socket = new ArrayList<>();
 
@@ -74,7 +82,8 @@ public class CrystalsLocationsManager {
         // Crystal Hollows Waypoints
         Scheduler.INSTANCE.scheduleCyclic(CrystalsLocationsManager::update, 40);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(CrystalsLocationsManager::render);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(CrystalsLocationsManager::extractLocationFromMessage);
+        // Coordinates can be anywhere in a message, so it can't be routed by prefix
+        ChatDispatcher.register("CrystalsLocationsManager", ChatDispatcher.Channel.CHAT, false, CrystalsLocationsManager::extractLocationFromMessage);
         ClientCommandRegistrationCallback.EVENT.register(CrystalsLocationsManager::registerWaypointLocationCommands);
         SkyblockEvents.LOCATION_CHANGE.register(CrystalsLocationsManager::onLocationChange);
         ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
@@ -83,11 +92,11 @@ public class CrystalsLocationsManager {
         WorldRenderEvents.AFTER_TRANSLUCENT.register(NucleusWaypoints::render);
     }
 
-    private static boolean extractLocationFromMessage(Text message, Boolean overlay) {
-        if (!SkyblockerConfigManager.get().mining.crystalsWaypoints.findInChat || !Utils.isInCrystalHollows() || overlay) {
-            return true;
+    private static ChatFilterResult extractLocationFromMessage(ChatDispatcher.Message message) {
+        if (!SkyblockerConfigManager.get().mining.crystalsWaypoints.findInChat || !Utils.isInCrystalHollows()) {
+            return ChatFilterResult.PASS;
         }
-        String text = Formatting.strip(message.getString());
+        String text = message.plain();
         try {
             //make sure that it is only reading user messages and not from skyblocker
             if (text.contains(":") && !text.startsWith(Constants.PREFIX.get().getString())) {
@@ -101,7 +110,7 @@ public class CrystalsLocationsManager {
                     String location = blockPos.getX() + " " + blockPos.getY() + " " + blockPos.getZ();
                     //if position is not in the hollows do not add it
                     if (!checkInCrystals(blockPos)) {
-                        return true;
+                        return ChatFilterResult.PASS;
                     }
 
                     //see if there is a name of a location to add to this
@@ -112,13 +121,13 @@ public class CrystalsLocationsManager {
                             if (!activeWaypoints.containsKey(waypointLocation)) {
                                 addCustomWaypoint(waypointLocation, blockPos);
                             }
-                            return true;
+                            return ChatFilterResult.PASS;
                         }
                     }
 
                     //if the location is not found ask the user for the location (could have been in a previous chat message)
                     if (CLIENT.player == null || CLIENT.getNetworkHandler() == null) {
-                        return true;
+                        return ChatFilterResult.PASS;
                     }
 
                     CLIENT.player.sendMessage(getLocationMenu(location, false), false);
@@ -142,7 +151,7 @@ public class CrystalsLocationsManager {
             }
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     protected static boolean checkInCrystals(BlockPos pos) {
@@ -315,6 +324,7 @@ public class CrystalsLocationsManager {
         if (activeWaypoints.containsKey(place)) {
             CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.config.mining.crystalsWaypoints.removeSuccess").formatted(Formatting.GREEN)).append(Text.literal(place).withColor(WAYPOINT_LOCATIONS.get(place).getColor())), false);
             activeWaypoints.remove(place);
+            activeWaypointsIndex = null;
             verifiedWaypoints.remove(place);
         } else {
             //send fail message
@@ -332,6 +342,7 @@ public class CrystalsLocationsManager {
         MiningLocationLabel waypoint = new MiningLocationLabel(category, pos);
         waypointsSent2Socket.add(category);
         activeWaypoints.put(category.getName(), waypoint);
+        activeWaypointsIndex = null;
         CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.webSocket.receivedCrystalsWaypoint", Text.literal(category.getName()).withColor(category.getColor()))), false);
     }
 
@@ -340,6 +351,7 @@ public class CrystalsLocationsManager {
         MiningLocationLabel.CrystalHollowsLocationsCategory category = WAYPOINT_LOCATIONS.get(waypointName);
         MiningLocationLabel waypoint = new MiningLocationLabel(category, pos);
         activeWaypoints.put(waypointName, waypoint);
+        activeWaypointsIndex = null;
     }
 
     /**
@@ -354,15 +366,15 @@ public class CrystalsLocationsManager {
             double distance = unknownWaypoint.centerPos.distanceTo(location.toCenterPos());
             if (distance < REMOVE_UNKNOWN_DISTANCE) {
                 activeWaypoints.remove(name);
+                activeWaypointsIndex = null;
             }
         }
     }
 
     private static void render(WorldRenderContext context) {
         if (SkyblockerConfigManager.get().mining.crystalsWaypoints.enabled) {
-            for (MiningLocationLabel crystalsWaypoint : activeWaypoints.values()) {
-                crystalsWaypoint.render(context);
-            }
+            if (activeWaypointsIndex == null) activeWaypointsIndex = new WaypointIndex<>(List.copyOf(activeWaypoints.values()));
+            activeWaypointsIndex.forEachVisible(context.camera().getPos(), Double.POSITIVE_INFINITY, crystalsWaypoint -> crystalsWaypoint.render(context));
         }
     }
 
@@ -374,6 +386,7 @@ public class CrystalsLocationsManager {
 
     private static void reset() {
         activeWaypoints.clear();
+        activeWaypointsIndex = null;
         verifiedWaypoints.clear();
         waypointsSent2Socket.clear();
     }
@@ -3,14 +3,14 @@ package de.hysky.skyblocker.skyblock.dwarven;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.HudElementRegistry;
 import net.fabricmc.fabric.api.client.rendering.v1.hud.VanillaHudElements;
 import net.minecraft.client.gl.RenderPipelines;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.hud.InGameHud;
-import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.ColorHelper;
 
@@ -20,27 +20,28 @@ import java.util.regex.Pattern;
 public class GlaciteColdOverlay {
     private static final Identifier POWDER_SNOW_OUTLINE = Identifier.ofVanilla("textures/misc/powder_snow_outline.png");
     private static final Pattern COLD_PATTERN = Pattern.compile("Cold: -(\\d+)❄");
+    private static final String CAMPFIRE_MESSAGE = "The warmth of the campfire reduced your ❄ Cold to 0!";
     private static int cold = 0;
     private static long resetTime = System.currentTimeMillis();
 
     @Init
     public static void init() {
         Scheduler.INSTANCE.scheduleCyclic(GlaciteColdOverlay::update, 20);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(GlaciteColdOverlay::coldReset);
+        ChatDispatcher.register("GlaciteColdOverlay", ChatDispatcher.Channel.CHAT, false, GlaciteColdOverlay::coldReset, CAMPFIRE_MESSAGE);
 		HudElementRegistry.attachElementAfter(VanillaHudElements.MISC_OVERLAYS, POWDER_SNOW_OUTLINE, (context, tickCounter) -> render(context));
     }
 
-    private static boolean coldReset(Text text, boolean b) {
-        if (!Utils.isInDwarvenMines() || b) {
-            return true;
+    private static ChatFilterResult coldReset(ChatDispatcher.Message chatMessage) {
+        if (!Utils.isInDwarvenMines()) {
+            return ChatFilterResult.PASS;
         }
-        String message = text.getString();
-        if (message.equals("The warmth of the campfire reduced your ❄ Cold to 0!")) {
+        String message = chatMessage.raw();
+        if (message.equals(CAMPFIRE_MESSAGE)) {
             cold = 0;
             resetTime = System.currentTimeMillis();
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void update() {
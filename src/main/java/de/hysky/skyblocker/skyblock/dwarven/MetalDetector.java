@@ -4,9 +4,12 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
+import de.hysky.skyblocker.utils.locator.DistanceLocator;
+import de.hysky.skyblocker.utils.locator.Estimate;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import de.hysky.skyblocker.utils.waypoint.NamedWaypoint;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -31,6 +34,14 @@ public class MetalDetector {
     private static final MinecraftClient CLIENT = MinecraftClient.getInstance();
     private static final float[] LIGHT_GRAY = {192 / 255f, 192 / 255f, 192 / 255f};
     private static final Pattern TREASURE_PATTERN = Pattern.compile("(§3§lTREASURE: §b)(\\d+\\.?\\d?)m");
+    /**
+     * The maximum difference between the distance shown and the distance to a possible location, as the distance is rounded to a tenth of a block
+     */
+    private static final double DISTANCE_TOLERANCE = 0.25;
+    /**
+     * Locates the treasure from all distances measured for the current treasure, used to narrow down the possible locations or when none of them fit
+     */
+    private static final DistanceLocator LOCATOR = new DistanceLocator(DISTANCE_TOLERANCE);
     private static final Pattern KEEPER_PATTERN = Pattern.compile("Keeper of (\\w+)");
     private static final Map<String, Vec3i> keeperOffsets = Map.of(
             "Diamond", new Vec3i(33, 0, 3),
@@ -92,7 +103,8 @@ public class MetalDetector {
 
     @Init
     public static void init() {
-        ClientReceiveMessageEvents.ALLOW_GAME.register(MetalDetector::getDistanceMessage);
+        // The treasure distance is in the middle of the action bar, so it can't be routed by prefix
+        ChatDispatcher.register("MetalDetector", ChatDispatcher.Channel.ALL, false, MetalDetector::getDistanceMessage);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(MetalDetector::render);
         ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
     }
@@ -100,18 +112,17 @@ public class MetalDetector {
     /**
      * Processes the message with the distance to the treasure, updates the helper, and works out possible locations using that message.
      *
-     * @param text    the message sent to the player
-     * @param overlay if the message is an overlay message
+     * @param message the message sent to the player
      */
-    private static boolean getDistanceMessage(Text text, boolean overlay) {
-        if (!overlay || !SkyblockerConfigManager.get().mining.crystalHollows.metalDetectorHelper || !Utils.isInCrystalHollows() || !(Utils.getIslandArea().substring(2).equals("Mines of Divan")) || CLIENT.player == null) {
-            checkChestFound(text);
-            return true;
+    private static ChatFilterResult getDistanceMessage(ChatDispatcher.Message message) {
+        if (!message.overlay() || !SkyblockerConfigManager.get().mining.crystalHollows.metalDetectorHelper || !Utils.isInCrystalHollows() || !(Utils.getIslandArea().substring(2).equals("Mines of Divan")) || CLIENT.player == null) {
+            checkChestFound(message.raw());
+            return ChatFilterResult.PASS;
         }
         //in the mines of divan
-        Matcher treasureDistanceMature = TREASURE_PATTERN.matcher(text.getString());
+        Matcher treasureDistanceMature = TREASURE_PATTERN.matcher(message.raw());
         if (!treasureDistanceMature.find()) {
-            return true;
+            return ChatFilterResult.PASS;
         }
         //find new values
         double distance = Double.parseDouble(treasureDistanceMature.group(2));
@@ -147,19 +158,19 @@ public class MetalDetector {
         previousDistance = distance;
         previousPlayerPos = playerPos;
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     /**
      * Processes the found treasure message and resets the helper
      *
-     * @param text the message sent to the player
+     * @param message the message sent to the player
      */
-    private static void checkChestFound(Text text) {
+    private static void checkChestFound(String message) {
         if (!Utils.isInCrystalHollows() || !(Utils.getIslandArea().substring(2).equals("Mines of Divan")) || CLIENT.player == null) {
             return;
         }
-        if (text.getString().startsWith("You found")) {
+        if (message.startsWith("You found")) {
             newTreasure = true;
             possibleBlocks = new ArrayList<>();
         }
@@ -176,26 +187,33 @@ public class MetalDetector {
         if (newTreasure) {
             possibleBlocks = new ArrayList<>();
             newTreasure = false;
+            LOCATOR.reset();
             if (minesCenter != null) { //if center of the mines is known use the predefined offsets to filter the locations
                 for (Vec3i knownOffset : knownChestOffsets) {
                     Vec3i checkPos = minesCenter.add(knownOffset).add(0, 1, 0);
-                    if (Math.abs(playerPos.distanceTo(Vec3d.of(checkPos)) - distance) < 0.25) {
+                    if (DistanceLocator.isConsistent(playerPos, Vec3d.of(checkPos), distance, DISTANCE_TOLERANCE)) {
                         possibleBlocks.add(checkPos);
                     }
                 }
-            } else {
-                for (int x = (int) -distance; x <= distance; x++) {
-                    for (int z = (int) -distance; z <= distance; z++) {
-                        Vec3i checkPos = new Vec3i((int) playerPos.x + x, (int) playerPos.y, (int) playerPos.z + z);
-                        if (Math.abs(playerPos.distanceTo(Vec3d.of(checkPos)) - distance) < 0.25) {
-                            possibleBlocks.add(checkPos);
-                        }
-                    }
-                }
+            } else { //otherwise only the blocks around the player at the right distance are possible
+                possibleBlocks.addAll(DistanceLocator.ringCandidates(playerPos, distance, DISTANCE_TOLERANCE));
             }
 
         } else {
-            possibleBlocks.removeIf(location -> Math.abs(playerPos.distanceTo(Vec3d.of(location)) - distance) >= 0.25);
+            possibleBlocks.removeIf(location -> !DistanceLocator.isConsistent(playerPos, Vec3d.of(location), distance, DISTANCE_TOLERANCE));
+        }
+        LOCATOR.addSample(playerPos, distance);
+        Estimate estimate = LOCATOR.getEstimate();
+
+        if (estimate != null && estimate.radius() < 1) {
+            Vec3d estimatedPos = estimate.position().add(0.5, 0.5, 0.5);
+            if (possibleBlocks.isEmpty()) {
+                //if none of the possible blocks fit, use the location worked out from all the distances
+                possibleBlocks.add(BlockPos.ofFloored(estimatedPos));
+            } else if (possibleBlocks.size() > 1 && possibleBlocks.stream().anyMatch(location -> isNearEstimate(location, estimatedPos, estimate))) {
+                //otherwise the distances so far can rule out the possible blocks far from where they put the treasure
+                possibleBlocks.removeIf(location -> !isNearEstimate(location, estimatedPos, estimate));
+            }
         }
 
         //if possible blocks is of length 0 something has failed reset and try again
@@ -207,6 +225,10 @@ public class MetalDetector {
         }
     }
 
+    private static boolean isNearEstimate(Vec3i location, Vec3d estimatedPos, Estimate estimate) {
+        return Vec3d.of(location).add(0.5, 0.5, 0.5).distanceTo(estimatedPos) < estimate.radius() + 1;
+    }
+
     /**
      * Uses the labels for the keepers names to find the central point of the mines of divan so the known offsets can be used.
      */
@@ -233,6 +255,7 @@ public class MetalDetector {
     private static void reset() {
         minesCenter = null;
         possibleBlocks = new ArrayList<>();
+        LOCATOR.reset();
     }
 
     /**
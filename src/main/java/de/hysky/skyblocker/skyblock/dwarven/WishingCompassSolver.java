@@ -2,11 +2,15 @@ package de.hysky.skyblocker.skyblock.dwarven;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
+import de.hysky.skyblocker.utils.locator.Estimate;
+import de.hysky.skyblocker.utils.locator.RayIntersection;
+import de.hysky.skyblocker.utils.locator.TrailFit;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.fabricmc.fabric.api.event.player.UseItemCallback;
@@ -24,14 +28,13 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
-import org.apache.commons.math3.geometry.euclidean.threed.Line;
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 public class WishingCompassSolver {
     private static final MinecraftClient CLIENT = MinecraftClient.getInstance();
+    private static final String FAIL_MESSAGE = "The Wishing Compass can't seem to locate anything!";
     private static final Map<Zone, Box> ZONE_BOUNDING_BOXES = Map.of(
             Zone.CRYSTAL_NUCLEUS, new Box(462, 63, 461, 564, 181, 565),
             Zone.JUNGLE, new Box(201, 63, 201, 513, 189, 513),
@@ -42,9 +45,17 @@ public class WishingCompassSolver {
     );
     private static final Vec3d JUNGLE_TEMPLE_DOOR_OFFSET = new Vec3d(-57, 36, -21);
     /**
-     * The number of particles to use to get direction of a line
+     * The maximum number of particles to use to get direction of a line
      */
-    private static final long PARTICLES_PER_LINE = 25;
+    private static final int PARTICLES_PER_LINE = 25;
+    /**
+     * The minimum number of particles to use to get direction of a line, used if the particles are already in a straight enough line
+     */
+    private static final int MIN_PARTICLES_PER_LINE = 8;
+    /**
+     * The angular error in radians of the line through the particles below which the direction is good enough, about 0.5 blocks off at 250 blocks away
+     */
+    private static final double MAX_ANGULAR_ERROR = 0.002;
     /**
      * The time in milliseconds to wait for the next particle until assumed failed
      */
@@ -64,11 +75,12 @@ public class WishingCompassSolver {
 
     private static SolverStates currentState = SolverStates.NOT_STARTED;
     private static Vec3d startPosOne = Vec3d.ZERO;
-    private static Vec3d startPosTwo = Vec3d.ZERO;
-    private static Vec3d directionOne = Vec3d.ZERO;
-    private static Vec3d directionTwo = Vec3d.ZERO;
-    private static long particleUsedCountOne = 0;
-    private static long particleUsedCountTwo = 0;
+    private static final TrailFit trailOne = new TrailFit(false);
+    private static final TrailFit trailTwo = new TrailFit(false);
+    /**
+     * The rays of the trails as each of them completes, weighted by how straight the trail is
+     */
+    private static final RayIntersection intersection = new RayIntersection(false);
     private static long particleLastUpdate = System.currentTimeMillis();
     private static Vec3d particleLastPos = Vec3d.ZERO;
 
@@ -76,35 +88,32 @@ public class WishingCompassSolver {
     public static void init() {
         UseItemCallback.EVENT.register(WishingCompassSolver::onItemInteract);
         UseBlockCallback.EVENT.register(WishingCompassSolver::onBlockInteract);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(WishingCompassSolver::failMessageListener);
+        ChatDispatcher.register("WishingCompassSolver", ChatDispatcher.Channel.ALL, false, WishingCompassSolver::failMessageListener, FAIL_MESSAGE);
         ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
-        ParticleEvents.FROM_SERVER.register(WishingCompassSolver::onParticle);
+        PacketRouter.PARTICLES.register("WishingCompassSolver", Utils::isInCrystalHollows, WishingCompassSolver::onParticle, ParticleTypes.HAPPY_VILLAGER);
     }
 
     /**
      * When a filed message is sent in chat, reset the wishing compass solver to start
-     * @param text message
-     * @param b overlay
+     * @param message message
      */
-    private static boolean failMessageListener(Text text, boolean b) {
+    private static ChatFilterResult failMessageListener(ChatDispatcher.Message message) {
         if (!Utils.isInCrystalHollows()) {
-            return true;
+            return ChatFilterResult.PASS;
         }
-        if (Formatting.strip(text.getString()).equals("The Wishing Compass can't seem to locate anything!")) {
+        if (message.plain().equals(FAIL_MESSAGE)) {
             currentState = SolverStates.NOT_STARTED;
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void reset() {
         currentState = SolverStates.NOT_STARTED;
         startPosOne = Vec3d.ZERO;
-        startPosTwo = Vec3d.ZERO;
-        directionOne = Vec3d.ZERO;
-        directionTwo = Vec3d.ZERO;
-        particleUsedCountOne = 0;
-        particleUsedCountTwo = 0;
+        trailOne.reset();
+        trailTwo.reset();
+        intersection.reset();
         particleLastUpdate = System.currentTimeMillis();
         particleLastPos = Vec3d.ZERO;
     }
@@ -113,8 +122,8 @@ public class WishingCompassSolver {
 		if (CLIENT.player == null) {
 			return false;
 		}
-		//make sure the data is in tab and if not tell the user
-		if (PlayerListManager.getPlayerStringList().stream().noneMatch(entry -> entry.startsWith("Active Effects:"))) {
+		//make sure the data is in tab and if not tell the user, only whether there is any line with the key matters so the first match is enough
+		if (PlayerListManager.getLine("Active Effects:") == null) {
 			CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.config.mining.crystalsWaypoints.wishingCompassSolver.enableTabEffectsMessage")), false);
 			return false;
 		}
@@ -134,20 +143,20 @@ public class WishingCompassSolver {
             return false;
         }
 
-        //make sure the data is in tab and if not tell the user
-        if (PlayerListManager.getPlayerStringList().stream().noneMatch(entry -> entry.equals("Crystals:"))) {
+        //make sure the data is in tab and if not tell the user, only whether there is any line with the key matters so the first match is enough
+        if (PlayerListManager.getLine("Crystals:") == null) {
             CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.config.mining.crystalsWaypoints.wishingCompassSolver.enableTabMessage")), false);
             return false;
         }
 
-        //return if the crystal for a zone is found
-        Stream<String> displayNameStream = PlayerListManager.getPlayerStringList().stream();
+        //return if the crystal for a zone is found, checking every line since other widgets can have lines starting with the name of a gemstone too
+        List<String> playerStringList = PlayerListManager.getPlayerStringList();
         return switch (zone) {
-            case JUNGLE -> displayNameStream.noneMatch(entry -> entry.equals("Amethyst: ✖ Not Found"));
-            case MITHRIL_DEPOSITS -> displayNameStream.noneMatch(entry -> entry.equals("Jade: ✖ Not Found"));
-            case GOBLIN_HOLDOUT -> displayNameStream.noneMatch(entry -> entry.equals("Amber: ✖ Not Found"));
-            case PRECURSOR_REMNANTS -> displayNameStream.noneMatch(entry -> entry.equals("Sapphire: ✖ Not Found"));
-            case MAGMA_FIELDS -> displayNameStream.noneMatch(entry -> entry.equals("Topaz: ✖ Not Found"));
+            case JUNGLE -> !playerStringList.contains("Amethyst: ✖ Not Found");
+            case MITHRIL_DEPOSITS -> !playerStringList.contains("Jade: ✖ Not Found");
+            case GOBLIN_HOLDOUT -> !playerStringList.contains("Amber: ✖ Not Found");
+            case PRECURSOR_REMNANTS -> !playerStringList.contains("Sapphire: ✖ Not Found");
+            case MAGMA_FIELDS -> !playerStringList.contains("Topaz: ✖ Not Found");
             default -> false;
         };
     }
@@ -179,9 +188,6 @@ public class WishingCompassSolver {
 
     @SuppressWarnings("incomplete-switch")
 	private static void onParticle(ParticleS2CPacket packet) {
-        if (!Utils.isInCrystalHollows() || !ParticleTypes.HAPPY_VILLAGER.equals(packet.getParameters().getType())) {
-            return;
-        }
         //get location of particle
         Vec3d particlePos = new Vec3d(packet.getX(), packet.getY(), packet.getZ());
         //update particle used time
@@ -194,12 +200,11 @@ public class WishingCompassSolver {
 
         switch (currentState) {
             case PROCESSING_FIRST_USE -> {
-                Vec3d particleDirection = particlePos.subtract(startPosOne).normalize();
-                //move direction to fit with particle
-                directionOne = directionOne.add(particleDirection.multiply((double) 1 / PARTICLES_PER_LINE));
-                particleUsedCountOne += 1;
+                //fit the line to the particle
+                trailOne.add(particlePos);
                 //if used enough particle go to next state
-                if (particleUsedCountOne >= PARTICLES_PER_LINE) {
+                if (isTrailComplete(trailOne)) {
+                    intersection.add(trailOne);
                     currentState = SolverStates.WAITING_FOR_SECOND;
                     if (CLIENT.player != null) {
                         CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.config.mining.crystalsWaypoints.wishingCompassSolver.wishingCompassUsedMessage").formatted(Formatting.GREEN)), false);
@@ -207,24 +212,30 @@ public class WishingCompassSolver {
                 }
             }
             case PROCESSING_SECOND_USE -> {
-                Vec3d particleDirection = particlePos.subtract(startPosTwo).normalize();
-                //move direction to fit with particle
-                directionTwo = directionTwo.add(particleDirection.multiply((double) 1 / PARTICLES_PER_LINE));
-                particleUsedCountTwo += 1;
+                //fit the line to the particle
+                trailTwo.add(particlePos);
                 //if used enough particle go to next state
-                if (particleUsedCountTwo >= PARTICLES_PER_LINE) {
+                if (isTrailComplete(trailTwo)) {
+                    intersection.add(trailTwo);
                     processSolution();
                 }
             }
         }
     }
 
+    /**
+     * @return if enough particles of the trail have been used, either the maximum or enough for the direction of the line to be accurate
+     */
+    private static boolean isTrailComplete(TrailFit trail) {
+        return trail.isComplete(MIN_PARTICLES_PER_LINE, PARTICLES_PER_LINE, MAX_ANGULAR_ERROR);
+    }
+
     private static void processSolution() {
         if (CLIENT.player == null) {
             reset();
             return;
         }
-        Vec3d targetLocation = solve(startPosOne, startPosTwo, directionOne, directionTwo);
+        Vec3d targetLocation = solve(intersection);
         if (targetLocation == null) {
             CLIENT.player.sendMessage(Constants.PREFIX.get().append(Text.translatable("skyblocker.config.mining.crystalsWaypoints.wishingCompassSolver.somethingWentWrongMessage").formatted(Formatting.RED)), false);
         } else {
@@ -256,34 +267,25 @@ public class WishingCompassSolver {
     }
 
     /**
-     * using the stating locations and line direction solve for where the location must be
+     * using the points the lines go through and line direction solve for where the location must be
      */
     protected static Vec3d solve(Vec3d startPosOne, Vec3d startPosTwo, Vec3d directionOne, Vec3d directionTwo) {
 		if (directionOne.equals(directionTwo)) return null;
 
-        //convert format to get lines for the intersection solving
-        Vector3D lineOneStart = new Vector3D(startPosOne.x, startPosOne.y, startPosOne.z);
-        Vector3D lineOneEnd = new Vector3D(directionOne.x, directionOne.y, directionOne.z).add(lineOneStart);
-        Vector3D lineTwoStart = new Vector3D(startPosTwo.x, startPosTwo.y, startPosTwo.z);
-        Vector3D lineTwoEnd = new Vector3D(directionTwo.x, directionTwo.y, directionTwo.z).add(lineTwoStart);
-        Line line = new Line(lineOneStart, lineOneEnd, 1);
-        Line lineTwo = new Line(lineTwoStart, lineTwoEnd, 1);
-
-        Vector3D close = line.closestPoint(lineTwo);
-		Vector3D closeTwo = lineTwo.closestPoint(line);
-		double distance = close.distance(closeTwo);
-
-		Vec3d intersection = null;
-		if (distance < DISTANCE_TOLERANCE) {
-			//average the two closest points
-			Vec3d c1 = new Vec3d(close.getX(), close.getY(), close.getZ());
-			Vec3d c2 = new Vec3d(close.getX(), close.getY(), close.getZ());
-
-			intersection = c1.add(c2).multiply(0.5);
-		}
+        RayIntersection intersection = new RayIntersection(false);
+        intersection.add(startPosOne, directionOne);
+        intersection.add(startPosTwo, directionTwo);
+        return solve(intersection);
+    }
+
+    /**
+     * solve for where the location must be from the rays of the trails
+     */
+    private static Vec3d solve(RayIntersection intersection) {
+        Estimate estimate = intersection.solve();
 
-        //return final target location
-        return intersection;
+        //the radius is at most half the distance between the closest points of the lines, use the weighted average of them if the lines are close enough
+        return estimate != null && estimate.radius() * 2 < DISTANCE_TOLERANCE ? estimate.position() : null;
     }
 
     private static ActionResult onBlockInteract(PlayerEntity playerEntity, World world, Hand hand, BlockHitResult blockHitResult) {
@@ -384,11 +386,13 @@ public class WishingCompassSolver {
         if (newState == SolverStates.PROCESSING_FIRST_USE) {
             currentState = SolverStates.PROCESSING_FIRST_USE;
             startPosOne = playerPos;
+            trailOne.reset();
+            intersection.reset();
             particleLastUpdate = System.currentTimeMillis();
             particleLastPos = playerPos;
         } else if (newState == SolverStates.PROCESSING_SECOND_USE) {
             currentState = SolverStates.PROCESSING_SECOND_USE;
-            startPosTwo = playerPos;
+            trailTwo.reset();
             particleLastUpdate = System.currentTimeMillis();
             particleLastPos = playerPos;
         }
@@ -61,7 +61,7 @@ public final class CorpseProfitTracker extends AbstractProfitTracker {
 	private static final Object2ObjectArrayMap<String, String> NAME2ID_MAP = new Object2ObjectArrayMap<>(50);
 
 	private ObjectArrayList<CorpseLoot> currentProfileRewards = new ObjectArrayList<>();
-	private final ProfiledData<ObjectArrayList<CorpseLoot>> allRewards = new ProfiledData<>(getRewardFilePath("corpse-profits.json"), CorpseLoot.CODEC.listOf().xmap(ObjectArrayList::new, Function.identity()));
+	private final ProfiledData<ObjectArrayList<CorpseLoot>> allRewards = new ProfiledData<>(getRewardFilePath("corpse-profits.json"), CorpseLoot.CODEC.listOf().xmap(ObjectArrayList::new, Function.identity()), false, true, false, true);
 	private boolean insideRewardMessage = false;
 	@Nullable
 	private CorpseLoot lastCorpseLoot = null;
@@ -2,8 +2,8 @@ package de.hysky.skyblocker.skyblock.end;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import it.unimi.dsi.fastutil.ints.IntIntMutablePair;
@@ -42,15 +42,11 @@ public class EnderNodes {
             return ActionResult.PASS;
         });
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
-        ParticleEvents.FROM_SERVER.register(EnderNodes::onParticle);
+        PacketRouter.PARTICLES.register("EnderNodes", EnderNodes::shouldProcess, EnderNodes::onParticle, ParticleTypes.PORTAL, ParticleTypes.WITCH);
     }
 
     private static void onParticle(ParticleS2CPacket packet) {
-        if (!shouldProcess()) return;
         ParticleType<?> particleType = packet.getParameters().getType();
-        if (!ParticleTypes.PORTAL.getType().equals(particleType) && !ParticleTypes.WITCH.getType().equals(particleType))
-            return;
-
         double x = packet.getX();
         double y = packet.getY();
         double z = packet.getZ();
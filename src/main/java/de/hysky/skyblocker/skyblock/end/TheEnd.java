@@ -6,12 +6,14 @@ import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.events.SkyblockEvents;
+import de.hysky.skyblocker.skyblock.entity.MobGlow;
 import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.data.ProfiledData;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.fabricmc.fabric.api.event.player.AttackEntityCallback;
@@ -19,7 +21,6 @@ import net.minecraft.block.Blocks;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.decoration.ArmorStandEntity;
 import net.minecraft.entity.mob.EndermanEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
@@ -85,19 +86,20 @@ public class TheEnd {
         // Reset when changing island
         SkyblockEvents.LOCATION_CHANGE.register(location -> resetLocation());
 
-        ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
-            if (!Utils.isInTheEnd() || overlay) return true;
-            String lowerCase = message.getString().toLowerCase(Locale.ENGLISH);
+        // Dragon and protector messages are matched anywhere in a message, so they can't be routed by prefix
+        ChatDispatcher.register("TheEnd", ChatDispatcher.Channel.CHAT, false, message -> {
+            if (!Utils.isInTheEnd()) return ChatFilterResult.PASS;
+            String lowerCase = message.raw().toLowerCase(Locale.ENGLISH);
             if (lowerCase.contains("tremor")) {
                 if (stage == 0) checkAllProtectorLocations();
                 else stage += 1;
             }
             else if (lowerCase.contains("rises from below")) stage = 5;
             else if (lowerCase.contains("protector down") || lowerCase.contains("has risen")) resetLocation();
-            else return true;
+            else return ChatFilterResult.PASS;
             EndHudWidget.getInstance().update();
 
-            return true;
+            return ChatFilterResult.PASS;
         });
 
         WorldRenderEvents.AFTER_TRANSLUCENT.register(TheEnd::renderWaypoint);
@@ -153,14 +155,8 @@ public class TheEnd {
     public static boolean isZealot(EndermanEntity enderman) {
         if (enderman.getName().getString().toLowerCase(Locale.ENGLISH).contains("zealot")) return true; // Future-proof. If they someday decide to actually rename the entities
         assert MinecraftClient.getInstance().world != null;
-        List<ArmorStandEntity> entities = MinecraftClient.getInstance().world.getEntitiesByClass(
-                ArmorStandEntity.class,
-                enderman.getDimensions(null).getBoxAt(enderman.getPos()).expand(1),
-                armorStandEntity -> armorStandEntity.getName().getString().toLowerCase(Locale.ENGLISH).contains("zealot"));
-        if (entities.isEmpty()) {
-            return false;
-        }
-        return entities.getFirst().getName().getString().toLowerCase(Locale.ENGLISH).contains("zealot");
+        return MobGlow.getNameplates(MinecraftClient.getInstance().world, enderman.getDimensions(null).getBoxAt(enderman.getPos()).expand(1)).stream()
+                .anyMatch(armorStandEntity -> armorStandEntity.getName().getString().toLowerCase(Locale.ENGLISH).contains("zealot"));
     }
 
     public static boolean isSpecialZealot(EndermanEntity enderman) {
@@ -1,13 +1,25 @@
 package de.hysky.skyblocker.skyblock.entity;
 
 import de.hysky.skyblocker.annotations.Init;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import de.hysky.skyblocker.events.SkyblockEvents;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.decoration.ArmorStandEntity;
 import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 
 import java.util.*;
@@ -16,47 +28,156 @@ public class MobGlow {
 	public static final int NO_GLOW = 0;
 	private static final List<MobGlowAdder> ADDERS = new ArrayList<>();
 	/**
-	 * Cache for mob glow. Absence means the entity does not have custom glow.
-	 * If an entity is in the cache, it must have custom glow.
+	 * Cache for mob glow by entity id, including entities without custom glow.
+	 * <p>
+	 * Entries computed only by {@link MobGlowAdder#isCacheable() cacheable} adders are kept until the entity is unloaded or its tracked data changes.
+	 * Other entries are in {@link #TICK_ENTRIES} and are removed at the end of the tick.
 	 */
-	private static final Object2IntMap<Entity> CACHE = new Object2IntOpenHashMap<>();
+	private static final Int2IntMap CACHE = new Int2IntOpenHashMap();
+	private static final IntSet TICK_ENTRIES = new IntOpenHashSet();
+	/**
+	 * Ids of cached entities whose glow was computed from their nameplates. These are invalidated when a nearby armor stand changes.
+	 */
+	private static final IntSet NAMEPLATE_DEPENDENTS = new IntOpenHashSet();
+	/**
+	 * The number of entities in {@link #CACHE} with custom glow.
+	 */
+	private static int glowingEntities;
+	/**
+	 * Set when {@link #getNameplates(World, Box)} is called so that {@link #hasOrComputeMobGlow(Entity)} knows if the glow depends on nameplates.
+	 */
+	private static boolean usedNameplates;
+	/**
+	 * Set by {@link #computeMobGlow(Entity)} to whether all enabled adders up to the one that computed the glow are {@link MobGlowAdder#isCacheable() cacheable}.
+	 * Disabled adders don't matter since the cache is cleared when any adder is enabled or disabled, see {@link #enabledAdders}.
+	 */
+	private static boolean cacheable;
+	/**
+	 * A bitmask of the {@link MobGlowAdder#isEnabled() enabled} adders by their index in {@link #ADDERS}, checked every tick to clear the cache when it changes,
+	 * for example when a slayer quest is started or a config option is toggled.
+	 */
+	private static long enabledAdders;
+	/**
+	 * Armor stands by the block columns they overlap, rebuilt on the first lookup of each tick so that nameplate lookups don't query the world.
+	 */
+	private static final Long2ObjectMap<List<ArmorStandEntity>> NAMEPLATES = new Long2ObjectOpenHashMap<>();
+	/**
+	 * The maximum number of block columns to look up in {@link #NAMEPLATES} before falling back to querying the world.
+	 */
+	private static final int MAX_NAMEPLATE_COLUMNS = 256;
+	private static World nameplatesWorld;
+	private static boolean nameplatesDirty = true;
+	private static boolean screenOpen;
 
 	@Init
 	public static void init() {
-		// Clear the cache every tick
-		ClientTickEvents.END_WORLD_TICK.register(client -> clearCache());
+		ClientTickEvents.END_WORLD_TICK.register(world -> onEndTick());
+		ClientEntityEvents.ENTITY_LOAD.register((entity, world) -> onEntityChanged(entity));
+		ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> onEntityChanged(entity));
+		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> clearCache());
+		SkyblockEvents.LOCATION_CHANGE.register(location -> clearCache());
+		// The config can only be changed in a screen, so recompute everything once the screen is closed
+		ClientTickEvents.END_CLIENT_TICK.register(client -> {
+			boolean open = client.currentScreen != null;
+			if (screenOpen && !open) clearCache();
+			screenOpen = open;
+		});
 	}
 
 	public static boolean atLeastOneMobHasCustomGlow() {
-		return !CACHE.isEmpty();
+		return glowingEntities > 0;
 	}
 
 	protected static void registerGlowAdder(MobGlowAdder adder) {
+		if (ADDERS.size() == Long.SIZE) throw new IllegalStateException("Too many mob glow adders, at most " + Long.SIZE + " are supported");
 		ADDERS.add(adder);
 	}
 
 	public static boolean hasOrComputeMobGlow(Entity entity) {
-		if (CACHE.containsKey(entity)) {
-			return true;
+		int id = entity.getId();
+		if (CACHE.containsKey(id)) {
+			return CACHE.get(id) != NO_GLOW;
 		}
+
+		usedNameplates = false;
 		int color = computeMobGlow(entity);
-		if (color != NO_GLOW) {
-			CACHE.put(entity, color);
-			return true;
+		CACHE.put(id, color);
+		if (color != NO_GLOW) glowingEntities++;
+		if (!cacheable) {
+			TICK_ENTRIES.add(id);
+		} else if (usedNameplates) {
+			NAMEPLATE_DEPENDENTS.add(id);
 		}
-		return false;
+
+		return color != NO_GLOW;
 	}
 
 	public static int getMobGlow(Entity entity) {
-		return CACHE.getInt(entity);
+		return CACHE.get(entity.getId());
 	}
 
 	public static int getMobGlowOrDefault(Entity entity, int defaultColor) {
-		return CACHE.getOrDefault(entity, defaultColor);
+		int color = CACHE.get(entity.getId());
+		return color != NO_GLOW ? color : defaultColor;
 	}
 
 	public static void clearCache() {
 		CACHE.clear();
+		TICK_ENTRIES.clear();
+		NAMEPLATE_DEPENDENTS.clear();
+		glowingEntities = 0;
+		nameplatesDirty = true;
+	}
+
+	/**
+	 * Called when the tracked data of an entity, such as its name, changes.
+	 */
+	public static void onTrackedDataChanged(Entity entity) {
+		onEntityChanged(entity);
+	}
+
+	private static void onEndTick() {
+		long enabled = getEnabledAdders();
+		if (enabled != enabledAdders) {
+			enabledAdders = enabled;
+			clearCache();
+		}
+
+		for (IntIterator it = TICK_ENTRIES.iterator(); it.hasNext(); ) {
+			invalidate(it.nextInt());
+		}
+		TICK_ENTRIES.clear();
+		nameplatesDirty = true;
+	}
+
+	private static void onEntityChanged(Entity entity) {
+		invalidate(entity.getId());
+		if (entity instanceof ArmorStandEntity armorStand) onNameplateChanged(armorStand);
+	}
+
+	/**
+	 * Invalidates the cached glow of the entities which could have this armor stand as their nameplate.
+	 */
+	private static void onNameplateChanged(ArmorStandEntity armorStand) {
+		nameplatesDirty = true;
+		if (NAMEPLATE_DEPENDENTS.isEmpty()) return;
+
+		Box nameplateBox = armorStand.getBoundingBox();
+		IntList invalidated = new IntArrayList();
+		for (IntIterator it = NAMEPLATE_DEPENDENTS.iterator(); it.hasNext(); ) {
+			int id = it.nextInt();
+			Entity entity = armorStand.getWorld().getEntityById(id);
+			if (entity == null || entity.getBoundingBox().expand(1, 2, 1).intersects(nameplateBox)) invalidated.add(id);
+		}
+		for (int i = 0; i < invalidated.size(); i++) {
+			invalidate(invalidated.getInt(i));
+		}
+	}
+
+	private static void invalidate(int id) {
+		// Absent entries return the default value, which is NO_GLOW
+		if (CACHE.remove(id) != NO_GLOW) glowingEntities--;
+		NAMEPLATE_DEPENDENTS.remove(id);
 	}
 
 	/**
@@ -64,8 +185,10 @@ public class MobGlow {
 	 * <p>Only non-zero colors are valid.
 	 */
 	private static int computeMobGlow(Entity entity) {
+		cacheable = true;
 		for (MobGlowAdder adder : ADDERS) {
 			if (adder.isEnabled()) {
+				cacheable &= adder.isCacheable();
 				int glowColour = adder.computeColour(entity);
 
 				if (glowColour != NO_GLOW) return glowColour;
@@ -75,6 +198,15 @@ public class MobGlow {
 		return NO_GLOW;
 	}
 
+	private static long getEnabledAdders() {
+		long enabled = 0;
+		for (int i = 0; i < ADDERS.size(); i++) {
+			if (ADDERS.get(i).isEnabled()) enabled |= 1L << i;
+		}
+
+		return enabled;
+	}
+
 	/**
 	 * Returns name of entity by finding closed armor stand and getting name of that
 	 *
@@ -94,6 +226,56 @@ public class MobGlow {
 	}
 
 	public static List<ArmorStandEntity> getArmorStands(World world, Box box) {
-		return world.getEntitiesByClass(ArmorStandEntity.class, box.expand(0, 2, 0), EntityPredicates.NOT_MOUNTED);
+		return getNameplates(world, box.expand(0, 2, 0));
+	}
+
+	/**
+	 * Returns the armor stands which are not mounted and intersect the box, looked up from {@link #NAMEPLATES}.
+	 * Must be called on the render thread.
+	 */
+	public static List<ArmorStandEntity> getNameplates(World world, Box box) {
+		usedNameplates = true;
+		int minX = MathHelper.floor(box.minX) - 1;
+		int maxX = MathHelper.floor(box.maxX) + 1;
+		int minZ = MathHelper.floor(box.minZ) - 1;
+		int maxZ = MathHelper.floor(box.maxZ) + 1;
+		if (!(world instanceof ClientWorld clientWorld) || (maxX - minX + 1) * (maxZ - minZ + 1) > MAX_NAMEPLATE_COLUMNS) {
+			return world.getEntitiesByClass(ArmorStandEntity.class, box, EntityPredicates.NOT_MOUNTED);
+		}
+		if (nameplatesDirty || nameplatesWorld != world) indexNameplates(clientWorld);
+
+		// Armor stands can move after the index is built, so the columns next to the box are checked too
+		List<ArmorStandEntity> armorStands = new ArrayList<>();
+		for (int x = minX; x <= maxX; x++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				List<ArmorStandEntity> column = NAMEPLATES.get(columnKey(x, z));
+				if (column == null) continue;
+				for (ArmorStandEntity armorStand : column) {
+					if (armorStand.getBoundingBox().intersects(box) && EntityPredicates.NOT_MOUNTED.test(armorStand) && !armorStands.contains(armorStand)) {
+						armorStands.add(armorStand);
+					}
+				}
+			}
+		}
+		return armorStands;
+	}
+
+	private static void indexNameplates(ClientWorld world) {
+		NAMEPLATES.clear();
+		for (Entity entity : world.getEntities()) {
+			if (!(entity instanceof ArmorStandEntity armorStand)) continue;
+			Box box = armorStand.getBoundingBox();
+			for (int x = MathHelper.floor(box.minX); x <= MathHelper.floor(box.maxX); x++) {
+				for (int z = MathHelper.floor(box.minZ); z <= MathHelper.floor(box.maxZ); z++) {
+					NAMEPLATES.computeIfAbsent(columnKey(x, z), key -> new ArrayList<>(1)).add(armorStand);
+				}
+			}
+		}
+		nameplatesWorld = world;
+		nameplatesDirty = false;
+	}
+
+	private static long columnKey(int x, int z) {
+		return (long) x << 32 | z & 0xFFFFFFFFL;
 	}
 }
@@ -20,4 +20,14 @@ public abstract class MobGlowAdder {
 	 * @return If this adder is enabled.
 	 */
 	public abstract boolean isEnabled();
+
+	/**
+	 * Whether the colours computed by this adder only depend on the entity's tracked data (such as its name), its nameplate, and the config.
+	 * Colours of cacheable adders are cached until one of those changes, while other adders are called again every tick.
+	 *
+	 * @return If the colours computed by this adder can be cached.
+	 */
+	public boolean isCacheable() {
+		return true;
+	}
 }
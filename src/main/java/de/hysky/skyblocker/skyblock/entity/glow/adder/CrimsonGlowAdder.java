@@ -24,4 +24,12 @@ public class CrimsonGlowAdder extends MobGlowAdder {
 	public boolean isEnabled() {
 		return Utils.isInCrimson();
 	}
+
+	/**
+	 * The glow depends on the current dojo challenge.
+	 */
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
 }
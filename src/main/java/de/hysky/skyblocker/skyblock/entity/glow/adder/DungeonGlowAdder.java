@@ -76,6 +76,14 @@ public class DungeonGlowAdder extends MobGlowAdder {
 		return Utils.isInDungeons();
 	}
 
+	/**
+	 * The glow depends on the dungeon progress, such as the correct livid and player classes.
+	 */
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	/**
 	 * Checks if an entity is starred by checking if its armor stand contains a star in its name.
 	 *
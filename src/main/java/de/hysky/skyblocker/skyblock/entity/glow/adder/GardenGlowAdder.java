@@ -49,6 +49,14 @@ public class GardenGlowAdder extends MobGlowAdder {
 		return SkyblockerConfigManager.get().farming.garden.pestHighlighter && Utils.isInGarden();
 	}
 
+	/**
+	 * The glow depends on the current Jacob's contest.
+	 */
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	/**
 	 * Compares the armor items of an armor stand to the Pest head texture to determine if it is a Pest head.
 	 */
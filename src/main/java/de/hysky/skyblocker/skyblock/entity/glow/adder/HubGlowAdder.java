@@ -29,4 +29,12 @@ public class HubGlowAdder extends MobGlowAdder {
 	public boolean isEnabled() {
 		return Utils.isInHub();
 	}
+
+	/**
+	 * The glow depends on the state of the carnival games.
+	 */
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
 }
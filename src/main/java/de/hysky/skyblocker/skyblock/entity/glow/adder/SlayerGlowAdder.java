@@ -51,6 +51,14 @@ public class SlayerGlowAdder extends MobGlowAdder {
 		return SlayerManager.isInSlayer();
 	}
 
+	/**
+	 * The glow depends on the slayer quest and the distance to the player.
+	 */
+	@Override
+	public boolean isCacheable() {
+		return false;
+	}
+
 	/**
 	 * Compares the armor items of an armor stand to the Nukekubi head texture to determine if it is a Nukekubi head.
 	 */
@@ -3,7 +3,7 @@ package de.hysky.skyblocker.skyblock.events.greatspook;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.utils.Calculator;
 import de.hysky.skyblocker.utils.Constants;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
 import net.minecraft.screen.ScreenTexts;
 import net.minecraft.text.ClickEvent;
 import net.minecraft.text.HoverEvent;
@@ -20,20 +20,20 @@ import java.util.List;
  */
 public final class MathTeacherHelper {
 	private static final Logger LOGGER = LoggerFactory.getLogger(MathTeacherHelper.class);
+	private static final String QUICK_MATHS = "QUICK MATHS! ";
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.MODIFY_GAME.register(MathTeacherHelper::onMessage);
+		ChatDispatcher.registerModifier("MathTeacherHelper", ChatDispatcher.Channel.CHAT, false, MathTeacherHelper::onMessage, QUICK_MATHS);
 	}
 
 	/**
 	 * Appends the result of the math expression to the message and a send in chat text that, well, sends the result in chat.
 	 */
-	public static Text onMessage(Text message, boolean overlay) {
-		if (overlay) return message;
+	public static Text onMessage(Text message, ChatDispatcher.Message chatMessage) {
 		List<Text> siblings = message.getSiblings();
 		if (message.getContent() != PlainTextContent.EMPTY || siblings.size() != 3) return message;
-		if (!siblings.getFirst().getString().equals("QUICK MATHS! ")) return message;
+		if (!siblings.getFirst().getString().equals(QUICK_MATHS)) return message;
 
 		String expression = siblings.get(2).getString().replace('x', '*'); // Hypixel uses x for multiplication while our calculator uses *
 		try {
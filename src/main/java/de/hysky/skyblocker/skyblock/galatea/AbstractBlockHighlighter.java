@@ -1,11 +1,8 @@
 package de.hysky.skyblocker.skyblock.galatea;
 
-import de.hysky.skyblocker.events.WorldEvents;
 import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.render.RenderHelper;
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
-import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import de.hysky.skyblocker.utils.world.BlockIndex;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.block.Block;
@@ -13,21 +10,18 @@ import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.DyeColor;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
-import net.minecraft.world.chunk.Chunk;
-import net.minecraft.world.chunk.WorldChunk;
 
-import java.util.Iterator;
-import java.util.Set;
 import java.util.function.Predicate;
 
 /**
  * Abstract class for a simple feature that highlights a certain type of block.
+ * <p>
+ * The blocks are found by the shared {@link BlockIndex} while {@link #shouldProcess()} is true.
  */
 //TODO Move this to a more generic package since this is not Galatea specific (maybe make a world rendering utility package?)
 public abstract class AbstractBlockHighlighter {
-	protected final Set<BlockPos> highlightedBlocks = new ObjectOpenHashSet<>();
+	protected final BlockIndex.Subscription highlightedBlocks;
 	protected final float[] colour;
 	protected final Predicate<BlockState> statePredicate;
 
@@ -48,73 +42,39 @@ public abstract class AbstractBlockHighlighter {
 	protected AbstractBlockHighlighter(Predicate<BlockState> statePredicate, DyeColor colour) {
 		this.statePredicate = statePredicate;
 		this.colour = ColorUtils.getFloatComponents(colour);
+		this.highlightedBlocks = BlockIndex.register(getClass().getSimpleName(), this::shouldProcess, statePredicate);
 	}
 
 	protected void init() {
-		ClientChunkEvents.CHUNK_LOAD.register(this::onChunkLoad);
-		ClientChunkEvents.CHUNK_UNLOAD.register(this::onChunkUnload);
 		WorldRenderEvents.AFTER_TRANSLUCENT.register(this::render);
-		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> this.reset());
-		WorldEvents.BLOCK_STATE_UPDATE.register(this::onBlockUpdate);
-	}
-
-	protected void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState) {
-		if (!shouldProcess()) return;
-
-		if (this.statePredicate.test(newState)) {
-			this.highlightedBlocks.add(pos.toImmutable());
-		} else {
-			this.highlightedBlocks.remove(pos);
-		}
-	}
-
-	/**
-	 * Add initial highlights since {@link #onBlockUpdate(BlockPos, BlockState)} doesn't fire when the
-	 * server sends chunk data via the {@code ChunkDataS2CPacket}.
-	 */
-	protected void onChunkLoad(ClientWorld world, WorldChunk chunk) {
-		if (!shouldProcess()) return;
-
-		chunk.forEachBlockMatchingPredicate(statePredicate, (pos, state) -> this.highlightedBlocks.add(pos.toImmutable()));
-	}
-
-	/**
-	 * Remove highlights in unloaded chunks.
-	 */
-	protected void onChunkUnload(ClientWorld world, WorldChunk chunk) {
-		if (!shouldProcess()) return;
-		Iterator<BlockPos> iterator = this.highlightedBlocks.iterator();
-
-		while (iterator.hasNext()) {
-			BlockPos pos = iterator.next();
-			Chunk holder = world.getChunk(pos);
-
-			if (holder.equals(chunk)) {
-				iterator.remove();
-			}
-		}
 	}
 
 	private void render(WorldRenderContext context) {
-		MinecraftClient client = MinecraftClient.getInstance();
-		if (!shouldProcess() || client.world == null) return;
+		ClientWorld world = MinecraftClient.getInstance().world;
+		if (!this.highlightedBlocks.isActive() || world == null) return;
 
-		for (BlockPos highlight : this.highlightedBlocks) {
-			Box outline = RenderHelper.getBlockBoundingBox(client.world, highlight);
+		this.highlightedBlocks.forEach(highlight -> {
+			BlockState state = world.getBlockState(highlight);
+			if (!shouldHighlight(state)) return;
+			Box outline = RenderHelper.getBlockBoundingBox(world, state, highlight);
 
 			if (outline != null) {
 				RenderHelper.renderFilled(context, outline, this.colour, 0.4f, false);
 			}
-		}
+		});
 	}
 
-	public void reset() {
-		this.highlightedBlocks.clear();
+	/**
+	 * Allows highlighters to skip some of the matching blocks depending on the config, which takes effect immediately.
+	 *
+	 * @return Whether the block, which matches {@link #statePredicate}, should be highlighted.
+	 */
+	protected boolean shouldHighlight(BlockState state) {
+		return true;
 	}
 
 	/**
 	 * @return Whether this highlighter should try to process blocks.
 	 */
-	@SuppressWarnings("BooleanMethodIsAlwaysInverted")
 	protected abstract boolean shouldProcess();
 }
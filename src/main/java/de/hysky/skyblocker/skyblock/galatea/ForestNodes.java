@@ -2,9 +2,9 @@ package de.hysky.skyblocker.skyblock.galatea;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
@@ -18,7 +18,6 @@ import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
-import net.minecraft.particle.ParticleType;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.DyeColor;
@@ -51,19 +50,10 @@ public class ForestNodes {
 			return ActionResult.PASS;
 		});
 		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
-		ParticleEvents.FROM_SERVER.register(ForestNodes::onParticle);
+		PacketRouter.PARTICLES.register("ForestNodes", ForestNodes::shouldProcess, ForestNodes::onParticle, ParticleTypes.HAPPY_VILLAGER);
 	}
 
 	private static void onParticle(ParticleS2CPacket packet) {
-		if (!shouldProcess()) {
-			return;
-		}
-
-		ParticleType<?> particleType = packet.getParameters().getType();
-		if (!ParticleTypes.HAPPY_VILLAGER.getType().equals(particleType)) {
-			return;
-		}
-
 		double x = packet.getX();
 		double y = packet.getY() - 1;
 		double z = packet.getZ();
@@ -9,6 +9,7 @@ import net.minecraft.text.Text;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -66,6 +67,11 @@ public class SweepDetailsListener implements ChatMessageListener {
 		LOGGER.info("[CHAT] {}", chatMessage);
 	}
 
+	@Override
+	public List<String> prefixes() {
+		return List.of("Sweep Details: ", "  ");
+	}
+
 	@Override
 	public ChatFilterResult onMessage(Text message, String asString) {
 		if (!SweepDetailsHudWidget.LOCATIONS.contains(Utils.getLocation())) return ChatFilterResult.PASS;
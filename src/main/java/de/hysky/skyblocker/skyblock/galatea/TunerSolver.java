@@ -1,12 +1,12 @@
 package de.hysky.skyblocker.skyblock.galatea;
 
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.PlaySoundEvents;
 import de.hysky.skyblocker.skyblock.item.slottext.SlotText;
 import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Utils;
 import de.hysky.skyblocker.utils.container.SimpleContainerSolver;
 import de.hysky.skyblocker.utils.container.SlotTextAdder;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.render.gui.ColorHighlight;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -36,7 +36,7 @@ public class TunerSolver extends SimpleContainerSolver implements SlotTextAdder
 
 	private TunerSolver() {
 		super("^Tune Frequency$");
-		PlaySoundEvents.FROM_SERVER.register(this::onSound);
+		PacketRouter.SOUNDS.register("TunerSolver", () -> SkyblockerConfigManager.get().foraging.galatea.enableTunerSolver && !pitchSolved && Utils.isInGalatea() && isInMenu, this::onSound, SoundEvents.BLOCK_NOTE_BLOCK_BASS.value());
 	}
 
 	private static final Item[] COLOR_CYCLE = {
@@ -327,12 +327,6 @@ public class TunerSolver extends SimpleContainerSolver implements SlotTextAdder
 	}
 
 	private void onSound(PlaySoundS2CPacket packet) {
-		if (!SkyblockerConfigManager.get().foraging.galatea.enableTunerSolver
-				|| pitchSolved || !Utils.isInGalatea() || !isInMenu
-				|| !packet.getSound().value().id().equals(SoundEvents.BLOCK_NOTE_BLOCK_BASS.value().id())) {
-			return;
-		}
-
 		float packetPitch = packet.getPitch();
 		recentPitches.add(packetPitch);
 		int sampleCount = recentPitches.size();
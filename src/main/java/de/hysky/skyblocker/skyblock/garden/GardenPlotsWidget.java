@@ -309,16 +309,14 @@ public class GardenPlotsWidget extends ContainerWidget {
 
 	private void updateInfestedFromTab() {
 		infectedPlots.clear();
-		for (int i = 0; i < PlayerListManager.getPlayerStringList().size(); i++) {
-			String string = PlayerListManager.getPlayerStringList().get(i);
-			if (string.startsWith("Plots:")) {
-				String[] split = string.split(":")[1].split(",");
-				for (String s : split) {
-					try {
-						infectedPlots.add(GARDEN_PLOT_TO_SLOT.getOrDefault(Integer.parseInt(s.strip()), -1));
-					} catch (NumberFormatException ignored) {}
-				}
-				break;
+		// The infested plots are listed on the first line with the key, the same line the loop over the list used to stop at
+		String string = PlayerListManager.getLine("Plots:");
+		if (string != null) {
+			String[] split = string.split(":")[1].split(",");
+			for (String s : split) {
+				try {
+					infectedPlots.add(GARDEN_PLOT_TO_SLOT.getOrDefault(Integer.parseInt(s.strip()), -1));
+				} catch (NumberFormatException ignored) {}
 			}
 		}
 	}
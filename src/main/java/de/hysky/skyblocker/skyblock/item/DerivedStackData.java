@@ -0,0 +1,121 @@
+package de.hysky.skyblocker.skyblock.item;
+
+import de.hysky.skyblocker.utils.ItemUtils;
+import it.unimi.dsi.fastutil.ints.IntIntPair;
+import net.minecraft.component.ComponentMap;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.LoreComponent;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data derived from the components of an {@link ItemStack}, such as its Skyblock ids, rarity, pet info and durability.
+ * Each value is computed the first time it is requested and then cached, including absent values such as the empty id of a vanilla item.
+ * <p>
+ * Everything here is derived from the {@link DataComponentTypes#CUSTOM_DATA custom data}, {@link DataComponentTypes#LORE lore} and
+ * {@link DataComponentTypes#CUSTOM_NAME custom name} components. Component values are immutable, so setting any of them replaces the value object,
+ * and the references to these three objects act as the version stamp of the data. See {@link #of(ItemStack, DerivedStackData)}.
+ * <p>
+ * Instances are held by {@link de.hysky.skyblocker.mixins.ItemStackMixin ItemStackMixin} and read through {@link de.hysky.skyblocker.injected.SkyblockerStack SkyblockerStack}.
+ */
+public final class DerivedStackData {
+	/**
+	 * Marks that the durability was computed and the stack has no custom durability, since {@code null} means not computed.
+	 */
+	private static final IntIntPair NO_DURABILITY = IntIntPair.of(-1, -1);
+	private final @Nullable NbtComponent customData;
+	private final @Nullable LoreComponent lore;
+	private final @Nullable Text customName;
+	private String skyblockId;
+	private String skyblockApiId;
+	private String neuName;
+	private String uuid;
+	private PetInfo petInfo;
+	private SkyblockItemRarity rarity;
+	private IntIntPair durability;
+	private List<String> loreStrings;
+
+	private DerivedStackData(@Nullable NbtComponent customData, @Nullable LoreComponent lore, @Nullable Text customName) {
+		this.customData = customData;
+		this.lore = lore;
+		this.customName = customName;
+	}
+
+	/**
+	 * Returns the data for the stack, reusing {@code current} if the components it was derived from haven't changed since.
+	 * The components are read from {@link ItemStack#getComponents()} directly so that component modifications by other mixins aren't triggered.
+	 */
+	public static DerivedStackData of(ItemStack stack, @Nullable DerivedStackData current) {
+		ComponentMap components = stack.getComponents();
+		NbtComponent customData = components.get(DataComponentTypes.CUSTOM_DATA);
+		LoreComponent lore = components.get(DataComponentTypes.LORE);
+		Text customName = components.get(DataComponentTypes.CUSTOM_NAME);
+		if (current != null && current.customData == customData && current.lore == lore && current.customName == customName) return current;
+
+		return new DerivedStackData(customData, lore, customName);
+	}
+
+	public @NotNull String getSkyblockId(ItemStack stack) {
+		if (skyblockId != null) return skyblockId;
+		return skyblockId = ItemUtils.getItemId(stack);
+	}
+
+	public @NotNull String getSkyblockApiId(ItemStack stack) {
+		if (skyblockApiId != null) return skyblockApiId;
+		return skyblockApiId = ItemUtils.getSkyblockApiId(stack);
+	}
+
+	public @NotNull String getNeuName(ItemStack stack) {
+		if (neuName != null) return neuName;
+		return neuName = ItemUtils.getNeuId(stack);
+	}
+
+	public @NotNull String getUuid(ItemStack stack) {
+		if (uuid != null) return uuid;
+		return uuid = ItemUtils.getItemUuid(stack);
+	}
+
+	public @NotNull PetInfo getPetInfo(ItemStack stack) {
+		if (petInfo != null) return petInfo;
+		return petInfo = ItemUtils.getPetInfo(stack);
+	}
+
+	@SuppressWarnings("deprecation")
+	public @NotNull SkyblockItemRarity getRarity(ItemStack stack) {
+		if (rarity != null) return rarity;
+		return rarity = ItemUtils.getItemRarity(stack);
+	}
+
+	/**
+	 * @see ItemUtils#getDurability(ItemStack)
+	 */
+	public @Nullable IntIntPair getDurability(ItemStack stack) {
+		if (durability == null) {
+			IntIntPair computed = ItemUtils.getDurability(stack);
+			durability = computed != null ? computed : NO_DURABILITY;
+		}
+
+		return durability != NO_DURABILITY ? durability : null;
+	}
+
+	/**
+	 * @return the unstyled strings of the lore lines
+	 */
+	public @NotNull List<String> getLoreStrings() {
+		if (loreStrings != null) return loreStrings;
+		if (lore == null || lore.lines().isEmpty()) return loreStrings = List.of();
+
+		List<String> strings = new ArrayList<>(lore.lines().size());
+		for (Text line : lore.lines()) {
+			strings.add(line.getString());
+		}
+		return loreStrings = Collections.unmodifiableList(strings);
+	}
+}
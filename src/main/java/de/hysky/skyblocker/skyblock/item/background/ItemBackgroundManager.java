@@ -23,7 +23,7 @@ public class ItemBackgroundManager {
 	public static void init() {
 		// Clear the cache of every background every 5 minutes
 		for (ColoredItemBackground<?> background : BACKGROUNDS) {
-			Scheduler.INSTANCE.scheduleCyclic(background::clearCache, 6000);
+			Scheduler.INSTANCE.scheduleCyclic(background::clearCache, 6000, false, true);
 		}
 
 		// Hook into screen changes for per-background logic
@@ -0,0 +1,318 @@
+package de.hysky.skyblocker.skyblock.item.tooltip;
+
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCosts.Breakdown;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The recipe graph used to compute the craft costs of all items at once, see {@link CraftCosts}.
+ * <p>
+ * Items are nodes with edges to the inputs of their recipes. The strongly connected components of the graph, such as
+ * items which can be compressed and decompressed into each other, are found once when the graph is built and stored in
+ * reverse topological order, so that the inputs of every component are priced before the component itself.
+ * Costs are then computed in a single pass over the components, relaxing the recipes within a component until its costs stop decreasing.
+ */
+class CraftCostGraph {
+	static final CraftCostGraph EMPTY = build(Map.of());
+
+	private final Object2IntOpenHashMap<String> ids;
+	private final String[] names;
+	/**
+	 * The recipes of item {@code i} are {@code recipeStart[i]} until {@code recipeStart[i + 1]}.
+	 */
+	private final int[] recipeStart;
+	private final double[] recipeOutputAmounts;
+	/**
+	 * The inputs of recipe {@code r} are {@code inputStart[r]} until {@code inputStart[r + 1]} in {@link #inputItems} and {@link #inputAmounts}.
+	 */
+	private final int[] inputStart;
+	private final int[] inputItems;
+	private final double[] inputAmounts;
+	/**
+	 * The items ordered by component, with the components in reverse topological order.
+	 * The items of component {@code c} are {@code componentStart[c]} until {@code componentStart[c + 1]}.
+	 */
+	private final int[] componentItems;
+	private final int[] componentStart;
+	private final int[] components;
+
+	private CraftCostGraph(Object2IntOpenHashMap<String> ids, String[] names, int[] recipeStart, double[] recipeOutputAmounts, int[] inputStart, int[] inputItems, double[] inputAmounts) {
+		this.ids = ids;
+		this.names = names;
+		this.recipeStart = recipeStart;
+		this.recipeOutputAmounts = recipeOutputAmounts;
+		this.inputStart = inputStart;
+		this.inputItems = inputItems;
+		this.inputAmounts = inputAmounts;
+
+		int size = names.length;
+		componentItems = new int[size];
+		componentStart = new int[size + 1];
+		components = new int[size];
+		int componentCount = findComponents();
+		componentStart[componentCount] = size;
+	}
+
+	/**
+	 * @param recipes the recipes producing each item, by item id
+	 */
+	static CraftCostGraph build(Map<String, List<Recipe>> recipes) {
+		Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+		ids.defaultReturnValue(-1);
+		List<String> names = new ArrayList<>();
+		// Items with recipes first so that their recipes can be laid out in item order
+		for (String item : recipes.keySet()) {
+			ids.put(item, names.size());
+			names.add(item);
+		}
+		for (List<Recipe> itemRecipes : recipes.values()) {
+			for (Recipe recipe : itemRecipes) {
+				for (Ingredient input : recipe.inputs()) {
+					if (ids.putIfAbsent(input.item(), names.size()) == -1) names.add(input.item());
+				}
+			}
+		}
+
+		int[] recipeStart = new int[names.size() + 1];
+		DoubleArrayList outputAmounts = new DoubleArrayList();
+		IntArrayList inputStart = new IntArrayList();
+		IntArrayList inputItems = new IntArrayList();
+		DoubleArrayList inputAmounts = new DoubleArrayList();
+		for (int item = 0; item < names.size(); item++) {
+			recipeStart[item] = outputAmounts.size();
+			for (Recipe recipe : recipes.getOrDefault(names.get(item), List.of())) {
+				if (recipe.outputAmount() <= 0) continue;
+				outputAmounts.add(recipe.outputAmount());
+				inputStart.add(inputItems.size());
+				for (Ingredient input : recipe.inputs()) {
+					inputItems.add(ids.getInt(input.item()));
+					inputAmounts.add(input.amount());
+				}
+			}
+		}
+		recipeStart[names.size()] = outputAmounts.size();
+		inputStart.add(inputItems.size());
+
+		return new CraftCostGraph(ids, names.toArray(String[]::new), recipeStart, outputAmounts.toDoubleArray(), inputStart.toIntArray(), inputItems.toIntArray(), inputAmounts.toDoubleArray());
+	}
+
+	/**
+	 * Finds the strongly connected components with an iterative version of Tarjan's algorithm,
+	 * which emits each component after all components reachable from it, i.e. in reverse topological order.
+	 *
+	 * @return the number of components
+	 */
+	private int findComponents() {
+		int size = names.length;
+		int[] index = new int[size];
+		int[] lowLink = new int[size];
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size];
+		int[] callStack = new int[size];
+		// The next recipe input to visit for each item on the call stack
+		int[] nextInput = new int[size];
+		Arrays.fill(index, -1);
+		int counter = 0;
+		int stackSize = 0;
+		int componentCount = 0;
+		int componentItemCount = 0;
+
+		for (int root = 0; root < size; root++) {
+			if (index[root] != -1) continue;
+			int callStackSize = 0;
+			callStack[callStackSize++] = root;
+			index[root] = lowLink[root] = counter++;
+			nextInput[root] = inputStart[recipeStart[root]];
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (callStackSize > 0) {
+				int item = callStack[callStackSize - 1];
+				if (nextInput[item] < inputStart[recipeStart[item + 1]]) {
+					int input = inputItems[nextInput[item]++];
+					if (index[input] == -1) {
+						index[input] = lowLink[input] = counter++;
+						nextInput[input] = inputStart[recipeStart[input]];
+						stack[stackSize++] = input;
+						onStack[input] = true;
+						callStack[callStackSize++] = input;
+					} else if (onStack[input]) {
+						lowLink[item] = Math.min(lowLink[item], index[input]);
+					}
+					continue;
+				}
+
+				callStackSize--;
+				if (callStackSize > 0) {
+					int caller = callStack[callStackSize - 1];
+					lowLink[caller] = Math.min(lowLink[caller], lowLink[item]);
+				}
+				if (lowLink[item] == index[item]) {
+					componentStart[componentCount] = componentItemCount;
+					int member;
+					do {
+						member = stack[--stackSize];
+						onStack[member] = false;
+						components[member] = componentCount;
+						componentItems[componentItemCount++] = member;
+					} while (member != item);
+					componentCount++;
+				}
+			}
+		}
+
+		return componentCount;
+	}
+
+	/**
+	 * Computes the cost of every item, which is the lower of its market price and its cheapest recipe.
+	 * Inputs without a cost are counted as free, so that recipes with items that can't be bought still have a craft cost.
+	 *
+	 * @param marketPrice the price of each item, or a non-positive value if it can't be bought
+	 */
+	Costs compute(ToDoubleFunction<String> marketPrice) {
+		int size = names.length;
+		double[] unitCosts = new double[size];
+		double[] craftCosts = new double[size];
+		int[] bestRecipes = new int[size];
+		Arrays.fill(craftCosts, Double.POSITIVE_INFINITY);
+		Arrays.fill(bestRecipes, -1);
+
+		for (int component = 0; componentStart[component] < size; component++) {
+			int start = componentStart[component];
+			int end = componentStart[component + 1];
+			for (int i = start; i < end; i++) {
+				double price = marketPrice.applyAsDouble(names[componentItems[i]]);
+				unitCosts[componentItems[i]] = price > 0 ? price : Double.POSITIVE_INFINITY;
+			}
+
+			// Each round can only lower costs along one more recipe of the component, so this terminates after at most one round per item
+			boolean changed = true;
+			for (int round = 0; changed && round <= end - start; round++) {
+				changed = false;
+				for (int i = start; i < end; i++) {
+					int item = componentItems[i];
+					for (int recipe = recipeStart[item]; recipe < recipeStart[item + 1]; recipe++) {
+						double cost = recipeCost(recipe, component, unitCosts) / recipeOutputAmounts[recipe];
+						if (!(cost > 0) || cost >= craftCosts[item]) continue;
+						craftCosts[item] = cost;
+						bestRecipes[item] = recipe;
+						if (cost < unitCosts[item]) {
+							unitCosts[item] = cost;
+							changed = true;
+						}
+					}
+				}
+			}
+		}
+
+		return new Costs(unitCosts, craftCosts, bestRecipes);
+	}
+
+	/**
+	 * @return the total cost of the inputs of the recipe, or {@link Double#NaN} if an input in the same component doesn't have a cost yet
+	 */
+	private double recipeCost(int recipe, int component, double[] unitCosts) {
+		double cost = 0;
+		for (int i = inputStart[recipe]; i < inputStart[recipe + 1]; i++) {
+			double inputCost = unitCosts[inputItems[i]];
+			if (inputCost == Double.POSITIVE_INFINITY) {
+				if (components[inputItems[i]] == component) return Double.NaN;
+				continue;
+			}
+			cost += inputCost * inputAmounts[i];
+		}
+		return cost;
+	}
+
+	int size() {
+		return names.length;
+	}
+
+	int componentCount() {
+		int count = 0;
+		while (componentStart[count] < names.length) count++;
+		return count;
+	}
+
+	/**
+	 * @param outputAmount the number of items produced by one craft
+	 */
+	record Recipe(double outputAmount, List<Ingredient> inputs) {}
+
+	record Ingredient(String item, double amount) {}
+
+	/**
+	 * The computed costs of all items in the graph.
+	 */
+	final class Costs {
+		private final double[] unitCosts;
+		private final double[] craftCosts;
+		private final int[] bestRecipes;
+		private final Object2DoubleOpenHashMap<String> craftCostsByItem = new Object2DoubleOpenHashMap<>();
+
+		private Costs(double[] unitCosts, double[] craftCosts, int[] bestRecipes) {
+			this.unitCosts = unitCosts;
+			this.craftCosts = craftCosts;
+			this.bestRecipes = bestRecipes;
+			for (int item = 0; item < names.length; item++) {
+				if (bestRecipes[item] != -1) craftCostsByItem.put(names[item], craftCosts[item]);
+			}
+		}
+
+		/**
+		 * @return the cost of crafting one of the item with its cheapest recipe, or 0 if it can't be crafted
+		 */
+		double getCraftCost(String item) {
+			return craftCostsByItem.getDouble(item);
+		}
+
+		/**
+		 * @return the cost of getting one of the item by buying or crafting it, or 0 if it has no cost
+		 */
+		double getUnitCost(String item) {
+			int id = ids.getInt(item);
+			return id != -1 && unitCosts[id] != Double.POSITIVE_INFINITY ? unitCosts[id] : 0;
+		}
+
+		/**
+		 * Returns the cheapest recipe for one of the item, where each input is broken down further if crafting it is cheaper than buying it.
+		 *
+		 * @return the breakdown, or {@code null} if the item can't be crafted
+		 */
+		@Nullable
+		Breakdown getBreakdown(String item) {
+			int id = ids.getInt(item);
+			if (id == -1 || bestRecipes[id] == -1) return null;
+			return breakdown(id, 1, true, new IntOpenHashSet());
+		}
+
+		private Breakdown breakdown(int item, double amount, boolean craft, IntSet path) {
+			int recipe = bestRecipes[item];
+			// Items in the same component can be crafted from each other, so stop when an item is already being broken down
+			if (!craft || recipe == -1 || !path.add(item)) {
+				return new Breakdown(names[item], amount, unitCosts[item] != Double.POSITIVE_INFINITY ? unitCosts[item] * amount : 0, false, List.of());
+			}
+
+			double crafts = amount / recipeOutputAmounts[recipe];
+			List<Breakdown> inputs = new ArrayList<>();
+			for (int i = inputStart[recipe]; i < inputStart[recipe + 1]; i++) {
+				int input = inputItems[i];
+				inputs.add(breakdown(input, inputAmounts[i] * crafts, unitCosts[input] == craftCosts[input], path));
+			}
+			path.remove(item);
+			return new Breakdown(names[item], amount, craftCosts[item] * amount, true, inputs);
+		}
+	}
+}
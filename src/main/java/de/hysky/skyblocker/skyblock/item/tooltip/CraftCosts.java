@@ -0,0 +1,141 @@
+package de.hysky.skyblocker.skyblock.item.tooltip;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.config.SkyblockerConfigManager;
+import de.hysky.skyblocker.config.configs.GeneralConfig.Craft;
+import de.hysky.skyblocker.events.ItemPriceUpdateEvent;
+import de.hysky.skyblocker.skyblock.item.tooltip.info.TooltipInfoType;
+import de.hysky.skyblocker.utils.BazaarProduct;
+import de.hysky.skyblocker.utils.Constants;
+import de.hysky.skyblocker.utils.NEURepoManager;
+import io.github.moulberry.repo.data.NEUCraftingRecipe;
+import io.github.moulberry.repo.data.NEUForgeRecipe;
+import io.github.moulberry.repo.data.NEUIngredient;
+import io.github.moulberry.repo.data.NEURecipe;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Precomputed craft costs of all items in the NEU repo.
+ * <p>
+ * The recipe graph is built from {@link NEURepoManager#getRecipes()} each time the repo is loaded, and the costs of all items are
+ * recomputed in one pass over the graph each time the bazaar and lowest BIN prices are updated, so that lookups are a single map lookup.
+ * Only crafting and forge recipes are considered. An ingredient costs the lower of its market price and its own craft cost.
+ */
+public class CraftCosts {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CraftCosts.class);
+	private static volatile CraftCostGraph graph = CraftCostGraph.EMPTY;
+	private static volatile CraftCostGraph.Costs costs = CraftCostGraph.EMPTY.compute(item -> 0);
+
+	@Init
+	public static void init() {
+		NEURepoManager.runAsyncAfterLoad(CraftCosts::buildGraph);
+		ItemPriceUpdateEvent.ON_PRICE_UPDATE.register(CraftCosts::computeCosts);
+	}
+
+	private static void buildGraph() {
+		long start = System.currentTimeMillis();
+		Map<String, List<CraftCostGraph.Recipe>> recipes = new HashMap<>();
+		for (Map.Entry<String, Set<NEURecipe>> entry : NEURepoManager.getRecipes().entrySet()) {
+			for (NEURecipe recipe : entry.getValue()) {
+				if (!(recipe instanceof NEUCraftingRecipe) && !(recipe instanceof NEUForgeRecipe)) continue;
+				double outputAmount = recipe.getAllOutputs().stream().filter(output -> output.getItemId().equals(entry.getKey())).mapToDouble(NEUIngredient::getAmount).sum();
+				List<CraftCostGraph.Ingredient> inputs = new ArrayList<>();
+				for (NEUIngredient input : recipe.getAllInputs()) {
+					if (input != NEUIngredient.SENTINEL_EMPTY) inputs.add(new CraftCostGraph.Ingredient(input.getItemId(), input.getAmount()));
+				}
+				recipes.computeIfAbsent(entry.getKey(), item -> new ArrayList<>()).add(new CraftCostGraph.Recipe(outputAmount, inputs));
+			}
+		}
+
+		graph = CraftCostGraph.build(recipes);
+		LOGGER.info("[Skyblocker Craft Costs] Built recipe graph with {} items and {} components in {} ms", graph.size(), graph.componentCount(), System.currentTimeMillis() - start);
+		computeCosts();
+	}
+
+	/**
+	 * Recomputes the craft costs in the background, such as when the crafting cost config changes.
+	 */
+	public static void recompute() {
+		CompletableFuture.runAsync(CraftCosts::computeCosts).exceptionally(e -> {
+			LOGGER.error("[Skyblocker Craft Costs] Failed to compute craft costs", e);
+			return null;
+		});
+	}
+
+	private static synchronized void computeCosts() {
+		Object2ObjectMap<String, BazaarProduct> bazaarData = TooltipInfoType.BAZAAR.getData();
+		Object2DoubleMap<String> lowestBinsData = TooltipInfoType.LOWEST_BINS.getData();
+		if (bazaarData == null || lowestBinsData == null) return;
+
+		boolean buyOrder = SkyblockerConfigManager.get().general.itemTooltip.enableCraftingCost == Craft.BUY_ORDER;
+		costs = graph.compute(item -> {
+			BazaarProduct product = bazaarData.get(item);
+			if (product != null) return (buyOrder ? product.buyPrice() : product.sellPrice()).orElse(0);
+			return lowestBinsData.getOrDefault(item, 0);
+		});
+		TooltipManager.invalidateCache();
+	}
+
+	/**
+	 * @param neuId the NEU id of the item
+	 * @return the cost of crafting one of the item with its cheapest recipe, or 0 if it can't be crafted or the prices haven't been downloaded
+	 */
+	public static double getCraftCost(String neuId) {
+		return costs.getCraftCost(neuId);
+	}
+
+	/**
+	 * @param neuId the NEU id of the item
+	 * @return the cheapest way to craft one of the item, or {@code null} if it can't be crafted
+	 */
+	public static @Nullable Breakdown getBreakdown(String neuId) {
+		return costs.getBreakdown(neuId);
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> dumpHeldItemCraftCostCommand() {
+		return literal("dumpHeldItemCraftCost").executes(context -> {
+			Breakdown breakdown = getBreakdown(context.getSource().getPlayer().getMainHandStack().getNeuName());
+			if (breakdown == null) {
+				context.getSource().sendError(Constants.PREFIX.get().append("The held item can't be crafted."));
+				return Command.SINGLE_SUCCESS;
+			}
+
+			sendBreakdown(context.getSource(), breakdown, 0);
+			return Command.SINGLE_SUCCESS;
+		});
+	}
+
+	private static void sendBreakdown(FabricClientCommandSource source, Breakdown breakdown, int depth) {
+		source.sendFeedback(Text.literal("  ".repeat(depth) + String.format("%s x%.2f: ", breakdown.item(), breakdown.amount())).formatted(breakdown.crafted() ? Formatting.AQUA : Formatting.GRAY)
+				.append(Text.literal(String.format("%,.1f coins", breakdown.cost())).formatted(Formatting.GOLD)));
+		for (Breakdown input : breakdown.inputs()) {
+			sendBreakdown(source, input, depth + 1);
+		}
+	}
+
+	/**
+	 * The cheapest way to get an amount of an item.
+	 *
+	 * @param cost    the total cost of the amount, or 0 if the item has no cost
+	 * @param crafted whether crafting the item is the cheapest way to get it, in which case the inputs of the cheapest recipe are in {@code inputs}
+	 */
+	public record Breakdown(String item, double amount, double cost, boolean crafted, List<Breakdown> inputs) {}
+}
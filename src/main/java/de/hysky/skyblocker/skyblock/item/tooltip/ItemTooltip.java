@@ -4,7 +4,6 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.config.configs.GeneralConfig;
 import de.hysky.skyblocker.events.ItemPriceUpdateEvent;
-import de.hysky.skyblocker.skyblock.item.tooltip.adders.CraftPriceTooltip;
 import de.hysky.skyblocker.skyblock.item.tooltip.info.DataTooltipInfoType;
 import de.hysky.skyblocker.skyblock.item.tooltip.info.TooltipInfoType;
 import de.hysky.skyblocker.utils.Constants;
@@ -78,10 +77,16 @@ public class ItemTooltip {
 	// If these options is true beforehand, the client will get first data of these options while loading.
 	// After then, it will only fetch the data if it is on Skyblock.
 	public static int minute = 0;
+	/**
+	 * The tooltip data downloads in progress, so that a run is skipped instead of starting another download while the previous one has not finished.
+	 */
+	private static volatile CompletableFuture<Void> downloads = CompletableFuture.completedFuture(null);
 
 	@Init
 	public static void init() {
 		Scheduler.INSTANCE.scheduleCyclic(() -> {
+			if (!downloads.isDone()) return;
+
 			if (!Utils.isOnSkyblock() && 0 < minute) {
 				sentNullWarning = false;
 				return;
@@ -91,7 +96,7 @@ public class ItemTooltip {
 				sentNullWarning = false;
 			}
 
-			CompletableFuture.allOf(Stream.of(TooltipInfoType.NPC, TooltipInfoType.BAZAAR, TooltipInfoType.LOWEST_BINS, TooltipInfoType.ONE_DAY_AVERAGE, TooltipInfoType.THREE_DAY_AVERAGE, TooltipInfoType.MOTES, TooltipInfoType.MUSEUM, TooltipInfoType.COLOR, TooltipInfoType.ACCESSORIES)
+			downloads = CompletableFuture.allOf(Stream.of(TooltipInfoType.NPC, TooltipInfoType.BAZAAR, TooltipInfoType.LOWEST_BINS, TooltipInfoType.ONE_DAY_AVERAGE, TooltipInfoType.THREE_DAY_AVERAGE, TooltipInfoType.MOTES, TooltipInfoType.MUSEUM, TooltipInfoType.COLOR, TooltipInfoType.ACCESSORIES)
 					.map(DataTooltipInfoType.class::cast)
 					.map(DataTooltipInfoType::downloadIfEnabled)
 					.toArray(CompletableFuture[]::new)
@@ -100,8 +105,6 @@ public class ItemTooltip {
 				LOGGER.error("[Skyblocker] Encountered unknown error while downloading tooltip data", e);
 				return null;
 			});
-
-			CraftPriceTooltip.clearCache();
 		}, 1200, true);
 	}
 }
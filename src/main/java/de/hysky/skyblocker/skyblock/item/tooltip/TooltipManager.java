@@ -1,5 +1,7 @@
 package de.hysky.skyblocker.skyblock.item.tooltip;
 
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.mixins.accessors.HandledScreenAccessor;
 import de.hysky.skyblocker.skyblock.bazaar.BazaarOrderTracker;
@@ -8,9 +10,11 @@ import de.hysky.skyblocker.skyblock.chocolatefactory.ChocolateFactorySolver;
 import de.hysky.skyblocker.skyblock.dungeon.CroesusProfit;
 import de.hysky.skyblocker.skyblock.dwarven.fossil.FossilSolver;
 import de.hysky.skyblocker.skyblock.item.tooltip.adders.*;
+import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
-import de.hysky.skyblocker.utils.container.ContainerMatcher;
 import de.hysky.skyblocker.utils.container.TooltipAdder;
+import de.hysky.skyblocker.utils.scheduler.TaskTimings;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.minecraft.client.MinecraftClient;
@@ -19,13 +23,26 @@ import net.minecraft.client.gui.screen.ingame.HandledScreen;
 import net.minecraft.item.ItemStack;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Applies the {@link TooltipAdder}s to item tooltips.
+ * <p>
+ * The lines added by {@link TooltipAdder#isCacheable() cacheable} adders are cached by item stack and focused slot,
+ * so that price lookups and text building only happen on the first frame a tooltip is shown.
+ * The cache is cleared when the screen changes and when new tooltip data is downloaded, see {@link #invalidateCache()}.
+ * The run time of each adder is recorded and can be viewed with {@code /skyblocker debug tooltips}.
+ */
 public class TooltipManager {
 	private static final TooltipAdder[] adders = new TooltipAdder[]{
 			new LineSmoothener(), // Applies before anything else
@@ -55,7 +72,26 @@ public class TooltipManager {
 			new HuntingBoxPriceTooltip(15),
 			CroesusProfit.INSTANCE, // priority = 16
 	};
-	private static List<TooltipAdder> currentScreenAdders = new ArrayList<>();
+	private static final List<Entry> ENTRIES = Arrays.stream(adders).map(adder -> new Entry(adder, new TaskTimings(adder.getClass().getSimpleName()))).toList();
+	private static final int MAX_CACHED_STACKS = 128;
+	private static final int TIMINGS_SHOWN = 15;
+	/**
+	 * The lines added by each cacheable adder in {@link #currentScreenAdders} for recently hovered stacks, in the same order as {@link #currentScreenAdders}.
+	 */
+	private static final Map<CacheKey, Text[][]> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CacheKey, Text[][]> eldest) {
+			return size() > MAX_CACHED_STACKS;
+		}
+	};
+	/**
+	 * Incremented when the cache is invalidated off the render thread, see {@link #invalidateCache()}.
+	 */
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+	private static List<Entry> currentScreenAdders = List.of();
+	private static int cacheGeneration;
+	private static long cacheHits;
+	private static long cacheMisses;
 
 	private TooltipManager() {
 	}
@@ -71,16 +107,29 @@ public class TooltipManager {
 		});
 		ScreenEvents.AFTER_INIT.register((client, screen, width, height) -> {
 			onScreenChange(screen);
-			ScreenEvents.remove(screen).register(ignored -> currentScreenAdders = List.of());
+			ScreenEvents.remove(screen).register(ignored -> {
+				currentScreenAdders = List.of();
+				CACHE.clear();
+			});
 		});
 	}
 
 	private static void onScreenChange(Screen screen) {
-		currentScreenAdders = Arrays.stream(adders)
-				.filter(ContainerMatcher::isEnabled)
-				.filter(adder -> adder.test(screen))
-				.sorted(Comparator.comparingInt(TooltipAdder::getPriority))
+		currentScreenAdders = ENTRIES.stream()
+				.filter(entry -> entry.adder.isEnabled())
+				.filter(entry -> entry.adder.test(screen))
+				.sorted(Comparator.comparingInt(entry -> entry.adder.getPriority()))
 				.toList();
+		// The cached lines are stored by the index of the adder in the current screen adders, and the config might have changed
+		CACHE.clear();
+	}
+
+	/**
+	 * Clears the cached tooltip lines on the next tooltip render. Can be called from any thread.
+	 * Called when new tooltip data has been downloaded.
+	 */
+	public static void invalidateCache() {
+		GENERATION.incrementAndGet();
 	}
 
 	/**
@@ -98,9 +147,100 @@ public class TooltipManager {
 	@Deprecated
 	public static List<Text> addToTooltip(@Nullable Slot focusedSlot, ItemStack stack, List<Text> lines) {
 		if (!Utils.isOnSkyblock()) return lines;
-		for (TooltipAdder adder : currentScreenAdders) {
-			adder.addToTooltip(focusedSlot, stack, lines);
+		int generation = GENERATION.get();
+		if (cacheGeneration != generation) {
+			CACHE.clear();
+			cacheGeneration = generation;
+		}
+
+		Text[][] cached = null;
+		for (int i = 0; i < currentScreenAdders.size(); i++) {
+			Entry entry = currentScreenAdders.get(i);
+			if (entry.adder.isCacheable()) {
+				if (cached == null) cached = getCachedLines(stack, focusedSlot);
+				if (cached[i] != null) {
+					cacheHits++;
+					lines.addAll(Arrays.asList(cached[i]));
+					continue;
+				}
+
+				cacheMisses++;
+				int size = lines.size();
+				addToTooltip(entry, focusedSlot, stack, lines);
+				cached[i] = lines.subList(size, lines.size()).toArray(Text[]::new);
+			} else {
+				addToTooltip(entry, focusedSlot, stack, lines);
+			}
 		}
 		return lines;
 	}
+
+	private static Text[][] getCachedLines(ItemStack stack, @Nullable Slot focusedSlot) {
+		CacheKey key = new CacheKey(stack, focusedSlot);
+		Text[][] cached = CACHE.get(key);
+		if (cached == null) {
+			cached = new Text[currentScreenAdders.size()][];
+			CACHE.put(key.copy(), cached);
+		}
+		return cached;
+	}
+
+	private static void addToTooltip(Entry entry, @Nullable Slot focusedSlot, ItemStack stack, List<Text> lines) {
+		long start = System.nanoTime();
+		entry.adder.addToTooltip(focusedSlot, stack, lines);
+		entry.timings.record(System.nanoTime() - start);
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+		return literal("tooltips")
+				.executes(context -> {
+					FabricClientCommandSource source = context.getSource();
+					List<Entry> entries = ENTRIES.stream().sorted(Comparator.comparingLong((Entry entry) -> entry.timings.totalNanos()).reversed()).toList();
+					source.sendFeedback(Constants.PREFIX.get().append(String.format("Tooltip adders: %d cache hits, %d cache misses, %d cached stacks", cacheHits, cacheMisses, CACHE.size())));
+
+					for (Entry entry : entries.subList(0, Math.min(TIMINGS_SHOWN, entries.size()))) {
+						TaskTimings timings = entry.timings;
+						source.sendFeedback(Text.literal(timings.name()).formatted(entry.adder.isCacheable() ? Formatting.GREEN : Formatting.AQUA)
+								.append(Text.literal(String.format(" calls: %d, mean: %.1f µs, p99: %.1f µs, max: %.1f µs", timings.count(), timings.meanNanos() / 1000, timings.percentileNanos(0.99) / 1000d, timings.maxNanos() / 1000d)).formatted(Formatting.GRAY)));
+					}
+
+					return Command.SINGLE_SUCCESS;
+				})
+				.then(literal("reset")
+						.executes(context -> {
+							for (Entry entry : ENTRIES) {
+								entry.timings.reset();
+							}
+							cacheHits = 0;
+							cacheMisses = 0;
+							context.getSource().sendFeedback(Constants.PREFIX.get().append("Reset tooltip adder statistics."));
+							return Command.SINGLE_SUCCESS;
+						}));
+	}
+
+	private record Entry(TooltipAdder adder, TaskTimings timings) {}
+
+	/**
+	 * Identifies a hovered stack by its item, components, and count, and the focused slot.
+	 * Keys are {@link #copy() copied} before being stored so that later changes to the hovered stack don't change the stored key.
+	 */
+	private record CacheKey(ItemStack stack, int slot, int hash) {
+		private CacheKey(ItemStack stack, @Nullable Slot focusedSlot) {
+			this(stack, focusedSlot != null ? focusedSlot.id : -1, (ItemStack.hashCode(stack) * 31 + stack.getCount()) * 31 + (focusedSlot != null ? focusedSlot.id : -1));
+		}
+
+		private CacheKey copy() {
+			return new CacheKey(stack.copy(), slot, hash);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CacheKey other && hash == other.hash && slot == other.slot && stack.getCount() == other.stack.getCount() && ItemStack.areItemsAndComponentsEqual(stack, other.stack);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
 }
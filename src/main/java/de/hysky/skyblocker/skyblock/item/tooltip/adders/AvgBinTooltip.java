@@ -62,4 +62,9 @@ public class AvgBinTooltip extends SimpleTooltipAdder {
 		//Both 1 day and 3 day averages use the same config option, so we only need to check one
 		return TooltipInfoType.THREE_DAY_AVERAGE.isTooltipEnabled();
 	}
+
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
@@ -43,4 +43,9 @@ public class BazaarPriceTooltip extends SimpleTooltipAdder {
 	public boolean isEnabled() {
 		return TooltipInfoType.BAZAAR.isTooltipEnabled();
 	}
+
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
@@ -41,4 +41,9 @@ public class EstimatedItemValueTooltip extends SimpleTooltipAdder {
 	public boolean isEnabled() {
 		return TooltipInfoType.ESTIMATED_ITEM_VALUE.isTooltipEnabled();
 	}
+
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
 }
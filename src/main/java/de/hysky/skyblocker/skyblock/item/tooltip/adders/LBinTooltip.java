@@ -21,6 +21,11 @@ public class LBinTooltip extends SimpleTooltipAdder {
 		return TooltipInfoType.LOWEST_BINS.isTooltipEnabled();
 	}
 
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
+
 	@Override
 	public void addToTooltip(@Nullable Slot focusedSlot, ItemStack stack, List<Text> lines) {
         String skyblockApiId = stack.getSkyblockApiId();
@@ -33,6 +33,11 @@ public class MotesTooltip extends SimpleTooltipAdder {
 		return TooltipInfoType.MOTES.isTooltipEnabled();
 	}
 
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
+
 	private static Text getMotesMessage(int price, int count) {
 		float motesMultiplier = SkyblockerConfigManager.get().otherLocations.rift.mcGrubberStacks * 0.05f + 1;
 
@@ -23,6 +23,11 @@ public class NpcPriceTooltip extends SimpleTooltipAdder {
 		return TooltipInfoType.NPC.isTooltipEnabled();
 	}
 
+	@Override
+	public boolean isCacheable() {
+		return true;
+	}
+
 	@Override
 	public void addToTooltip(@Nullable Slot focusedSlot, ItemStack stack, List<Text> lines) {
 		// NPC prices seem to use the Skyblock item id, not the Skyblock api id.
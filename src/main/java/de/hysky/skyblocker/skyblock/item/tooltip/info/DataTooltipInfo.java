@@ -1,39 +1,39 @@
 package de.hysky.skyblocker.skyblock.item.tooltip.info;
 
-import java.net.http.HttpHeaders;
+import java.io.IOException;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.jetbrains.annotations.Nullable;
 
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import com.mojang.serialization.Codec;
-import com.mojang.serialization.JsonOps;
 
 import de.hysky.skyblocker.config.configs.GeneralConfig;
 import de.hysky.skyblocker.skyblock.item.tooltip.ItemTooltip;
+import de.hysky.skyblocker.skyblock.item.tooltip.TooltipManager;
 import de.hysky.skyblocker.utils.Http;
+import de.hysky.skyblocker.utils.JsonStreamDecoder;
 
 public final class DataTooltipInfo<T> extends SimpleTooltipInfo implements DataTooltipInfoType<T> {
 	private final String address;
 	private final Codec<T> codec;
+	private final JsonStreamDecoder<T> decoder;
 	@Nullable
 	private T data;
-	private final boolean cacheable;
-	private long hash;
 	private final BiPredicate<T, String> contains;
 	private final Predicate<GeneralConfig.ItemTooltip> dataEnabled;
 	@Nullable
 	private final Consumer<T>[] callbacks;
 
 	@SafeVarargs
-	protected DataTooltipInfo(String address, Codec<T> codec, boolean cacheable, BiPredicate<T, String> contains, Predicate<GeneralConfig.ItemTooltip> tooltipEnabled, Predicate<GeneralConfig.ItemTooltip> dataEnabled, Consumer<T>... callbacks) {
+	protected DataTooltipInfo(String address, Codec<T> codec, JsonStreamDecoder<T> decoder, BiPredicate<T, String> contains, Predicate<GeneralConfig.ItemTooltip> tooltipEnabled, Predicate<GeneralConfig.ItemTooltip> dataEnabled, Consumer<T>... callbacks) {
 		super(tooltipEnabled);
 
 		this.address = address;
 		this.codec = codec;
-		this.cacheable = cacheable;
+		this.decoder = decoder;
 		this.contains = contains;
 		this.dataEnabled = dataEnabled;
 		this.callbacks = callbacks;
@@ -66,32 +66,41 @@ public final class DataTooltipInfo<T> extends SimpleTooltipInfo implements DataT
 		}
 	}
 
+	/**
+	 * Downloads the data if it changed since the last download. The response is cached on disk,
+	 * so the data from the last launch is loaded right away if it hasn't been loaded yet.
+	 */
 	@Override
 	public void run() {
 		try {
-			if (cacheable) {
-				HttpHeaders headers = Http.sendHeadRequest(address);
-				long hash = Http.getEtag(headers).hashCode() + Http.getLastModified(headers).hashCode();
-				if (this.hash == hash) return;
-				else this.hash = hash;
+			if (data == null) {
+				Http.CachedResponse cached = Http.getCachedResponse(address);
+				if (cached != null) {
+					try {
+						load(cached);
+					} catch (Exception e) {
+						ItemTooltip.LOGGER.warn("[Skyblocker] Failed to load cached {} data!", this.address, e);
+					}
+				}
 			}
 
-			String response = Http.sendGetRequest(address);
-
-			if (response.trim().startsWith("<!DOCTYPE") || response.trim().startsWith("<html")) {
-				ItemTooltip.LOGGER.warn("[Skyblocker] Received HTML content for {}. Expected JSON.", this.address);
-				return;
-			}
+			Http.CachedResponse response = Http.sendCachedGetRequest(address);
+			if (response.modified() || data == null) load(response);
+		} catch (Exception e) {
+			ItemTooltip.LOGGER.warn("[Skyblocker] Failed to download {} data!", this.address, e);
+		}
+	}
 
-			data = codec.parse(JsonOps.INSTANCE, JsonParser.parseString(response)).getOrThrow();
+	private void load(Http.CachedResponse response) throws IOException {
+		try (JsonReader reader = new JsonReader(response.newReader())) {
+			data = decoder.decode(reader);
+		}
+		TooltipManager.invalidateCache();
 
-			if (callbacks != null) {
-				for (Consumer<T> callback : callbacks) {
-					callback.accept(data);
-				}
+		if (callbacks != null) {
+			for (Consumer<T> callback : callbacks) {
+				callback.accept(data);
 			}
-		} catch (Exception e) {
-			ItemTooltip.LOGGER.warn("[Skyblocker] Failed to download {} data!", this.address, e);
 		}
 	}
 }
@@ -24,6 +24,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 public class ItemRepository {
@@ -33,6 +34,7 @@ public class ItemRepository {
 	private static final Map<String, ItemStack> itemsMap = new HashMap<>();
 	private static final List<SkyblockRecipe> recipes = new ArrayList<>();
 	private static final HashMap<String, @NEUId String> bazaarStocks = new HashMap<>();
+	private static ItemSearchIndex searchIndex = new ItemSearchIndex(List.of());
 	/**
 	 * Store callbacks so we can execute them each time the item repository
 	 * finishes loading.
@@ -41,6 +43,20 @@ public class ItemRepository {
 
 	private record AfterImportTask(Runnable runnable, boolean async) {}
 
+	/**
+	 * Matches a numbered suffix of item ids such as {@code ;1}, so that the tiers of an item are sorted together.
+	 */
+	private static final Pattern TRAILING_NUMBER = Pattern.compile(".\\d+$");
+	private static final Comparator<LoadedItem> LOADED_ITEM_COMPARATOR = Comparator.comparing(LoadedItem::baseId)
+			.thenComparingInt(loadedItem -> loadedItem.itemId.length())
+			.thenComparing(LoadedItem::itemId);
+
+	/**
+	 * @param baseId the item id without its tier suffix, the primary sort key
+	 * @param itemId the item id read from the stack at the time it was loaded, the secondary sort key
+	 */
+	private record LoadedItem(String neuId, ItemStack stack, String baseId, String itemId) {}
+
 	/**
 	 * Consumers must check this field when accessing `items` and `itemsMap`, or else thread safety is not guaranteed.
 	 */
@@ -83,15 +99,36 @@ public class ItemRepository {
 		itemsMap.clear();
 		recipes.clear();
 
-		NEURepoManager.forEachItem(ItemRepository::loadItem);
-		items.sort(Comparator.<ItemStack, String>comparing(stack -> ItemUtils.getItemId(stack).replaceAll(".\\d+$", ""))
-				.thenComparingInt(stack -> ItemUtils.getItemId(stack).length())
-				.thenComparing(ItemUtils::getItemId)
-		);
+		long start = System.currentTimeMillis();
+		LegacyStackCache cache = new LegacyStackCache();
+		cache.load();
+		long cacheLoaded = System.currentTimeMillis();
+
+		// Building the stacks is independent per item, so it is split over the common fork join pool
+		List<NEUItem> neuItems = List.copyOf(NEURepoManager.getItems());
+		List<LoadedItem> loadedItems = neuItems.parallelStream()
+				.map(item -> loadItem(item, cache))
+				.filter(Objects::nonNull)
+				.sorted(LOADED_ITEM_COMPARATOR)
+				.toList();
+		for (LoadedItem loadedItem : loadedItems) {
+			items.add(loadedItem.stack);
+			itemsMap.put(loadedItem.neuId, loadedItem.stack);
+		}
+		long itemsLoaded = System.currentTimeMillis();
+
+		searchIndex = new ItemSearchIndex(items);
 		itemsImported = true;
+		long indexed = System.currentTimeMillis();
 
-		NEURepoManager.forEachItem(ItemRepository::loadRecipes);
+		neuItems.forEach(ItemRepository::loadRecipes);
 		filesImported = true;
+		long recipesLoaded = System.currentTimeMillis();
+
+		cache.save();
+		LOGGER.info("[Skyblocker Item Repo Loader] Imported {} items ({} from cache) in {} ms: cache load {} ms, items {} ms, search index {} ms, recipes {} ms, cache save {} ms",
+				items.size(), cache.getHits(), System.currentTimeMillis() - start, cacheLoaded - start, itemsLoaded - cacheLoaded, indexed - itemsLoaded,
+				recipesLoaded - indexed, System.currentTimeMillis() - recipesLoaded);
 
 		afterImportTasks.forEach(task -> {
 			if (task.async) {
@@ -109,19 +146,23 @@ public class ItemRepository {
 		});
 	}
 
-	private static void loadItem(NEUItem item) {
+	@Nullable
+	private static LoadedItem loadItem(NEUItem item, LegacyStackCache cache) {
 		try {
-			ItemStack stack = ItemStackBuilder.fromNEUItem(item);
+			ItemStack stack = ItemStackBuilder.fromNEUItem(item, cache);
 			StackOverlays.applyOverlay(item, stack);
 
 			if (stack.isOf(Items.ENCHANTED_BOOK) && ItemUtils.getItemId(stack).contains(";")) {
 				ItemUtils.getCustomData(stack).putString("id", "ENCHANTED_BOOK");
 			}
 
-			items.add(stack);
-			itemsMap.put(item.getSkyblockItemId(), stack);
+			String itemId = ItemUtils.getItemId(stack);
+
+			// The sort keys are computed once per item here instead of on every comparison
+			return new LoadedItem(item.getSkyblockItemId(), stack, TRAILING_NUMBER.matcher(itemId).replaceAll(""), itemId);
 		} catch (Exception e) {
 			LOGGER.error("[Skyblocker Item Repo Loader] Failed to load item, please report this! Skyblock Id: {}", item.getSkyblockItemId(), e);
+			return null;
 		}
 	}
 
@@ -168,6 +209,13 @@ public class ItemRepository {
 		return itemsImported ? items : List.of();
 	}
 
+	/**
+	 * @return the search index over the names and lore of the items, consumers must check {@link #filesImported()} first
+	 */
+	public static ItemSearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
 	public static Stream<ItemStack> getItemsStream() {
 		return itemsImported ? items.stream() : Stream.empty();
 	}
@@ -0,0 +1,98 @@
+package de.hysky.skyblocker.skyblock.itemlist;
+
+import de.hysky.skyblocker.utils.ItemUtils;
+import de.hysky.skyblocker.utils.TrigramIndex;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * A search index over the names and lore of the items in the {@link ItemRepository}, built once after the items are imported.
+ * Matches items whose name or any lore line contains the query, like a linear scan would, but without lower-casing every item on every search.
+ * <p>
+ * Results are ranked by where the query matched: items whose name has a word starting with the query come first, then other name matches,
+ * then lore matches. Items keep the repository order within each rank.
+ */
+public final class ItemSearchIndex {
+	private final List<ItemStack> items;
+	/**
+	 * The lower case names of the items.
+	 */
+	private final String[] names;
+	/**
+	 * Indexes the lower case name and lore lines of each item, separated by new lines so that matches can't span multiple lines.
+	 */
+	private final TrigramIndex index;
+
+	ItemSearchIndex(List<ItemStack> items) {
+		this.items = List.copyOf(items);
+		this.names = new String[items.size()];
+
+		List<String> texts = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			ItemStack stack = items.get(i);
+			names[i] = stack.getName().getString().toLowerCase(Locale.ENGLISH);
+
+			StringBuilder text = new StringBuilder(names[i]);
+			for (Text line : ItemUtils.getLore(stack)) {
+				text.append('\n').append(line.getString().toLowerCase(Locale.ENGLISH));
+			}
+			texts.add(text.toString());
+		}
+		this.index = new TrigramIndex(texts);
+	}
+
+	/**
+	 * Searches for the items whose name or lore contains the query.
+	 *
+	 * @param query      the lower case query
+	 * @param nameFilter a filter for the lower case names of the items, such as a {@link de.hysky.skyblocker.skyblock.itemlist.recipebook.FilterOption FilterOption}
+	 * @param previous   the previous result to narrow down if the query extends its query, or {@code null}
+	 */
+	public Result search(String query, Predicate<String> nameFilter, @Nullable Result previous) {
+		IntList matches;
+		if (previous != null && previous.index == this && previous.nameFilter == nameFilter && query.contains(previous.query)) {
+			// Every item that contains the new query also contained the previous one
+			matches = index.narrow(previous.matches, query);
+		} else {
+			matches = index.search(query);
+			matches.removeIf(i -> !nameFilter.test(names[i]));
+		}
+
+		return new Result(this, query, nameFilter, matches, rank(matches, query));
+	}
+
+	private List<ItemStack> rank(IntList matches, String query) {
+		List<ItemStack> wordStartMatches = new ArrayList<>();
+		List<ItemStack> nameMatches = new ArrayList<>();
+		List<ItemStack> loreMatches = new ArrayList<>();
+		String wordStart = " " + query;
+
+		for (int i = 0; i < matches.size(); i++) {
+			int index = matches.getInt(i);
+			String name = names[index];
+			if (name.startsWith(query) || name.contains(wordStart)) {
+				wordStartMatches.add(items.get(index));
+			} else if (name.contains(query)) {
+				nameMatches.add(items.get(index));
+			} else {
+				loreMatches.add(items.get(index));
+			}
+		}
+
+		wordStartMatches.addAll(nameMatches);
+		wordStartMatches.addAll(loreMatches);
+		return wordStartMatches;
+	}
+
+	/**
+	 * @param stacks the matching items, ranked
+	 */
+	public record Result(ItemSearchIndex index, String query, Predicate<String> nameFilter, IntList matches, List<ItemStack> stacks) {}
+}
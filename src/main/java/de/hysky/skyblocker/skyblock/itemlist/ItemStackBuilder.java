@@ -19,6 +19,7 @@ import java.util.*;
 
 import org.slf4j.Logger;
 
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.logging.LogUtils;
 
 public class ItemStackBuilder {
@@ -33,18 +34,12 @@ public class ItemStackBuilder {
 		}
 	}
 
-	protected static ItemStack fromNEUItem(NEUItem item) {
+	/**
+	 * @param cache the cache of fixed legacy stacks, the name and lore are still injected for every item since the pet numbers can change independently
+	 */
+	protected static ItemStack fromNEUItem(NEUItem item, LegacyStackCache cache) {
 		try {
-			NbtCompound nbt = new NbtCompound();
-			NbtCompound tag = LegacyStringNbtReader.parse(item.getNbttag());
-
-			//Construct the nbt
-			nbt.put("tag", tag);
-			nbt.putString("id", item.getMinecraftItemId());
-			nbt.putShort("Damage", (short) item.getDamage());
-			nbt.putInt("Count", 1);
-
-			ItemStack stack = LegacyItemStackFixer.fixLegacyStack(nbt);
+			ItemStack stack = cache.getOrFix(item, () -> fixLegacyItem(item));
 
 			//The item couldn't be fixed up
 			if (stack.isEmpty()) {
@@ -73,6 +68,24 @@ public class ItemStackBuilder {
 		return createErrorStack(item.getSkyblockItemId());
 	}
 
+	private static ItemStack fixLegacyItem(NEUItem item) {
+		NbtCompound nbt = new NbtCompound();
+		NbtCompound tag;
+		try {
+			tag = LegacyStringNbtReader.parse(item.getNbttag());
+		} catch (CommandSyntaxException e) {
+			throw new IllegalArgumentException("Invalid legacy nbt", e);
+		}
+
+		//Construct the nbt
+		nbt.put("tag", tag);
+		nbt.putString("id", item.getMinecraftItemId());
+		nbt.putShort("Damage", (short) item.getDamage());
+		nbt.putInt("Count", 1);
+
+		return LegacyItemStackFixer.fixLegacyStack(nbt);
+	}
+
 	private static ItemStack createErrorStack(String skyblockItemId) {
 		ItemStack errorStack = new ItemStack(Items.BARRIER);
 		errorStack.set(DataComponentTypes.CUSTOM_NAME, Text.of(skyblockItemId));
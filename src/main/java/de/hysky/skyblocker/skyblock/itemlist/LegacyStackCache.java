@@ -0,0 +1,160 @@
+package de.hysky.skyblocker.skyblock.itemlist;
+
+import com.google.common.hash.Hashing;
+import de.hysky.skyblocker.SkyblockerMod;
+import de.hysky.skyblocker.utils.FileUtils;
+import de.hysky.skyblocker.utils.Utils;
+import io.github.moulberry.repo.data.NEUItem;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.registry.RegistryOps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static net.azureaaron.legacyitemdfu.LegacyItemStackFixer.getLatestVersion;
+
+/**
+ * Caches the result of parsing and data fixing the legacy NBT of the NEU items across imports and game restarts,
+ * which is by far the most expensive part of importing the item repository.
+ * <p>
+ * Entries are keyed by the skyblock id of the item and store a hash of the legacy data they were fixed from,
+ * so that after the repository is updated only the items that actually changed are fixed again.
+ * The whole cache is discarded when its format, the version of Skyblocker, the version of the legacy item fixer,
+ * or the game's data version changes, since any of them can change how items are fixed.
+ */
+final class LegacyStackCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LegacyStackCache.class);
+	private static final Path FILE = SkyblockerMod.CONFIG_DIR.resolve("item-repo-cache.nbt");
+	private static final int FORMAT_VERSION = 2;
+
+	/**
+	 * The entries read from the file, only read from after {@link #load()}.
+	 */
+	private final Map<String, Entry> previous = new HashMap<>();
+	/**
+	 * The entries used by the current import, which are the only ones saved so that removed items don't accumulate.
+	 */
+	private final Map<String, Entry> current = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+
+	void load() {
+		if (Files.notExists(FILE)) return;
+
+		try {
+			NbtCompound root = NbtIo.readCompressed(FILE, NbtSizeTracker.ofUnlimitedBytes());
+			if (root.getInt("format", 0) != FORMAT_VERSION || !root.getString("modVersion", "").equals(SkyblockerMod.VERSION) || root.getInt("fixerVersion", 0) != getLatestVersion() || root.getInt("dataVersion", 0) != getDataVersion()) {
+				LOGGER.info("[Skyblocker Item Repo Cache] Discarding the item cache from a different version");
+				return;
+			}
+
+			NbtCompound entries = root.getCompoundOrEmpty("entries");
+			for (String id : entries.getKeys()) {
+				NbtCompound entry = entries.getCompoundOrEmpty(id);
+				NbtElement stack = entry.get("stack");
+				if (stack != null) previous.put(id, new Entry(entry.getLong("hash", 0), stack));
+			}
+		} catch (Exception e) {
+			LOGGER.warn("[Skyblocker Item Repo Cache] Failed to load the item cache, all items will be fixed again", e);
+			previous.clear();
+		}
+	}
+
+	/**
+	 * Returns the cached stack for the item if its legacy data didn't change, or fixes it and caches the result otherwise.
+	 * This is safe to call from multiple threads at once.
+	 *
+	 * @param fixer parses and fixes the legacy data of the item, empty stacks are not cached
+	 * @return a new stack each call, which can be modified freely
+	 */
+	ItemStack getOrFix(NEUItem item, Supplier<ItemStack> fixer) {
+		RegistryOps<NbtElement> ops = Utils.getRegistryWrapperLookup().getOps(NbtOps.INSTANCE);
+		String id = item.getSkyblockItemId();
+		long hash = hash(item);
+
+		Entry entry = previous.get(id);
+		if (entry != null && entry.hash == hash) {
+			ItemStack cached = ItemStack.CODEC.parse(ops, entry.stack).result().orElse(ItemStack.EMPTY);
+			if (!cached.isEmpty()) {
+				current.put(id, entry);
+				hits.incrementAndGet();
+				return cached;
+			}
+		}
+
+		ItemStack stack = fixer.get();
+		if (!stack.isEmpty()) {
+			ItemStack.CODEC.encodeStart(ops, stack).result().ifPresent(encoded -> current.put(id, new Entry(hash, encoded)));
+		}
+		return stack;
+	}
+
+	/**
+	 * @return how many items were restored from the cache instead of being fixed
+	 */
+	int getHits() {
+		return hits.get();
+	}
+
+	void save() {
+		NbtCompound entries = new NbtCompound();
+		current.forEach((id, entry) -> {
+			NbtCompound compound = new NbtCompound();
+			compound.putLong("hash", entry.hash);
+			compound.put("stack", entry.stack);
+			entries.put(id, compound);
+		});
+
+		NbtCompound root = new NbtCompound();
+		root.putInt("format", FORMAT_VERSION);
+		root.putString("modVersion", SkyblockerMod.VERSION);
+		root.putInt("fixerVersion", getLatestVersion());
+		root.putInt("dataVersion", getDataVersion());
+		root.put("entries", entries);
+
+		try {
+			// Write to a temporary file first so that a crash while saving doesn't leave a truncated cache behind
+			Path tempFile = Files.createTempFile(FILE.getParent(), FILE.getFileName().toString(), ".tmp");
+			try {
+				NbtIo.writeCompressed(root, tempFile);
+				FileUtils.replace(tempFile, FILE);
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+		} catch (Exception e) {
+			LOGGER.error("[Skyblocker Item Repo Cache] Failed to save the item cache", e);
+		}
+	}
+
+	private static long hash(NEUItem item) {
+		return Hashing.murmur3_128().newHasher()
+				.putString(item.getMinecraftItemId(), StandardCharsets.UTF_8)
+				.putInt(item.getDamage())
+				.putString(item.getNbttag(), StandardCharsets.UTF_8)
+				.hash()
+				.asLong();
+	}
+
+	private static int getDataVersion() {
+		return SharedConstants.getGameVersion().dataVersion().id();
+	}
+
+	/**
+	 * @param hash  the hash of the legacy data the stack was fixed from
+	 * @param stack the encoded stack
+	 */
+	private record Entry(long hash, NbtElement stack) {}
+}
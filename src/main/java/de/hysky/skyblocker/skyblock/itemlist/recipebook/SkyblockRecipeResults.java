@@ -2,7 +2,6 @@ package de.hysky.skyblocker.skyblock.itemlist.recipebook;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import com.google.common.collect.Lists;
 
@@ -11,6 +10,7 @@ import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.item.ItemPrice;
 import de.hysky.skyblocker.skyblock.item.wikilookup.WikiLookupManager;
 import de.hysky.skyblocker.skyblock.itemlist.ItemRepository;
+import de.hysky.skyblocker.skyblock.itemlist.ItemSearchIndex;
 import de.hysky.skyblocker.skyblock.itemlist.recipes.SkyblockCraftingRecipe;
 import de.hysky.skyblocker.skyblock.itemlist.recipes.SkyblockForgeRecipe;
 import de.hysky.skyblocker.skyblock.itemlist.recipes.SkyblockNpcShopRecipe;
@@ -56,6 +56,8 @@ public class SkyblockRecipeResults implements RecipeAreaDisplay {
 	private SkyblockRecipeResultButton hoveredResultButton;
 	private String lastSearchQuery = null;
 	private final List<ItemStack> searchResults = new ArrayList<>();
+	@Nullable
+	private ItemSearchIndex.Result lastSearchResult = null;
 	/**
 	 * Text to be displayed as a tooltip.
 	 */
@@ -209,19 +211,9 @@ public class SkyblockRecipeResults implements RecipeAreaDisplay {
 			this.lastSearchQuery = query;
 			this.searchResults.clear();
 
-			//Search for stacks which contain the search term
-			for (ItemStack stack : ItemRepository.getItems()) {
-				String name = stack.getName().getString().toLowerCase(Locale.ENGLISH);
-				if (!filterOption.test(name)) continue;
-
-				List<Text> lore = ItemUtils.getLore(stack);
-
-				if (name.contains(query) || lore.stream().map(Text::getString)
-						.map(string -> string.toLowerCase(Locale.ENGLISH))
-						.anyMatch(line -> line.contains(query))) {
-					this.searchResults.add(stack);
-				}
-			}
+			//Search for stacks which contain the search term, narrowing down the previous results while the query is being typed
+			this.lastSearchResult = ItemRepository.getSearchIndex().search(query, filterOption, refresh ? null : this.lastSearchResult);
+			this.searchResults.addAll(this.lastSearchResult.stacks());
 
 			closeRecipeView();
 		} else {
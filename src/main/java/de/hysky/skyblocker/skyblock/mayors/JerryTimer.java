@@ -4,9 +4,10 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.mayor.MayorUtils;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.sound.SoundCategory;
@@ -16,19 +17,21 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
 public final class JerryTimer {
+	private static final String JERRY_MESSAGE_PREFIX = "§b ☺ ";
+
 	private JerryTimer() {
 	}
 	@Init
 	public static void init() {
 		//Example message: "§b ☺ §eThere is a §aGreen Jerry§e!"
 		//There are various formats, all of which start with the "§b ☺ " prefix and contain the word "<color> Jerry"
-		ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
-			if (overlay || !MayorUtils.getMayor().name().equals("Jerry") || !SkyblockerConfigManager.get().helpers.jerry.enableJerryTimer) return true;
-			String text = message.getString();
+		ChatDispatcher.register("JerryTimer", ChatDispatcher.Channel.CHAT, false, chatMessage -> {
+			if (!MayorUtils.getMayor().name().equals("Jerry") || !SkyblockerConfigManager.get().helpers.jerry.enableJerryTimer) return ChatFilterResult.PASS;
+			String text = chatMessage.raw();
 			//This part of hypixel still uses legacy text formatting, so we can't directly check for the actual text
-			if (!text.startsWith("§b ☺ ") || !text.contains("Jerry")) return true;
-			HoverEvent hoverEvent = message.getStyle().getHoverEvent();
-			if (hoverEvent == null || hoverEvent.getAction() != HoverEvent.Action.SHOW_TEXT) return true;
+			if (!text.startsWith(JERRY_MESSAGE_PREFIX) || !text.contains("Jerry")) return ChatFilterResult.PASS;
+			HoverEvent hoverEvent = chatMessage.text().getStyle().getHoverEvent();
+			if (hoverEvent == null || hoverEvent.getAction() != HoverEvent.Action.SHOW_TEXT) return ChatFilterResult.PASS;
 			ClientPlayerEntity player = MinecraftClient.getInstance().player;
 			Scheduler.INSTANCE.schedule(() -> {
 				if (player == null || !Utils.isOnSkyblock()) return;
@@ -36,7 +39,7 @@ public final class JerryTimer {
 				player.playSoundToPlayer(SoundEvents.ENTITY_VILLAGER_TRADE, SoundCategory.NEUTRAL, 100f, 1.0f);
 			}, 20*60*6); // 6 minutes
 
-			return true;
-		});
+			return ChatFilterResult.PASS;
+		}, Formatting.strip(JERRY_MESSAGE_PREFIX));
 	}
 }
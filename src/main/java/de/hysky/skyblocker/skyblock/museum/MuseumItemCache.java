@@ -46,7 +46,7 @@ public class MuseumItemCache {
 	private static final int CONFIRM_DONATION_BUTTON_SLOT = 20;
 	private static final String CONSTANTS_MUSEUM_DATA = "constants/museum.json";
 	private static final Path CACHE_FILE = SkyblockerMod.CONFIG_DIR.resolve("museum_item_cache.json");
-	private static final ProfiledData<ProfileMuseumData> MUSEUM_ITEM_CACHE = new ProfiledData<>(CACHE_FILE, ProfileMuseumData.CODEC, true, true);
+	private static final ProfiledData<ProfileMuseumData> MUSEUM_ITEM_CACHE = new ProfiledData<>(CACHE_FILE, ProfileMuseumData.CODEC, false, true, true, true);
 	public static final String DONATION_CONFIRMATION_SCREEN_TITLE = "Confirm Donation";
 	public static final Map<String, String> ARMOR_NAMES = new Object2ObjectArrayMap<>(); // Set Id -> Display Name
 	public static final Map<String, String> ARMOR_TO_ID = new Object2ObjectArrayMap<>(); // Set Id -> Display Item Id
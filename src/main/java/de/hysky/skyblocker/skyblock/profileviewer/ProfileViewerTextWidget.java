@@ -12,6 +12,7 @@ import de.hysky.skyblocker.skyblock.profileviewer.inventory.itemLoaders.Wardrobe
 import de.hysky.skyblocker.skyblock.profileviewer.utils.ProfileViewerUtils;
 import de.hysky.skyblocker.skyblock.tabhud.util.Ico;
 import de.hysky.skyblocker.utils.networth.NetworthCalculator;
+import net.azureaaron.networth.NetworthResult;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.item.ItemStack;
@@ -50,23 +51,19 @@ public class ProfileViewerTextWidget {
 	private double getItemsNetworth(JsonObject playerProfile) {
 		double value = 0;
 		PriorityQueue<ItemValue> top = new PriorityQueue<>(Comparator.comparingDouble(ItemValue::price));
+		// Collect all items first so that they are calculated in one batch
+		List<ItemStack> items = new ArrayList<>();
 		try {
 			JsonObject inventoryData = playerProfile.getAsJsonObject("inventory");
 			if (inventoryData != null) {
-				for (ItemStack stack : new InventoryItemLoader().loadItems(inventoryData)) {
-					value += addItemNetworth(top, stack);
-				}
+				items.addAll(new InventoryItemLoader().loadItems(inventoryData));
 
 				if (inventoryData.has("ender_chest_contents")) {
-					for (ItemStack stack : new ItemLoader().loadItems(inventoryData.getAsJsonObject("ender_chest_contents"))) {
-						value += addItemNetworth(top, stack);
-					}
+					items.addAll(new ItemLoader().loadItems(inventoryData.getAsJsonObject("ender_chest_contents")));
 				}
 
 				if (inventoryData.has("backpack_contents")) {
-					for (ItemStack stack : new BackpackItemLoader().loadItems(inventoryData.getAsJsonObject("backpack_contents"))) {
-						value += addItemNetworth(top, stack);
-					}
+					items.addAll(new BackpackItemLoader().loadItems(inventoryData.getAsJsonObject("backpack_contents")));
 				}
 
 				if (inventoryData.has("wardrobe_contents")) {
@@ -85,20 +82,22 @@ public class ProfileViewerTextWidget {
 					List<ItemStack> wardrobeItems = loader.loadItems(inventoryData.getAsJsonObject("wardrobe_contents"));
 					for (int index = 0; index < wardrobeItems.size(); index++) {
 						if (skip.contains(index)) continue;
-						ItemStack stack = wardrobeItems.get(index);
-						value += addItemNetworth(top, stack);
+						items.add(wardrobeItems.get(index));
 					}
 				}
 
 				if (inventoryData.has("bag_contents") && inventoryData.getAsJsonObject("bag_contents").has("talisman_bag")) {
-					for (ItemStack stack : new ItemLoader().loadItems(inventoryData.getAsJsonObject("bag_contents").getAsJsonObject("talisman_bag"))) {
-						value += addItemNetworth(top, stack);
-					}
+					items.addAll(new ItemLoader().loadItems(inventoryData.getAsJsonObject("bag_contents").getAsJsonObject("talisman_bag")));
 				}
 			}
 
-			for (ItemStack stack : new PetsInventoryItemLoader().loadItems(playerProfile)) {
-				value += addItemNetworth(top, stack);
+			items.addAll(new PetsInventoryItemLoader().loadItems(playerProfile));
+		} catch (Exception ignored) {}
+
+		try {
+			List<NetworthResult> results = NetworthCalculator.getItemNetworths(items);
+			for (int i = 0; i < items.size(); i++) {
+				value += addItemNetworth(top, items.get(i), results.get(i).price());
 			}
 		} catch (Exception ignored) {}
 
@@ -115,8 +114,7 @@ public class ProfileViewerTextWidget {
 		return value;
 	}
 
-	private double addItemNetworth(PriorityQueue<ItemValue> top, ItemStack stack) {
-		double p = NetworthCalculator.getItemNetworth(stack).price();
+	private double addItemNetworth(PriorityQueue<ItemValue> top, ItemStack stack, double p) {
 		if (p > 0) {
 			top.offer(new ItemValue(stack.getName().getString(), p));
 			if (top.size() > 10) top.poll();
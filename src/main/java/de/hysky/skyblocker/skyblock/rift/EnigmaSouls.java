@@ -13,8 +13,11 @@ import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.PosUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.waypoint.ProfileAwareWaypoint;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
+import de.hysky.skyblocker.utils.waypoint.WaypointIndex;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.minecraft.client.MinecraftClient;
@@ -22,7 +25,6 @@ import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.text.Text;
 import net.minecraft.util.DyeColor;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import org.slf4j.Logger;
@@ -45,6 +47,9 @@ public class EnigmaSouls {
 	private static final Supplier<Waypoint.Type> TYPE_SUPPLIER = () -> SkyblockerConfigManager.get().uiAndVisuals.waypoints.waypointType;
 	private static final Identifier WAYPOINTS_JSON = Identifier.of(SkyblockerMod.NAMESPACE, "rift/enigma_soul_waypoints.json");
 	private static final Map<BlockPos, ProfileAwareWaypoint> SOUL_WAYPOINTS = new HashMap<>(42);
+	private static WaypointIndex<ProfileAwareWaypoint> soulIndex;
+	static final String ALREADY_FOUND_MESSAGE = "You have already found that Enigma Soul!";
+	static final String FOUND_MESSAGE = "SOUL! You unlocked an Enigma Soul!";
 	private static final Path FOUND_SOULS_FILE = SkyblockerMod.CONFIG_DIR.resolve("found_enigma_souls.json");
 	private static final float[] GREEN = ColorUtils.getFloatComponents(DyeColor.GREEN);
 	private static final float[] RED = ColorUtils.getFloatComponents(DyeColor.RED);
@@ -63,6 +68,7 @@ public class EnigmaSouls {
 					BlockPos pos = new BlockPos(waypoint.get("x").getAsInt(), waypoint.get("y").getAsInt(), waypoint.get("z").getAsInt());
 					SOUL_WAYPOINTS.put(pos, new EnigmaSoul(pos, TYPE_SUPPLIER, GREEN, RED));
 				}
+				soulIndex = new WaypointIndex<>(List.copyOf(SOUL_WAYPOINTS.values()));
 
 			} catch (IOException e) {
 				LOGGER.error("[Skyblocker] There was an error while loading enigma soul waypoints!", e);
@@ -112,24 +118,24 @@ public class EnigmaSouls {
 	static void render(WorldRenderContext context) {
 		OtherLocationsConfig.Rift config = SkyblockerConfigManager.get().otherLocations.rift;
 
-		if (Utils.isInTheRift() && config.enigmaSoulWaypoints && soulsLoaded.isDone()) {
-			for (Waypoint soul : SOUL_WAYPOINTS.values()) {
+		if (Utils.isInTheRift() && config.enigmaSoulWaypoints && soulsLoaded.isDone() && soulIndex != null) {
+			soulIndex.forEachVisible(context.camera().getPos(), Double.POSITIVE_INFINITY, soul -> {
 				if (soul.shouldRender() || config.highlightFoundEnigmaSouls) {
 					soul.render(context);
 				}
-			}
+			});
 		}
 	}
 
-	static boolean onMessage(Text text, boolean overlay) {
-		if (Utils.isInTheRift() && !overlay) {
-			String message = text.getString();
+	static ChatFilterResult onMessage(ChatDispatcher.Message chatMessage) {
+		if (Utils.isInTheRift()) {
+			String message = chatMessage.raw();
 
-			if (message.equals("You have already found that Enigma Soul!") || Formatting.strip(message).equals("SOUL! You unlocked an Enigma Soul!"))
+			if (message.equals(ALREADY_FOUND_MESSAGE) || chatMessage.plain().equals(FOUND_MESSAGE))
 				markClosestSoulAsFound();
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	static void registerCommands(CommandDispatcher<FabricClientCommandSource> dispatcher, CommandRegistryAccess registryAccess) {
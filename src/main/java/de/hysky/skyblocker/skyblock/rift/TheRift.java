@@ -2,10 +2,10 @@ package de.hysky.skyblocker.skyblock.rift;
 
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 
 public class TheRift {
@@ -17,7 +17,7 @@ public class TheRift {
         ClientLifecycleEvents.CLIENT_STARTED.register(MirrorverseWaypoints::load);
         ClientLifecycleEvents.CLIENT_STARTED.register(EnigmaSouls::load);
         ClientLifecycleEvents.CLIENT_STOPPING.register(EnigmaSouls::save);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(EnigmaSouls::onMessage);
+        ChatDispatcher.register("EnigmaSouls", ChatDispatcher.Channel.CHAT, false, EnigmaSouls::onMessage, EnigmaSouls.ALREADY_FOUND_MESSAGE, EnigmaSouls.FOUND_MESSAGE);
         ClientCommandRegistrationCallback.EVENT.register(EnigmaSouls::registerCommands);
         Scheduler.INSTANCE.scheduleCyclic(EffigyWaypoints::updateEffigies, SkyblockerConfigManager.get().slayers.vampireSlayer.effigyUpdateFrequency);
     }
@@ -14,10 +14,12 @@ import de.hysky.skyblocker.skyblock.museum.MuseumItemCache;
 import de.hysky.skyblocker.utils.BazaarProduct;
 import de.hysky.skyblocker.utils.NEURepoManager;
 import de.hysky.skyblocker.utils.RomanNumerals;
+import de.hysky.skyblocker.utils.TrigramIndex;
 import de.hysky.skyblocker.utils.scheduler.MessageScheduler;
 import io.github.moulberry.repo.data.NEUItem;
 import io.github.moulberry.repo.util.NEUId;
 import it.unimi.dsi.fastutil.Pair;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -62,8 +64,12 @@ public class SearchOverManager {
 	protected static int dungeonStars = 0;
 
 	// Use non-final variables and swap them to prevent concurrent modification
-	private static HashSet<String> bazaarItems = new HashSet<>();
-	private static HashSet<String> auctionItems = new HashSet<>();
+	private static Suggestions bazaarItems = Suggestions.of(Set.of());
+	private static Suggestions auctionItems = Suggestions.of(Set.of());
+	/**
+	 * The museum items donated on the current profile, built when the museum search is opened since donations change between searches.
+	 */
+	private static Suggestions museumItems = Suggestions.of(Set.of());
 	private static HashSet<String> auctionPets = new HashSet<>();
 	private static HashSet<String> starableItems = new HashSet<>();
 	private static HashMap<String, String> namesToNeuId = new HashMap<>();
@@ -193,8 +199,8 @@ public class SearchOverManager {
 			LOGGER.error("[Skyblocker] Failed to load auction house item list! ", e);
 		}
 
-		SearchOverManager.bazaarItems = bazaarItems;
-		SearchOverManager.auctionItems = auctionItems;
+		SearchOverManager.bazaarItems = Suggestions.of(bazaarItems);
+		SearchOverManager.auctionItems = Suggestions.of(auctionItems);
 		SearchOverManager.auctionPets = auctionPets;
 		SearchOverManager.starableItems = starableItems;
 		SearchOverManager.namesToNeuId = namesToNeuId;
@@ -211,6 +217,7 @@ public class SearchOverManager {
 		SearchOverManager.sign = sign;
 		isCommand = false;
 		SearchOverManager.location = location;
+		if (location == SearchLocation.MUSEUM) museumItems = Suggestions.of(getMuseumSuggestions());
 		if (SkyblockerConfigManager.get().uiAndVisuals.searchOverlay.keepPreviousSearches) {
 			Text[] messages = SearchOverManager.sign.getText(signFront).getMessages(CLIENT.shouldFilterText());
 			search = messages[0].getString();
@@ -240,7 +247,7 @@ public class SearchOverManager {
 		switch (location) {
 			case SearchLocation.AUCTION -> suggestionsArray = updateSuggestions(auctionItems, totalSuggestions);
 			case SearchLocation.BAZAAR -> suggestionsArray = updateSuggestions(bazaarItems, totalSuggestions);
-			case SearchLocation.MUSEUM -> suggestionsArray = updateSuggestions(getMuseumSuggestions(), totalSuggestions);
+			case SearchLocation.MUSEUM -> suggestionsArray = updateSuggestions(museumItems, totalSuggestions);
 		}
 	}
 
@@ -266,8 +273,21 @@ public class SearchOverManager {
 		return Streams.concat(items, sets).collect(Collectors.toSet());
 	}
 
-	protected static String[] updateSuggestions(Set<String> items, int totalSuggestions) {
-		return items.stream().sorted(Comparator.comparing(SearchOverManager::shouldFrontLoad, Comparator.reverseOrder())).filter(item -> item.toLowerCase(Locale.ENGLISH).contains(search.toLowerCase(Locale.ENGLISH))).limit(totalSuggestions).toArray(String[]::new);
+	private static String[] updateSuggestions(Suggestions items, int totalSuggestions) {
+		IntList matches = items.index().search(search.toLowerCase(Locale.ENGLISH));
+		List<String> suggestions = new ArrayList<>(totalSuggestions);
+
+		// Add the front loaded items first, the rest of the items keep their order
+		for (int i = 0; i < matches.size() && suggestions.size() < totalSuggestions; i++) {
+			String name = items.names()[matches.getInt(i)];
+			if (shouldFrontLoad(name)) suggestions.add(name);
+		}
+		for (int i = 0; i < matches.size() && suggestions.size() < totalSuggestions; i++) {
+			String name = items.names()[matches.getInt(i)];
+			if (!shouldFrontLoad(name)) suggestions.add(name);
+		}
+
+		return suggestions.toArray(String[]::new);
 	}
 
 	/**
@@ -508,4 +528,15 @@ public class SearchOverManager {
 		BAZAAR,
 		MUSEUM
 	}
+
+	/**
+	 * The names of the items that can be suggested and a search index over their lower case names,
+	 * built once when the items are loaded instead of lower-casing every name for every typed character.
+	 */
+	private record Suggestions(String[] names, TrigramIndex index) {
+		private static Suggestions of(Collection<String> names) {
+			String[] array = names.toArray(String[]::new);
+			return new Suggestions(array, new TrigramIndex(Arrays.stream(array).map(name -> name.toLowerCase(Locale.ENGLISH)).toList()));
+		}
+	}
 }
@@ -10,11 +10,12 @@ import de.hysky.skyblocker.skyblock.slayers.boss.vampire.TwinClawsIndicator;
 import de.hysky.skyblocker.utils.Area;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.mayor.MayorUtils;
 import de.hysky.skyblocker.utils.render.title.Title;
 import de.hysky.skyblocker.utils.render.title.TitleContainer;
 import de.hysky.skyblocker.utils.scheduler.Scheduler;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -55,7 +56,8 @@ public class SlayerManager {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(SlayerManager::onChatMessage);
+		// Slayer messages are indented with spaces, so they can't be routed by prefix
+		ChatDispatcher.register("SlayerManager", ChatDispatcher.Channel.CHAT, true, SlayerManager::onChatMessage);
 		SkyblockEvents.LOCATION_CHANGE.register(SlayerManager::onLocationChange);
 		SkyblockEvents.AREA_CHANGE.register(SlayerManager::onAreaChange);
 		Scheduler.INSTANCE.scheduleCyclic(TwinClawsIndicator::updateIce, SkyblockerConfigManager.get().slayers.vampireSlayer.holyIceUpdateFrequency);
@@ -75,21 +77,20 @@ public class SlayerManager {
 		Scheduler.INSTANCE.schedule(() -> getSlayerBossInfo(false), 20 * 2);
 	}
 
-	private static boolean onChatMessage(Text text, boolean overlay) {
-		if (overlay || !Utils.isOnSkyblock()) return true;
-		String message = text.getString();
+	private static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
+		String message = chatMessage.raw();
 
 		switch (message.replaceFirst("^\\s+", "")) {
 			case "Your Slayer Quest has been cancelled!", "SLAYER QUEST FAILED!" -> {
 				slayerQuest = null;
 				bossFight = null;
 				CallMaddox.onSlayerFailed();
-				return true;
+				return ChatFilterResult.PASS;
 			}
 			case "SLAYER QUEST STARTED!" -> {
 				if (slayerQuest == null) slayerQuest = new SlayerQuest();
 				bossFight = null;
-				return true;
+				return ChatFilterResult.PASS;
 			}
 			case "NICE! SLAYER BOSS SLAIN!" -> {
 				if (slayerQuest != null && bossFight != null) {
@@ -97,7 +98,7 @@ public class SlayerManager {
 					SlayerTimer.onBossDeath(bossFight.bossSpawnTime);
 					CallMaddox.onBossKilled();
 				}
-				return true;
+				return ChatFilterResult.PASS;
 			}
 			case "SLAYER QUEST COMPLETE!" -> {
 				if (slayerQuest != null && bossFight != null && !bossFight.slain) {
@@ -105,11 +106,11 @@ public class SlayerManager {
 					CallMaddox.onBossKilled();
 				}
 				bossFight = null;
-				return true;
+				return ChatFilterResult.PASS;
 			}
 		}
 
-		if (slayerQuest == null) return true;
+		if (slayerQuest == null) return ChatFilterResult.PASS;
 		Matcher matcherNextLvl = PATTERN_XP_NEEDED.matcher(message);
 		Matcher matcherLvlUp = PATTERN_LVL_UP.matcher(message);
 
@@ -130,7 +131,7 @@ public class SlayerManager {
 			slayerQuest.level = Integer.parseInt(message.replaceAll("(\\d+).+", "$1"));
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	public static void calculateBossesNeeded() {
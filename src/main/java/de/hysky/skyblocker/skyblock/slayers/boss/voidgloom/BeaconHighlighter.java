@@ -6,15 +6,15 @@ import de.hysky.skyblocker.events.WorldEvents;
 import de.hysky.skyblocker.skyblock.slayers.SlayerManager;
 import de.hysky.skyblocker.skyblock.slayers.SlayerType;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
 
 public class BeaconHighlighter {
@@ -29,7 +29,8 @@ public class BeaconHighlighter {
     public static void init() {
         WorldRenderEvents.AFTER_TRANSLUCENT.register(BeaconHighlighter::render);
         ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
-        ClientReceiveMessageEvents.ALLOW_GAME.register(BeaconHighlighter::onMessage);
+        // Slayer completion messages are indented with spaces, so they can't be routed by prefix
+        ChatDispatcher.register("BeaconHighlighter", ChatDispatcher.Channel.CHAT, false, BeaconHighlighter::onMessage);
         WorldEvents.BLOCK_STATE_UPDATE.register(BeaconHighlighter::onBlockStateUpdate);
     }
 
@@ -47,14 +48,14 @@ public class BeaconHighlighter {
     	}
     }
 
-    private static boolean onMessage(Text text, boolean overlay) {
-        if (Utils.isInTheEnd() && !overlay) {
-            String message = text.getString();
+    private static ChatFilterResult onMessage(ChatDispatcher.Message chatMessage) {
+        if (Utils.isInTheEnd()) {
+            String message = chatMessage.raw();
 
             if (message.contains("SLAYER QUEST COMPLETE!") || message.contains("NICE! SLAYER BOSS SLAIN!")) reset();
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     /**
@@ -3,12 +3,11 @@ package de.hysky.skyblocker.skyblock.special;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.itemlist.ItemRepository;
-import de.hysky.skyblocker.utils.Utils;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,15 +21,16 @@ public class DungeonsSpecialEffects {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(DungeonsSpecialEffects::displayRareDropEffect);
+		// Drop messages start with the name of the player, so they can't be routed by prefix
+		ChatDispatcher.register("DungeonsSpecialEffects", ChatDispatcher.Channel.CHAT, true, DungeonsSpecialEffects::displayRareDropEffect);
 	}
 
-	private static boolean displayRareDropEffect(Text message, boolean overlay) {
+	private static ChatFilterResult displayRareDropEffect(ChatDispatcher.Message message) {
 		//We don't check if we're in dungeons because that check doesn't work in m7 which defeats the point of this
 		//It might also allow it to work with Croesus
-		if (Utils.isOnSkyblock() && SkyblockerConfigManager.get().general.specialEffects.rareDungeonDropEffects && !overlay) {
+		if (SkyblockerConfigManager.get().general.specialEffects.rareDungeonDropEffects) {
 			try {
-				String stringForm = message.getString();
+				String stringForm = message.raw();
 				Matcher matcher = DROP_PATTERN.matcher(stringForm);
 
 				if (matcher.matches()) {
@@ -48,7 +48,7 @@ public class DungeonsSpecialEffects {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static ItemStack getStackFromName(String itemName) {
@@ -4,12 +4,11 @@ import com.mojang.logging.LogUtils;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.skyblock.itemlist.ItemRepository;
-import de.hysky.skyblocker.utils.Utils;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.ItemStack;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.text.Text;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 
@@ -25,13 +24,13 @@ public class DyeSpecialEffects {
 
 	@Init
 	public static void init() {
-		ClientReceiveMessageEvents.ALLOW_GAME.register(DyeSpecialEffects::displayDyeDropEffect);
+		ChatDispatcher.register("DyeSpecialEffects", ChatDispatcher.Channel.CHAT, true, DyeSpecialEffects::displayDyeDropEffect, ChatDispatcher.prefixes(DROP_PATTERN));
 	}
 
-	private static boolean displayDyeDropEffect(Text message, boolean overlay) {
-		if (Utils.isOnSkyblock() && SkyblockerConfigManager.get().general.specialEffects.rareDyeDropEffects && !overlay) {
+	private static ChatFilterResult displayDyeDropEffect(ChatDispatcher.Message message) {
+		if (SkyblockerConfigManager.get().general.specialEffects.rareDyeDropEffects) {
 			try {
-				String stringForm = message.getString();
+				String stringForm = message.raw();
 				Matcher matcher = DROP_PATTERN.matcher(stringForm);
 
 				if (matcher.matches() && matcher.group("player").equals(CLIENT.getSession().getUsername())) {
@@ -47,7 +46,7 @@ public class DyeSpecialEffects {
 			}
 		}
 
-		return true;
+		return ChatFilterResult.PASS;
 	}
 
 	private static ItemStack findDyeStack(String dyeName) {
@@ -275,6 +275,8 @@ public class WidgetsConfigurationScreen extends Screen implements ScreenHandlerL
 			this.handler.onClosed(this.client.player);
 		}
 		handler.removeListener(this);
+		// Replace the preview content of the widgets
+		PlayerListManager.markDirty();
 		Scheduler.INSTANCE.schedule(PlayerListManager::updateList, 1);
 		SkyblockerConfigManager.save();
 	}
@@ -35,6 +35,9 @@ import java.util.regex.Pattern;
  * This class may be used to get data from the player list. It doesn't get its
  * data every frame, instead, a scheduler is used to update the data this class
  * is holding periodically. The list is sorted like in the vanilla game.
+ * <p>
+ * The player list packets mark the data as {@link #markDirty() dirty}, and the data is only rebuilt on the next update if it is dirty,
+ * so updates while the tab list doesn't change do nothing. Only the tab widgets whose lines changed are updated.
  */
 public class PlayerListManager {
 
@@ -54,6 +57,19 @@ public class PlayerListManager {
 	 * @implNote All leading and trailing whitespace is removed from the strings.
 	 */
 	private static List<String> playerStringList = new ArrayList<>();
+	/**
+	 * Maps the part of each line up to and including the first {@code :}, such as {@code Amethyst:}, to the first line starting with it.
+	 *
+	 * @see #getLine(String)
+	 */
+	private static Map<String, String> linesByKey = Map.of();
+	/**
+	 * The lines each tab widget was last updated with, used to skip updating widgets whose lines haven't changed
+	 * and to update the {@link #alwaysUpdate(TabHudWidget, WidgetLines) always updated} widgets on ticks where the list isn't rebuilt.
+	 */
+	private static final Map<String, WidgetLines> widgetLines = new Object2ObjectOpenHashMap<>();
+	private static boolean dirty = true;
+	private static boolean lastTabHudEnabled = false;
 	@Nullable
 	private static String footer;
 	public static final Map<String, TabHudWidget> tabWidgetInstances = new Object2ObjectOpenHashMap<>();
@@ -63,42 +79,95 @@ public class PlayerListManager {
 		if (!tabWidgetsToShow.isEmpty()) {
 			tabWidgetsToShow.clear();
 		}
+		widgetLines.clear();
+	}
+
+	/**
+	 * Marks the player list as changed so that the next {@link #updateList() update} rebuilds it.
+	 * Called when the player list or footer packets are received.
+	 */
+	public static void markDirty() {
+		dirty = true;
 	}
 
-	// TODO: check for changes instead of updating every second
 	public static void updateList() {
 		if (!Utils.isOnSkyblock()) {
 			reset();
+			dirty = true;
+			return;
+		}
+
+		boolean tabHudEnabled = SkyblockerConfigManager.get().uiAndVisuals.tabHud.tabHudEnabled;
+		if (!dirty && tabHudEnabled == lastTabHudEnabled) {
+			// The list doesn't have to be rebuilt, but some widgets still change every tick
+			if (tabHudEnabled && !isPreviewVisible()) updateAlwaysUpdatedWidgets();
 			return;
 		}
+		lastTabHudEnabled = tabHudEnabled;
 
 		ClientPlayNetworkHandler networkHandler = MinecraftClient.getInstance().getNetworkHandler();
 
 		// check is needed, else game crashes on server leave
-		if (networkHandler != null) {
-			playerList = networkHandler.getPlayerList()
-			                           .stream()
-			                           .sorted(PlayerListHudAccessor.getOrdering())
-			                           .toList();
-			playerStringList = playerList.stream()
-			                             .map(PlayerListEntry::getDisplayName)
-			                             .filter(Objects::nonNull)
-			                             .map(Text::getString)
-			                             .map(String::strip)
-			                             .toList();
+		if (networkHandler != null && dirty) {
+			setPlayerList(networkHandler.getPlayerList()
+			                            .stream()
+			                            .sorted(PlayerListHudAccessor.getOrdering())
+			                            .toList());
 		}
+		dirty = false;
 
-		if (!SkyblockerConfigManager.get().uiAndVisuals.tabHud.tabHudEnabled) {
+		if (!tabHudEnabled) {
 			reset();
 			return;
 		}
 
-		if (MinecraftClient.getInstance().currentScreen instanceof WidgetsConfigurationScreen widgetsConfigurationScreen && widgetsConfigurationScreen.isPreviewVisible()) return;
+		if (isPreviewVisible()) return;
 
 		if (Utils.isInDungeons()) updateDungeons(null);
 		else updateWidgetsFrom(playerList);
 	}
 
+	/**
+	 * Replaces the cached player list, without updating the tab widgets.
+	 * Used by {@link #updateList()} and by {@link de.hysky.skyblocker.utils.packet.PacketReplay} to replay player list packets without a network handler.
+	 *
+	 * @param entries the listed entries, already sorted like in the vanilla game
+	 */
+	public static void setPlayerList(List<PlayerListEntry> entries) {
+		playerList = entries;
+		playerStringList = playerList.stream()
+		                             .map(PlayerListEntry::getDisplayName)
+		                             .filter(Objects::nonNull)
+		                             .map(Text::getString)
+		                             .map(String::strip)
+		                             .toList();
+		linesByKey = indexLines(playerStringList);
+	}
+
+	private static boolean isPreviewVisible() {
+		return MinecraftClient.getInstance().currentScreen instanceof WidgetsConfigurationScreen widgetsConfigurationScreen && widgetsConfigurationScreen.isPreviewVisible();
+	}
+
+	/**
+	 * Updates the shown widgets whose content doesn't only come from their lines with the lines they were last updated with.
+	 */
+	private static void updateAlwaysUpdatedWidgets() {
+		for (TabHudWidget tabHudWidget : tabWidgetsToShow) {
+			WidgetLines lines = widgetLines.get(tabHudWidget.getHypixelWidgetName());
+			if (lines != null && alwaysUpdate(tabHudWidget, lines)) {
+				tabHudWidget.updateFromTab(lines.lines(), lines.playerListEntries());
+				tabHudWidget.update();
+			}
+		}
+	}
+
+	/**
+	 * Widgets without lines get their content from elsewhere, such as the dungeon widgets, so they are always updated too.
+	 */
+	private static boolean alwaysUpdate(TabHudWidget tabHudWidget, WidgetLines lines) {
+		return tabHudWidget.alwaysUpdate() || lines.lines().isEmpty();
+	}
+
 	/**
 	 * Update specifically for dungeons cuz they don't use the new system I HATE THEM
 	 *
@@ -106,6 +175,8 @@ public class PlayerListManager {
 	 */
 	public static void updateDungeons(List<Text> lines) {
 		if (lines != null) {
+			// Rebuild the real player list on the next update
+			dirty = true;
 			// This is so wack I hate this
 			playerList = new ArrayList<>();
 			for (int i = 0; i < lines.size(); i++) {
@@ -237,6 +308,9 @@ public class PlayerListManager {
 			tabHudWidget = new DefaultTabHudWidget(hypixelWidgetName.right(), Text.literal(hypixelWidgetName.right()).formatted(Formatting.BOLD), hypixelWidgetName.firstInt());
 			WidgetManager.addWidgetInstance(tabHudWidget);
 		}
+
+		WidgetLines current = new WidgetLines(List.copyOf(lines), playerListEntries != null ? List.copyOf(playerListEntries) : null);
+		if (current.equals(widgetLines.put(hypixelWidgetName.right(), current)) && !alwaysUpdate(tabHudWidget, current)) return tabHudWidget;
 		tabHudWidget.updateFromTab(lines, playerListEntries);
 		tabHudWidget.update();
 		return tabHudWidget;
@@ -278,6 +352,28 @@ public class PlayerListManager {
 		return Pair.of(IntObjectPair.of(colorOutput.get(), toReturn.left()), toReturn.right());
 	}
 
+	private static Map<String, String> indexLines(List<String> strings) {
+		Map<String, String> lines = new Object2ObjectOpenHashMap<>();
+		for (String string : strings) {
+			int colon = string.indexOf(':');
+			if (colon >= 0) lines.putIfAbsent(string.substring(0, colon + 1), string);
+		}
+		return lines;
+	}
+
+	/**
+	 * Gets the first line of the player list that starts with the key, such as {@code Crystals:} or {@code Amethyst:}.
+	 * Later lines with the same key, like when several widgets have a line with the key, are not returned,
+	 * so callers that have to check every such line should search {@link #getPlayerStringList()} instead.
+	 *
+	 * @param key the part of the line up to and including the first {@code :}
+	 * @return the whole stripped line, or null if there is no line with the key
+	 */
+	@Nullable
+	public static String getLine(String key) {
+		return linesByKey.get(key);
+	}
+
 	/**
 	 * @return the cached player list
 	 */
@@ -293,6 +389,7 @@ public class PlayerListManager {
 	}
 
 	public static void updateFooter(Text f) {
+		String previous = footer;
 		if (f == null) {
 			footer = null;
 		} else {
@@ -301,6 +398,8 @@ public class PlayerListManager {
 				footer = null;
 			}
 		}
+		// The effects widget reads the footer
+		if (!Objects.equals(previous, footer)) dirty = true;
 	}
 
 	@Nullable
@@ -422,6 +521,8 @@ public class PlayerListManager {
 		return playerList.size();
 	}
 
+	private record WidgetLines(List<Text> lines, @Nullable List<PlayerListEntry> playerListEntries) {}
+
 	private static final class DefaultTabHudWidget extends TabHudWidget {
 		private DefaultTabHudWidget(String hypixelWidgetName, MutableText title, int color) {
 			super(hypixelWidgetName, title, color);
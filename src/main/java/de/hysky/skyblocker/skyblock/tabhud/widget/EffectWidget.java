@@ -28,6 +28,11 @@ public class EffectWidget extends TabHudWidget {
 		super("Active Effects", TITLE, Formatting.DARK_PURPLE.getColorValue());
 	}
 
+	@Override
+	public boolean alwaysUpdate() {
+		return true;
+	}
+
 	@Override
 	public void updateContent(List<Text> lines) {
 
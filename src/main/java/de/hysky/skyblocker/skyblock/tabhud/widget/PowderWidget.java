@@ -44,6 +44,11 @@ public class PowderWidget extends TabHudWidget {
 		super("Powders", TITLE, Formatting.DARK_AQUA.getColorValue());
 	}
 
+	@Override
+	public boolean alwaysUpdate() {
+		return true;
+	}
+
 	@Override
 	public void updateContent(List<Text> lines) {
 		Matcher matcher = Pattern.compile("").matcher(""); // Placeholder pattern and input to construct a matcher that can be reused
@@ -36,6 +36,14 @@ public abstract class TabHudWidget extends ComponentBasedWidget {
 		cachedComponents.forEach(super::addComponent);
 	}
 
+	/**
+	 * Whether the content depends on more than the lines of the widget, such as the footer or the time since the last update.
+	 * Other widgets are only updated by {@link de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager PlayerListManager} when their lines change.
+	 */
+	public boolean alwaysUpdate() {
+		return false;
+	}
+
 	public void updateFromTab(List<Text> lines, @Nullable List<PlayerListEntry> playerListEntries) {
 		cachedComponents.clear();
 		updateContent(lines, playerListEntries);
@@ -10,12 +10,14 @@ import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
 import de.hysky.skyblocker.config.configs.HelperConfig;
 import de.hysky.skyblocker.utils.*;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.waypoint.ProfileAwareWaypoint;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
+import de.hysky.skyblocker.utils.waypoint.WaypointIndex;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.client.MinecraftClient;
@@ -23,6 +25,7 @@ import net.minecraft.command.CommandRegistryAccess;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.DyeColor;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -43,9 +46,15 @@ import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.lit
 public class FairySouls {
     private static final Logger LOGGER = LoggerFactory.getLogger(FairySouls.class);
     private static final Supplier<Waypoint.Type> TYPE_SUPPLIER = () -> SkyblockerConfigManager.get().uiAndVisuals.waypoints.waypointType;
+    private static final String ALREADY_FOUND_MESSAGE = "You have already found that Fairy Soul!";
+    private static final String FOUND_MESSAGE = "§d§lSOUL! §fYou found a §dFairy Soul§f!";
     private static CompletableFuture<Void> fairySoulsLoaded;
     private static int maxSouls = 0;
     private static final Map<String, Map<BlockPos, ProfileAwareWaypoint>> fairySouls = new HashMap<>();
+    /**
+     * Spatial indices of the fairy souls on each island for rendering, since islands like the hub have hundreds of souls spread out across the map.
+     */
+    private static final Map<String, WaypointIndex<ProfileAwareWaypoint>> fairySoulIndices = new HashMap<>();
 
     @SuppressWarnings("UnusedReturnValue")
     public static CompletableFuture<Void> runAsyncAfterFairySoulsLoad(Runnable runnable) {
@@ -66,13 +75,14 @@ public class FairySouls {
         ClientLifecycleEvents.CLIENT_STOPPING.register(FairySouls::saveFoundFairySouls);
         ClientCommandRegistrationCallback.EVENT.register(FairySouls::registerCommands);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(FairySouls::render);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(FairySouls::onChatMessage);
+        ChatDispatcher.register("FairySouls", ChatDispatcher.Channel.ALL, false, FairySouls::onChatMessage, ALREADY_FOUND_MESSAGE, Formatting.strip(FOUND_MESSAGE));
     }
 
     private static void loadFairySouls() {
         fairySoulsLoaded = NEURepoManager.runAsyncAfterLoad(() -> {
             maxSouls = NEURepoManager.getConstants().getFairySouls().getMaxSouls();
             NEURepoManager.getConstants().getFairySouls().getSoulLocations().forEach((location, fairiesForLocation) -> fairySouls.put(location, fairiesForLocation.stream().map(coordinate -> new BlockPos(coordinate.getX(), coordinate.getY(), coordinate.getZ())).collect(Collectors.toUnmodifiableMap(pos -> pos, pos -> new FairySoul(pos, TYPE_SUPPLIER, ColorUtils.getFloatComponents(DyeColor.GREEN), ColorUtils.getFloatComponents(DyeColor.RED))))));
+            fairySouls.forEach((location, fairiesForLocation) -> fairySoulIndices.put(location, new WaypointIndex<>(List.copyOf(fairiesForLocation.values()))));
             LOGGER.debug("[Skyblocker] Loaded {} fairy souls across {} locations", fairySouls.values().stream().mapToInt(Map::size).sum(), fairySouls.size());
 
             try (BufferedReader reader = Files.newBufferedReader(SkyblockerMod.CONFIG_DIR.resolve("found_fairy_souls.json"))) {
@@ -143,24 +153,25 @@ public class FairySouls {
     private static void render(WorldRenderContext context) {
         HelperConfig.FairySouls fairySoulsConfig = SkyblockerConfigManager.get().helpers.fairySouls;
 
-        if (fairySoulsConfig.enableFairySoulsHelper && fairySoulsLoaded.isDone() && fairySouls.containsKey(Utils.getLocationRaw())) {
-            for (Waypoint fairySoul : fairySouls.get(Utils.getLocationRaw()).values()) {
+        if (fairySoulsConfig.enableFairySoulsHelper && fairySoulsLoaded.isDone() && fairySoulIndices.containsKey(Utils.getLocationRaw())) {
+            double maxDistance = fairySoulsConfig.highlightOnlyNearbySouls ? 50 : Double.POSITIVE_INFINITY;
+            fairySoulIndices.get(Utils.getLocationRaw()).forEachVisible(context.camera().getPos(), maxDistance, fairySoul -> {
                 boolean fairySoulNotFound = fairySoul.shouldRender();
                 if (!fairySoulsConfig.highlightFoundSouls && !fairySoulNotFound || fairySoulsConfig.highlightOnlyNearbySouls && fairySoul.pos.getSquaredDistance(context.camera().getPos()) > 2500) {
-                    continue;
+                    return;
                 }
                 fairySoul.render(context);
-            }
+            });
         }
     }
 
-    private static boolean onChatMessage(Text text, boolean overlay) {
-        String message = text.getString();
-        if (message.equals("You have already found that Fairy Soul!") || message.equals("§d§lSOUL! §fYou found a §dFairy Soul§f!")) {
+    private static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
+        String message = chatMessage.raw();
+        if (message.equals(ALREADY_FOUND_MESSAGE) || message.equals(FOUND_MESSAGE)) {
             markClosestFairyFound();
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void markClosestFairyFound() {
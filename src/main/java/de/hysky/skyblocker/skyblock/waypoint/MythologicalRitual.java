@@ -4,17 +4,21 @@ import com.mojang.brigadier.Command;
 import de.hysky.skyblocker.SkyblockerMod;
 import de.hysky.skyblocker.annotations.Init;
 import de.hysky.skyblocker.config.SkyblockerConfigManager;
-import de.hysky.skyblocker.events.ParticleEvents;
 import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.ItemUtils;
 import de.hysky.skyblocker.utils.Location;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientBlockPosArgumentType;
 import de.hysky.skyblocker.utils.command.argumenttypes.blockpos.ClientPosArgument;
+import de.hysky.skyblocker.utils.locator.Estimate;
+import de.hysky.skyblocker.utils.locator.RayIntersection;
+import de.hysky.skyblocker.utils.locator.TrailFit;
+import de.hysky.skyblocker.utils.packet.PacketRouter;
 import de.hysky.skyblocker.utils.render.RenderHelper;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -27,9 +31,7 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
-import net.minecraft.particle.ParticleType;
 import net.minecraft.particle.ParticleTypes;
-import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.DyeColor;
 import net.minecraft.util.Hand;
@@ -38,9 +40,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
-import org.apache.commons.math3.geometry.euclidean.twod.Line;
-import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
-import org.apache.commons.math3.stat.regression.SimpleRegression;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,6 +54,18 @@ public class MythologicalRitual {
     private static final Pattern GRIFFIN_BURROW_DUG = Pattern.compile("(?<message>You dug out a Griffin Burrow!|You finished the Griffin burrow chain!) \\((?<index>\\d)/4\\)");
     private static final float[] ORANGE_COLOR_COMPONENTS = ColorUtils.getFloatComponents(DyeColor.ORANGE);
     private static final float[] RED_COLOR_COMPONENTS = ColorUtils.getFloatComponents(DyeColor.RED);
+    /**
+     * The maximum number of particles of a trail before its ray is added to {@link GriffinBurrow#nextBurrowRays}
+     */
+    private static final int PARTICLES_PER_TRAIL = 20;
+    /**
+     * The minimum number of particles of a trail before its ray is added, used if the particles are already in a straight enough line
+     */
+    private static final int MIN_PARTICLES_PER_TRAIL = 5;
+    /**
+     * The angular error in radians of the line through the particles below which the direction is good enough, about a block off at 100 blocks away
+     */
+    private static final double MAX_ANGULAR_ERROR = 0.01;
     private static long lastEchoTime;
     private static final Map<BlockPos, GriffinBurrow> griffinBurrows = new HashMap<>();
     @Nullable
@@ -67,7 +78,7 @@ public class MythologicalRitual {
         AttackBlockCallback.EVENT.register(MythologicalRitual::onAttackBlock);
         UseBlockCallback.EVENT.register(MythologicalRitual::onUseBlock);
         UseItemCallback.EVENT.register(MythologicalRitual::onUseItem);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(MythologicalRitual::onChatMessage);
+        ChatDispatcher.register("MythologicalRitual", ChatDispatcher.Channel.ALL, false, MythologicalRitual::onChatMessage, ChatDispatcher.prefixes(GRIFFIN_BURROW_DUG));
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> reset());
         ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> dispatcher.register(literal(SkyblockerMod.NAMESPACE).then(literal("diana")
                 .then(literal("clearGriffinBurrows").executes(context -> {
@@ -81,24 +92,17 @@ public class MythologicalRitual {
                         }))
                 )
         )));
-        ParticleEvents.FROM_SERVER.register(MythologicalRitual::onParticle);
+        PacketRouter.PARTICLES.register("MythologicalRitual (burrows)", MythologicalRitual::isActive, MythologicalRitual::handleBurrowParticle, ParticleTypes.CRIT, ParticleTypes.ENCHANT);
+        PacketRouter.PARTICLES.register("MythologicalRitual (next burrow)", MythologicalRitual::isActive, MythologicalRitual::handleNextBurrowParticle, ParticleTypes.DUST);
+        PacketRouter.PARTICLES.register("MythologicalRitual (echo burrow)", MythologicalRitual::isActive, packet -> {
+            if (packet.getCount() == 2) handleEchoBurrowParticle(packet);
+        }, ParticleTypes.DRIPPING_LAVA);
 
         // Put a root burrow so echo detection works without a previous burrow
         previousBurrow.confirmed = TriState.DEFAULT;
         griffinBurrows.put(BlockPos.ORIGIN, previousBurrow);
     }
 
-    private static void onParticle(ParticleS2CPacket packet) {
-        if (isActive()) {
-            switch (packet.getParameters().getType()) {
-                case ParticleType<?> type when ParticleTypes.CRIT.equals(type) || ParticleTypes.ENCHANT.equals(type) -> handleBurrowParticle(packet);
-                case ParticleType<?> type when ParticleTypes.DUST.equals(type) -> handleNextBurrowParticle(packet);
-                case ParticleType<?> type when ParticleTypes.DRIPPING_LAVA.equals(type) && packet.getCount() == 2 -> handleEchoBurrowParticle(packet);
-                case null, default -> {}
-            }
-        }
-    }
-
     /**
      * Updates the crit and enchant particle counts and initializes the burrow if both counts are greater or equal to 5.
      */
@@ -116,7 +120,7 @@ public class MythologicalRitual {
     }
 
     /**
-     * Updates the regression of the burrow (if a burrow exists), tries to {@link #estimateNextBurrow(GriffinBurrow) estimate the next burrow}, and updates the line in the direction of the next burrow.
+     * Adds the particle to the trail of the burrow (if a burrow exists), updates the line in the direction of the next burrow, and tries to {@link #estimateNextBurrow(GriffinBurrow) estimate the next burrow}.
      */
     private static void handleNextBurrowParticle(ParticleS2CPacket packet) {
         BlockPos pos = BlockPos.ofFloored(packet.getX(), packet.getY(), packet.getZ());
@@ -124,71 +128,62 @@ public class MythologicalRitual {
         if (burrow == null) {
             return;
         }
-        burrow.regression.addData(packet.getX(), packet.getZ());
-        double slope = burrow.regression.getSlope();
-        if (Double.isNaN(slope)) {
+        burrow.nextBurrowTrail.add(new Vec3d(packet.getX(), packet.getY(), packet.getZ()));
+        Vec3d nextBurrowDirection = burrow.nextBurrowTrail.getDirection();
+        if (nextBurrowDirection == null) {
             return;
         }
-        Vec3d nextBurrowDirection = new Vec3d(100, 0, slope * 100).normalize();
 
-        // Save the line of the next burrow and try to estimate the next burrow
-        Vector2D pos2D = new Vector2D(pos.getX() + 0.5, pos.getZ() + 0.5);
-        burrow.nextBurrowLineEstimation = new Line(pos2D, pos2D.add(new Vector2D(nextBurrowDirection.x, nextBurrowDirection.z)), 0.0001);
-        estimateNextBurrow(burrow);
-
-        // Fill line in the direction of the next burrow
-        if (burrow.nextBurrowLine == null) {
-            burrow.nextBurrowLine = new Vec3d[1001];
+        // Save the line of the next burrow, centered on the particles, and once the trail is complete add its ray and try to estimate the next burrow
+        Vec3d centroid = burrow.nextBurrowTrail.getCentroid();
+        burrow.nextBurrowLine = new BurrowLine(new Vec3d(centroid.x, pos.getY() + 1.5, centroid.z), nextBurrowDirection);
+        if (!burrow.nextBurrowTrailAdded && burrow.nextBurrowTrail.isComplete(MIN_PARTICLES_PER_TRAIL, PARTICLES_PER_TRAIL, MAX_ANGULAR_ERROR)) {
+            burrow.nextBurrowTrailAdded = burrow.nextBurrowRays.add(burrow.nextBurrowTrail);
+            estimateNextBurrow(burrow);
         }
-        fillLine(burrow.nextBurrowLine, Vec3d.ofCenter(pos.up()), nextBurrowDirection);
     }
 
     /**
-     * Saves the echo particle in {@link GriffinBurrow#echoBurrowDirection}, if the player used echo within 10 seconds.
-     * Tries to {@link #estimateNextBurrow(GriffinBurrow) estimate the next burrow} and updates the line through the two echo burrow particles if there is already a particle saved in {@link GriffinBurrow#echoBurrowDirection}.
+     * Adds the echo particle to {@link GriffinBurrow#echoBurrowTrail}, if the player used echo within 10 seconds.
+     * Updates the line through the echo burrow particles if there are at least two and tries to {@link #estimateNextBurrow(GriffinBurrow) estimate the next burrow}.
      */
     private static void handleEchoBurrowParticle(ParticleS2CPacket packet) {
         if (System.currentTimeMillis() > lastEchoTime + 10_000) {
             return;
         }
-        if (previousBurrow.echoBurrowDirection == null) {
-            previousBurrow.echoBurrowDirection = new Vec3d[2];
-        }
-        previousBurrow.echoBurrowDirection[0] = previousBurrow.echoBurrowDirection[1];
-        previousBurrow.echoBurrowDirection[1] = new Vec3d(packet.getX(), packet.getY(), packet.getZ());
-        if (previousBurrow.echoBurrowDirection[0] == null || previousBurrow.echoBurrowDirection[1] == null) {
+        previousBurrow.echoBurrowTrail.add(new Vec3d(packet.getX(), packet.getY(), packet.getZ()));
+        Vec3d echoBurrowDirection = previousBurrow.echoBurrowTrail.getDirection();
+        if (echoBurrowDirection == null) {
             return;
         }
 
-        // Save the line of the echo burrow and try to estimate the next burrow
-        Vector2D pos1 = new Vector2D(previousBurrow.echoBurrowDirection[0].x, previousBurrow.echoBurrowDirection[0].z);
-        Vector2D pos2 = new Vector2D(previousBurrow.echoBurrowDirection[1].x, previousBurrow.echoBurrowDirection[1].z);
-        previousBurrow.echoBurrowLineEstimation = new Line(pos1, pos2, 0.0001);
-        estimateNextBurrow(previousBurrow);
-
-        // Fill line in the direction of the echo burrow
-        Vec3d echoBurrowDirection = previousBurrow.echoBurrowDirection[1].subtract(previousBurrow.echoBurrowDirection[0]).normalize();
-        if (previousBurrow.echoBurrowLine == null) {
-            previousBurrow.echoBurrowLine = new Vec3d[1001];
+        // Save the line of the echo burrow, and once the trail is complete add its ray to the rays of the previous echoes
+        previousBurrow.echoBurrowLine = new BurrowLine(previousBurrow.echoBurrowTrail.getCentroid(), echoBurrowDirection);
+        if (!previousBurrow.echoBurrowTrailAdded && previousBurrow.echoBurrowTrail.isComplete(MIN_PARTICLES_PER_TRAIL, PARTICLES_PER_TRAIL, MAX_ANGULAR_ERROR)) {
+            addEchoBurrowTrail(previousBurrow);
         }
-        fillLine(previousBurrow.echoBurrowLine, previousBurrow.echoBurrowDirection[0], echoBurrowDirection);
+    }
+
+    /**
+     * Adds the ray of the echo trail to {@link GriffinBurrow#nextBurrowRays} and tries to {@link #estimateNextBurrow(GriffinBurrow) estimate the next burrow}.
+     */
+    private static void addEchoBurrowTrail(GriffinBurrow burrow) {
+        burrow.echoBurrowTrailAdded = burrow.nextBurrowRays.add(burrow.echoBurrowTrail);
+        estimateNextBurrow(burrow);
     }
 
     /**
      * Tries to estimate the position of the next burrow
      * by intersecting the line of the next burrow and
-     * the line of the echo burrow and saves the result in the burrow.
+     * the lines of every echo used from the burrow in the horizontal plane and saves the result in the burrow.
      * @param burrow The burrow to estimate the next burrow for
      */
     private static void estimateNextBurrow(GriffinBurrow burrow) {
-        if (burrow.nextBurrowLineEstimation == null || burrow.echoBurrowLineEstimation == null) {
-            return;
-        }
-        Vector2D intersection = burrow.nextBurrowLineEstimation.intersection(burrow.echoBurrowLineEstimation);
-		if (intersection == null) {
+        Estimate estimate = burrow.nextBurrowRays.solve();
+		if (estimate == null) {
 			return;
 		}
-        burrow.nextBurrowEstimatedPos = BlockPos.ofFloored(intersection.getX(), 5, intersection.getY());
+        burrow.nextBurrowEstimatedPos = BlockPos.ofFloored(estimate.position().x, 5, estimate.position().z);
     }
 
     /**
@@ -215,10 +210,10 @@ public class MythologicalRitual {
                 }
                 if (burrow.confirmed != TriState.FALSE) {
                     if (burrow.nextBurrowLine != null) {
-                        RenderHelper.renderLinesFromPoints(context, burrow.nextBurrowLine, ORANGE_COLOR_COMPONENTS, 0.5F, 5F, false);
+                        RenderHelper.renderLinesFromPoints(context, burrow.nextBurrowLine.getPoints(), ORANGE_COLOR_COMPONENTS, 0.5F, 5F, false);
                     }
                     if (burrow.echoBurrowLine != null) {
-                        RenderHelper.renderLinesFromPoints(context, burrow.echoBurrowLine, ORANGE_COLOR_COMPONENTS, 0.5F, 5F, false);
+                        RenderHelper.renderLinesFromPoints(context, burrow.echoBurrowLine.getPoints(), ORANGE_COLOR_COMPONENTS, 0.5F, 5F, false);
                     }
                     if (burrow.nextBurrowEstimatedPos != null && burrow.confirmed == TriState.DEFAULT) {
                         RenderHelper.renderFilledWithBeaconBeam(context, burrow.nextBurrowEstimatedPos, RED_COLOR_COMPONENTS, 0.5f, true);
@@ -248,18 +243,22 @@ public class MythologicalRitual {
         ItemStack stack = player.getStackInHand(hand);
         if (isActive() && ItemUtils.getItemId(stack).equals("ANCESTRAL_SPADE")) {
             lastEchoTime = System.currentTimeMillis();
+            // Each echo sends a new trail of particles, keep the ray of the last one even if it never got straight enough
+            if (!previousBurrow.echoBurrowTrailAdded) addEchoBurrowTrail(previousBurrow);
+            previousBurrow.echoBurrowTrail.reset();
+            previousBurrow.echoBurrowTrailAdded = false;
         }
         return ActionResult.PASS;
     }
 
-    public static boolean onChatMessage(Text message, boolean overlay) {
-        if (isActive() && GRIFFIN_BURROW_DUG.matcher(message.getString()).matches()) {
+    public static ChatFilterResult onChatMessage(ChatDispatcher.Message message) {
+        if (isActive() && GRIFFIN_BURROW_DUG.matcher(message.raw()).matches()) {
             previousBurrow.confirmed = TriState.FALSE;
             previousBurrow = griffinBurrows.get(lastDugBurrowPos);
             previousBurrow.confirmed = TriState.DEFAULT;
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static boolean isActive() {
@@ -286,28 +285,32 @@ public class MythologicalRitual {
          * {@link TriState#TRUE} means the burrow is confirmed by particles and is waiting to be dug.
          */
         private TriState confirmed = TriState.FALSE;
-        private final SimpleRegression regression = new SimpleRegression();
-        @Nullable
-        private Vec3d[] nextBurrowLine;
         /**
-         * The positions of the last two echo burrow particles.
+         * The particles pointing in the direction of the next burrow.
          */
-        @Nullable
-        private Vec3d[] echoBurrowDirection;
-        @Nullable
-        private Vec3d[] echoBurrowLine;
-        @Nullable
-        private BlockPos nextBurrowEstimatedPos;
+        private final TrailFit nextBurrowTrail = new TrailFit(true);
+        /**
+         * The particles of the last echo ability, pointing in the direction of the next burrow.
+         */
+        private final TrailFit echoBurrowTrail = new TrailFit(false);
+        /**
+         * The rays of the complete trails pointing in the direction of the next burrow, the one of the burrow particles and the one of each echo.
+         */
+        private final RayIntersection nextBurrowRays = new RayIntersection(true);
+        private boolean nextBurrowTrailAdded;
+        private boolean echoBurrowTrailAdded;
         /**
          * The line in the direction of the next burrow estimated by the previous burrow particles.
          */
         @Nullable
-        private Line nextBurrowLineEstimation;
+        private BurrowLine nextBurrowLine;
         /**
          * The line in the direction of the next burrow estimated by the echo ability.
          */
         @Nullable
-        private Line echoBurrowLineEstimation;
+        private BurrowLine echoBurrowLine;
+        @Nullable
+        private BlockPos nextBurrowEstimatedPos;
 
         private GriffinBurrow(BlockPos pos) {
             super(pos, Type.WAYPOINT, ORANGE_COLOR_COMPONENTS, 0.25F);
@@ -315,7 +318,9 @@ public class MythologicalRitual {
 
         private void init() {
             confirmed = TriState.TRUE;
-            regression.clear();
+            nextBurrowTrail.reset();
+            nextBurrowRays.reset();
+            nextBurrowTrailAdded = false;
         }
 
         /**
@@ -326,4 +331,28 @@ public class MythologicalRitual {
             return super.shouldRender() && confirmed == TriState.TRUE;
         }
     }
+
+    /**
+     * A line in the direction of the next burrow. The points to render it are only computed the first time it is rendered,
+     * since the line is replaced with every particle.
+     */
+    private static final class BurrowLine {
+        private final Vec3d origin;
+        private final Vec3d direction;
+        @Nullable
+        private Vec3d[] points;
+
+        private BurrowLine(Vec3d origin, Vec3d direction) {
+            this.origin = origin;
+            this.direction = direction;
+        }
+
+        private Vec3d[] getPoints() {
+            if (points == null) {
+                points = new Vec3d[1001];
+                fillLine(points, origin, direction);
+            }
+            return points;
+        }
+    }
 }
@@ -13,12 +13,14 @@ import de.hysky.skyblocker.utils.ColorUtils;
 import de.hysky.skyblocker.utils.Constants;
 import de.hysky.skyblocker.utils.PosUtils;
 import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.chat.ChatDispatcher;
+import de.hysky.skyblocker.utils.chat.ChatFilterResult;
 import de.hysky.skyblocker.utils.waypoint.ProfileAwareWaypoint;
 import de.hysky.skyblocker.utils.waypoint.Waypoint;
+import de.hysky.skyblocker.utils.waypoint.WaypointIndex;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.client.MinecraftClient;
@@ -45,10 +47,14 @@ import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.lit
 public class Relics {
     private static final Logger LOGGER = LoggerFactory.getLogger(Relics.class);
     private static final Supplier<Waypoint.Type> TYPE_SUPPLIER = () -> SkyblockerConfigManager.get().uiAndVisuals.waypoints.waypointType;
+    private static final String ALREADY_FOUND_MESSAGE = "You've already found this relic!";
+    private static final String FOUND_MESSAGE_PREFIX = "+10,000 Coins! (";
+    private static final String FOUND_MESSAGE_SUFFIX = "/28 Relics)";
     private static CompletableFuture<Void> relicsLoaded;
     @SuppressWarnings({"unused", "FieldCanBeLocal"})
     private static int totalRelics = 0;
     private static final Map<BlockPos, ProfileAwareWaypoint> relics = new HashMap<>();
+    private static WaypointIndex<ProfileAwareWaypoint> relicIndex;
 
     @Init
     public static void init() {
@@ -56,7 +62,7 @@ public class Relics {
         ClientLifecycleEvents.CLIENT_STOPPING.register(Relics::saveFoundRelics);
         ClientCommandRegistrationCallback.EVENT.register(Relics::registerCommands);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(Relics::render);
-        ClientReceiveMessageEvents.ALLOW_GAME.register(Relics::onChatMessage);
+        ChatDispatcher.register("Relics", ChatDispatcher.Channel.ALL, false, Relics::onChatMessage, ALREADY_FOUND_MESSAGE, FOUND_MESSAGE_PREFIX);
     }
 
     private static void loadRelics(MinecraftClient client) {
@@ -73,6 +79,7 @@ public class Relics {
                         }
                     }
                 }
+                relicIndex = new WaypointIndex<>(List.copyOf(relics.values()));
                 LOGGER.info("[Skyblocker] Loaded relics locations");
             } catch (IOException e) {
                 LOGGER.error("[Skyblocker] Failed to load relics locations", e);
@@ -135,22 +142,22 @@ public class Relics {
     private static void render(WorldRenderContext context) {
         OtherLocationsConfig.Relics config = SkyblockerConfigManager.get().otherLocations.spidersDen.relics;
 
-        if (config.enableRelicsHelper && relicsLoaded.isDone() && Utils.getLocationRaw().equals("combat_1")) {
-            for (ProfileAwareWaypoint relic : relics.values()) {
+        if (config.enableRelicsHelper && relicsLoaded.isDone() && relicIndex != null && Utils.getLocationRaw().equals("combat_1")) {
+            relicIndex.forEachVisible(context.camera().getPos(), Double.POSITIVE_INFINITY, relic -> {
                 boolean isRelicMissing = relic.shouldRender();
-                if (!isRelicMissing && !config.highlightFoundRelics) continue;
+                if (!isRelicMissing && !config.highlightFoundRelics) return;
                 relic.render(context);
-            }
+            });
         }
     }
 
-    private static boolean onChatMessage(Text text, boolean overlay) {
-        String message = text.getString();
-        if (message.equals("You've already found this relic!") || message.startsWith("+10,000 Coins! (") && message.endsWith("/28 Relics)")) {
+    private static ChatFilterResult onChatMessage(ChatDispatcher.Message chatMessage) {
+        String message = chatMessage.raw();
+        if (message.equals(ALREADY_FOUND_MESSAGE) || message.startsWith(FOUND_MESSAGE_PREFIX) && message.endsWith(FOUND_MESSAGE_SUFFIX)) {
             markClosestRelicFound();
         }
 
-        return true;
+        return ChatFilterResult.PASS;
     }
 
     private static void markClosestRelicFound() {
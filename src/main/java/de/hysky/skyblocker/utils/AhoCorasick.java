@@ -0,0 +1,192 @@
+package de.hysky.skyblocker.utils;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of a set of keywords in a single pass over the text.
+ *
+ * <p>Transitions are stored in a single primitive hash map keyed by {@code (state, char)}, so searching does not allocate.
+ * Instances are immutable and can be shared between threads, use {@link #builder()} to create one.
+ */
+public class AhoCorasick {
+	private static final int NO_STATE = -1;
+	private static final int[] NO_OUTPUTS = new int[0];
+
+	private final Long2IntOpenHashMap transitions;
+	private final int[] failure;
+	private final int[][] outputs;
+	private final int[] keywordLengths;
+
+	private AhoCorasick(Long2IntOpenHashMap transitions, int[] failure, int[][] outputs, int[] keywordLengths) {
+		this.transitions = transitions;
+		this.failure = failure;
+		this.outputs = outputs;
+		this.keywordLengths = keywordLengths;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the number of keywords in this automaton
+	 */
+	public int size() {
+		return keywordLengths.length;
+	}
+
+	public int keywordLength(int keyword) {
+		return keywordLengths[keyword];
+	}
+
+	/**
+	 * Reports every occurrence of every keyword in the text to the {@code consumer}, in order of their end index.
+	 */
+	public void search(CharSequence text, MatchConsumer consumer) {
+		int state = 0;
+
+		for (int i = 0, length = text.length(); i < length; i++) {
+			state = next(state, text.charAt(i));
+
+			for (int keyword : outputs[state]) {
+				consumer.accept(keyword, i + 1);
+			}
+		}
+	}
+
+	/**
+	 * @return whether any keyword occurs in the text
+	 */
+	public boolean containsAny(CharSequence text) {
+		int state = 0;
+
+		for (int i = 0, length = text.length(); i < length; i++) {
+			state = next(state, text.charAt(i));
+			if (outputs[state].length > 0) return true;
+		}
+
+		return false;
+	}
+
+	private int next(int state, char c) {
+		int next;
+
+		while ((next = transitions.get(key(state, c))) == NO_STATE && state != 0) {
+			state = failure[state];
+		}
+
+		return next == NO_STATE ? 0 : next;
+	}
+
+	private static long key(int state, char c) {
+		return ((long) state << 16) | c;
+	}
+
+	@FunctionalInterface
+	public interface MatchConsumer {
+		/**
+		 * @param keyword the id of the keyword, as returned by {@link Builder#add(String)}
+		 * @param end     the index after the last character of the occurrence
+		 */
+		void accept(int keyword, int end);
+	}
+
+	public static class Builder {
+		private final Long2IntOpenHashMap transitions = new Long2IntOpenHashMap();
+		private final List<IntArrayList> children = new ArrayList<>();
+		private final List<IntArrayList> terminals = new ArrayList<>();
+		private final IntArrayList keywordLengths = new IntArrayList();
+
+		private Builder() {
+			transitions.defaultReturnValue(NO_STATE);
+			newState();
+		}
+
+		/**
+		 * Adds a keyword to the automaton. Adding the same keyword twice yields two ids that are both reported.
+		 *
+		 * @return the id of the keyword, ids are assigned sequentially starting from 0
+		 */
+		public int add(String keyword) {
+			if (keyword.isEmpty()) throw new IllegalArgumentException("Keywords must not be empty");
+			int state = 0;
+
+			for (int i = 0; i < keyword.length(); i++) {
+				char c = keyword.charAt(i);
+				int next = transitions.get(key(state, c));
+
+				if (next == NO_STATE) {
+					next = newState();
+					transitions.put(key(state, c), next);
+					children.get(state).add(c);
+				}
+
+				state = next;
+			}
+
+			int id = keywordLengths.size();
+			keywordLengths.add(keyword.length());
+			terminals.get(state).add(id);
+
+			return id;
+		}
+
+		public AhoCorasick build() {
+			int states = children.size();
+			int[] failure = new int[states];
+			int[][] outputs = new int[states][];
+			outputs[0] = terminals.getFirst().toIntArray();
+			IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+			queue.enqueue(0);
+
+			// Breadth first so that the failure state of every state is finished before its children are visited
+			while (!queue.isEmpty()) {
+				int state = queue.dequeueInt();
+
+				for (int c : children.get(state)) {
+					int child = transitions.get(key(state, (char) c));
+
+					if (state != 0) {
+						int fallback = failure[state];
+						while (fallback != 0 && transitions.get(key(fallback, (char) c)) == NO_STATE) fallback = failure[fallback];
+						int target = transitions.get(key(fallback, (char) c));
+						failure[child] = target == NO_STATE ? 0 : target;
+					}
+
+					IntArrayList childOutputs = terminals.get(child);
+					int[] inherited = outputs[failure[child]];
+
+					if (childOutputs.isEmpty()) {
+						outputs[child] = inherited;
+					} else if (inherited.length == 0) {
+						outputs[child] = childOutputs.toIntArray();
+					} else {
+						IntArrayList merged = new IntArrayList(childOutputs);
+						merged.addElements(merged.size(), inherited);
+						outputs[child] = merged.toIntArray();
+					}
+
+					queue.enqueue(child);
+				}
+			}
+
+			for (int i = 0; i < states; i++) {
+				if (outputs[i] == null || outputs[i].length == 0) outputs[i] = NO_OUTPUTS;
+			}
+
+			transitions.trim();
+			return new AhoCorasick(transitions, failure, outputs, keywordLengths.toIntArray());
+		}
+
+		private int newState() {
+			children.add(new IntArrayList(0));
+			terminals.add(new IntArrayList(0));
+			return children.size() - 1;
+		}
+	}
+}
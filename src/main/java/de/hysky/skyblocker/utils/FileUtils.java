@@ -4,8 +4,10 @@ import com.mojang.logging.LogUtils;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Locale;
 import java.util.stream.Stream;
 
@@ -36,6 +38,19 @@ public class FileUtils {
 		Files.delete(dir);
 	}
 
+	/**
+	 * Replaces the target file with the temporary file, atomically if the file system supports it,
+	 * so that a crash while writing never leaves a truncated file behind.
+	 */
+	public static void replace(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			LOGGER.debug("[Skyblocker] Atomic move not supported for file `{}`, falling back to a regular move", target);
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
 	/**
 	 * Replaces any characters that do not match the regex: [^a-z0-9_.-]
 	 *
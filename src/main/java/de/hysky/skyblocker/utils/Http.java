@@ -7,7 +7,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
@@ -17,7 +20,10 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Properties;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
 
@@ -27,6 +33,7 @@ import java.util.zip.InflaterInputStream;
 public class Http {
 	private static final String NAME_2_UUID = "https://api.minecraftservices.com/minecraft/profile/lookup/name/";
 	private static final String HYPIXEL_PROXY = "https://hysky.de/api/hypixel/v2/";
+	private static final Path CACHE_DIR = SkyblockerMod.CONFIG_DIR.resolve("http_cache");
 	public static final String USER_AGENT = "Skyblocker/" + SkyblockerMod.VERSION + " (" + SharedConstants.getGameVersion().name() + ")";
 	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
 			.connectTimeout(Duration.ofSeconds(10))
@@ -74,16 +81,94 @@ public class Http {
 		return sendCacheableGetRequest(url, null).content();
 	}
 
-	public static HttpHeaders sendHeadRequest(String url) throws IOException, InterruptedException {
-		HttpRequest request = HttpRequest.newBuilder()
-				.method("HEAD", BodyPublishers.noBody())
+	/**
+	 * Sends a conditional GET request for JSON content and caches the response body on disk, under the config directory.
+	 * <p>
+	 * If there is a cached response, the request is sent with {@code If-None-Match} and {@code If-Modified-Since} headers from it,
+	 * so that the server can respond with {@code 304 Not Modified} instead of sending the same content again.
+	 * The body is streamed to the cache file instead of being read into memory, use {@link CachedResponse#newReader()} to read it.
+	 *
+	 * @return the response, which is always backed by the cache file
+	 * @throws IOException if the server responded with anything other than JSON content or {@code 304 Not Modified}
+	 * @see #getCachedResponse(String)
+	 */
+	public static CachedResponse sendCachedGetRequest(String url) throws IOException, InterruptedException {
+		Path body = getCacheFile(url);
+		Path headersFile = getCacheHeadersFile(body);
+		HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+				.GET()
+				.header("Accept", "application/json")
+				.header("Accept-Encoding", "gzip, deflate")
 				.header("User-Agent", USER_AGENT)
 				.version(Version.HTTP_2)
-				.uri(URI.create(url))
-				.build();
+				.uri(URI.create(url));
+
+		if (Files.isRegularFile(body) && Files.isRegularFile(headersFile)) {
+			Properties cachedHeaders = new Properties();
+			try (Reader reader = Files.newBufferedReader(headersFile)) {
+				cachedHeaders.load(reader);
+			}
+			String etag = cachedHeaders.getProperty("Etag", "");
+			String lastModified = cachedHeaders.getProperty("Last-Modified", "");
+			if (!etag.isEmpty()) requestBuilder.header("If-None-Match", etag);
+			if (!lastModified.isEmpty()) requestBuilder.header("If-Modified-Since", lastModified);
+		}
+
+		HttpResponse<InputStream> response = HTTP_CLIENT.send(requestBuilder.build(), BodyHandlers.ofInputStream());
+		if (response.statusCode() == 304) {
+			response.body().close();
+			return new CachedResponse(body, false);
+		}
+
+		try (InputStream decodedInputStream = getDecodedInputStream(response)) {
+			HttpHeaders headers = response.headers();
+			if (response.statusCode() != 200) throw new IOException("Received status code " + response.statusCode() + " for " + url);
+			if (headers.firstValue("Content-Type").orElse("").startsWith("text/html")) throw new IOException("Received HTML content for " + url + ". Expected JSON.");
 
-		HttpResponse<Void> response = HTTP_CLIENT.send(request, BodyHandlers.discarding());
-		return response.headers();
+			// Write to a temporary file first so that a failed download doesn't replace the last good response
+			Files.createDirectories(CACHE_DIR);
+			Path tempFile = Files.createTempFile(CACHE_DIR, body.getFileName().toString(), ".tmp");
+			try {
+				try (OutputStream out = Files.newOutputStream(tempFile)) {
+					decodedInputStream.transferTo(out);
+				}
+				FileUtils.replace(tempFile, body);
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+
+			Properties cachedHeaders = new Properties();
+			cachedHeaders.setProperty("Etag", getEtag(headers));
+			cachedHeaders.setProperty("Last-Modified", getLastModified(headers));
+			Path tempHeadersFile = Files.createTempFile(CACHE_DIR, headersFile.getFileName().toString(), ".tmp");
+			try {
+				try (Writer writer = Files.newBufferedWriter(tempHeadersFile)) {
+					cachedHeaders.store(writer, url);
+				}
+				FileUtils.replace(tempHeadersFile, headersFile);
+			} finally {
+				Files.deleteIfExists(tempHeadersFile);
+			}
+
+			return new CachedResponse(body, true);
+		}
+	}
+
+	/**
+	 * @return the response cached by {@link #sendCachedGetRequest(String)} for the url, or {@code null} if there is none
+	 */
+	@Nullable
+	public static CachedResponse getCachedResponse(String url) {
+		Path body = getCacheFile(url);
+		return Files.isRegularFile(body) ? new CachedResponse(body, false) : null;
+	}
+
+	private static Path getCacheFile(String url) {
+		return CACHE_DIR.resolve(url.replaceFirst("^https?://", "").replaceAll("[^A-Za-z0-9._-]", "_"));
+	}
+
+	private static Path getCacheHeadersFile(Path body) {
+		return body.resolveSibling(body.getFileName() + ".headers");
 	}
 
 	public static String sendPostRequest(String url, String requestBody, String contentType) throws IOException, InterruptedException {
@@ -159,6 +244,18 @@ public class Http {
 		return Integer.parseInt(headers.firstValue("Age").orElse("-1"));
 	}
 
+	/**
+	 * A response cached on disk by {@link #sendCachedGetRequest(String)}.
+	 *
+	 * @param body     the file containing the response body
+	 * @param modified whether the body was downloaded by this request, as opposed to being unchanged since it was cached
+	 */
+	public record CachedResponse(Path body, boolean modified) {
+		public Reader newReader() throws IOException {
+			return Files.newBufferedReader(body);
+		}
+	}
+
 	//TODO If ever needed, we could just replace cache status with the response headers and go from there
 	public record ApiResponse(String content, int statusCode, String[] cacheStatuses, int age) implements AutoCloseable {
 
@@ -16,12 +16,11 @@ import de.hysky.skyblocker.skyblock.hunting.Attribute;
 import de.hysky.skyblocker.skyblock.hunting.Attributes;
 import de.hysky.skyblocker.skyblock.item.PetInfo;
 import de.hysky.skyblocker.skyblock.item.SkyblockItemRarity;
-import de.hysky.skyblocker.skyblock.item.tooltip.adders.CraftPriceTooltip;
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCosts;
 import de.hysky.skyblocker.skyblock.item.tooltip.adders.ObtainedDateTooltip;
 import de.hysky.skyblocker.skyblock.item.tooltip.info.TooltipInfoType;
 import de.hysky.skyblocker.skyblock.itemlist.ItemRepository;
 import de.hysky.skyblocker.utils.networth.NetworthCalculator;
-import io.github.moulberry.repo.data.NEUItem;
 import it.unimi.dsi.fastutil.doubles.DoubleBooleanPair;
 import it.unimi.dsi.fastutil.ints.IntIntPair;
 import it.unimi.dsi.fastutil.longs.LongBooleanPair;
@@ -329,12 +328,11 @@ public final class ItemUtils {
         return DoubleBooleanPair.of(0, false);
     }
 
+	/**
+	 * @see CraftCosts#getCraftCost(String)
+	 */
 	public static double getCraftCost(String skyblockApiId) {
-		NEUItem neuItem = NEURepoManager.getItemByNeuId(skyblockApiId);
-		if (neuItem != null && !neuItem.getRecipes().isEmpty()) {
-			return CraftPriceTooltip.getItemCost(neuItem.getRecipes().getFirst(), 0);
-		}
-		return 0;
+		return CraftCosts.getCraftCost(skyblockApiId);
 	}
 
     /**
@@ -393,8 +391,7 @@ public final class ItemUtils {
      */
     @Nullable
     public static String getLoreLineIf(ItemStack stack, Predicate<String> predicate) {
-        for (Text line : getLore(stack)) {
-            String string = line.getString();
+        for (String string : stack.getLoreStrings()) {
             if (predicate.test(string)) {
                 return string;
             }
@@ -0,0 +1,87 @@
+package de.hysky.skyblocker.utils;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.io.IOException;
+
+/**
+ * Decodes JSON while it is being read, without reading the whole content into a string or a {@link com.google.gson.JsonElement} tree first.
+ * Used for large payloads such as the bazaar and lowest BIN prices, see {@link Http#sendCachedGetRequest(String)}.
+ */
+@FunctionalInterface
+public interface JsonStreamDecoder<T> {
+	T decode(JsonReader reader) throws IOException;
+
+	/**
+	 * Decodes the whole content with the codec. This still reads the content into a tree, so prefer the other decoders for large content.
+	 */
+	static <T> JsonStreamDecoder<T> ofCodec(Codec<T> codec) {
+		return reader -> codec.parse(JsonOps.INSTANCE, JsonParser.parseReader(reader)).getOrThrow(IOException::new);
+	}
+
+	/**
+	 * Decodes an object of numbers. Entries with {@code null} values are skipped.
+	 */
+	static JsonStreamDecoder<Object2DoubleMap<String>> object2DoubleMap() {
+		return reader -> {
+			Object2DoubleMap<String> map = new Object2DoubleOpenHashMap<>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+				if (reader.peek() == JsonToken.NULL) {
+					reader.skipValue();
+				} else {
+					map.put(key, reader.nextDouble());
+				}
+			}
+			reader.endObject();
+			return map;
+		};
+	}
+
+	/**
+	 * Decodes an object of integers. Entries with {@code null} values are skipped.
+	 */
+	static JsonStreamDecoder<Object2IntMap<String>> object2IntMap() {
+		return reader -> {
+			Object2IntMap<String> map = new Object2IntOpenHashMap<>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+				if (reader.peek() == JsonToken.NULL) {
+					reader.skipValue();
+				} else {
+					map.put(key, reader.nextInt());
+				}
+			}
+			reader.endObject();
+			return map;
+		};
+	}
+
+	/**
+	 * Decodes an object whose values are decoded one at a time with the codec, so that only the tree of a single value is in memory at once.
+	 */
+	static <V> JsonStreamDecoder<Object2ObjectMap<String, V>> object2ObjectMap(Codec<V> valueCodec) {
+		return reader -> {
+			Object2ObjectMap<String, V> map = new Object2ObjectOpenHashMap<>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+				map.put(key, valueCodec.parse(JsonOps.INSTANCE, JsonParser.parseReader(reader)).getOrThrow(IOException::new));
+			}
+			reader.endObject();
+			return map;
+		};
+	}
+}
@@ -211,6 +211,10 @@ public class NEURepoManager {
 		NEU_REPO.getItems().getItems().values().forEach(consumer);
 	}
 
+	public static Collection<NEUItem> getItems() {
+		return NEU_REPO.getItems().getItems().values();
+	}
+
 	public static @Nullable NEUItem getItemByNeuId(String neuId) {
 		return NEU_REPO.getItems().getItemBySkyblockId(neuId);
 	}
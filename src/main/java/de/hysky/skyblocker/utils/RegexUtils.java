@@ -2,6 +2,9 @@ package de.hysky.skyblocker.utils;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
@@ -101,4 +104,391 @@ public class RegexUtils {
 		if (!matcher.find(startingIndex)) return OptionalDouble.empty();
 		return OptionalDouble.of(Double.parseDouble(matcher.group(1).replace(",", "")));
 	}
+
+	/**
+	 * Extracts literal substrings from a regex such that every match of the regex contains at least one of them.
+	 * This allows cheaply ruling out inputs with a substring search before running the regex.
+	 * <p>
+	 * The extraction is conservative: constructs that are not understood (lookarounds, inline flags, back references, etc.) result in an empty optional.
+	 * Inline flags and flags passed to {@link java.util.regex.Pattern#compile(String, int)} are not taken into account, so callers must match case-insensitive patterns against appropriately normalized input.
+	 *
+	 * @return the required literals, or an empty optional if no useful literals could be extracted
+	 */
+	public static Optional<List<String>> requiredLiterals(String regex) {
+		try {
+			LiteralExtractor extractor = new LiteralExtractor(regex);
+			List<String> literals = extractor.alternation();
+			if (extractor.pos != regex.length()) return Optional.empty();
+
+			return Optional.ofNullable(literals);
+		} catch (UnsupportedOperationException | IndexOutOfBoundsException | NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Extracts the literal prefixes of a regex such that every match of the regex starts with one of them.
+	 * The regex is assumed to only be matched at the start of the input, for example with {@code ^} or with {@link Matcher#matches()}.
+	 * <p>
+	 * Like {@link #requiredLiterals(String)}, the extraction is conservative and flags are not taken into account.
+	 *
+	 * @return the prefixes, which contain an empty string if some matches can start with anything, or an empty optional if the regex could not be parsed
+	 */
+	public static Optional<List<String>> literalPrefixes(String regex) {
+		try {
+			LiteralExtractor extractor = new LiteralExtractor(regex);
+			List<String> prefixes = extractor.prefixAlternation().prefixes();
+			if (extractor.pos != regex.length()) return Optional.empty();
+
+			return Optional.of(prefixes);
+		} catch (UnsupportedOperationException | IndexOutOfBoundsException | NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * A small recursive descent parser over the subset of the regex syntax needed to find required literals and literal prefixes.
+	 * Every parse method for required literals returns {@code null} when the parsed part does not require any literal.
+	 */
+	private static class LiteralExtractor {
+		/**
+		 * Escapes of a single letter that match a character class or an empty string, which end the current literal.
+		 */
+		private static final String SIMPLE_ESCAPES = "dDwWsSbBAzZGRhHvVXtnrfae";
+		/**
+		 * The maximum number of prefixes, beyond which prefixes are not extended any further.
+		 */
+		private static final int MAX_PREFIXES = 32;
+		private final String regex;
+		private int pos;
+
+		private LiteralExtractor(String regex) {
+			this.regex = regex;
+		}
+
+		private List<String> alternation() {
+			List<String> literals = new ArrayList<>();
+
+			while (true) {
+				List<String> alternative = sequence();
+				// Every alternative must require a literal, otherwise the alternation can match without any of them
+				if (alternative == null) literals = null;
+				else if (literals != null) literals.addAll(alternative);
+
+				if (pos < regex.length() && regex.charAt(pos) == '|') {
+					pos++;
+				} else {
+					return literals;
+				}
+			}
+		}
+
+		private List<String> sequence() {
+			List<String> best = null;
+			StringBuilder literal = new StringBuilder();
+
+			while (pos < regex.length()) {
+				char c = regex.charAt(pos);
+				if (c == '|' || c == ')') break;
+
+				switch (c) {
+					case '(' -> {
+						best = better(best, literal);
+						literal.setLength(0);
+						List<String> group = group();
+						if (quantifier() != 0) best = better(best, group);
+					}
+					case '[' -> {
+						best = better(best, literal);
+						literal.setLength(0);
+						skipCharacterClass();
+						quantifier();
+					}
+					case '.', '^', '$' -> {
+						best = better(best, literal);
+						literal.setLength(0);
+						pos++;
+						quantifier();
+					}
+					case '*', '+', '?', '{' -> throw new UnsupportedOperationException("Dangling quantifier");
+					case '\\' -> {
+						char escaped = regex.charAt(pos + 1);
+
+						if (escaped == 'u') {
+							best = appendLiteral(best, literal, unicodeEscape());
+						} else if (Character.isLetterOrDigit(escaped)) {
+							if (SIMPLE_ESCAPES.indexOf(escaped) < 0) throw new UnsupportedOperationException("Unsupported escape");
+							best = better(best, literal);
+							literal.setLength(0);
+							pos += 2;
+							quantifier();
+						} else {
+							pos += 2;
+							best = appendLiteral(best, literal, escaped);
+						}
+					}
+					default -> {
+						pos++;
+						best = appendLiteral(best, literal, c);
+					}
+				}
+			}
+
+			return better(best, literal);
+		}
+
+		/**
+		 * Appends a literal character to the current literal, taking into account a quantifier following it.
+		 */
+		private List<String> appendLiteral(List<String> best, StringBuilder literal, char c) {
+			int min = quantifier();
+
+			if (min == 0) {
+				// The character is optional, so the literal ends before it
+				best = better(best, literal);
+				literal.setLength(0);
+			} else if (min > 0) {
+				// The character is required but may repeat, so the literal ends after it
+				literal.append(c);
+				best = better(best, literal);
+				literal.setLength(0);
+			} else {
+				literal.append(c);
+			}
+
+			return best;
+		}
+
+		/**
+		 * Parses a {@code \\uXXXX} escape at the current position.
+		 */
+		private char unicodeEscape() {
+			char c = (char) Integer.parseInt(regex.substring(pos + 2, pos + 6), 16);
+			pos += 6;
+
+			return c;
+		}
+
+		/**
+		 * Parses a group starting at the current {@code (}, the position is left after the closing {@code )}.
+		 */
+		private List<String> group() {
+			groupStart();
+			List<String> literals = alternation();
+			groupEnd();
+
+			return literals;
+		}
+
+		private void groupStart() {
+			pos++;
+
+			// Atomic groups match the same strings as non-capturing groups, only backtracking differs
+			if (regex.startsWith("?:", pos) || regex.startsWith("?>", pos)) {
+				pos += 2;
+			} else if (regex.startsWith("?<", pos) && pos + 2 < regex.length() && Character.isLetter(regex.charAt(pos + 2))) {
+				pos = regex.indexOf('>', pos) + 1;
+				if (pos == 0) throw new UnsupportedOperationException("Unclosed group name");
+			} else if (regex.startsWith("?", pos)) {
+				throw new UnsupportedOperationException("Unsupported group construct");
+			}
+		}
+
+		private void groupEnd() {
+			if (regex.charAt(pos) != ')') throw new UnsupportedOperationException("Unclosed group");
+			pos++;
+		}
+
+		private Prefixes prefixAlternation() {
+			List<String> prefixes = new ArrayList<>();
+			boolean exact = true;
+
+			while (true) {
+				Prefixes alternative = prefixSequence();
+				prefixes.addAll(alternative.prefixes());
+				exact &= alternative.exact();
+
+				if (pos < regex.length() && regex.charAt(pos) == '|') {
+					pos++;
+				} else {
+					return new Prefixes(prefixes, exact);
+				}
+			}
+		}
+
+		/**
+		 * Extends the prefixes of the sequence for as long as the sequence consists of literals and exact groups,
+		 * then parses the rest of the sequence with {@link #sequence()}.
+		 */
+		private Prefixes prefixSequence() {
+			List<String> prefixes = List.of("");
+
+			while (pos < regex.length()) {
+				char c = regex.charAt(pos);
+				if (c == '|' || c == ')') return new Prefixes(prefixes, true);
+
+				switch (c) {
+					case '^' -> pos++;
+					case '(' -> {
+						groupStart();
+						Prefixes group = prefixAlternation();
+						groupEnd();
+						int min = quantifier();
+
+						if (min == 0) return rest(prefixes);
+						List<String> extended = concat(prefixes, group.prefixes());
+						if (extended == null) return rest(prefixes);
+						if (min > 0 || !group.exact()) return rest(extended);
+						prefixes = extended;
+					}
+					case '*', '+', '?', '{' -> throw new UnsupportedOperationException("Dangling quantifier");
+					case '\\' -> {
+						char escaped = regex.charAt(pos + 1);
+
+						if (escaped == 'u') {
+							c = unicodeEscape();
+						} else if (!Character.isLetterOrDigit(escaped)) {
+							c = escaped;
+							pos += 2;
+						} else {
+							return rest(prefixes);
+						}
+
+						Prefixes extended = appendPrefix(prefixes, c);
+						if (!extended.exact()) return rest(extended.prefixes());
+						prefixes = extended.prefixes();
+					}
+					case '[', '.', '$' -> {
+						return rest(prefixes);
+					}
+					default -> {
+						pos++;
+						Prefixes extended = appendPrefix(prefixes, c);
+						if (!extended.exact()) return rest(extended.prefixes());
+						prefixes = extended.prefixes();
+					}
+				}
+			}
+
+			return new Prefixes(prefixes, true);
+		}
+
+		/**
+		 * Appends a literal character to the prefixes, taking into account a quantifier following it.
+		 *
+		 * @return the new prefixes, which are not exact if the prefixes can not be extended any further
+		 */
+		private Prefixes appendPrefix(List<String> prefixes, char c) {
+			int min = quantifier();
+			if (min == 0) return new Prefixes(prefixes, false);
+			List<String> extended = concat(prefixes, List.of(String.valueOf(c)));
+
+			return new Prefixes(extended, min < 0);
+		}
+
+		/**
+		 * Parses the rest of the sequence, which is not part of the prefixes.
+		 */
+		private Prefixes rest(List<String> prefixes) {
+			sequence();
+			return new Prefixes(prefixes, false);
+		}
+
+		/**
+		 * @return every prefix followed by every suffix, or {@code null} if there would be too many prefixes
+		 */
+		private static List<String> concat(List<String> prefixes, List<String> suffixes) {
+			if (prefixes.size() * suffixes.size() > MAX_PREFIXES) return null;
+			List<String> result = new ArrayList<>(prefixes.size() * suffixes.size());
+
+			for (String prefix : prefixes) {
+				for (String suffix : suffixes) {
+					result.add(prefix + suffix);
+				}
+			}
+
+			return result;
+		}
+
+		private void skipCharacterClass() {
+			int depth = 0;
+
+			do {
+				char c = regex.charAt(pos);
+
+				if (c == '\\') {
+					pos++;
+				} else if (c == '[') {
+					depth++;
+					// A closing bracket right after the opening bracket (or its negation) is a literal
+					if (regex.startsWith("^]", pos + 1)) pos += 2;
+					else if (regex.startsWith("]", pos + 1)) pos++;
+				} else if (c == ']') {
+					depth--;
+				}
+
+				pos++;
+			} while (depth > 0);
+		}
+
+		/**
+		 * Skips a quantifier at the current position if there is one.
+		 *
+		 * @return the minimum number of repetitions of the quantifier, or -1 if there is no quantifier
+		 */
+		private int quantifier() {
+			if (pos >= regex.length()) return -1;
+			int min;
+
+			switch (regex.charAt(pos)) {
+				case '?', '*' -> {
+					min = 0;
+					pos++;
+				}
+				case '+' -> {
+					min = 1;
+					pos++;
+				}
+				case '{' -> {
+					int end = regex.indexOf('}', pos);
+					if (end < 0) throw new UnsupportedOperationException("Unclosed quantifier");
+					String bounds = regex.substring(pos + 1, end);
+					int comma = bounds.indexOf(',');
+					min = Integer.parseInt(comma < 0 ? bounds : bounds.substring(0, comma));
+					pos = end + 1;
+				}
+				default -> {
+					return -1;
+				}
+			}
+
+			// Lazy and possessive modifiers
+			if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) pos++;
+
+			return min;
+		}
+
+		private static List<String> better(List<String> best, CharSequence literal) {
+			return literal.isEmpty() ? best : better(best, List.of(literal.toString()));
+		}
+
+		/**
+		 * Picks the set of literals whose shortest literal is the longest, since longer literals are more selective.
+		 */
+		private static List<String> better(List<String> best, List<String> candidate) {
+			if (candidate == null || candidate.isEmpty()) return best;
+			if (best == null) return candidate;
+
+			return shortest(candidate) > shortest(best) ? candidate : best;
+		}
+
+		private static int shortest(List<String> literals) {
+			return literals.stream().mapToInt(String::length).min().orElse(0);
+		}
+
+		/**
+		 * @param exact whether the parsed part matches exactly the prefixes and nothing more
+		 */
+		private record Prefixes(List<String> prefixes, boolean exact) {}
+	}
 }
@@ -0,0 +1,124 @@
+package de.hysky.skyblocker.utils;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An inverted index from the trigrams (every three consecutive characters) of a list of texts to the texts that contain them.
+ * Substring searches only verify the texts that contain every trigram of the query instead of scanning all texts.
+ * <p>
+ * The index is case-sensitive, so texts and queries should be normalized the same way beforehand, usually to lower case.
+ */
+public final class TrigramIndex {
+	private final String[] texts;
+	private final Long2ObjectMap<int[]> postings;
+
+	public TrigramIndex(List<String> texts) {
+		this.texts = texts.toArray(String[]::new);
+
+		Long2ObjectMap<IntList> postings = new Long2ObjectOpenHashMap<>();
+		for (int i = 0; i < this.texts.length; i++) {
+			String text = this.texts[i];
+			for (int j = 0; j + 3 <= text.length(); j++) {
+				IntList posting = postings.computeIfAbsent(trigram(text, j), key -> new IntArrayList());
+				// Texts are added in order, so a duplicate trigram of the same text can only be the last entry
+				if (posting.isEmpty() || posting.getInt(posting.size() - 1) != i) posting.add(i);
+			}
+		}
+
+		this.postings = new Long2ObjectOpenHashMap<>(postings.size());
+		for (Long2ObjectMap.Entry<IntList> entry : postings.long2ObjectEntrySet()) {
+			this.postings.put(entry.getLongKey(), entry.getValue().toIntArray());
+		}
+	}
+
+	public int size() {
+		return texts.length;
+	}
+
+	public String getText(int index) {
+		return texts[index];
+	}
+
+	/**
+	 * @return the indices of the texts that contain the query, in ascending order
+	 */
+	public IntList search(String query) {
+		if (query.length() < 3) {
+			IntList matches = new IntArrayList();
+			for (int i = 0; i < texts.length; i++) {
+				if (texts[i].contains(query)) matches.add(i);
+			}
+			return matches;
+		}
+
+		LongSet trigrams = new LongOpenHashSet();
+		for (int i = 0; i + 3 <= query.length(); i++) {
+			trigrams.add(trigram(query, i));
+		}
+
+		List<int[]> lists = new ArrayList<>(trigrams.size());
+		for (long trigram : trigrams) {
+			int[] posting = postings.get(trigram);
+			if (posting == null) return new IntArrayList();
+			lists.add(posting);
+		}
+		// Intersect the shortest lists first so that the candidates shrink as fast as possible
+		lists.sort(Comparator.comparingInt(list -> list.length));
+
+		IntList candidates = IntArrayList.wrap(lists.getFirst());
+		for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+			candidates = intersect(candidates, lists.get(i));
+		}
+
+		// Texts that contain all trigrams can still have them in a different order
+		return narrow(candidates, query);
+	}
+
+	/**
+	 * Filters the candidates to the texts that contain the query.
+	 * Use this with the results of a previous search when the new query contains the previous query, such as when the user types another character.
+	 *
+	 * @return the candidates that contain the query, in the same order
+	 */
+	public IntList narrow(IntList candidates, String query) {
+		IntList matches = new IntArrayList(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) {
+			int index = candidates.getInt(i);
+			if (texts[index].contains(query)) matches.add(index);
+		}
+		return matches;
+	}
+
+	private static IntList intersect(IntList sorted, int[] other) {
+		IntList result = new IntArrayList(Math.min(sorted.size(), other.length));
+		int i = 0;
+		int j = 0;
+		while (i < sorted.size() && j < other.length) {
+			int a = sorted.getInt(i);
+			int b = other[j];
+			if (a == b) {
+				result.add(a);
+				i++;
+				j++;
+			} else if (a < b) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return result;
+	}
+
+	private static long trigram(String text, int start) {
+		return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+	}
+}
@@ -22,6 +22,7 @@ import net.azureaaron.hmapi.network.packet.s2c.HelloS2CPacket;
 import net.azureaaron.hmapi.network.packet.s2c.HypixelS2CPacket;
 import net.azureaaron.hmapi.network.packet.v1.s2c.LocationUpdateS2CPacket;
 import net.azureaaron.hmapi.network.packet.v1.s2c.PlayerInfoS2CPacket;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.loader.api.FabricLoader;
@@ -35,6 +36,7 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Util;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,10 +110,26 @@ public class Utils {
     private static String map = "";
     @NotNull
     public static double purse = 0;
+    /**
+     * The bits and island area parsed from the sidebar, see {@link #getBits()} and {@link #getIslandArea()}.
+     */
+    private static int bits = 0;
+    @NotNull
+    private static String islandArea = "Unknown";
+    /**
+     * Whether the sidebar changed since it was last parsed, set by {@link de.hysky.skyblocker.mixins.ScoreboardMixin ScoreboardMixin}.
+     */
+    private static boolean scoreboardDirty = true;
+    /**
+     * Whether the sidebar should be parsed again even if its lines didn't change, since parsing it depends on whether we are on Skyblock.
+     */
+    private static boolean reparseScoreboard = true;
 
 	private static boolean firstProfileUpdate = true;
 
     /**
+     * The lines of the sidebar, updated at the end of each tick in which the sidebar changed.
+     *
      * @implNote The parent text will always be empty, the actual text content is inside the text's siblings.
      */
     public static final ObjectArrayList<Text> TEXT_SCOREBOARD = new ObjectArrayList<>();
@@ -259,8 +277,12 @@ public class Utils {
 
     @Init
     public static void init() {
+        // Not routed through the ChatDispatcher, since the locraw reply parsed here decides whether its Skyblock only subscribers are called
         ClientReceiveMessageEvents.ALLOW_GAME.register(Utils::onChatMessage);
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> onDisconnect());
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            if (scoreboardDirty) updateScoreboard(client);
+        });
 
         //Register Mod API stuff
         HypixelNetworking.registerToEvents(Util.make(new Object2IntOpenHashMap<>(), map -> map.put(LocationUpdateS2CPacket.ID, 1)));
@@ -270,11 +292,11 @@ public class Utils {
     }
 
     /**
-     * Updates all the fields stored in this class from the sidebar, and player list.
+     * Updates the fields stored in this class from the player list.
+     * The fields from the sidebar are updated when it changes instead, see {@link #markScoreboardDirty()}.
      */
     public static void update() {
         MinecraftClient client = MinecraftClient.getInstance();
-        updateScoreboard(client);
         updatePlayerPresence(client);
         updateFromPlayerList(client);
     }
@@ -306,17 +328,9 @@ public class Utils {
         return (!serverAddress.isEmpty() && serverAddress.equalsIgnoreCase(ALTERNATE_HYPIXEL_ADDRESS)) || serverAddress.contains("hypixel.net") || serverAddress.contains("hypixel.io") || serverBrand.contains("Hypixel BungeeCord");
     }
 
+    @NotNull
     public static String getIslandArea() {
-        try {
-            for (String sidebarLine : STRING_SCOREBOARD) {
-                if (sidebarLine.contains("⏣") || sidebarLine.contains("ф") /* Rift */) {
-                    return sidebarLine.strip();
-                }
-            }
-        } catch (IndexOutOfBoundsException e) {
-            LOGGER.error("[Skyblocker] Failed to get location from sidebar", e);
-        }
-        return "Unknown";
+        return islandArea;
     }
 
 	public static double getPurse() {
@@ -324,30 +338,37 @@ public class Utils {
 	}
 
     public static int getBits() {
-        int bits = 0;
-        String bitsString = null;
-        try {
-            for (String sidebarLine : STRING_SCOREBOARD) {
-                if (sidebarLine.contains("Bits")) bitsString = sidebarLine;
-            }
-            if (bitsString != null) {
-                bits = Integer.parseInt(bitsString.replaceAll("[^0-9.]", "").strip());
-            }
-        } catch (IndexOutOfBoundsException e) {
-            LOGGER.error("[Skyblocker] Failed to get bits from sidebar", e);
-        }
         return bits;
     }
 
+    /**
+     * Marks the sidebar as changed so that it is parsed again at the end of the tick.
+     */
+    public static void markScoreboardDirty() {
+        scoreboardDirty = true;
+    }
+
     private static void updateScoreboard(MinecraftClient client) {
-        try {
-            TEXT_SCOREBOARD.clear();
-            STRING_SCOREBOARD.clear();
+        scoreboardDirty = false;
+        ClientPlayerEntity player = client.player;
+        updateScoreboard(player != null ? player.getScoreboard() : null);
+    }
 
-            ClientPlayerEntity player = client.player;
-            if (player == null) return;
+    /**
+     * Parses the sidebar of the scoreboard into {@link #TEXT_SCOREBOARD} and {@link #STRING_SCOREBOARD}.
+     * Called at the end of the tick with the player's scoreboard, and by {@link de.hysky.skyblocker.utils.packet.PacketReplay} with a scoreboard without a world.
+     *
+     * @param scoreboard the scoreboard, or null to clear the sidebar
+     */
+    public static void updateScoreboard(@Nullable Scoreboard scoreboard) {
+        try {
+            if (scoreboard == null) {
+                TEXT_SCOREBOARD.clear();
+                STRING_SCOREBOARD.clear();
+                parseIslandAreaAndBits();
+                return;
+            }
 
-            Scoreboard scoreboard = player.getScoreboard();
             ScoreboardObjective objective = scoreboard.getObjectiveForSlot(ScoreboardDisplaySlot.FROM_ID.apply(1));
             ObjectArrayList<Text> textLines = new ObjectArrayList<>();
             ObjectArrayList<String> stringLines = new ObjectArrayList<>();
@@ -379,8 +400,16 @@ public class Utils {
                 Collections.reverse(textLines);
             }
 
+            // The sidebar is updated every tick but its lines rarely change, so only reparse the whole sidebar when any line changed
+            boolean linesChanged = !stringLines.equals(STRING_SCOREBOARD);
+            TEXT_SCOREBOARD.clear();
             TEXT_SCOREBOARD.addAll(textLines);
+            if (!linesChanged && !reparseScoreboard) return;
+
+            reparseScoreboard = false;
+            STRING_SCOREBOARD.clear();
             STRING_SCOREBOARD.addAll(stringLines);
+            parseIslandAreaAndBits();
 			if (isOnSkyblock) {
 				Utils.updatePurse();
 				SlayerManager.getSlayerBossInfo(true);
@@ -391,6 +420,25 @@ public class Utils {
         }
     }
 
+    private static void parseIslandAreaAndBits() {
+        String areaLine = null;
+        String bitsLine = null;
+        for (String sidebarLine : STRING_SCOREBOARD) {
+            if (areaLine == null && (sidebarLine.contains("⏣") || sidebarLine.contains("ф") /* Rift */)) areaLine = sidebarLine;
+            if (sidebarLine.contains("Bits")) bitsLine = sidebarLine;
+        }
+
+        islandArea = areaLine != null ? areaLine.strip() : "Unknown";
+        bits = 0;
+        if (bitsLine != null) {
+            try {
+                bits = Integer.parseInt(bitsLine.replaceAll("[^0-9.]", "").strip());
+            } catch (NumberFormatException e) {
+                LOGGER.error("[Skyblocker] Failed to get bits from sidebar. Input: '{}'", bitsLine, e);
+            }
+        }
+    }
+
     private static void updateArea() {
 		String areaName = getIslandArea().replaceAll("[⏣ф]", "").strip();
 		Area oldArea = area;
@@ -433,6 +481,8 @@ public class Utils {
 
     private static void onDisconnect() {
         if (isOnSkyblock) SkyblockEvents.LEAVE.invoker().onSkyblockLeave();
+        scoreboardDirty = true;
+        reparseScoreboard = true;
 
         isOnSkyblock = false;
         server = "";
@@ -461,6 +511,8 @@ public class Utils {
                 Utils.map = map.orElse("");
 
                 SkyblockEvents.LOCATION_CHANGE.invoker().onSkyblockLocationChange(location);
+                scoreboardDirty = true;
+                reparseScoreboard = true;
 
                 if (Utils.gameType.equals("SKYBLOCK")) {
                     isOnSkyblock = true;
@@ -0,0 +1,387 @@
+package de.hysky.skyblocker.utils.chat;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.utils.Constants;
+import de.hysky.skyblocker.utils.RegexUtils;
+import de.hysky.skyblocker.utils.Utils;
+import de.hysky.skyblocker.utils.scheduler.TaskTimings;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Dispatches game messages to subscribers, so that each message is flattened with {@link Text#getString()}
+ * and stripped of formatting codes only once instead of once per feature.
+ * <p>
+ * Each subscriber declares whether it only receives messages while on Skyblock, which replaces the {@link Utils#isOnSkyblock()} check features used to do themselves.
+ * Subscribers declare the literal prefixes that the stripped messages they are interested in start with.
+ * Messages are routed through an index on the first token (the text before the first space) of those prefixes,
+ * so only subscribers whose prefixes the message starts with are called. Subscribers without prefixes receive every message.
+ * For {@link ChatPatternListener}s and subscribers registered with {@link #prefixes(Pattern...)}, the prefixes are derived from the patterns.
+ * <p>
+ * Listeners are called in registration order until one returns a result other than {@link ChatFilterResult#PASS}, which is then applied to the message.
+ * Modifiers are called afterward for messages that weren't filtered. The number of calls, the number of hits, and the run time of each subscriber are
+ * recorded and can be viewed with {@code /skyblocker debug chat}.
+ * <p>
+ * The only other game message listener is {@link Utils#onChatMessage(Text, boolean)}, which parses the locraw reply that decides whether Skyblock only subscribers are called.
+ */
+public class ChatDispatcher {
+	private static final int[] NO_SUBSCRIBERS = new int[0];
+	private static final int TIMINGS_SHOWN = 15;
+	private static final List<Subscriber> SUBSCRIBERS = new ArrayList<>();
+	/**
+	 * Subscribers by the first token of their prefixes, for prefixes that contain a space.
+	 */
+	private static final Object2ObjectOpenHashMap<String, int[]> BY_FIRST_TOKEN = new Object2ObjectOpenHashMap<>();
+	/**
+	 * Subscribers of prefixes that do not contain a space, so they only cover part of the first token.
+	 */
+	private static int[] partialTokenSubscribers = NO_SUBSCRIBERS;
+	private static int[] unindexedSubscribers = NO_SUBSCRIBERS;
+	/**
+	 * A bitmask of the subscribers that also receive messages outside of Skyblock.
+	 */
+	private static long[] everywhereSubscribers = new long[0];
+	private static boolean hasEverywhereSubscribers;
+	private static boolean dirty;
+	private static long[] candidates = new long[0];
+	/**
+	 * The last dispatched message, so that {@link ClientReceiveMessageEvents#MODIFY_GAME} can reuse the strings computed for {@link ClientReceiveMessageEvents#ALLOW_GAME}.
+	 */
+	@Nullable
+	private static Message lastMessage;
+	private static long messages;
+
+	@Init
+	public static void init() {
+		ClientReceiveMessageEvents.ALLOW_GAME.register(ChatDispatcher::allowMessage);
+		ClientReceiveMessageEvents.MODIFY_GAME.register(ChatDispatcher::modifyMessage);
+	}
+
+	/**
+	 * Registers a {@link ChatMessageListener} for both chat and overlay messages received while on Skyblock, routed by its {@link ChatMessageListener#prefixes()}.
+	 */
+	public static void register(ChatMessageListener listener) {
+		String name = listener.getClass().getSimpleName();
+		subscribe(name, Channel.ALL, true, listener.prefixes(), (Listener) message -> listener.onMessage(message.text(), message.plain()));
+	}
+
+	/**
+	 * Registers a listener.
+	 *
+	 * @param name         the name shown in the debug command
+	 * @param skyblockOnly whether the listener only receives messages while on Skyblock
+	 * @param prefixes     the prefixes of the stripped messages to receive, or none to receive every message
+	 */
+	public static void register(String name, Channel channel, boolean skyblockOnly, Listener listener, String... prefixes) {
+		subscribe(name, channel, skyblockOnly, List.of(prefixes), listener);
+	}
+
+	/**
+	 * Registers a modifier, which can replace the text of messages that were not filtered.
+	 *
+	 * @param name         the name shown in the debug command
+	 * @param skyblockOnly whether the modifier only receives messages while on Skyblock
+	 * @param prefixes     the prefixes of the stripped messages to receive, or none to receive every message
+	 */
+	public static void registerModifier(String name, Channel channel, boolean skyblockOnly, Modifier modifier, String... prefixes) {
+		subscribe(name, channel, skyblockOnly, List.of(prefixes), modifier);
+	}
+
+	/**
+	 * Derives the prefixes to register a subscriber with from the patterns it matches the stripped messages against, with {@link RegexUtils#literalPrefixes(String)}.
+	 * The patterns must be matched at the start of the message, with {@link java.util.regex.Matcher#matches()} or {@link java.util.regex.Matcher#lookingAt()},
+	 * or anchored with {@code ^}. Patterns that are only searched for with {@link java.util.regex.Matcher#find()} have no prefixes and must not be passed here.
+	 *
+	 * @return the prefixes of all patterns, which contain an empty string if any of them has no usable prefix so that every message is received
+	 */
+	public static String[] prefixes(Pattern... patterns) {
+		List<String> prefixes = new ArrayList<>();
+
+		for (Pattern pattern : patterns) {
+			// Prefixes are matched case-sensitively against stripped messages, so they can neither ignore case nor contain formatting codes
+			List<String> patternPrefixes = (pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.LITERAL | Pattern.COMMENTS)) == 0 ? RegexUtils.literalPrefixes(pattern.pattern()).orElse(List.of("")) : List.of("");
+			if (patternPrefixes.stream().anyMatch(prefix -> prefix.indexOf(Formatting.FORMATTING_CODE_PREFIX) >= 0)) patternPrefixes = List.of("");
+			prefixes.addAll(patternPrefixes);
+		}
+
+		return prefixes.toArray(String[]::new);
+	}
+
+	private static void subscribe(String name, Channel channel, boolean skyblockOnly, List<String> prefixes, Object handler) {
+		SUBSCRIBERS.add(new Subscriber(name, channel, skyblockOnly, prefixes, handler));
+		dirty = true;
+	}
+
+	private static void rebuildIndex() {
+		BY_FIRST_TOKEN.clear();
+		Object2ObjectOpenHashMap<String, IntArrayList> byFirstToken = new Object2ObjectOpenHashMap<>();
+		IntArrayList partialToken = new IntArrayList();
+		IntArrayList unindexed = new IntArrayList();
+		everywhereSubscribers = new long[(SUBSCRIBERS.size() + 63) >>> 6];
+		hasEverywhereSubscribers = false;
+
+		for (int i = 0; i < SUBSCRIBERS.size(); i++) {
+			List<String> prefixes = SUBSCRIBERS.get(i).prefixes;
+
+			if (!SUBSCRIBERS.get(i).skyblockOnly) {
+				everywhereSubscribers[i >>> 6] |= 1L << i;
+				hasEverywhereSubscribers = true;
+			}
+
+			if (prefixes.isEmpty() || prefixes.contains("")) {
+				unindexed.add(i);
+				continue;
+			}
+
+			for (String prefix : prefixes) {
+				int space = prefix.indexOf(' ');
+				if (space >= 0) byFirstToken.computeIfAbsent(prefix.substring(0, space), token -> new IntArrayList()).add(i);
+				else if (!partialToken.contains(i)) partialToken.add(i);
+			}
+		}
+
+		byFirstToken.forEach((token, subscribers) -> BY_FIRST_TOKEN.put(token, subscribers.toIntArray()));
+		BY_FIRST_TOKEN.trim();
+		partialTokenSubscribers = partialToken.toIntArray();
+		unindexedSubscribers = unindexed.toIntArray();
+		candidates = new long[(SUBSCRIBERS.size() + 63) >>> 6];
+		dirty = false;
+	}
+
+	private static boolean allowMessage(Text text, boolean overlay) {
+		if (dirty) rebuildIndex();
+		boolean onSkyblock = Utils.isOnSkyblock();
+
+		if (!onSkyblock && !hasEverywhereSubscribers) {
+			lastMessage = null;
+			return true;
+		}
+
+		Message message = createMessage(text, overlay);
+		ChatFilterResult result = dispatch(message, onSkyblock);
+
+		switch (result) {
+			case ACTION_BAR -> {
+				if (overlay) return true;
+				ClientPlayerEntity player = MinecraftClient.getInstance().player;
+
+				if (player != null) {
+					player.sendMessage(text, true);
+					return false;
+				}
+			}
+			case FILTER -> {
+				return false;
+			}
+			default -> {}
+		}
+
+		return true;
+	}
+
+	private static Text modifyMessage(Text text, boolean overlay) {
+		if (dirty) rebuildIndex();
+		boolean onSkyblock = Utils.isOnSkyblock();
+		if (!onSkyblock && !hasEverywhereSubscribers) return text;
+		Message message = lastMessage != null && lastMessage.text() == text && lastMessage.overlay() == overlay ? lastMessage : createMessage(text, overlay);
+		lastMessage = null;
+		long[] routed = route(message, onSkyblock);
+		Text modified = text;
+
+		for (int word = 0; word < routed.length; word++) {
+			long bits = routed[word];
+
+			while (bits != 0) {
+				Subscriber subscriber = SUBSCRIBERS.get((word << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+				if (!(subscriber.handler instanceof Modifier modifier) || !subscriber.accepts(message)) continue;
+
+				long start = System.nanoTime();
+				Text result = modifier.modify(modified, message);
+				subscriber.timings.record(System.nanoTime() - start);
+
+				if (result != modified) {
+					subscriber.hits++;
+					modified = result;
+				}
+			}
+		}
+
+		return modified;
+	}
+
+	private static Message createMessage(Text text, boolean overlay) {
+		String raw = text.getString();
+		Message message = new Message(text, raw, Formatting.strip(raw), overlay);
+		lastMessage = message;
+		messages++;
+
+		return message;
+	}
+
+	private static ChatFilterResult dispatch(Message message, boolean onSkyblock) {
+		long[] routed = route(message, onSkyblock);
+
+		for (int word = 0; word < routed.length; word++) {
+			long bits = routed[word];
+
+			while (bits != 0) {
+				Subscriber subscriber = SUBSCRIBERS.get((word << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+				if (!(subscriber.handler instanceof Listener listener) || !subscriber.accepts(message)) continue;
+
+				long start = System.nanoTime();
+				ChatFilterResult result = listener.onMessage(message);
+				subscriber.timings.record(System.nanoTime() - start);
+
+				if (result != ChatFilterResult.PASS) {
+					subscriber.hits++;
+					return result;
+				}
+			}
+		}
+
+		return ChatFilterResult.PASS;
+	}
+
+	/**
+	 * Finds the subscribers that the message should be routed to.
+	 *
+	 * @param onSkyblock whether to route the message to Skyblock only subscribers
+	 * @return a bitmask of subscriber indices, which is reused between calls
+	 */
+	private static long[] route(Message message, boolean onSkyblock) {
+		String plain = message.plain();
+		int space = plain.indexOf(' ');
+		String firstToken = space >= 0 ? plain.substring(0, space) : plain;
+
+		Arrays.fill(candidates, 0);
+		for (int i : unindexedSubscribers) set(i);
+		for (int i : BY_FIRST_TOKEN.getOrDefault(firstToken, NO_SUBSCRIBERS)) {
+			if (SUBSCRIBERS.get(i).matchesPrefix(plain)) set(i);
+		}
+		for (int i : partialTokenSubscribers) {
+			if (SUBSCRIBERS.get(i).matchesPrefix(plain)) set(i);
+		}
+		if (!onSkyblock) {
+			for (int word = 0; word < candidates.length; word++) candidates[word] &= everywhereSubscribers[word];
+		}
+
+		return candidates;
+	}
+
+	private static void set(int index) {
+		candidates[index >>> 6] |= 1L << index;
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+		return literal("chat")
+				.executes(context -> {
+					FabricClientCommandSource source = context.getSource();
+					List<Subscriber> subscribers = SUBSCRIBERS.stream().sorted(Comparator.comparingLong((Subscriber subscriber) -> subscriber.timings.totalNanos()).reversed()).toList();
+					source.sendFeedback(Constants.PREFIX.get().append(String.format("Chat dispatcher: %d messages, %d subscribers (%d unindexed)", messages, SUBSCRIBERS.size(), unindexedSubscribers.length)));
+
+					for (Subscriber subscriber : subscribers.subList(0, Math.min(TIMINGS_SHOWN, subscribers.size()))) {
+						TaskTimings timings = subscriber.timings;
+						source.sendFeedback(Text.literal(timings.name()).formatted(Formatting.AQUA)
+								.append(Text.literal(String.format(" calls: %d, hits: %d, mean: %.1f µs, p99: %.1f µs", timings.count(), subscriber.hits, timings.meanNanos() / 1000, timings.percentileNanos(0.99) / 1000d)).formatted(Formatting.GRAY)));
+					}
+
+					return Command.SINGLE_SUCCESS;
+				})
+				.then(literal("reset")
+						.executes(context -> {
+							for (Subscriber subscriber : SUBSCRIBERS) {
+								subscriber.timings.reset();
+								subscriber.hits = 0;
+							}
+							messages = 0;
+							context.getSource().sendFeedback(Constants.PREFIX.get().append("Reset chat dispatcher statistics."));
+							return Command.SINGLE_SUCCESS;
+						}));
+	}
+
+	/**
+	 * A received game message.
+	 *
+	 * @param text    the original text
+	 * @param raw     the result of {@link Text#getString()}, which can still contain legacy formatting codes
+	 * @param plain   {@code raw} with formatting codes stripped
+	 * @param overlay whether the message is shown in the action bar
+	 */
+	public record Message(Text text, String raw, String plain, boolean overlay) {}
+
+	public enum Channel {
+		CHAT,
+		OVERLAY,
+		ALL
+	}
+
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * @return {@link ChatFilterResult#PASS} to let the next listeners handle the message, or another result to apply it to the message
+		 */
+		ChatFilterResult onMessage(Message message);
+	}
+
+	@FunctionalInterface
+	public interface Modifier {
+		/**
+		 * @param text    the text of the message, which previous modifiers may have replaced
+		 * @param message the original message
+		 * @return the new text, or {@code text} to leave it unchanged
+		 */
+		Text modify(Text text, Message message);
+	}
+
+	private static class Subscriber {
+		private final Channel channel;
+		private final boolean skyblockOnly;
+		private final List<String> prefixes;
+		private final Object handler;
+		private final TaskTimings timings;
+		private long hits;
+
+		private Subscriber(String name, Channel channel, boolean skyblockOnly, List<String> prefixes, Object handler) {
+			this.channel = channel;
+			this.skyblockOnly = skyblockOnly;
+			this.prefixes = List.copyOf(prefixes);
+			this.handler = handler;
+			this.timings = new TaskTimings(name);
+		}
+
+		private boolean accepts(Message message) {
+			return switch (channel) {
+				case CHAT -> !message.overlay();
+				case OVERLAY -> message.overlay();
+				case ALL -> true;
+			};
+		}
+
+		private boolean matchesPrefix(String plain) {
+			for (String prefix : prefixes) {
+				if (plain.startsWith(prefix)) return true;
+			}
+
+			return false;
+		}
+	}
+}
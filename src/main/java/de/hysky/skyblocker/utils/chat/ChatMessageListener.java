@@ -12,33 +12,15 @@ import de.hysky.skyblocker.skyblock.dwarven.Fetchur;
 import de.hysky.skyblocker.skyblock.dwarven.Puzzler;
 import de.hysky.skyblocker.skyblock.end.TitanicExperienceBottleAlert;
 import de.hysky.skyblocker.skyblock.galatea.SweepDetailsListener;
-import de.hysky.skyblocker.utils.Utils;
-import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
-import net.fabricmc.fabric.api.event.Event;
-import net.fabricmc.fabric.api.event.EventFactory;
-import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
+
+import java.util.List;
 
 @FunctionalInterface
 public interface ChatMessageListener {
 	/**
-	 * An event called when a game message is received. Register your listeners in {@link ChatMessageListener#init()}.
-	 */
-	Event<ChatMessageListener> EVENT = EventFactory.createArrayBacked(ChatMessageListener.class,
-			(listeners) -> (message, asString) -> {
-				for (ChatMessageListener listener : listeners) {
-					ChatFilterResult result = listener.onMessage(message, asString);
-					if (result != ChatFilterResult.PASS) return result;
-				}
-				return ChatFilterResult.PASS;
-			});
-
-	/**
-	 * Registers {@link ChatMessageListener}s to {@link ChatMessageListener#EVENT} and registers {@link ChatMessageListener#EVENT} to {@link ClientReceiveMessageEvents#ALLOW_GAME}
+	 * Registers {@link ChatMessageListener}s to the {@link ChatDispatcher}.
 	 */
-	@SuppressWarnings("incomplete-switch")
 	@Init
 	static void init() {
 		ChatMessageListener[] listeners = new ChatMessageListener[]{
@@ -72,41 +54,19 @@ public interface ChatMessageListener {
 				new DungeonBreakerFilter(),
 		};
 
-		// Register all listeners to EVENT
 		for (ChatMessageListener listener : listeners) {
-			EVENT.register(listener);
+			ChatDispatcher.register(listener);
 		}
-
-		// Register EVENT to ClientReceiveMessageEvents.ALLOW_GAME from fabric api
-		ClientReceiveMessageEvents.ALLOW_GAME.register((message, overlay) -> {
-			if (!Utils.isOnSkyblock()) {
-				return true;
-			}
-
-			ChatFilterResult result = EVENT.invoker().onMessage(message, Formatting.strip(message.getString()));
-
-			switch (result) {
-				case ACTION_BAR -> {
-					if (overlay) {
-						return true;
-					}
-
-					ClientPlayerEntity player = MinecraftClient.getInstance().player;
-
-					if (player != null) {
-						player.sendMessage(message, true);
-
-						return false;
-					}
-				}
-
-				case FILTER -> {
-					return false;
-				}
-			}
-			return true;
-		});
 	}
 
 	ChatFilterResult onMessage(Text message, String asString);
+
+	/**
+	 * The prefixes of the messages with formatting codes stripped that this listener handles, which the {@link ChatDispatcher} uses to route messages.
+	 *
+	 * @return the prefixes, or an empty list to receive every message
+	 */
+	default List<String> prefixes() {
+		return List.of();
+	}
 }
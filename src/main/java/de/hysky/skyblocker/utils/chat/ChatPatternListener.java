@@ -1,17 +1,27 @@
 package de.hysky.skyblocker.utils.chat;
 
+import de.hysky.skyblocker.utils.RegexUtils;
 import net.minecraft.text.Text;
 import org.intellij.lang.annotations.Language;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class ChatPatternListener implements ChatMessageListener {
     protected static final String NUMBER = "-?[0-9]{1,3}(?>,[0-9]{3})*(?:\\.[1-9])?";
     public final Pattern pattern;
+    private final List<String> prefixes;
 
     protected ChatPatternListener(@Language("RegExp") String pattern) {
         this.pattern = Pattern.compile(pattern);
+        // The pattern is only matched with Matcher#matches, so it is always anchored at the start of the message
+        this.prefixes = RegexUtils.literalPrefixes(pattern).orElse(List.of());
+    }
+
+    @Override
+    public List<String> prefixes() {
+        return prefixes;
     }
 
     @Override
@@ -15,4 +15,15 @@ public interface TooltipAdder extends ContainerMatcher {
 	void addToTooltip(@Nullable Slot focusedSlot, ItemStack stack, List<Text> lines);
 
 	int getPriority();
+
+	/**
+	 * Whether the lines added by this adder only depend on the stack, the focused slot, the tooltip data, and the config.
+	 * Lines of cacheable adders are cached by {@code TooltipManager} until the screen changes or new tooltip data is downloaded,
+	 * while other adders are called again on every frame. Cacheable adders must only append lines and not change existing ones.
+	 *
+	 * @return If the lines added by this adder can be cached.
+	 */
+	default boolean isCacheable() {
+		return false;
+	}
 }
@@ -0,0 +1,31 @@
+package de.hysky.skyblocker.utils.data;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single background thread that all {@link JsonData} files are written on, so that saving never blocks the render thread
+ * and the different data files don't compete for disk access with a thread each.
+ *
+ * @see JsonData#save()
+ */
+final class DataPersistence {
+	/**
+	 * How long debounced saves wait for further changes before writing, so that bursts of changes are written once.
+	 */
+	static final long DEBOUNCE_MILLIS = 2000;
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Skyblocker Data Persistence");
+		// Shutdown saves are waited on in CLIENT_STOPPING, so the thread doesn't need to keep the game alive
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private DataPersistence() {}
+
+	static ScheduledFuture<?> schedule(Runnable write, long delayMillis) {
+		return EXECUTOR.schedule(write, delayMillis, TimeUnit.MILLISECONDS);
+	}
+}
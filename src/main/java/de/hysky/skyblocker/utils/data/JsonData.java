@@ -1,10 +1,12 @@
 package de.hysky.skyblocker.utils.data;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import de.hysky.skyblocker.SkyblockerMod;
+import de.hysky.skyblocker.utils.FileUtils;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.minecraft.util.StringIdentifiable;
 import org.jetbrains.annotations.NotNull;
@@ -14,11 +16,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class JsonData<T> {
 	private static final Logger LOGGER = LoggerFactory.getLogger(JsonData.class);
@@ -29,10 +38,26 @@ public class JsonData<T> {
 	private final boolean compressed; // Default: false
 	private final boolean loadAsync;  // Default: true
 	private final boolean saveAsync;  // Default: false
+	private final boolean gzip;       // Default: false
 	@NotNull
 	private T data; // Default: defaultValue
 	@Nullable
 	private CompletableFuture<Void> loaded;
+	/**
+	 * Completes when the next write has finished, or {@code null} if no write is pending. Guarded by {@code this}.
+	 */
+	@Nullable
+	private CompletableFuture<Void> pendingSave;
+	/**
+	 * The data of {@link #pendingSave} encoded on the thread that requested the save. Guarded by {@code this}.
+	 */
+	@Nullable
+	private JsonElement pendingJson;
+	/**
+	 * The scheduled write for {@link #pendingSave}. Guarded by {@code this}.
+	 */
+	@Nullable
+	private ScheduledFuture<?> scheduledWrite;
 
 	/**
 	 * @param file         The file to load/save the data from/to.
@@ -48,7 +73,7 @@ public class JsonData<T> {
 	 * @param codec        The codec to use for serializing/deserializing the data.
 	 * @param defaultValue The default value of {@link #data} to use in case the file does not exist yet.
 	 * @param loadAsync    Whether the data should be loaded asynchronously.
-	 * @param saveAsync    Whether the data should be saved asynchronously.
+	 * @param saveAsync    Whether saves should be debounced, see {@link #save()}.
 	 */
 	public JsonData(@NotNull Path file, @NotNull Codec<T> codec, @NotNull T defaultValue, boolean loadAsync, boolean saveAsync) {
 		this(file, codec, defaultValue, false, loadAsync, saveAsync);
@@ -76,16 +101,33 @@ public class JsonData<T> {
 	 *                     When compressed, codecs built with {@link RecordCodecBuilder} will be serialized as a list instead of a map.
 	 *                     {@link JsonOps#COMPRESSED} is required for maps with non-string keys.
 	 * @param loadAsync    Whether the data should be loaded asynchronously.
-	 * @param saveAsync    Whether the data should be saved asynchronously.
-	 *                     Do not save async if saving is done with {@link ClientLifecycleEvents#CLIENT_STOPPING}.
+	 * @param saveAsync    Whether saves should be debounced, see {@link #save()}.
 	 */
 	public JsonData(@NotNull Path file, @NotNull Codec<T> codec, @NotNull T defaultValue, boolean compressed, boolean loadAsync, boolean saveAsync) {
+		this(file, codec, defaultValue, compressed, loadAsync, saveAsync, false);
+	}
+
+	/**
+	 * @param file         The file to load/save the data from/to.
+	 * @param codec        The codec to use for serializing/deserializing the data.
+	 * @param defaultValue The default value of {@link #data} to use in case the file does not exist yet.
+	 * @param compressed   Whether the {@link JsonOps#COMPRESSED} should be used.
+	 *                     When compressed, {@link StringIdentifiable#createCodec(Supplier)} will use the ordinals instead of {@link StringIdentifiable#asString()}.
+	 *                     When compressed, codecs built with {@link RecordCodecBuilder} will be serialized as a list instead of a map.
+	 *                     {@link JsonOps#COMPRESSED} is required for maps with non-string keys.
+	 * @param loadAsync    Whether the data should be loaded asynchronously.
+	 * @param saveAsync    Whether saves should be debounced, see {@link #save()}.
+	 * @param gzip         Whether the data should be stored gzipped in a {@code .gz} file next to {@code file}, for large data such as caches that aren't meant to be edited by hand.
+	 *                     An existing plain file is still loaded and is replaced by the gzipped file on the next save.
+	 */
+	public JsonData(@NotNull Path file, @NotNull Codec<T> codec, @NotNull T defaultValue, boolean compressed, boolean loadAsync, boolean saveAsync, boolean gzip) {
 		this.file = file;
 		this.codec = codec;
 		this.data = defaultValue;
 		this.compressed = compressed;
 		this.loadAsync = loadAsync;
 		this.saveAsync = saveAsync;
+		this.gzip = gzip;
 	}
 
 	/**
@@ -97,8 +139,11 @@ public class JsonData<T> {
 	 * There's no need to set the data manually with the result of the completed future, as that is already done in {@link #loadInternal()}.
 	 */
 	public CompletableFuture<Void> init() {
-		// Make sure saving always completes by waiting on the save CompletableFuture.
-		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> save().join());
+		// Make sure saving always completes by writing immediately and waiting on the save CompletableFuture.
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+			save();
+			flush().join();
+		});
 		return load();
 	}
 
@@ -114,7 +159,9 @@ public class JsonData<T> {
 
 	// Note: JsonOps.COMPRESSED must be used if you're using maps with non-string keys
 	private void loadInternal() {
-		try (BufferedReader reader = Files.newBufferedReader(file)) {
+		Path gzipFile = getGzipFile();
+		boolean readGzip = gzip && Files.exists(gzipFile);
+		try (BufferedReader reader = readGzip ? new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(gzipFile)), StandardCharsets.UTF_8)) : Files.newBufferedReader(file)) {
 			// Atomic operation to prevent concurrent modification
 			data = codec.parse(compressed ? JsonOps.COMPRESSED : JsonOps.INSTANCE, SkyblockerMod.GSON.fromJson(reader, JsonObject.class)).getOrThrow();
 		} catch (NoSuchFileException ignored) {
@@ -123,16 +170,71 @@ public class JsonData<T> {
 		}
 	}
 
+	/**
+	 * Encodes the data on the calling thread and schedules it to be written on the {@link DataPersistence persistence thread},
+	 * so the data is never read while another thread modifies it and the file is never written on the calling thread.
+	 * Saves requested before the write starts are coalesced into one write of the latest encoded data.
+	 * <p>
+	 * With {@link #saveAsync} the write waits {@link DataPersistence#DEBOUNCE_MILLIS} for further changes first,
+	 * otherwise it is written as soon as the persistence thread is free.
+	 *
+	 * @return A CompletableFuture that completes when data including the current changes has been written.
+	 */
 	public CompletableFuture<Void> save() {
-		if (saveAsync) {
-			return CompletableFuture.runAsync(this::saveInternal);
-		} else {
-			saveInternal();
+		JsonElement json;
+		try {
+			json = encode();
+		} catch (Exception e) {
+			LOGGER.error("[Skyblocker Json Data] Failed to encode data for file: `{}`", file, e);
 			return CompletableFuture.completedFuture(null);
 		}
+
+		synchronized (this) {
+			pendingJson = json;
+			if (pendingSave == null) {
+				pendingSave = new CompletableFuture<>();
+				scheduledWrite = DataPersistence.schedule(this::write, saveAsync ? DataPersistence.DEBOUNCE_MILLIS : 0);
+			}
+			return pendingSave;
+		}
+	}
+
+	/**
+	 * Writes the pending save, if any, without waiting for the debounce delay.
+	 *
+	 * @return A CompletableFuture that completes when the pending save has been written.
+	 */
+	public synchronized CompletableFuture<Void> flush() {
+		if (pendingSave == null) return CompletableFuture.completedFuture(null);
+
+		// If the write already started, it will complete the pending save on its own
+		if (scheduledWrite != null && scheduledWrite.cancel(false)) {
+			scheduledWrite = DataPersistence.schedule(this::write, 0);
+		}
+		return pendingSave;
+	}
+
+	private void write() {
+		CompletableFuture<Void> future;
+		JsonElement json;
+		synchronized (this) {
+			future = pendingSave;
+			json = pendingJson;
+			pendingSave = null;
+			pendingJson = null;
+			scheduledWrite = null;
+		}
+		if (future == null) return;
+
+		try {
+			saveInternal(json);
+		} catch (Exception e) {
+			LOGGER.error("[Skyblocker Json Data] Failed to save data to file: `{}`", file, e);
+		}
+		future.complete(null);
 	}
 
-	private void saveInternal() {
+	private JsonElement encode() {
 		if (loaded == null) {
 			LOGGER.error("[Skyblocker Json Data] Save data called when loading has not started for file `{}`. This will override the contents of the file with the default value.", file);
 		} else if (!isLoaded()) {
@@ -140,17 +242,24 @@ public class JsonData<T> {
 			loaded.join();
 		}
 
-		try {
-			Files.createDirectories(file.getParent());
-		} catch (Exception e) {
-			LOGGER.error("[Skyblocker Json Data] Failed to create directories for file: `{}`", file, e);
-		}
+		return codec.encodeStart(compressed ? JsonOps.COMPRESSED : JsonOps.INSTANCE, data).getOrThrow();
+	}
 
-		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
-			SkyblockerMod.GSON.toJson(codec.encodeStart(compressed ? JsonOps.COMPRESSED : JsonOps.INSTANCE, data).getOrThrow(), writer);
-		} catch (Exception e) {
-			LOGGER.error("[Skyblocker Json Data] Failed to save data to file: `{}`", file, e);
+	private void saveInternal(JsonElement json) throws IOException {
+		Path target = gzip ? getGzipFile() : file;
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		Files.createDirectories(target.getParent());
+
+		try (BufferedWriter writer = gzip ? new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8)) : Files.newBufferedWriter(temp)) {
+			SkyblockerMod.GSON.toJson(json, writer);
 		}
+		FileUtils.replace(temp, target);
+		// The plain file was migrated to the gzipped file
+		if (gzip) Files.deleteIfExists(file);
+	}
+
+	private Path getGzipFile() {
+		return file.resolveSibling(file.getFileName() + ".gz");
 	}
 
 	/**
@@ -5,7 +5,6 @@ import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import de.hysky.skyblocker.utils.Utils;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.minecraft.util.StringIdentifiable;
 import net.minecraft.util.Uuids;
 import org.jetbrains.annotations.NotNull;
@@ -46,8 +45,7 @@ public class ProfiledData<T> extends JsonData<Object2ObjectOpenHashMap<UUID, Obj
 	 * @param file      The file to load/save the data from/to.
 	 * @param codec     The codec to use for serializing/deserializing the data.
 	 * @param loadAsync Whether the data should be loaded asynchronously. Default true.
-	 * @param saveAsync Whether the data should be saved asynchronously. Default false.
-	 *                  Do not save async if saving is done with {@link ClientLifecycleEvents#CLIENT_STOPPING}.
+	 * @param saveAsync Whether saves should be debounced, see {@link JsonData#save()}. Default false.
 	 */
 	public ProfiledData(@NotNull Path file, @NotNull Codec<T> codec, boolean loadAsync, boolean saveAsync) {
 		this(file, codec, false, loadAsync, saveAsync);
@@ -61,10 +59,24 @@ public class ProfiledData<T> extends JsonData<Object2ObjectOpenHashMap<UUID, Obj
 	 *                   When compressed, codecs built with {@link RecordCodecBuilder} will be serialized as a list instead of a map.
 	 *                   {@link JsonOps#COMPRESSED} is required for maps with non-string keys.
 	 * @param loadAsync  Whether the data should be loaded asynchronously. Default true.
-	 * @param saveAsync  Whether the data should be saved asynchronously. Default false.
-	 *                   Do not save async if saving is done with {@link ClientLifecycleEvents#CLIENT_STOPPING}.
+	 * @param saveAsync  Whether saves should be debounced, see {@link JsonData#save()}. Default false.
 	 */
 	public ProfiledData(@NotNull Path file, @NotNull Codec<T> codec, boolean compressed, boolean loadAsync, boolean saveAsync) {
+		this(file, codec, compressed, loadAsync, saveAsync, false);
+	}
+
+	/**
+	 * @param file       The file to load/save the data from/to.
+	 * @param codec      The codec to use for serializing/deserializing the data.
+	 * @param compressed Whether the {@link JsonOps#COMPRESSED} should be used.
+	 *                   When compressed, {@link StringIdentifiable#createCodec(Supplier)} will use the ordinals instead of {@link StringIdentifiable#asString()}.
+	 *                   When compressed, codecs built with {@link RecordCodecBuilder} will be serialized as a list instead of a map.
+	 *                   {@link JsonOps#COMPRESSED} is required for maps with non-string keys.
+	 * @param loadAsync  Whether the data should be loaded asynchronously. Default true.
+	 * @param saveAsync  Whether saves should be debounced, see {@link JsonData#save()}. Default false.
+	 * @param gzip       Whether the data should be stored gzipped, for large stores that grow with every profile. Default false.
+	 */
+	public ProfiledData(@NotNull Path file, @NotNull Codec<T> codec, boolean compressed, boolean loadAsync, boolean saveAsync, boolean gzip) {
 		super(file,
 				// Mojang's internal Codec implementation uses ImmutableMaps so we'll just xmap those away and type safety while we're at it :')
 				Codec.unboundedMap(Uuids.CODEC,
@@ -73,7 +85,8 @@ public class ProfiledData<T> extends JsonData<Object2ObjectOpenHashMap<UUID, Obj
 				new Object2ObjectOpenHashMap<>(),
 				compressed,
 				loadAsync,
-				saveAsync);
+				saveAsync,
+				gzip);
 	}
 
 	/**
@@ -0,0 +1,255 @@
+package de.hysky.skyblocker.utils.locator;
+
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.Vec3i;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Locates a target from samples of the distance to it measured at different positions, such as the distances shown by the metal detector.
+ * <p>
+ * Each sample is added to the normal equations of the linearized problem in constant time, which give an initial estimate once
+ * the samples are spread in all three dimensions. The estimate is then refined with a few Gauss-Newton iterations of the actual distances,
+ * weighted with the Huber loss so that a wrong sample, such as one measured while the player was moving, doesn't throw off the result.
+ * <p>
+ * Features that know where the target can be can instead use {@link #ringCandidates(Vec3d, double, double)} to list the candidates
+ * at the first distance, and filter them with {@link #isConsistent(Vec3d, Vec3d, double, double)} as more samples arrive.
+ */
+public final class DistanceLocator {
+	private static final int MIN_SAMPLES = 5;
+	private static final int MAX_ITERATIONS = 10;
+	private static final double SINGULAR_TOLERANCE = 1e-9;
+	private final double tolerance;
+	private final List<Sample> samples = new ArrayList<>();
+	/**
+	 * The position of the first sample. The other samples are stored relative to it to keep the sums small.
+	 */
+	@Nullable
+	private Vec3d reference;
+	/**
+	 * The normal equations of {@code -2 p . x + |x|^2 = r^2 - |p|^2} with the unknowns {@code x, y, z} and {@code |x|^2}, stored row major.
+	 */
+	private final double[] normal = new double[16];
+	private final double[] rhs = new double[4];
+	@Nullable
+	private Estimate estimate;
+	private boolean dirty;
+
+	/**
+	 * @param tolerance the maximum error of a measured distance, such as {@code 0.25} for distances rounded to a tenth of a block with some slack
+	 */
+	public DistanceLocator(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	public void addSample(Vec3d position, double distance) {
+		if (reference == null) reference = position;
+		Vec3d relative = position.subtract(reference);
+		samples.add(new Sample(relative, distance));
+
+		double[] row = {-2 * relative.x, -2 * relative.y, -2 * relative.z, 1};
+		double value = distance * distance - relative.lengthSquared();
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				normal[i * 4 + j] += row[i] * row[j];
+			}
+			rhs[i] += row[i] * value;
+		}
+		dirty = true;
+	}
+
+	public int getSamples() {
+		return samples.size();
+	}
+
+	/**
+	 * @return the estimated position of the target, or {@code null} if there are not enough samples or they are all in a plane or on a line,
+	 * in which case the target can't be told apart from its mirror image
+	 */
+	@Nullable
+	public Estimate getEstimate() {
+		if (dirty) {
+			estimate = computeEstimate();
+			dirty = false;
+		}
+		return estimate;
+	}
+
+	@Nullable
+	private Estimate computeEstimate() {
+		if (samples.size() < MIN_SAMPLES || reference == null) return null;
+		double[] solution = solve(normal.clone(), rhs.clone(), 4);
+		if (solution == null) return null;
+
+		double x = solution[0], y = solution[1], z = solution[2];
+		double[] jtj = new double[9];
+		double sigmaSquared = tolerance * tolerance;
+
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			Arrays.fill(jtj, 0);
+			double[] jtr = new double[3];
+			double weightedResiduals = 0;
+			double weights = 0;
+
+			for (Sample sample : samples) {
+				double dx = x - sample.position.x, dy = y - sample.position.y, dz = z - sample.position.z;
+				double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+				if (length == 0) continue;
+				double residual = length - sample.distance;
+				double weight = Math.abs(residual) <= tolerance ? 1 : tolerance / Math.abs(residual);
+				double[] jacobian = {dx / length, dy / length, dz / length};
+
+				for (int i = 0; i < 3; i++) {
+					for (int j = 0; j < 3; j++) {
+						jtj[i * 3 + j] += weight * jacobian[i] * jacobian[j];
+					}
+					jtr[i] -= weight * jacobian[i] * residual;
+				}
+				weightedResiduals += weight * residual * residual;
+				weights += weight;
+			}
+
+			double[] step = solve(jtj.clone(), jtr, 3);
+			if (step == null) return null;
+			x += step[0];
+			y += step[1];
+			z += step[2];
+			sigmaSquared = Math.max(weightedResiduals / Math.max(weights - 3, 1), tolerance * tolerance / 3);
+			if (step[0] * step[0] + step[1] * step[1] + step[2] * step[2] < 1e-8) break;
+		}
+
+		// The covariance of the position is sigma^2 (J^T W J)^-1, the radius is the square root of its trace
+		double trace = 0;
+		for (int i = 0; i < 3; i++) {
+			double[] unit = new double[3];
+			unit[i] = 1;
+			double[] column = solve(jtj.clone(), unit, 3);
+			if (column == null) return null;
+			trace += column[i];
+		}
+
+		return new Estimate(reference.add(x, y, z), Math.sqrt(sigmaSquared * trace));
+	}
+
+	/**
+	 * Solves the linear system with Gaussian elimination with partial pivoting, overwriting the arguments.
+	 *
+	 * @return the solution, or {@code null} if the matrix is singular
+	 */
+	@Nullable
+	private static double[] solve(double[] matrix, double[] vector, int n) {
+		double scale = 0;
+		for (int i = 0; i < n; i++) {
+			scale = Math.max(scale, Math.abs(matrix[i * n + i]));
+		}
+		if (scale == 0) return null;
+
+		for (int column = 0; column < n; column++) {
+			int pivot = column;
+			for (int row = column + 1; row < n; row++) {
+				if (Math.abs(matrix[row * n + column]) > Math.abs(matrix[pivot * n + column])) pivot = row;
+			}
+			if (!(Math.abs(matrix[pivot * n + column]) > SINGULAR_TOLERANCE * scale)) return null;
+
+			if (pivot != column) {
+				for (int k = 0; k < n; k++) {
+					double swap = matrix[column * n + k];
+					matrix[column * n + k] = matrix[pivot * n + k];
+					matrix[pivot * n + k] = swap;
+				}
+				double swap = vector[column];
+				vector[column] = vector[pivot];
+				vector[pivot] = swap;
+			}
+
+			for (int row = column + 1; row < n; row++) {
+				double factor = matrix[row * n + column] / matrix[column * n + column];
+				for (int k = column; k < n; k++) {
+					matrix[row * n + k] -= factor * matrix[column * n + k];
+				}
+				vector[row] -= factor * vector[column];
+			}
+		}
+
+		double[] solution = new double[n];
+		for (int row = n - 1; row >= 0; row--) {
+			double sum = vector[row];
+			for (int k = row + 1; k < n; k++) {
+				sum -= matrix[row * n + k] * solution[k];
+			}
+			solution[row] = sum / matrix[row * n + row];
+		}
+		return solution;
+	}
+
+	public void reset() {
+		samples.clear();
+		reference = null;
+		Arrays.fill(normal, 0);
+		Arrays.fill(rhs, 0);
+		estimate = null;
+		dirty = false;
+	}
+
+	/**
+	 * @return whether the distance from the position to the candidate is within the tolerance of the measured distance
+	 */
+	public static boolean isConsistent(Vec3d position, Vec3d candidate, double distance, double tolerance) {
+		return Math.abs(position.distanceTo(candidate) - distance) < tolerance;
+	}
+
+	/**
+	 * Lists the block positions at the height of the center whose distance from the center is within the tolerance of the distance, in order of x and then z.
+	 * <p>
+	 * Only the blocks near the ring are visited: for each x, the range of z where the distance can match is computed directly,
+	 * so this takes time proportional to the distance instead of its square.
+	 *
+	 * @param center    the position the distance was measured at, whose block coordinates are the origin of the offsets
+	 * @param distance  the measured distance
+	 * @param tolerance the maximum difference between the measured and the actual distance
+	 */
+	public static List<Vec3i> ringCandidates(Vec3d center, double distance, double tolerance) {
+		List<Vec3i> candidates = new ArrayList<>();
+		int originX = (int) center.x, originY = (int) center.y, originZ = (int) center.z;
+		double dy = originY - center.y;
+		double inner = distance - tolerance, outer = distance + tolerance;
+		double innerSquared = inner > 0 ? inner * inner : 0;
+		double outerSquared = outer * outer;
+		int max = (int) distance;
+
+		for (int x = -max; x <= distance; x++) {
+			double dx = originX + x - center.x;
+			double remainingOuter = outerSquared - dx * dx - dy * dy;
+			if (remainingOuter <= 0) continue;
+			double remainingInner = innerSquared - dx * dx - dy * dy;
+
+			// The offset of the block from the center along z must be between these, on either side of the center
+			double maxOffset = Math.sqrt(remainingOuter);
+			double minOffset = remainingInner > 0 ? Math.sqrt(remainingInner) : 0;
+			double shift = originZ - center.z;
+
+			// Widened by one block on each side and then checked exactly, so that rounding can't drop a block
+			int lowStart = Math.max((int) Math.floor(-maxOffset - shift) - 1, -max);
+			int lowEnd = Math.min((int) Math.ceil(-minOffset - shift) + 1, max);
+			int highStart = Math.max((int) Math.floor(minOffset - shift) - 1, Math.max(lowEnd + 1, -max));
+			int highEnd = Math.min((int) Math.ceil(maxOffset - shift) + 1, max);
+
+			addRingCandidates(candidates, center, distance, tolerance, originX + x, originY, originZ, lowStart, lowEnd);
+			addRingCandidates(candidates, center, distance, tolerance, originX + x, originY, originZ, highStart, highEnd);
+		}
+
+		return candidates;
+	}
+
+	private static void addRingCandidates(List<Vec3i> candidates, Vec3d center, double distance, double tolerance, int x, int y, int originZ, int start, int end) {
+		for (int z = start; z <= end; z++) {
+			Vec3i candidate = new Vec3i(x, y, originZ + z);
+			if (isConsistent(center, Vec3d.of(candidate), distance, tolerance)) candidates.add(candidate);
+		}
+	}
+
+	private record Sample(Vec3d position, double distance) {}
+}
@@ -0,0 +1,11 @@
+package de.hysky.skyblocker.utils.locator;
+
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * An estimated location of a target.
+ *
+ * @param position the most likely position of the target
+ * @param radius   the radius of the region around the position that the target is expected to be in, which shrinks as more consistent samples are added
+ */
+public record Estimate(Vec3d position, double radius) {}
@@ -0,0 +1,202 @@
+package de.hysky.skyblocker.utils.locator;
+
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Finds the point closest to a set of rays in the least squares sense, such as the lines of particle trails pointing at a target.
+ * <p>
+ * Each ray only adds to the normal equations, so adding a ray and solving take constant time no matter how many rays were added.
+ * The radius of the {@link Estimate} is the root mean square distance from the point to the rays, so two rays that pass each other
+ * at a distance of {@code d} give a radius of {@code d / 2}.
+ * <p>
+ * For exactly two rays, the point is computed directly from the closest points of the two rays instead, which is the same point
+ * without the round-off of the normal equations.
+ */
+public final class RayIntersection {
+	/**
+	 * The normal equations are considered singular, meaning that the rays are parallel, when their determinant is this small relative to their scale.
+	 */
+	private static final double SINGULAR_TOLERANCE = 1e-9;
+	/**
+	 * The angular error that trails are clamped to when weighting them, so that a perfectly straight trail doesn't get an infinite weight.
+	 */
+	private static final double MIN_ANGULAR_ERROR = 1e-4;
+	private final boolean horizontal;
+	/**
+	 * The origin of the first ray. The other rays are stored relative to it to keep the sums small.
+	 */
+	@Nullable
+	private Vec3d reference;
+	// The sum of the projections perpendicular to each ray, I - d d^T, weighted, which is symmetric
+	private double a00, a01, a02, a11, a12, a22;
+	// The sum of the projections applied to the origin of each ray
+	private double b0, b1, b2;
+	// The sum of the squared distances from the reference to each ray, used to compute the residual
+	private double c;
+	private double weights;
+	private int rays;
+	// The first two rays as given, for solving two rays directly
+	private Vec3d firstOrigin, firstDirection, secondOrigin, secondDirection;
+	private double firstWeight, secondWeight;
+
+	/**
+	 * @param horizontal whether to ignore the height of the rays and intersect them in the horizontal plane, in which case
+	 *                   the height of the estimate is the height of the first ray
+	 */
+	public RayIntersection(boolean horizontal) {
+		this.horizontal = horizontal;
+	}
+
+	/**
+	 * Adds the line fitted to the trail, weighted by the inverse of the squared angular error of the trail so that straighter trails count more.
+	 *
+	 * @return whether the trail had a direction and was added
+	 */
+	public boolean add(TrailFit trail) {
+		Vec3d centroid = trail.getCentroid();
+		Vec3d direction = trail.getDirection();
+		if (centroid == null || direction == null) return false;
+		double error = Math.max(trail.getAngularError(), MIN_ANGULAR_ERROR);
+		if (error == Double.POSITIVE_INFINITY) return false;
+		add(centroid, direction, 1 / (error * error));
+		return true;
+	}
+
+	public void add(Vec3d origin, Vec3d direction) {
+		add(origin, direction, 1);
+	}
+
+	/**
+	 * @param direction the direction of the ray, which doesn't have to be normalized
+	 * @param weight    how much the ray counts, such as the inverse of the squared angular error of the trail it was fitted to
+	 */
+	public void add(Vec3d origin, Vec3d direction, double weight) {
+		double dx = direction.x;
+		double dy = horizontal ? 0 : direction.y;
+		double dz = direction.z;
+		double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		if (length == 0 || !(weight > 0)) return;
+		if (rays == 0) {
+			firstOrigin = origin;
+			firstDirection = new Vec3d(dx, dy, dz);
+			firstWeight = weight;
+		} else if (rays == 1) {
+			secondOrigin = origin;
+			secondDirection = new Vec3d(dx, dy, dz);
+			secondWeight = weight;
+		}
+		dx /= length;
+		dy /= length;
+		dz /= length;
+
+		if (reference == null) reference = origin;
+		double px = origin.x - reference.x;
+		double py = horizontal ? 0 : origin.y - reference.y;
+		double pz = origin.z - reference.z;
+
+		double m00 = 1 - dx * dx, m01 = -dx * dy, m02 = -dx * dz;
+		double m11 = 1 - dy * dy, m12 = -dy * dz, m22 = 1 - dz * dz;
+		double mp0 = m00 * px + m01 * py + m02 * pz;
+		double mp1 = m01 * px + m11 * py + m12 * pz;
+		double mp2 = m02 * px + m12 * py + m22 * pz;
+
+		a00 += weight * m00;
+		a01 += weight * m01;
+		a02 += weight * m02;
+		a11 += weight * m11;
+		a12 += weight * m12;
+		a22 += weight * m22;
+		b0 += weight * mp0;
+		b1 += weight * mp1;
+		b2 += weight * mp2;
+		c += weight * (px * mp0 + py * mp1 + pz * mp2);
+		weights += weight;
+		rays++;
+	}
+
+	public int getRays() {
+		return rays;
+	}
+
+	/**
+	 * @return the point closest to the rays, or {@code null} if there are fewer than two rays or the rays are parallel
+	 */
+	@Nullable
+	public Estimate solve() {
+		if (rays < 2 || reference == null) return null;
+		if (rays == 2) return solvePair();
+		double x, y, z;
+
+		if (horizontal) {
+			double det = a00 * a22 - a02 * a02;
+			double scale = (a00 + a22) / 2;
+			if (!(Math.abs(det) > SINGULAR_TOLERANCE * scale * scale)) return null;
+
+			x = (a22 * b0 - a02 * b2) / det;
+			y = 0;
+			z = (a00 * b2 - a02 * b0) / det;
+		} else {
+			double c00 = a11 * a22 - a12 * a12;
+			double c01 = a02 * a12 - a01 * a22;
+			double c02 = a01 * a12 - a02 * a11;
+			double c11 = a00 * a22 - a02 * a02;
+			double c12 = a01 * a02 - a00 * a12;
+			double c22 = a00 * a11 - a01 * a01;
+			double det = a00 * c00 + a01 * c01 + a02 * c02;
+			double scale = (a00 + a11 + a22) / 3;
+			if (!(Math.abs(det) > SINGULAR_TOLERANCE * scale * scale * scale)) return null;
+
+			x = (c00 * b0 + c01 * b1 + c02 * b2) / det;
+			y = (c01 * b0 + c11 * b1 + c12 * b2) / det;
+			z = (c02 * b0 + c12 * b1 + c22 * b2) / det;
+		}
+
+		// The sum of the squared distances is x^T A x - 2 b^T x + c
+		double ax0 = a00 * x + a01 * y + a02 * z;
+		double ax1 = a01 * x + a11 * y + a12 * z;
+		double ax2 = a02 * x + a12 * y + a22 * z;
+		double residual = x * ax0 + y * ax1 + z * ax2 - 2 * (b0 * x + b1 * y + b2 * z) + c;
+
+		return new Estimate(reference.add(x, y, z), Math.sqrt(Math.max(residual, 0) / weights));
+	}
+
+	/**
+	 * Finds the closest points of the two lines, and returns their average weighted by the weights of the rays.
+	 */
+	@Nullable
+	private Estimate solvePair() {
+		Vec3d offset = firstOrigin.subtract(secondOrigin);
+		double wx = offset.x, wy = horizontal ? 0 : offset.y, wz = offset.z;
+		Vec3d d1 = firstDirection, d2 = secondDirection;
+		double a = d1.lengthSquared();
+		double b = d1.x * d2.x + d1.y * d2.y + d1.z * d2.z;
+		double c = d2.lengthSquared();
+		double d = d1.x * wx + d1.y * wy + d1.z * wz;
+		double e = d2.x * wx + d2.y * wy + d2.z * wz;
+		double denominator = a * c - b * b;
+		if (!(denominator > SINGULAR_TOLERANCE * a * c)) return null;
+
+		double t = (b * e - c * d) / denominator;
+		double s = (a * e - b * d) / denominator;
+		Vec3d closestOne = firstOrigin.add(d1.multiply(t));
+		Vec3d closestTwo = new Vec3d(secondOrigin.x, horizontal ? firstOrigin.y : secondOrigin.y, secondOrigin.z).add(d2.multiply(s));
+		double distance = closestOne.distanceTo(closestTwo);
+		double total = firstWeight + secondWeight;
+
+		// The weighted squared distances are smallest where the distance to each ray is inversely proportional to its weight
+		Vec3d position = firstWeight == secondWeight ? closestOne.add(closestTwo).multiply(0.5) : closestOne.multiply(firstWeight / total).add(closestTwo.multiply(secondWeight / total));
+		return new Estimate(position, distance * Math.sqrt(firstWeight * secondWeight) / total);
+	}
+
+	public void reset() {
+		reference = null;
+		a00 = a01 = a02 = a11 = a12 = a22 = 0;
+		b0 = b1 = b2 = 0;
+		c = 0;
+		weights = 0;
+		rays = 0;
+		firstOrigin = firstDirection = secondOrigin = secondDirection = null;
+		firstWeight = secondWeight = 0;
+	}
+}
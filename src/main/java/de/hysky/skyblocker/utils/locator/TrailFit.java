@@ -0,0 +1,134 @@
+package de.hysky.skyblocker.utils.locator;
+
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fits a line to the points of a particle trail as they arrive, such as the trail of a wishing compass or of a griffin burrow.
+ * <p>
+ * The mean and the scatter matrix of the points are updated incrementally, and the direction of the line is the principal axis of the scatter,
+ * so every point counts equally and trails pointing in any direction, including straight along an axis, are handled the same way.
+ * The {@link #getAngularError() angular error} tells how well the points determine the direction, which lets callers stop collecting points
+ * as soon as the direction is known well enough.
+ */
+public final class TrailFit {
+	private static final int POWER_ITERATIONS = 16;
+	private final boolean horizontal;
+	@Nullable
+	private Vec3d first;
+	@Nullable
+	private Vec3d last;
+	private int size;
+	private double meanX, meanY, meanZ;
+	// The scatter matrix, the sum of the outer products of the deviations from the mean, which is symmetric
+	private double sxx, sxy, sxz, syy, syz, szz;
+
+	/**
+	 * @param horizontal whether to ignore the height of the points and fit a horizontal line
+	 */
+	public TrailFit(boolean horizontal) {
+		this.horizontal = horizontal;
+	}
+
+	public void add(Vec3d point) {
+		if (first == null) first = point;
+		last = point;
+		size++;
+
+		// Welford's update, which stays accurate for points far from the origin
+		double dx = point.x - meanX;
+		double dy = horizontal ? 0 : point.y - meanY;
+		double dz = point.z - meanZ;
+		meanX += dx / size;
+		meanY += horizontal ? 0 : dy / size;
+		meanZ += dz / size;
+		double ex = point.x - meanX;
+		double ey = horizontal ? 0 : point.y - meanY;
+		double ez = point.z - meanZ;
+
+		sxx += dx * ex;
+		sxy += dx * ey;
+		sxz += dx * ez;
+		syy += dy * ey;
+		syz += dy * ez;
+		szz += dz * ez;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the mean of the points, which the line passes through, or {@code null} if there are no points. The height is that of the first point for horizontal fits.
+	 */
+	@Nullable
+	public Vec3d getCentroid() {
+		if (first == null) return null;
+		return new Vec3d(meanX, horizontal ? first.y : meanY, meanZ);
+	}
+
+	/**
+	 * @return the normalized direction of the line, pointing from the first point towards the latest point, or {@code null} if there are fewer than two distinct points
+	 */
+	@Nullable
+	public Vec3d getDirection() {
+		if (size < 2 || first == null || last == null) return null;
+		Vec3d span = last.subtract(first);
+		double x = span.x, y = horizontal ? 0 : span.y, z = span.z;
+		if (x == 0 && y == 0 && z == 0) {
+			x = 1;
+			y = 0;
+			z = 0;
+		}
+
+		// Power iteration starting from the span, which is already close to the principal axis for a trail
+		for (int i = 0; i < POWER_ITERATIONS; i++) {
+			double nx = sxx * x + sxy * y + sxz * z;
+			double ny = sxy * x + syy * y + syz * z;
+			double nz = sxz * x + syz * y + szz * z;
+			double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length == 0) return null;
+			x = nx / length;
+			y = ny / length;
+			z = nz / length;
+		}
+
+		if (x * span.x + y * span.y + z * span.z < 0) {
+			x = -x;
+			y = -y;
+			z = -z;
+		}
+		return new Vec3d(x, y, z);
+	}
+
+	/**
+	 * Estimates the standard error of the direction from the scatter of the points around the line, like the standard error of the slope of a linear regression.
+	 *
+	 * @return the angular error of the direction in radians, or {@link Double#POSITIVE_INFINITY} if there are fewer than three points
+	 */
+	public double getAngularError() {
+		Vec3d direction = getDirection();
+		if (size < 3 || direction == null) return Double.POSITIVE_INFINITY;
+		double x = direction.x, y = direction.y, z = direction.z;
+
+		double along = x * (sxx * x + sxy * y + sxz * z) + y * (sxy * x + syy * y + syz * z) + z * (sxz * x + syz * y + szz * z);
+		double across = Math.max(sxx + syy + szz - along, 0);
+		if (along <= 0) return Double.POSITIVE_INFINITY;
+		return Math.sqrt(across / ((size - 2) * along));
+	}
+
+	/**
+	 * @return whether enough points have been added, either the maximum or enough for the direction to be within the angular error
+	 */
+	public boolean isComplete(int minSize, int maxSize, double maxAngularError) {
+		return size >= maxSize || size >= minSize && getAngularError() < maxAngularError;
+	}
+
+	public void reset() {
+		first = null;
+		last = null;
+		size = 0;
+		meanX = meanY = meanZ = 0;
+		sxx = sxy = sxz = syy = syz = szz = 0;
+	}
+}
@@ -2,7 +2,11 @@ package de.hysky.skyblocker.utils.networth;
 
 import com.mojang.serialization.Dynamic;
 
-import de.hysky.skyblocker.utils.ItemUtils;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.events.ItemPriceUpdateEvent;
+import de.hysky.skyblocker.utils.scheduler.Scheduler;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import net.azureaaron.networth.ItemCalculator;
 import net.azureaaron.networth.NetworthResult;
 import net.azureaaron.networth.item.SkyblockItemStack;
@@ -13,17 +17,171 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtOps;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calculates the networth of items, caching the results per item so that tooltips, chest values and the profile viewer
+ * don't recalculate the same items every time.
+ * <p>
+ * Items are cached by their UUID, or by their custom data for items without one such as stackable items, along with the count.
+ * A cached result also remembers the prices it used, so after {@link ItemPriceUpdateEvent} it is only recalculated if one of those prices changed.
+ */
 public class NetworthCalculator {
+	/**
+	 * Batches with at least this many items are split into chunks of this size, which are calculated in parallel on the {@link Scheduler#getExecutor() scheduler's workers}.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+	private static final int MAX_CACHE_SIZE = 8192;
+	/**
+	 * The least recently used results are evicted once the cache is full.
+	 */
+	private static final Map<CacheKey, CachedNetworth> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedNetworth> eldest) {
+			return size() > MAX_CACHE_SIZE;
+		}
+	});
+	/**
+	 * Incremented on every price update, cached results store the generation whose prices they were last checked against.
+	 */
+	private static final AtomicInteger PRICE_GENERATION = new AtomicInteger();
+
+	@Init
+	public static void init() {
+		ItemPriceUpdateEvent.ON_PRICE_UPDATE.register(PRICE_GENERATION::incrementAndGet);
+	}
+
 	public static NetworthResult getItemNetworth(ItemStack stack) {
 		return getItemNetworth(stack, stack.getCount());
 	}
 
 	public static NetworthResult getItemNetworth(ItemStack stack, int count) {
-		String itemId = ItemUtils.getItemId(stack);
-		NbtCompound customData = stack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT).copyNbt();
+		NbtComponent customData = stack.getOrDefault(DataComponentTypes.CUSTOM_DATA, NbtComponent.DEFAULT);
+		String uuid = stack.getUuid();
+		CacheKey key = new CacheKey(uuid.isEmpty() ? customData : uuid, count);
+		int generation = PRICE_GENERATION.get();
+
+		CachedNetworth cached = CACHE.get(key);
+		// Items with the same UUID can still differ, for example after being reforged
+		if (cached != null && cached.customData.equals(customData) && cached.isValid(generation)) return cached.result;
+
+		Object2DoubleMap<String> prices = new Object2DoubleOpenHashMap<>();
+		NetworthResult result = calculate(stack.getSkyblockId(), count, customData, prices);
+
+		CACHE.put(key, new CachedNetworth(customData, result, prices, generation));
+
+		return result;
+	}
+
+	/**
+	 * Calculates the networth of each of the stacks, such as all items of an inventory or backpack.
+	 * Large batches are calculated in parallel on the scheduler's workers.
+	 * <p>
+	 * The calling thread calculates chunks as well and only waits for the chunks a worker has already started,
+	 * so this doesn't deadlock when it is called from a scheduler worker or when the workers are busy.
+	 *
+	 * @return the networth of each stack, in the same order as the stacks
+	 */
+	public static List<NetworthResult> getItemNetworths(List<ItemStack> stacks) {
+		if (stacks.size() < PARALLEL_THRESHOLD) return stacks.stream().map(NetworthCalculator::getItemNetworth).toList();
+
+		NetworthResult[] results = new NetworthResult[stacks.size()];
+		int chunks = Math.ceilDiv(stacks.size(), PARALLEL_THRESHOLD);
+		AtomicInteger nextChunk = new AtomicInteger();
+		CountDownLatch remainingChunks = new CountDownLatch(chunks);
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		Runnable calculator = () -> {
+			for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+				try {
+					for (int i = chunk * PARALLEL_THRESHOLD, end = Math.min(i + PARALLEL_THRESHOLD, results.length); i < end; i++) {
+						results[i] = getItemNetworth(stacks.get(i));
+					}
+				} catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					remainingChunks.countDown();
+				}
+			}
+		};
+
+		try {
+			for (int i = 1; i < chunks; i++) {
+				Scheduler.INSTANCE.getExecutor().execute(calculator);
+			}
+		} catch (RejectedExecutionException ignored) {
+			// The calling thread calculates the chunks that no worker picks up
+		}
+
+		calculator.run();
+		try {
+			remainingChunks.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while calculating the networth of items", e);
+		}
+
+		if (failure.get() != null) throw failure.get();
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Clears all cached results, for when the item data the calculations depend on changes.
+	 */
+	static void clearCache() {
+		CACHE.clear();
+	}
+
+	@SuppressWarnings("deprecation")
+	private static NetworthResult calculate(String itemId, int count, NbtComponent customDataComponent, Object2DoubleMap<String> prices) {
+		// The calculator only reads the custom data, so it doesn't need to be copied
+		NbtCompound customData = customDataComponent.getNbt();
 		Dynamic<NbtElement> customDataDynamic = new Dynamic<>(NbtOps.INSTANCE, customData);
 		SkyblockItemStack skyblockItemStack = SkyblockItemStack.of(itemId, count, customDataDynamic, SkyblockItemMetadataRetriever.of(customData, itemId));
 
-		return ItemCalculator.calculate(skyblockItemStack, NetworthDataSuppliers::getPrice, NetworthDataSuppliers.getSkyblockItemData());
+		return ItemCalculator.calculate(skyblockItemStack, id -> {
+			double price = NetworthDataSuppliers.getPrice(id);
+			prices.put(id, price);
+			return price;
+		}, NetworthDataSuppliers.getSkyblockItemData());
+	}
+
+	/**
+	 * @param item the UUID of the item, or its custom data if it doesn't have one
+	 */
+	private record CacheKey(Object item, int count) {}
+
+	private static final class CachedNetworth {
+		private final NbtComponent customData;
+		private final NetworthResult result;
+		private final Object2DoubleMap<String> prices;
+		private volatile int generation;
+
+		private CachedNetworth(NbtComponent customData, NetworthResult result, Object2DoubleMap<String> prices, int generation) {
+			this.customData = customData;
+			this.result = result;
+			this.prices = prices;
+			this.generation = generation;
+		}
+
+		/**
+		 * @return whether the result is still valid for the price generation, which is the case if none of the prices it used changed since
+		 */
+		private boolean isValid(int generation) {
+			if (this.generation == generation) return true;
+
+			for (Object2DoubleMap.Entry<String> entry : prices.object2DoubleEntrySet()) {
+				if (Double.compare(NetworthDataSuppliers.getPrice(entry.getKey()), entry.getDoubleValue()) != 0) return false;
+			}
+			this.generation = generation;
+			return true;
+		}
 	}
 }
@@ -18,6 +18,7 @@ public class NetworthDataSuppliers {
 	public static void updateSkyblockItemData(JsonArray items) {
 		try {
 			itemData = SkyblockItemData.MAP_CODEC.parse(JsonOps.INSTANCE, items).getOrThrow();
+			NetworthCalculator.clearCache();
 		} catch (Exception e) {
 			LOGGER.error("[Skyblocker Networth Data Supplier] Failed to parse items data!", e);
 		}
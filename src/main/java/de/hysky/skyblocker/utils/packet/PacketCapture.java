@@ -0,0 +1,135 @@
+package de.hysky.skyblocker.utils.packet;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.logging.LogUtils;
+import de.hysky.skyblocker.SkyblockerMod;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.utils.Constants;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.*;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Records the packets from the server that Skyblocker's features handle to a capture file, so that a session such as a dungeon run
+ * can be replayed offline with {@link PacketReplay}. Captures are started and stopped with {@code /skyblocker debug capture},
+ * are stopped when disconnecting or closing the game, and are saved in the {@code captures} folder of the config directory.
+ */
+public class PacketCapture {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final Path CAPTURES_DIR = SkyblockerMod.CONFIG_DIR.resolve("captures");
+	private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+	private static final Set<Class<?>> CAPTURED_PACKETS = Set.of(
+			GameMessageS2CPacket.class, OverlayMessageS2CPacket.class,
+			ParticleS2CPacket.class, PlaySoundS2CPacket.class, PlaySoundFromEntityS2CPacket.class,
+			ScoreboardObjectiveUpdateS2CPacket.class, ScoreboardScoreUpdateS2CPacket.class, ScoreboardScoreResetS2CPacket.class, ScoreboardDisplayS2CPacket.class, TeamS2CPacket.class,
+			PlayerListS2CPacket.class, PlayerRemoveS2CPacket.class, PlayerListHeaderS2CPacket.class,
+			EntitySpawnS2CPacket.class, EntityTrackerUpdateS2CPacket.class, EntityEquipmentUpdateS2CPacket.class, EntitiesDestroyS2CPacket.class,
+			BlockUpdateS2CPacket.class, ChunkDeltaUpdateS2CPacket.class
+	);
+	@Nullable
+	private static volatile PacketCaptureWriter writer;
+	private static Path file;
+
+	@Init
+	public static void init() {
+		// A capture that isn't closed is missing the end of its gzip stream and can't be replayed
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> stop());
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> stop());
+	}
+
+	/**
+	 * Called with every packet received by the client on the network thread.
+	 */
+	public static void onPacketReceived(Packet<?> packet) {
+		PacketCaptureWriter writer = PacketCapture.writer;
+		if (writer == null) return;
+
+		// Entity spawns and their data are sent in bundles
+		if (packet instanceof BundleS2CPacket bundle) {
+			for (Packet<? super ClientPlayPacketListener> bundled : bundle.getPackets()) {
+				capture(writer, bundled);
+			}
+		} else {
+			capture(writer, packet);
+		}
+	}
+
+	private static void capture(PacketCaptureWriter writer, Packet<?> packet) {
+		if (!CAPTURED_PACKETS.contains(packet.getClass())) return;
+
+		try {
+			writer.write(packet, System.currentTimeMillis());
+		} catch (Exception e) {
+			LOGGER.error("[Skyblocker Packet Capture] Failed to capture packet {}, stopping the capture", packet.getPacketType(), e);
+			stop();
+		}
+	}
+
+	private static synchronized boolean start(ClientPlayNetworkHandler networkHandler) {
+		if (writer != null) return false;
+
+		try {
+			Files.createDirectories(CAPTURES_DIR);
+			file = CAPTURES_DIR.resolve(LocalDateTime.now().format(FILE_NAME_FORMATTER) + ".bin.gz");
+			writer = new PacketCaptureWriter(file, PacketReplay.bind(networkHandler.getRegistryManager()));
+			return true;
+		} catch (IOException e) {
+			LOGGER.error("[Skyblocker Packet Capture] Failed to start capture", e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return the number of captured packets, or -1 if no capture was running
+	 */
+	private static synchronized int stop() {
+		PacketCaptureWriter writer = PacketCapture.writer;
+		if (writer == null) return -1;
+		PacketCapture.writer = null;
+
+		try {
+			writer.close();
+		} catch (IOException e) {
+			LOGGER.error("[Skyblocker Packet Capture] Failed to close capture {}", file, e);
+		}
+		return writer.getPackets();
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+		return literal("capture")
+				.then(literal("start").executes(context -> {
+					ClientPlayNetworkHandler networkHandler = context.getSource().getClient().getNetworkHandler();
+					if (networkHandler != null && start(networkHandler)) {
+						context.getSource().sendFeedback(Constants.PREFIX.get().append("§rStarted capturing packets to " + file.getFileName()));
+					} else {
+						context.getSource().sendError(Constants.PREFIX.get().append("§cCouldn't start capturing packets, a capture may already be running."));
+					}
+					return Command.SINGLE_SUCCESS;
+				}))
+				.then(literal("stop").executes(context -> {
+					int packets = stop();
+					if (packets >= 0) {
+						context.getSource().sendFeedback(Constants.PREFIX.get().append("§rCaptured " + packets + " packets to " + file.getFileName()));
+					} else {
+						context.getSource().sendError(Constants.PREFIX.get().append("§cNo capture is running."));
+					}
+					return Command.SINGLE_SUCCESS;
+				}));
+	}
+}
@@ -0,0 +1,83 @@
+package de.hysky.skyblocker.utils.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.NetworkState;
+import net.minecraft.network.encoding.VarInts;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes packets to a capture file, which is read back by {@link PacketReplay}.
+ * <p>
+ * The file is gzipped and starts with {@link #MAGIC}, {@link #FORMAT_VERSION} and the protocol version of the game as ints.
+ * Each packet is then written as a var int of the milliseconds since the previous packet, a var int of the length of the packet,
+ * and the packet encoded the same way the server sent it, including its id.
+ */
+class PacketCaptureWriter implements Closeable {
+	static final int MAGIC = 0x53424350;
+	static final int FORMAT_VERSION = 1;
+
+	private final NetworkState<ClientPlayPacketListener> state;
+	private final DataOutputStream output;
+	private final ByteBuf buf = Unpooled.buffer();
+	/**
+	 * The two var ints written before each packet, which are at most 5 bytes each.
+	 */
+	private final ByteBuf header = Unpooled.buffer(10, 10);
+	private long lastPacketMillis;
+	private int packets;
+	private boolean closed;
+
+	PacketCaptureWriter(Path file, NetworkState<ClientPlayPacketListener> state) throws IOException {
+		this.state = state;
+		this.output = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file))));
+		this.lastPacketMillis = System.currentTimeMillis();
+
+		output.writeInt(MAGIC);
+		output.writeInt(FORMAT_VERSION);
+		output.writeInt(SharedConstants.getProtocolVersion());
+	}
+
+	/**
+	 * Encodes and writes the packet. This is called on the network thread while the capture can be stopped from the render thread, hence the synchronization.
+	 * Packets that arrive after the capture is closed are ignored.
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized void write(Packet<?> packet, long millis) throws IOException {
+		if (closed) return;
+		buf.clear();
+		state.codec().encode(buf, (Packet<? super ClientPlayPacketListener>) packet);
+
+		header.clear();
+		VarInts.write(header, (int) Math.max(millis - lastPacketMillis, 0));
+		VarInts.write(header, buf.readableBytes());
+		header.readBytes(output, header.readableBytes());
+		buf.readBytes(output, buf.readableBytes());
+
+		lastPacketMillis = millis;
+		packets++;
+	}
+
+	synchronized int getPackets() {
+		return packets;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		buf.release();
+		header.release();
+		output.close();
+	}
+}
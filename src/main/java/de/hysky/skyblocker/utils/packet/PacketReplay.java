@@ -0,0 +1,272 @@
+package de.hysky.skyblocker.utils.packet;
+
+import de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager;
+import de.hysky.skyblocker.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.network.PlayerListEntry;
+import net.minecraft.network.NetworkState;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.OverlayMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListHeaderS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRemoveS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardObjectiveUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardScoreResetS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardScoreUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.TeamS2CPacket;
+import net.minecraft.network.state.PlayStateFactories;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.scoreboard.ScoreAccess;
+import net.minecraft.scoreboard.ScoreHolder;
+import net.minecraft.scoreboard.Scoreboard;
+import net.minecraft.scoreboard.ScoreboardCriterion;
+import net.minecraft.scoreboard.ScoreboardObjective;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.text.Text;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the packets of a capture recorded by {@link PacketCapture} and feeds them to Skyblocker's handlers without a server,
+ * so that features can be benchmarked against a real session offline.
+ */
+public class PacketReplay {
+	/**
+	 * Reads all packets of the capture file in order, as fast as possible.
+	 *
+	 * @param registryManager the registries to decode the packets with, which should contain the same entries as when the capture was recorded
+	 * @return the number of packets read
+	 * @throws IOException if the file can't be read or was recorded with a different capture format or protocol version
+	 */
+	public static int replay(Path file, DynamicRegistryManager registryManager, Handler handler) throws IOException {
+		NetworkState<ClientPlayPacketListener> state = bind(registryManager);
+
+		try (DataInputStream input = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+			if (input.readInt() != PacketCaptureWriter.MAGIC) throw new IOException("Not a packet capture: " + file);
+			int formatVersion = input.readInt();
+			if (formatVersion != PacketCaptureWriter.FORMAT_VERSION) throw new IOException("Unsupported capture format version " + formatVersion + ": " + file);
+			int protocolVersion = input.readInt();
+			if (protocolVersion != SharedConstants.getProtocolVersion()) throw new IOException("Capture was recorded with protocol version " + protocolVersion + ", expected " + SharedConstants.getProtocolVersion() + ": " + file);
+
+			int packets = 0;
+			long millis = 0;
+			while (true) {
+				// The stream only ends cleanly after the gzip trailer, a capture that wasn't closed throws an EOFException instead
+				int first = input.read();
+				if (first == -1) return packets;
+				int delta = readVarInt(input, first);
+
+				byte[] bytes = new byte[readVarInt(input, input.readUnsignedByte())];
+				input.readFully(bytes);
+				ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+				millis += delta;
+
+				handler.onPacket(state.codec().decode(buf), millis);
+				packets++;
+			}
+		}
+	}
+
+	static NetworkState<ClientPlayPacketListener> bind(DynamicRegistryManager registryManager) {
+		return PlayStateFactories.S2C.bind(RegistryByteBuf.makeFactory(registryManager));
+	}
+
+	/**
+	 * @param b the first byte of the var int, which has already been read
+	 */
+	private static int readVarInt(DataInputStream input, int b) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (shift > 0) b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Var int too long");
+	}
+
+	private static void dispatchMessage(Text text, boolean overlay) {
+		if (ClientReceiveMessageEvents.ALLOW_GAME.invoker().allowReceiveGameMessage(text, overlay)) {
+			text = ClientReceiveMessageEvents.MODIFY_GAME.invoker().modifyReceivedGameMessage(text, overlay);
+			ClientReceiveMessageEvents.GAME.invoker().onReceiveGameMessage(text, overlay);
+		}
+	}
+
+	@FunctionalInterface
+	public interface Handler {
+		/**
+		 * @param millis the milliseconds since the start of the capture at which the packet was received
+		 */
+		void onPacket(Packet<? super ClientPlayPacketListener> packet, long millis);
+	}
+
+	/**
+	 * Feeds packets to the handlers that don't need a world: the chat message events (and with them the chat dispatcher), the {@link PacketRouter}s,
+	 * and the sidebar and player list parsers. The scoreboard and player list are kept on a scoreboard and entry map without a world
+	 * and handed to {@link Utils#updateScoreboard(Scoreboard)} and {@link PlayerListManager#setPlayerList(java.util.List)} when they change.
+	 * Other packets, such as entity and world updates, need a world and a network handler and are ignored.
+	 */
+	public static class Dispatcher {
+		private final Scoreboard scoreboard = new Scoreboard();
+		private final Map<UUID, PlayerListEntry> playerList = new Object2ObjectLinkedOpenHashMap<>();
+		private final Map<UUID, PlayerListEntry> listedPlayerList = new Object2ObjectLinkedOpenHashMap<>();
+		/**
+		 * Orders the player list by team and name like the vanilla game, which is how Hypixel orders the tab list.
+		 */
+		private final Comparator<PlayerListEntry> ordering = Comparator.<PlayerListEntry, String>comparing(entry -> {
+			Team team = scoreboard.getScoreHolderTeam(entry.getProfile().getName());
+			return team != null ? team.getName() : "";
+		}).thenComparing(entry -> entry.getProfile().getName(), String::compareToIgnoreCase);
+
+		/**
+		 * @return whether the packet was dispatched
+		 */
+		public boolean dispatch(Packet<?> packet) {
+			switch (packet) {
+				case GameMessageS2CPacket message -> dispatchMessage(message.content(), message.overlay());
+				case OverlayMessageS2CPacket message -> dispatchMessage(message.text(), true);
+				case ParticleS2CPacket particle -> PacketRouter.PARTICLES.dispatch(particle);
+				case PlaySoundS2CPacket sound -> PacketRouter.SOUNDS.dispatch(sound);
+				case PlayerListS2CPacket playerListPacket -> onPlayerList(playerListPacket);
+				case PlayerRemoveS2CPacket remove -> {
+					for (UUID profileId : remove.profileIds()) {
+						playerList.remove(profileId);
+						listedPlayerList.remove(profileId);
+					}
+					updatePlayerList();
+				}
+				case PlayerListHeaderS2CPacket header -> PlayerListManager.updateFooter(header.footer());
+				case ScoreboardObjectiveUpdateS2CPacket objective -> onObjectiveUpdate(objective);
+				case ScoreboardDisplayS2CPacket display -> {
+					scoreboard.setObjectiveSlot(display.getSlot(), scoreboard.getNullableObjective(display.getName()));
+					Utils.updateScoreboard(scoreboard);
+				}
+				case ScoreboardScoreUpdateS2CPacket score -> onScoreUpdate(score);
+				case ScoreboardScoreResetS2CPacket reset -> onScoreReset(reset);
+				case TeamS2CPacket team -> onTeam(team);
+				default -> {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void onPlayerList(PlayerListS2CPacket packet) {
+			for (PlayerListS2CPacket.Entry entry : packet.getPlayerAdditionEntries()) {
+				playerList.putIfAbsent(entry.profileId(), new PlayerListEntry(entry.profile(), false));
+			}
+
+			for (PlayerListS2CPacket.Entry entry : packet.getEntries()) {
+				PlayerListEntry playerListEntry = playerList.get(entry.profileId());
+				if (playerListEntry == null) continue;
+
+				if (packet.getActions().contains(PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME)) playerListEntry.setDisplayName(entry.displayName());
+				if (packet.getActions().contains(PlayerListS2CPacket.Action.UPDATE_LISTED)) {
+					if (entry.listed()) {
+						listedPlayerList.put(entry.profileId(), playerListEntry);
+					} else {
+						listedPlayerList.remove(entry.profileId());
+					}
+				}
+			}
+
+			updatePlayerList();
+		}
+
+		private void updatePlayerList() {
+			PlayerListManager.setPlayerList(listedPlayerList.values().stream().sorted(ordering).toList());
+		}
+
+		private void onObjectiveUpdate(ScoreboardObjectiveUpdateS2CPacket packet) {
+			ScoreboardObjective objective = scoreboard.getNullableObjective(packet.getName());
+
+			switch (packet.getMode()) {
+				case ScoreboardObjectiveUpdateS2CPacket.ADD_MODE -> {
+					if (objective == null) scoreboard.addObjective(packet.getName(), ScoreboardCriterion.DUMMY, packet.getDisplayName(), packet.getType(), false, packet.getNumberFormat().orElse(null));
+				}
+				case ScoreboardObjectiveUpdateS2CPacket.REMOVE_MODE -> {
+					if (objective != null) scoreboard.removeObjective(objective);
+				}
+				case ScoreboardObjectiveUpdateS2CPacket.UPDATE_MODE -> {
+					if (objective != null) {
+						objective.setDisplayName(packet.getDisplayName());
+						objective.setRenderType(packet.getType());
+						objective.setNumberFormat(packet.getNumberFormat().orElse(null));
+					}
+				}
+				default -> {}
+			}
+
+			Utils.updateScoreboard(scoreboard);
+		}
+
+		private void onScoreUpdate(ScoreboardScoreUpdateS2CPacket packet) {
+			ScoreboardObjective objective = scoreboard.getNullableObjective(packet.objectiveName());
+			if (objective == null) return;
+
+			ScoreAccess score = scoreboard.getOrCreateScore(ScoreHolder.fromName(packet.scoreHolderName()), objective, true);
+			score.setScore(packet.score());
+			score.setDisplayText(packet.display().orElse(null));
+			score.setNumberFormat(packet.numberFormat().orElse(null));
+			Utils.updateScoreboard(scoreboard);
+		}
+
+		private void onScoreReset(ScoreboardScoreResetS2CPacket packet) {
+			ScoreHolder scoreHolder = ScoreHolder.fromName(packet.scoreHolderName());
+
+			if (packet.objectiveName() == null) {
+				scoreboard.removeScores(scoreHolder);
+			} else {
+				ScoreboardObjective objective = scoreboard.getNullableObjective(packet.objectiveName());
+				if (objective != null) scoreboard.removeScore(scoreHolder, objective);
+			}
+			Utils.updateScoreboard(scoreboard);
+		}
+
+		/**
+		 * Only keeps the parts of the team that the sidebar and player list are parsed from: its prefix, suffix and players.
+		 */
+		private void onTeam(TeamS2CPacket packet) {
+			Team team = packet.getTeamOperation() == TeamS2CPacket.Operation.ADD ? scoreboard.addTeam(packet.getTeamName()) : scoreboard.getTeam(packet.getTeamName());
+			if (team == null) return;
+
+			packet.getTeam().ifPresent(serializableTeam -> {
+				team.setDisplayName(serializableTeam.getDisplayName());
+				team.setColor(serializableTeam.getColor());
+				team.setPrefix(serializableTeam.getPrefix());
+				team.setSuffix(serializableTeam.getSuffix());
+			});
+
+			TeamS2CPacket.Operation playerListOperation = packet.getPlayerListOperation();
+			if (playerListOperation == TeamS2CPacket.Operation.ADD) {
+				for (String playerName : packet.getPlayerNames()) {
+					scoreboard.addScoreHolderToTeam(playerName, team);
+				}
+			} else if (playerListOperation == TeamS2CPacket.Operation.REMOVE) {
+				for (String playerName : packet.getPlayerNames()) {
+					scoreboard.removeScoreHolderFromTeam(playerName, team);
+				}
+			}
+
+			if (packet.getTeamOperation() == TeamS2CPacket.Operation.REMOVE) scoreboard.removeTeam(team);
+			Utils.updateScoreboard(scoreboard);
+		}
+	}
+}
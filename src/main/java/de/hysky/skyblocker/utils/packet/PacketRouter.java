@@ -0,0 +1,230 @@
+package de.hysky.skyblocker.utils.packet;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.utils.Constants;
+import de.hysky.skyblocker.utils.scheduler.TaskTimings;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.network.packet.s2c.play.ParticleS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.particle.ParticleType;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * Routes particle and sound packets from the server to the subscribers of their type, so that features don't each receive
+ * every one of the thousands of packets per second sent during Kuudra, Diana or the Dojo only to check their location and type again.
+ * <p>
+ * Subscribers declare the types they want and a predicate for where they are active when registering.
+ * Packets are dispatched on the render thread through a table from the type of the packet to its subscribers, compared by identity,
+ * so packets without subscribers cost one lookup. Subscribers are called in registration order if their predicate passes.
+ * High-volume subscribers can register as batched instead, which collects their packets and delivers them once at the end of the tick.
+ * <p>
+ * The number of packets per type and the run time of each subscriber are recorded and can be viewed with {@code /skyblocker debug packets}.
+ *
+ * @param <K> the type of the packets, such as the {@link ParticleType} of particle packets
+ * @param <P> the packet
+ */
+public final class PacketRouter<K, P> {
+	private static final int TIMINGS_SHOWN = 10;
+	public static final PacketRouter<ParticleType<?>, ParticleS2CPacket> PARTICLES = new PacketRouter<>("Particles", packet -> packet.getParameters().getType(), Registries.PARTICLE_TYPE::getId);
+	public static final PacketRouter<SoundEvent, PlaySoundS2CPacket> SOUNDS = new PacketRouter<>("Sounds", PacketRouter::getSound, SoundEvent::id);
+
+	private final String name;
+	private final Function<P, K> typeGetter;
+	private final Function<K, ?> typeNamer;
+	private final List<Subscriber<P>> subscribers = new ArrayList<>();
+	private final Reference2ObjectOpenHashMap<K, Subscriber<P>[]> byType = new Reference2ObjectOpenHashMap<>();
+	private final List<Subscriber<P>> batched = new ArrayList<>();
+	private final Reference2LongOpenHashMap<K> packetsByType = new Reference2LongOpenHashMap<>();
+	private long packets;
+	private long statisticsStart = System.nanoTime();
+
+	private PacketRouter(String name, Function<P, K> typeGetter, Function<K, ?> typeNamer) {
+		this.name = name;
+		this.typeGetter = typeGetter;
+		this.typeNamer = typeNamer;
+	}
+
+	@Init
+	public static void init() {
+		ClientTickEvents.END_CLIENT_TICK.register(client -> {
+			PARTICLES.flush();
+			SOUNDS.flush();
+		});
+	}
+
+	/**
+	 * Sounds that aren't sent as a registry reference are resolved to the registered sound with the same id, so that they are routed the same way.
+	 */
+	private static SoundEvent getSound(PlaySoundS2CPacket packet) {
+		RegistryEntry<SoundEvent> sound = packet.getSound();
+		if (sound.getType() == RegistryEntry.Type.REFERENCE) return sound.value();
+
+		SoundEvent registered = Registries.SOUND_EVENT.get(sound.value().id());
+		return registered != null ? registered : sound.value();
+	}
+
+	/**
+	 * Registers a listener which is called with each packet of the given types while it is active.
+	 *
+	 * @param name   the name shown in the debug command
+	 * @param active whether the listener is active, checked for each packet of its types, such as {@code Utils::isInCrystalHollows}
+	 */
+	@SafeVarargs
+	public final void register(String name, BooleanSupplier active, Listener<P> listener, K... types) {
+		subscribe(new Subscriber<>(name, active, listener, null), types);
+	}
+
+	/**
+	 * Registers a listener which is called once at the end of each tick with the packets of the given types received during the tick while it was active.
+	 *
+	 * @param name   the name shown in the debug command
+	 * @param active whether the listener is active, checked for each packet of its types
+	 */
+	@SafeVarargs
+	public final void registerBatched(String name, BooleanSupplier active, BatchListener<P> listener, K... types) {
+		Subscriber<P> subscriber = new Subscriber<>(name, active, null, listener);
+		subscribe(subscriber, types);
+		batched.add(subscriber);
+	}
+
+	private void subscribe(Subscriber<P> subscriber, K[] types) {
+		if (types.length == 0) throw new IllegalArgumentException("Subscriber " + subscriber.timings.name() + " must declare at least one type");
+		subscribers.add(subscriber);
+
+		for (K type : types) {
+			byType.put(Objects.requireNonNull(type), ArrayUtils.add(byType.get(type), subscriber));
+		}
+	}
+
+	/**
+	 * Dispatches a packet received from the server to the subscribers of its type. Must be called on the render thread.
+	 */
+	public void dispatch(P packet) {
+		K type = typeGetter.apply(packet);
+		packets++;
+		packetsByType.addTo(type, 1);
+
+		Subscriber<P>[] routed = byType.get(type);
+		if (routed == null) return;
+
+		for (Subscriber<P> subscriber : routed) {
+			if (!subscriber.active.getAsBoolean()) continue;
+
+			if (subscriber.batchListener != null) {
+				subscriber.batch.add(packet);
+				continue;
+			}
+
+			long start = System.nanoTime();
+			subscriber.listener.onPacket(packet);
+			subscriber.timings.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Delivers the packets collected for batched subscribers during the tick.
+	 */
+	private void flush() {
+		for (Subscriber<P> subscriber : batched) {
+			if (subscriber.batch.isEmpty()) continue;
+
+			long start = System.nanoTime();
+			subscriber.batchListener.onPackets(subscriber.batch);
+			subscriber.timings.record(System.nanoTime() - start);
+			subscriber.batch.clear();
+		}
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+		return literal("packets")
+				.executes(context -> {
+					PARTICLES.sendStatistics(context.getSource());
+					SOUNDS.sendStatistics(context.getSource());
+					return Command.SINGLE_SUCCESS;
+				})
+				.then(literal("reset")
+						.executes(context -> {
+							PARTICLES.resetStatistics();
+							SOUNDS.resetStatistics();
+							context.getSource().sendFeedback(Constants.PREFIX.get().append("Reset packet router statistics."));
+							return Command.SINGLE_SUCCESS;
+						}));
+	}
+
+	private void sendStatistics(FabricClientCommandSource source) {
+		double seconds = Math.max((System.nanoTime() - statisticsStart) / 1e9, 1);
+		source.sendFeedback(Constants.PREFIX.get().append(String.format("%s: %.1f packets/s, %d types, %d subscribers", name, packets / seconds, packetsByType.size(), subscribers.size())));
+
+		List<Reference2LongMap.Entry<K>> types = packetsByType.reference2LongEntrySet().stream()
+				.sorted(Comparator.comparingLong(Reference2LongMap.Entry<K>::getLongValue).reversed())
+				.limit(TIMINGS_SHOWN)
+				.toList();
+		for (Reference2LongMap.Entry<K> entry : types) {
+			source.sendFeedback(Text.literal(String.valueOf(typeNamer.apply(entry.getKey()))).formatted(Formatting.YELLOW)
+					.append(Text.literal(String.format(" %.1f/s%s", entry.getLongValue() / seconds, byType.containsKey(entry.getKey()) ? "" : " (no subscribers)")).formatted(Formatting.GRAY)));
+		}
+
+		for (Subscriber<P> subscriber : subscribers) {
+			TaskTimings timings = subscriber.timings;
+			source.sendFeedback(Text.literal(timings.name()).formatted(Formatting.AQUA)
+					.append(Text.literal(String.format(" %s: %d, mean: %.1f µs, p99: %.1f µs", subscriber.batchListener != null ? "batches" : "calls", timings.count(), timings.meanNanos() / 1000, timings.percentileNanos(0.99) / 1000d)).formatted(Formatting.GRAY)));
+		}
+	}
+
+	private void resetStatistics() {
+		for (Subscriber<P> subscriber : subscribers) {
+			subscriber.timings.reset();
+		}
+		packetsByType.clear();
+		packets = 0;
+		statisticsStart = System.nanoTime();
+	}
+
+	@FunctionalInterface
+	public interface Listener<P> {
+		void onPacket(P packet);
+	}
+
+	@FunctionalInterface
+	public interface BatchListener<P> {
+		/**
+		 * @param packets the packets received during the tick in order, which must not be kept after the call
+		 */
+		void onPackets(List<P> packets);
+	}
+
+	private static class Subscriber<P> {
+		private final BooleanSupplier active;
+		private final Listener<P> listener;
+		private final BatchListener<P> batchListener;
+		private final List<P> batch = new ArrayList<>();
+		private final TaskTimings timings;
+
+		private Subscriber(String name, BooleanSupplier active, Listener<P> listener, BatchListener<P> batchListener) {
+			this.active = active;
+			this.listener = listener;
+			this.batchListener = batchListener;
+			this.timings = new TaskTimings(name);
+		}
+	}
+}
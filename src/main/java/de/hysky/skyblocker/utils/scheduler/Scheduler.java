@@ -2,34 +2,80 @@ package de.hysky.skyblocker.utils.scheduler;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import it.unimi.dsi.fastutil.ints.AbstractInt2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import de.hysky.skyblocker.utils.Constants;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.profiler.Profiler;
 import net.minecraft.util.profiler.Profilers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.StackWalker.Option;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
 /**
  * A scheduler for running tasks at a later time. Tasks will be run synchronously on the main client thread. Use the instance stored in {@link #INSTANCE}. Do not instantiate this class.
+ * <p>
+ * Tasks are kept in a {@link TimingWheel} so that scheduling and running tasks, including cyclic ones, does not allocate.
+ * The run time of every task is recorded per task name (see {@link TaskTimings#nameOf(Runnable)}), pushed to the vanilla {@link Profiler},
+ * and can be inspected with {@code /skyblocker debug scheduler}.
+ * <p>
+ * Multithreaded tasks run on a small bounded pool owned by the scheduler. A cyclic multithreaded task that is still queued or running
+ * when it is due again is skipped instead of queued a second time, while one-off tasks always run. Deferrable main thread tasks that are due after the tick budget has been
+ * used up are pushed back to the next tick.
  */
 public class Scheduler {
     protected static final Logger LOGGER = LoggerFactory.getLogger(Scheduler.class);
+    private static final int TIMINGS_SHOWN = 15;
+    /**
+     * The main thread time that tasks may use each tick before deferrable tasks are pushed back to the next tick.
+     */
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    /**
+     * How many ticks in a row a deferrable task may be pushed back before it is run regardless of the budget.
+     */
+    private static final int MAX_DEFERRALS = 10;
+    private static final int WORKER_THREADS = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4);
+    private static final int WORKER_QUEUE_CAPACITY = 64;
     public static final Scheduler INSTANCE = new Scheduler();
-    private int currentTick = 0;
-    private final AbstractInt2ObjectMap<List<Runnable>> tasks = new Int2ObjectOpenHashMap<>();
-    private final ExecutorService executors = ForkJoinPool.commonPool();
+    private final TimingWheel wheel = new TimingWheel();
+    private final Consumer<TimingWheel.Slot> slotRunner = this::runSlot;
+    private final Reference2ObjectOpenHashMap<Class<?>, TaskTimings> timingsByClass = new Reference2ObjectOpenHashMap<>();
+    private final Object2ObjectOpenHashMap<String, TaskTimings> timingsByName = new Object2ObjectOpenHashMap<>();
+    private final ExecutorService executors = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(WORKER_QUEUE_CAPACITY), Thread.ofPlatform()
+            .name("Skyblocker Scheduler Worker #", 1)
+            .daemon()
+            .factory());
+    /**
+     * Coalescing tasks that are queued or running, used to skip cyclic tasks that are due again before their previous run finished.
+     */
+    private final Set<Runnable> activeTasks = ConcurrentHashMap.newKeySet();
+    private Profiler profiler;
+    private long tickStart;
+    private long droppedTasks;
+    private long coalescedTasks;
+    private long deferredTasks;
 
     protected Scheduler() {
     }
@@ -42,12 +88,19 @@ public class Scheduler {
     }
 
     /**
-     * @see #scheduleCyclic(Runnable, int, boolean)
+     * @see #scheduleCyclic(Runnable, int, boolean, boolean)
      */
     public void scheduleCyclic(Runnable task, int period) {
         scheduleCyclic(task, period, false);
     }
 
+    /**
+     * @see #scheduleCyclic(Runnable, int, boolean, boolean)
+     */
+    public void scheduleCyclic(Runnable task, int period, boolean multithreaded) {
+        scheduleCyclic(task, period, multithreaded, false);
+    }
+
     /**
      * Schedules a task to run after a delay.
      *
@@ -64,7 +117,7 @@ public class Scheduler {
     	}
 
         if (delay >= 0) {
-            addTask(multithreaded ? new ScheduledTask(task, true) : task, currentTick + delay);
+            addTask(task, delay, 0, multithreaded, false, false);
         } else {
             LOGGER.warn("Scheduled a task with negative delay");
         }
@@ -75,18 +128,20 @@ public class Scheduler {
      *
      * @param task   the task to run
      * @param period the period in ticks
-     * @param multithreaded whether to run the task on the schedulers dedicated thread pool
+     * @param multithreaded whether to run the task on the schedulers dedicated thread pool, runs are skipped while the previous run is still in progress
+     * @param deferrable whether the task is not time critical and may be pushed back to the next tick when other tasks have used up the tick budget,
+     *                   only applies to tasks that are not multithreaded
      */
-    public void scheduleCyclic(Runnable task, int period, boolean multithreaded) {
+    public void scheduleCyclic(Runnable task, int period, boolean multithreaded, boolean deferrable) {
     	if (!RenderSystem.isOnRenderThread() && MinecraftClient.getInstance() != null) {
     		LOGGER.warn("[Skyblocker Scheduler] Called the scheduler from the {} class on the {} thread. This will be unsupported in the future.", StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE).getCallerClass().getName(), Thread.currentThread().getName());
-    		MinecraftClient.getInstance().send(() -> scheduleCyclic(task, period, multithreaded));
+    		MinecraftClient.getInstance().send(() -> scheduleCyclic(task, period, multithreaded, deferrable));
 
     		return;
     	}
 
         if (period > 0) {
-            addTask(new ScheduledTask(task, period, true, multithreaded), currentTick);
+            addTask(task, 0, period, multithreaded, multithreaded, deferrable);
         } else {
             LOGGER.error("Attempted to schedule a cyclic task with period lower than 1");
         }
@@ -146,22 +201,10 @@ public class Scheduler {
     }
 
     public void tick() {
-        Profiler profiler = Profilers.get();
+        profiler = Profilers.get();
         profiler.push("skyblockerSchedulerTick");
-
-        if (tasks.containsKey(currentTick)) {
-            List<Runnable> currentTickTasks = tasks.get(currentTick);
-            //noinspection ForLoopReplaceableByForEach (or else we get a ConcurrentModificationException)
-            for (int i = 0; i < currentTickTasks.size(); i++) {
-                Runnable task = currentTickTasks.get(i);
-                if (!runTask(task, task instanceof ScheduledTask scheduledTask && scheduledTask.multithreaded)) {
-                    tasks.computeIfAbsent(currentTick + 1, key -> new ArrayList<>()).add(task);
-                }
-            }
-            tasks.remove(currentTick);
-        }
-
-        currentTick += 1;
+        tickStart = System.nanoTime();
+        wheel.advance(slotRunner);
         profiler.pop();
     }
 
@@ -181,35 +224,186 @@ public class Scheduler {
         return true;
     }
 
-    private void addTask(Runnable task, int schedule) {
-        if (tasks.containsKey(schedule)) {
-            tasks.get(schedule).add(task);
+    /**
+     * Runs a due slot and puts it back into the wheel if it is cyclic or could not be run this tick.
+     */
+    private void runSlot(TimingWheel.Slot slot) {
+        if (slot.multithreaded) {
+            runMultithreaded(slot);
+            return;
+        }
+
+        if (slot.deferrable && slot.deferrals < MAX_DEFERRALS && System.nanoTime() - tickStart > TICK_BUDGET_NANOS) {
+            slot.deferrals++;
+            deferredTasks++;
+            wheel.insert(slot, 1);
+            return;
+        }
+
+        slot.deferrals = 0;
+        TaskTimings timings = slot.timings;
+        profiler.push(timings.name());
+        long start = System.nanoTime();
+        boolean ran = runTask(slot.task, false);
+        if (ran) timings.record(System.nanoTime() - start);
+        profiler.pop();
+
+        if (!ran) {
+            wheel.insert(slot, 1);
         } else {
-            List<Runnable> list = new ArrayList<>();
-            list.add(task);
-            tasks.put(schedule, list);
+            reschedule(slot);
         }
     }
 
     /**
-     * A task that that is scheduled to execute once after the {@code interval}, or that is run every {@code interval} ticks.
+     * Hands a multithreaded slot to the worker pool. Cyclic slots are put back into the wheel right away, so they keep their period,
+     * and a run of a {@link TimingWheel.Slot#coalescing coalescing} slot that is due while the previous one is still in progress is skipped.
+     * One-off slots are never skipped and are retried on the next tick if the pool is full.
      */
-    protected record ScheduledTask(Runnable task, int interval, boolean cyclic, boolean multithreaded) implements Runnable {
-        private ScheduledTask(Runnable task, boolean multithreaded) {
-            this(task, -1, false, multithreaded);
+    private void runMultithreaded(TimingWheel.Slot slot) {
+        Runnable task = slot.task;
+        TaskTimings timings = slot.timings;
+        boolean coalescing = slot.coalescing;
+
+        if (coalescing && !activeTasks.add(task)) {
+            coalescedTasks++;
+            reschedule(slot);
+            return;
+        }
+
+        boolean submitted;
+
+        try {
+            submitted = runTask(() -> runOffThread(task, timings, coalescing), true);
+        } catch (RejectedExecutionException e) {
+            droppedTasks++;
+            submitted = false;
         }
 
-        @Override
-        public void run() {
+        if (!submitted) {
+            if (coalescing) activeTasks.remove(task);
+            wheel.insert(slot, slot.cyclic() ? slot.interval : 1);
+        } else {
+            reschedule(slot);
+        }
+    }
+
+    private void runOffThread(Runnable task, TaskTimings timings, boolean coalescing) {
+        long start = System.nanoTime();
+
+        try {
             task.run();
+        } catch (Throwable t) {
+            LOGGER.error("[Skyblocker Scheduler] Multithreaded task {} threw an exception", timings.name(), t);
+        } finally {
+            timings.record(System.nanoTime() - start);
+            if (coalescing) activeTasks.remove(task);
+        }
+    }
+
+    private void reschedule(TimingWheel.Slot slot) {
+        if (slot.cyclic()) {
+            wheel.insert(slot, slot.interval);
+        } else {
+            wheel.release(slot);
+        }
+    }
+
+    private void addTask(Runnable task, int delay, int interval, boolean multithreaded, boolean coalescing, boolean deferrable) {
+        wheel.insert(wheel.obtain(task, getTimings(task), interval, multithreaded, coalescing, deferrable), delay);
+    }
+
+    private TaskTimings getTimings(Runnable task) {
+        TaskTimings timings = timingsByClass.get(task.getClass());
 
-            if (cyclic) {
-            	if (!RenderSystem.isOnRenderThread() && MinecraftClient.getInstance() != null) {
-            		MinecraftClient.getInstance().send(() -> INSTANCE.addTask(this, INSTANCE.currentTick + interval));
-            	} else {
-            		INSTANCE.addTask(this, INSTANCE.currentTick + interval);
-            	}
+        if (timings == null) {
+            String name = TaskTimings.nameOf(task);
+            timings = timingsByName.get(name);
+
+            if (timings == null) {
+                timings = new TaskTimings(name);
+                timingsByName.put(name, timings);
             }
+
+            timingsByClass.put(task.getClass(), timings);
         }
+
+        return timings;
+    }
+
+    /**
+     * Returns the worker pool multithreaded tasks run on, for work that should share its threads instead of creating another pool.
+     * Its queue is bounded, so {@link Executor#execute(Runnable)} throws a {@link RejectedExecutionException} when it is full.
+     *
+     * @return the scheduler's worker pool
+     */
+    public Executor getExecutor() {
+        return executors;
+    }
+
+    /**
+     * @return the number of tasks currently waiting in the scheduler
+     */
+    public int getPendingTaskCount() {
+        return wheel.size();
+    }
+
+    /**
+     * @return the number of multithreaded tasks that could not be run because the worker pool's queue was full
+     */
+    public long getDroppedTaskCount() {
+        return droppedTasks;
+    }
+
+    /**
+     * @return the number of cyclic multithreaded task runs that were skipped because the previous run was still queued or running
+     */
+    public long getCoalescedTaskCount() {
+        return coalescedTasks;
+    }
+
+    /**
+     * @return the number of times a deferrable task was pushed back to the next tick because the tick budget was used up
+     */
+    public long getDeferredTaskCount() {
+        return deferredTasks;
+    }
+
+    /**
+     * @return the run time statistics of every task scheduled so far, sorted by total run time in descending order
+     */
+    public List<TaskTimings> getTimings() {
+        return timingsByName.values().stream()
+                .sorted(Comparator.comparingLong(TaskTimings::totalNanos).reversed())
+                .toList();
+    }
+
+    /**
+     * Creates the {@code /skyblocker debug scheduler} command which prints the tasks with the highest total run time.
+     */
+    public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+        return literal("scheduler")
+                .executes(context -> {
+                    FabricClientCommandSource source = context.getSource();
+                    List<TaskTimings> timings = INSTANCE.getTimings();
+                    source.sendFeedback(Constants.PREFIX.get().append(String.format("Scheduler: %d pending tasks, %d task names", INSTANCE.getPendingTaskCount(), timings.size())));
+                    source.sendFeedback(Text.literal(String.format("Multithreaded tasks dropped: %d, coalesced: %d. Tasks deferred: %d", INSTANCE.getDroppedTaskCount(), INSTANCE.getCoalescedTaskCount(), INSTANCE.getDeferredTaskCount())).formatted(Formatting.GRAY));
+
+                    for (TaskTimings timing : timings.subList(0, Math.min(TIMINGS_SHOWN, timings.size()))) {
+                        source.sendFeedback(Text.literal(timing.name()).formatted(Formatting.AQUA)
+                                .append(Text.literal(String.format(" runs: %d, mean: %.1f µs, p99: %.1f µs, max: %.1f µs", timing.count(), timing.meanNanos() / 1000, timing.percentileNanos(0.99) / 1000d, timing.maxNanos() / 1000d)).formatted(Formatting.GRAY)));
+                    }
+
+                    return Command.SINGLE_SUCCESS;
+                })
+                .then(literal("reset")
+                        .executes(context -> {
+                            INSTANCE.getTimings().forEach(TaskTimings::reset);
+                            INSTANCE.droppedTasks = 0;
+                            INSTANCE.coalescedTasks = 0;
+                            INSTANCE.deferredTasks = 0;
+                            context.getSource().sendFeedback(Constants.PREFIX.get().append("Reset scheduler task timings."));
+                            return Command.SINGLE_SUCCESS;
+                        }));
     }
 }
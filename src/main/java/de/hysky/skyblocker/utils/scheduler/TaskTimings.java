@@ -0,0 +1,116 @@
+package de.hysky.skyblocker.utils.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Execution time statistics for a single named scheduler task or other callback.
+ *
+ * <p>Run times are recorded into a log-linear histogram (8 sub-buckets per power of two) so that
+ * percentiles can be estimated with bounded error and without storing every sample.
+ */
+public class TaskTimings {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final String name;
+	private final long[] histogram = new long[BUCKET_COUNT];
+	private long count;
+	private long totalNanos;
+	private long maxNanos;
+
+	public TaskTimings(String name) {
+		this.name = name;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Records a single run of the task. Multithreaded tasks record from the executor threads, hence the synchronization.
+	 */
+	public synchronized void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		histogram[bucketOf(nanos)]++;
+		count++;
+		totalNanos += nanos;
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+
+	public synchronized long count() {
+		return count;
+	}
+
+	public synchronized long totalNanos() {
+		return totalNanos;
+	}
+
+	public synchronized long maxNanos() {
+		return maxNanos;
+	}
+
+	public synchronized double meanNanos() {
+		return count == 0 ? 0 : (double) totalNanos / count;
+	}
+
+	/**
+	 * Estimates the given percentile of the recorded run times.
+	 *
+	 * @param percentile the percentile between 0 and 1, e.g. {@code 0.99} for the p99
+	 * @return the estimated run time in nanoseconds, or 0 if nothing was recorded
+	 */
+	public synchronized long percentileNanos(double percentile) {
+		if (count == 0) return 0;
+		long target = Math.max(1, (long) Math.ceil(percentile * count));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += histogram[i];
+			if (seen >= target) return Math.min(bucketMidpoint(i), maxNanos);
+		}
+
+		return maxNanos;
+	}
+
+	public synchronized void reset() {
+		Arrays.fill(histogram, 0);
+		count = 0;
+		totalNanos = 0;
+		maxNanos = 0;
+	}
+
+	static int bucketOf(long nanos) {
+		if (nanos < SUB_BUCKETS) return (int) nanos;
+		int msb = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long bucketLowerBound(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		int msb = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int sub = bucket % SUB_BUCKETS;
+
+		return (long) (SUB_BUCKETS + sub) << (msb - SUB_BUCKET_BITS);
+	}
+
+	private static long bucketMidpoint(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		int msb = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+
+		return bucketLowerBound(bucket) + (1L << (msb - SUB_BUCKET_BITS)) / 2;
+	}
+
+	/**
+	 * Derives a readable task name from a task instance. Lambdas and method references are named after the class that created them.
+	 */
+	static String nameOf(Runnable task) {
+		String className = task.getClass().getName();
+		int lambdaIndex = className.indexOf("$$Lambda");
+		if (lambdaIndex >= 0) className = className.substring(0, lambdaIndex);
+
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+}
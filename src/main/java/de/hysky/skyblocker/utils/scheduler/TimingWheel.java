@@ -0,0 +1,196 @@
+package de.hysky.skyblocker.utils.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel holding {@link Slot}s keyed by the tick they are due on.
+ *
+ * <p>The first level has one bucket per tick for the next {@value #LEVEL_0_SIZE} ticks, every higher level has
+ * {@value #LEVEL_SIZE} buckets that each span a whole rotation of the level below it. Buckets are intrusive linked
+ * lists threaded through the slots themselves, and slots are pooled, so scheduling, cascading and running tasks does
+ * not allocate once the pool is warmed up.
+ *
+ * <p>This class is not thread safe and should only be used from the thread that calls {@link #advance(Consumer)}.
+ */
+class TimingWheel {
+	private static final int LEVEL_0_BITS = 8;
+	private static final int LEVEL_0_SIZE = 1 << LEVEL_0_BITS;
+	private static final int LEVEL_BITS = 6;
+	private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+	private static final int LEVELS = 4;
+	/**
+	 * The furthest delay that can be represented (about 39 days), longer delays are clamped to it.
+	 */
+	private static final int MAX_DELAY = (1 << (LEVEL_0_BITS + (LEVELS - 1) * LEVEL_BITS)) - 1;
+
+	private final Slot[][] heads = new Slot[LEVELS][];
+	private final Slot[][] tails = new Slot[LEVELS][];
+	private Slot pool;
+	private int currentTick;
+	private int size;
+
+	TimingWheel() {
+		for (int level = 0; level < LEVELS; level++) {
+			int buckets = level == 0 ? LEVEL_0_SIZE : LEVEL_SIZE;
+			heads[level] = new Slot[buckets];
+			tails[level] = new Slot[buckets];
+		}
+	}
+
+	int currentTick() {
+		return currentTick;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Takes a slot from the pool, or creates a new one if the pool is empty.
+	 */
+	Slot obtain(Runnable task, TaskTimings timings, int interval, boolean multithreaded, boolean coalescing, boolean deferrable) {
+		Slot slot = pool;
+
+		if (slot != null) {
+			pool = slot.next;
+			slot.next = null;
+		} else {
+			slot = new Slot();
+		}
+
+		slot.task = task;
+		slot.timings = timings;
+		slot.interval = interval;
+		slot.multithreaded = multithreaded;
+		slot.coalescing = coalescing;
+		slot.deferrable = deferrable;
+		slot.deferrals = 0;
+
+		return slot;
+	}
+
+	/**
+	 * Returns a slot that will not be scheduled again to the pool.
+	 */
+	void release(Slot slot) {
+		slot.task = null;
+		slot.timings = null;
+		slot.next = pool;
+		pool = slot;
+	}
+
+	/**
+	 * Schedules the slot to be due in {@code delay} ticks. A delay of 0 while the wheel is advancing runs the slot in the current tick.
+	 */
+	void insert(Slot slot, int delay) {
+		slot.due = currentTick + Math.clamp(delay, 0, MAX_DELAY);
+		slot.next = null;
+		link(slot);
+		size++;
+	}
+
+	/**
+	 * Pops all slots due on the current tick in scheduling order, hands them to the {@code consumer}, and moves on to the next tick.
+	 * Slots inserted for the current tick by the consumer are run in the same call.
+	 */
+	void advance(Consumer<Slot> consumer) {
+		int index = currentTick & (LEVEL_0_SIZE - 1);
+		Slot[] levelHeads = heads[0];
+		Slot[] levelTails = tails[0];
+		Slot slot;
+
+		while ((slot = levelHeads[index]) != null) {
+			levelHeads[index] = slot.next;
+			if (slot.next == null) levelTails[index] = null;
+			slot.next = null;
+			size--;
+			consumer.accept(slot);
+		}
+
+		currentTick++;
+		cascade();
+	}
+
+	/**
+	 * When a lower level completes a rotation, redistributes the next bucket of the level above into lower levels.
+	 */
+	private void cascade() {
+		int shift = LEVEL_0_BITS;
+
+		for (int level = 1; level < LEVELS; level++) {
+			if ((currentTick & ((1 << shift) - 1)) != 0) return;
+			int index = (currentTick >>> shift) & (LEVEL_SIZE - 1);
+			Slot slot = heads[level][index];
+			heads[level][index] = null;
+			tails[level][index] = null;
+
+			while (slot != null) {
+				Slot next = slot.next;
+				slot.next = null;
+				link(slot);
+				slot = next;
+			}
+
+			shift += LEVEL_BITS;
+		}
+	}
+
+	private void link(Slot slot) {
+		int delay = slot.due - currentTick;
+		int level;
+		int index;
+
+		if (delay < LEVEL_0_SIZE) {
+			level = 0;
+			index = Math.max(slot.due, currentTick) & (LEVEL_0_SIZE - 1);
+		} else {
+			level = 1;
+			int shift = LEVEL_0_BITS;
+
+			while (level < LEVELS - 1 && delay >= 1 << (shift + LEVEL_BITS)) {
+				level++;
+				shift += LEVEL_BITS;
+			}
+
+			index = (slot.due >>> shift) & (LEVEL_SIZE - 1);
+		}
+
+		Slot tail = tails[level][index];
+
+		if (tail == null) {
+			heads[level][index] = slot;
+		} else {
+			tail.next = slot;
+		}
+
+		tails[level][index] = slot;
+	}
+
+	/**
+	 * A pooled, intrusively linked entry of the wheel.
+	 */
+	static final class Slot {
+		Runnable task;
+		TaskTimings timings;
+		int interval;
+		boolean multithreaded;
+		/**
+		 * Whether a run of the multithreaded slot is skipped while its previous run is still queued or running.
+		 */
+		boolean coalescing;
+		/**
+		 * Whether the slot may be pushed back to the next tick when the tick budget is exhausted.
+		 */
+		boolean deferrable;
+		/**
+		 * How many times in a row the slot has been pushed back.
+		 */
+		int deferrals;
+		int due;
+		Slot next;
+
+		boolean cyclic() {
+			return interval > 0;
+		}
+	}
+}
@@ -10,6 +10,7 @@ import de.hysky.skyblocker.utils.Location;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.util.math.BlockPos;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 import java.util.Comparator;
 import java.util.List;
@@ -38,12 +39,21 @@ public class WaypointGroup {
 		return new WaypointGroup(name, Location.UNKNOWN, waypoints, true);
 	}));
     public static final int WAYPOINT_ACTIVATION_RADIUS = 2;
+    /**
+     * The maximum number of waypoints of an unordered group to render each frame, the ones nearest to the camera are kept.
+     */
+    private static final int MAX_RENDERED_WAYPOINTS = 512;
 
     private final String name;
     private final Location island;
     private final List<NamedWaypoint> waypoints;
     private final boolean ordered;
     private transient int currentIndex = 0;
+    /**
+     * The {@link #currentIndex} that the relative indices of the ordered waypoints were last assigned for, or -1 if they need to be reassigned.
+     */
+    private transient int assignedIndex = -1;
+    private transient WaypointIndex<NamedWaypoint> index;
 
     public WaypointGroup(String name, Location island, List<NamedWaypoint> waypoints) {
         this(name, island, waypoints, false);
@@ -132,37 +142,68 @@ public class WaypointGroup {
     }
 
     public void render(WorldRenderContext context) {
-        if (ordered && !waypoints.isEmpty()) {
-            for (int i = 0; i < waypoints.size(); i++) {
-                NamedWaypoint waypoint = waypoints.get(i);
-                if (waypoint.pos.isWithinDistance(MinecraftClient.getInstance().player.getPos(), WAYPOINT_ACTIVATION_RADIUS)) {
-                    currentIndex = i;
-                }
-            }
+        if (waypoints.isEmpty()) return;
+        WaypointIndex<NamedWaypoint> index = getIndex();
 
+        if (ordered) {
+            // Activate the last waypoint in the list that the player is standing at
+            MutableInt activated = new MutableInt(-1);
+            index.forEachNear(MinecraftClient.getInstance().player.getPos(), WAYPOINT_ACTIVATION_RADIUS, i -> activated.setValue(Math.max(activated.intValue(), i)));
+            if (activated.intValue() != -1) currentIndex = activated.intValue();
+            if (currentIndex != assignedIndex) assignRelativeIndices();
+
+            // Only the previous, current, and next waypoints render, and the line to the next waypoint has to render even when it is off-screen
             int previousIndex = (currentIndex - 1 + waypoints.size()) % waypoints.size();
             int nextIndex = (currentIndex + 1) % waypoints.size();
-            for (int i = 0; i < waypoints.size(); i++) {
-                NamedWaypoint waypoint = waypoints.get(i);
-                if (waypoint instanceof OrderedNamedWaypoint orderedNamedWaypoint) {
-                    orderedNamedWaypoint.index = i;
-                    if (i == previousIndex) {
-                        orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.PREVIOUS;
-                    } else if (i == nextIndex) {
-                        orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.NEXT;
-                    } else if (i == currentIndex) {
-                        orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.CURRENT;
-                    } else {
-                        orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.NONE;
-                    }
-                }
+            renderIfEnabled(context, waypoints.get(currentIndex));
+            if (nextIndex != currentIndex) renderIfEnabled(context, waypoints.get(nextIndex));
+            if (previousIndex != currentIndex && previousIndex != nextIndex) renderIfEnabled(context, waypoints.get(previousIndex));
+        } else {
+            for (NamedWaypoint waypoint : index.getVisible(context.camera().getPos(), Double.POSITIVE_INFINITY, MAX_RENDERED_WAYPOINTS)) {
+                renderIfEnabled(context, waypoint);
             }
         }
-        for (NamedWaypoint waypoint : waypoints) {
-            if (waypoint.shouldRender()) {
-                waypoint.render(context);
+    }
+
+    private static void renderIfEnabled(WorldRenderContext context, NamedWaypoint waypoint) {
+        if (waypoint.shouldRender()) {
+            waypoint.render(context);
+        }
+    }
+
+    /**
+     * Returns the spatial index of the waypoints, rebuilding it if the waypoints list changed size since it was built.
+     * The live groups are replaced rather than edited in place when waypoints are saved, so the size is enough to detect changes.
+     */
+    private WaypointIndex<NamedWaypoint> getIndex() {
+        if (index == null || index.size() != waypoints.size()) {
+            index = new WaypointIndex<>(waypoints);
+            assignedIndex = -1;
+        }
+        return index;
+    }
+
+    private void assignRelativeIndices() {
+        // The current index may be out of bounds if waypoints were removed
+        if (currentIndex >= waypoints.size()) currentIndex = 0;
+        int previousIndex = (currentIndex - 1 + waypoints.size()) % waypoints.size();
+        int nextIndex = (currentIndex + 1) % waypoints.size();
+        for (int i = 0; i < waypoints.size(); i++) {
+            NamedWaypoint waypoint = waypoints.get(i);
+            if (waypoint instanceof OrderedNamedWaypoint orderedNamedWaypoint) {
+                orderedNamedWaypoint.index = i;
+                if (i == previousIndex) {
+                    orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.PREVIOUS;
+                } else if (i == nextIndex) {
+                    orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.NEXT;
+                } else if (i == currentIndex) {
+                    orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.CURRENT;
+                } else {
+                    orderedNamedWaypoint.relativeIndex = OrderedNamedWaypoint.RelativeIndex.NONE;
+                }
             }
         }
+        assignedIndex = currentIndex;
     }
 
     @Override
@@ -0,0 +1,165 @@
+package de.hysky.skyblocker.utils.waypoint;
+
+import de.hysky.skyblocker.utils.render.FrustumUtils;
+import de.hysky.skyblocker.utils.render.RenderHelper;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntConsumer;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A spatial index of waypoints bucketed by chunk column, so that queries only visit the waypoints in the columns that can match
+ * instead of every waypoint. This keeps the cost of rendering large groups, such as imported routes with thousands of waypoints,
+ * proportional to the waypoints in view.
+ * <p>
+ * The index is immutable and refers to waypoints by their index in the list it was built from, so it has to be rebuilt when the list changes.
+ * It should only be queried from the render thread.
+ */
+public final class WaypointIndex<T extends Waypoint> {
+	private final List<T> waypoints;
+	private final Column[] columns;
+	private final Long2ObjectMap<Column> columnsByPos;
+	/**
+	 * The list returned by {@link #getVisible(Vec3d, double, int)}, reused between frames.
+	 */
+	private final List<T> visible = new ArrayList<>();
+
+	public WaypointIndex(List<T> waypoints) {
+		this.waypoints = waypoints;
+
+		Long2ObjectMap<IntList> indicesByColumn = new Long2ObjectOpenHashMap<>();
+		for (int i = 0; i < waypoints.size(); i++) {
+			BlockPos pos = waypoints.get(i).pos;
+			indicesByColumn.computeIfAbsent(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4), key -> new IntArrayList()).add(i);
+		}
+
+		columns = new Column[indicesByColumn.size()];
+		columnsByPos = new Long2ObjectOpenHashMap<>(indicesByColumn.size());
+		int columnIndex = 0;
+		for (Long2ObjectMap.Entry<IntList> entry : indicesByColumn.long2ObjectEntrySet()) {
+			int[] indices = entry.getValue().toIntArray();
+			int minY = Integer.MAX_VALUE;
+			int maxY = Integer.MIN_VALUE;
+			for (int index : indices) {
+				int y = waypoints.get(index).pos.getY();
+				minY = Math.min(minY, y);
+				maxY = Math.max(maxY, y);
+			}
+			Column column = new Column(ChunkPos.getPackedX(entry.getLongKey()) << 4, ChunkPos.getPackedZ(entry.getLongKey()) << 4, minY, maxY, indices);
+			columns[columnIndex++] = column;
+			columnsByPos.put(entry.getLongKey(), column);
+		}
+	}
+
+	public int size() {
+		return waypoints.size();
+	}
+
+	/**
+	 * Calls the action for each waypoint in a column that is in the view frustum and within {@code maxDistance} horizontally of the camera.
+	 * The columns extend up to the build height so that beacon beams and names above the waypoints aren't culled.
+	 * <p>
+	 * This only culls whole columns, the waypoints themselves still have to check whether they should render.
+	 *
+	 * @param maxDistance the maximum horizontal distance of the columns to the camera, or {@link Double#POSITIVE_INFINITY} to only cull by the frustum
+	 */
+	public void forEachVisible(Vec3d cameraPos, double maxDistance, Consumer<? super T> action) {
+		forEachColumnNear(cameraPos, maxDistance, column -> {
+			if (!FrustumUtils.isVisible(column.minX, column.minY, column.minZ, column.minX + 16, Math.max(column.maxY + 2, RenderHelper.MAX_OVERWORLD_BUILD_HEIGHT), column.minZ + 16)) return;
+
+			for (int index : column.indices) {
+				action.accept(waypoints.get(index));
+			}
+		});
+	}
+
+	/**
+	 * Returns the waypoints in the columns that {@link #forEachVisible(Vec3d, double, Consumer)} visits, nearest to the camera first.
+	 * Only the {@code maxCount} nearest are kept, so that huge groups only render the waypoints around the player.
+	 * <p>
+	 * The returned list is reused by the next call.
+	 *
+	 * @param maxCount the maximum number of waypoints to return, or {@link Integer#MAX_VALUE} for no limit
+	 */
+	public List<T> getVisible(Vec3d cameraPos, double maxDistance, int maxCount) {
+		visible.clear();
+		forEachVisible(cameraPos, maxDistance, visible::add);
+		sortByDistance(visible, cameraPos, maxCount);
+		return visible;
+	}
+
+	/**
+	 * Sorts the waypoints by their distance to the position, nearest first, and removes all but the {@code maxCount} nearest.
+	 */
+	static <T extends Waypoint> void sortByDistance(List<T> waypoints, Vec3d pos, int maxCount) {
+		waypoints.sort(Comparator.comparingDouble(waypoint -> waypoint.pos.getSquaredDistance(pos)));
+		if (waypoints.size() > maxCount) waypoints.subList(maxCount, waypoints.size()).clear();
+	}
+
+	/**
+	 * Calls the action with the index of each waypoint within {@code radius} of the position, see {@link BlockPos#isWithinDistance(net.minecraft.util.math.Position, double)}.
+	 */
+	public void forEachNear(Vec3d pos, double radius, IntConsumer action) {
+		forEachColumnNear(pos, radius, column -> {
+			for (int index : column.indices) {
+				if (waypoints.get(index).pos.isWithinDistance(pos, radius)) {
+					action.accept(index);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Calls the action for each column within {@code radius} horizontally of the position.
+	 * <p>
+	 * Only the chunk positions within the radius are looked up, unless there are fewer columns than chunk positions in the radius,
+	 * in which case checking every column is cheaper.
+	 *
+	 * @param radius the maximum horizontal distance of the columns, or {@link Double#POSITIVE_INFINITY} for every column
+	 */
+	private void forEachColumnNear(Vec3d pos, double radius, Consumer<Column> action) {
+		double chunksAcross = radius / 8 + 2;
+		if (chunksAcross * chunksAcross > columns.length) {
+			for (Column column : columns) {
+				if (radius == Double.POSITIVE_INFINITY || column.horizontalSquaredDistanceTo(pos.x, pos.z) <= radius * radius) action.accept(column);
+			}
+			return;
+		}
+
+		// Includes the columns that only touch the radius at their border, like the distance check
+		int minChunkX = (MathHelper.floor(pos.x - radius) - 1) >> 4;
+		int maxChunkX = MathHelper.floor(pos.x + radius) >> 4;
+		int minChunkZ = (MathHelper.floor(pos.z - radius) - 1) >> 4;
+		int maxChunkZ = MathHelper.floor(pos.z + radius) >> 4;
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				Column column = columnsByPos.get(ChunkPos.toLong(chunkX, chunkZ));
+				if (column != null && column.horizontalSquaredDistanceTo(pos.x, pos.z) <= radius * radius) action.accept(column);
+			}
+		}
+	}
+
+	/**
+	 * The waypoints in a chunk column and the vertical range they span.
+	 */
+	private record Column(int minX, int minZ, int minY, int maxY, int[] indices) {
+		/**
+		 * @return the squared horizontal distance from the point to the closest point of the column
+		 */
+		private double horizontalSquaredDistanceTo(double x, double z) {
+			double dx = Math.max(Math.max(minX - x, x - (minX + 16)), 0);
+			double dz = Math.max(Math.max(minZ - z, z - (minZ + 16)), 0);
+			return dx * dx + dz * dz;
+		}
+	}
+}
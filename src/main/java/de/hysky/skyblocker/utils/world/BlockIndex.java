@@ -0,0 +1,504 @@
+package de.hysky.skyblocker.utils.world;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.logging.LogUtils;
+import de.hysky.skyblocker.annotations.Init;
+import de.hysky.skyblocker.events.WorldEvents;
+import de.hysky.skyblocker.utils.Constants;
+import de.hysky.skyblocker.utils.scheduler.TaskTimings;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
+
+/**
+ * A shared index of the blocks in the loaded chunks that match the block state predicates of its subscribers, such as the block highlighters,
+ * so that features don't each walk every block of every loaded chunk on the render thread.
+ * <p>
+ * When a chunk loads, the sections whose palette contains no state matching an active subscriber are skipped without reading their blocks.
+ * The block states of the remaining sections are copied on the render thread and scanned on a worker thread, and the matches are applied
+ * back on the render thread at the end of the tick. Block updates from the server are applied immediately, including those received while a scan is running.
+ * <p>
+ * The matches of each subscriber are kept per chunk as packed {@link BlockPos#asLong() positions}, so unloading a chunk drops its matches at once.
+ * Subscribers are only indexed while they are active: one that becomes active, for example after arriving on its island or enabling its feature,
+ * has the loaded chunks scanned for it, and one that becomes inactive has its matches dropped.
+ */
+public final class BlockIndex {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	/**
+	 * The subscriptions are tracked as the bits of a long, leaving out the sign bit which is used for states that haven't been tested yet.
+	 */
+	private static final int MAX_SUBSCRIPTIONS = Long.SIZE - 1;
+	private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+			.name("Skyblocker Block Index")
+			.daemon()
+			.factory());
+	private static final List<Subscription> SUBSCRIPTIONS = new ArrayList<>();
+	private static final Long2ObjectMap<LoadedChunk> LOADED_CHUNKS = new Long2ObjectOpenHashMap<>();
+	private static final Queue<ScanResult> RESULTS = new ConcurrentLinkedQueue<>();
+	private static final TaskTimings SNAPSHOT_TIMINGS = new TaskTimings("Section snapshots");
+	private static final TaskTimings SCAN_TIMINGS = new TaskTimings("Section scans");
+	@Nullable
+	private static ClientWorld world;
+	private static int generation;
+	private static long sectionsSkipped;
+	private static long sectionsScanned;
+
+	private BlockIndex() {}
+
+	@Init
+	public static void init() {
+		ClientChunkEvents.CHUNK_LOAD.register(BlockIndex::onChunkLoad);
+		ClientChunkEvents.CHUNK_UNLOAD.register(BlockIndex::onChunkUnload);
+		WorldEvents.BLOCK_STATE_UPDATE.register(BlockIndex::onBlockUpdate);
+		ClientTickEvents.END_CLIENT_TICK.register(BlockIndex::tick);
+		ClientPlayConnectionEvents.JOIN.register((_handler, _sender, _client) -> reset());
+	}
+
+	/**
+	 * Registers a subscriber which indexes the blocks matching the predicate while it is active. Must be called during initialization.
+	 *
+	 * @param name           the name shown in the debug command
+	 * @param active         whether the subscriber is active, checked once per tick, such as {@code Utils::isInGalatea}
+	 * @param statePredicate the block states to index, which is also tested on the worker thread and so must only look at the state
+	 */
+	public static Subscription register(String name, BooleanSupplier active, Predicate<BlockState> statePredicate) {
+		if (SUBSCRIPTIONS.size() >= MAX_SUBSCRIPTIONS) throw new IllegalStateException("Too many block index subscriptions, can't register " + name);
+
+		Subscription subscription = new Subscription(name, SUBSCRIPTIONS.size(), active, statePredicate);
+		SUBSCRIPTIONS.add(subscription);
+		return subscription;
+	}
+
+	private static void onChunkLoad(ClientWorld world, WorldChunk chunk) {
+		if (world != BlockIndex.world) {
+			reset();
+			BlockIndex.world = world;
+		}
+
+		LoadedChunk loaded = new LoadedChunk(chunk, generation++);
+		LOADED_CHUNKS.put(chunk.getPos().toLong(), loaded);
+		scan(loaded, activeSubscriptions());
+	}
+
+	private static void onChunkUnload(ClientWorld world, WorldChunk chunk) {
+		if (world != BlockIndex.world) return;
+
+		long chunkPos = chunk.getPos().toLong();
+		if (LOADED_CHUNKS.remove(chunkPos) == null) return;
+
+		for (Subscription subscription : SUBSCRIPTIONS) {
+			subscription.removeChunk(chunkPos);
+		}
+	}
+
+	private static void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState) {
+		if (world == null) return;
+
+		long chunkPos = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+		LoadedChunk loaded = LOADED_CHUNKS.get(chunkPos);
+		if (loaded == null) return;
+
+		long packed = pos.asLong();
+		// The scans running for this chunk read the chunk before this update, so the position is checked again when their results are applied
+		if (loaded.scans > 0) loaded.updated.add(packed);
+
+		for (Subscription subscription : SUBSCRIPTIONS) {
+			if (subscription.active) subscription.update(world, chunkPos, pos, packed, newState);
+		}
+	}
+
+	private static void tick(MinecraftClient client) {
+		long activated = 0;
+		for (Subscription subscription : SUBSCRIPTIONS) {
+			if (subscription.setActive(subscription.activePredicate.getAsBoolean()) && subscription.active) activated |= subscription.bit;
+		}
+
+		if (activated != 0) {
+			for (LoadedChunk loaded : LOADED_CHUNKS.values()) {
+				scan(loaded, activated);
+			}
+		}
+
+		ScanResult result;
+		while ((result = RESULTS.poll()) != null) {
+			apply(result);
+		}
+	}
+
+	private static long activeSubscriptions() {
+		long active = 0;
+		for (Subscription subscription : SUBSCRIPTIONS) {
+			if (subscription.active) active |= subscription.bit;
+		}
+		return active;
+	}
+
+	/**
+	 * Copies the sections of the chunk whose palette contains a state matching one of the given subscriptions and scans them on the worker.
+	 * Must be called on the render thread.
+	 *
+	 * @param subscriptions the bits of the subscriptions to scan for
+	 */
+	private static void scan(LoadedChunk loaded, long subscriptions) {
+		if (subscriptions == 0) return;
+		long start = System.nanoTime();
+		WorldChunk chunk = loaded.chunk;
+		ChunkSection[] sections = chunk.getSectionArray();
+		List<SectionSnapshot> snapshots = new ArrayList<>();
+
+		for (int i = 0; i < sections.length; i++) {
+			ChunkSection section = sections[i];
+			if (section.isEmpty()) continue;
+
+			long matched = 0;
+			for (Subscription subscription : SUBSCRIPTIONS) {
+				if ((subscriptions & subscription.bit) != 0 && section.hasAny(subscription.statePredicate)) matched |= subscription.bit;
+			}
+
+			if (matched == 0) {
+				sectionsSkipped++;
+				continue;
+			}
+
+			snapshots.add(new SectionSnapshot(chunk.sectionIndexToCoord(i), matched, section.getBlockStateContainer().copy()));
+			sectionsScanned++;
+		}
+		SNAPSHOT_TIMINGS.record(System.nanoTime() - start);
+
+		if (snapshots.isEmpty()) return;
+		Subscription[] subscribers = SUBSCRIPTIONS.toArray(Subscription[]::new);
+		ChunkPos chunkPos = chunk.getPos();
+		int generation = loaded.generation;
+		loaded.scans++;
+
+		WORKER.execute(() -> {
+			try {
+				RESULTS.add(scanSections(chunkPos, generation, subscriptions, snapshots, subscribers));
+			} catch (Exception e) {
+				LOGGER.error("[Skyblocker Block Index] Failed to scan chunk {}", chunkPos, e);
+				RESULTS.add(new ScanResult(chunkPos.toLong(), generation, 0, new LongArrayList[0]));
+			}
+		});
+	}
+
+	/**
+	 * Reads every block of the section snapshots on the worker thread. The predicates are tested once per distinct state in each section.
+	 */
+	@VisibleForTesting
+	static ScanResult scanSections(ChunkPos chunkPos, int generation, long subscriptions, List<SectionSnapshot> snapshots, Subscription[] subscribers) {
+		long start = System.nanoTime();
+		LongArrayList[] matches = new LongArrayList[subscribers.length];
+		Reference2LongOpenHashMap<BlockState> stateMatches = new Reference2LongOpenHashMap<>();
+		stateMatches.defaultReturnValue(-1);
+		int startX = chunkPos.getStartX();
+		int startZ = chunkPos.getStartZ();
+
+		for (SectionSnapshot snapshot : snapshots) {
+			stateMatches.clear();
+			int startY = snapshot.sectionY << 4;
+
+			for (int y = 0; y < 16; y++) {
+				for (int z = 0; z < 16; z++) {
+					for (int x = 0; x < 16; x++) {
+						BlockState state = snapshot.states.get(x, y, z);
+						long matched = stateMatches.getLong(state);
+						if (matched == -1) {
+							matched = 0;
+							for (Subscription subscription : subscribers) {
+								if ((snapshot.subscriptions & subscription.bit) != 0 && subscription.statePredicate.test(state)) matched |= subscription.bit;
+							}
+							stateMatches.put(state, matched);
+						}
+
+						for (; matched != 0; matched &= matched - 1) {
+							int index = Long.numberOfTrailingZeros(matched);
+							if (matches[index] == null) matches[index] = new LongArrayList();
+							matches[index].add(BlockPos.asLong(startX + x, startY + y, startZ + z));
+						}
+					}
+				}
+			}
+		}
+		SCAN_TIMINGS.record(System.nanoTime() - start);
+
+		return new ScanResult(chunkPos.toLong(), generation, subscriptions, matches);
+	}
+
+	/**
+	 * Applies the matches of a scan if its chunk is still loaded.
+	 */
+	private static void apply(ScanResult result) {
+		LoadedChunk loaded = LOADED_CHUNKS.get(result.chunkPos);
+		if (loaded == null || loaded.generation != result.generation || world == null) return;
+
+		apply(result, SUBSCRIPTIONS, loaded.updated, world, world::getBlockState);
+		if (--loaded.scans == 0) loaded.updated.clear();
+	}
+
+	/**
+	 * Adds the matches of a scan to the active subscriptions it was run for, then checks the positions updated since the scan started again with their current state.
+	 *
+	 * @param updated the positions updated since the scan started
+	 * @param world   the world passed to the filters of the subscriptions, which may only be null if none of them has a filter
+	 * @param states  the current block state at a position
+	 */
+	@VisibleForTesting
+	static void apply(ScanResult result, List<Subscription> subscriptions, LongOpenHashSet updated, @Nullable ClientWorld world, Function<BlockPos, BlockState> states) {
+		BlockPos.Mutable pos = new BlockPos.Mutable();
+
+		for (Subscription subscription : subscriptions) {
+			if (!subscription.active || (result.subscriptions & subscription.bit) == 0) continue;
+
+			LongArrayList matches = subscription.index < result.matches.length ? result.matches[subscription.index] : null;
+			if (matches != null) subscription.addScanned(world, result.chunkPos, matches, updated, states);
+
+			for (LongIterator it = updated.iterator(); it.hasNext(); ) {
+				long packed = it.nextLong();
+				subscription.update(world, result.chunkPos, pos.set(packed), packed, states.apply(pos));
+			}
+		}
+	}
+
+	private static void reset() {
+		for (Subscription subscription : SUBSCRIPTIONS) {
+			subscription.clear();
+		}
+		LOADED_CHUNKS.clear();
+		// Results of scans still running are discarded since their chunks aren't loaded anymore
+		world = null;
+	}
+
+	public static LiteralArgumentBuilder<FabricClientCommandSource> debugCommand() {
+		return literal("blocks")
+				.executes(context -> {
+					FabricClientCommandSource source = context.getSource();
+					source.sendFeedback(Constants.PREFIX.get().append(String.format("§rBlock index: %d chunks, %d sections scanned, %d skipped by their palette", LOADED_CHUNKS.size(), sectionsScanned, sectionsSkipped)));
+					for (TaskTimings timings : List.of(SNAPSHOT_TIMINGS, SCAN_TIMINGS)) {
+						source.sendFeedback(Text.literal(timings.name()).formatted(Formatting.YELLOW)
+								.append(Text.literal(String.format(" count: %d, mean: %.1f µs, p99: %.1f µs", timings.count(), timings.meanNanos() / 1000, timings.percentileNanos(0.99) / 1000d)).formatted(Formatting.GRAY)));
+					}
+					for (Subscription subscription : SUBSCRIPTIONS) {
+						source.sendFeedback(Text.literal(subscription.name).formatted(Formatting.AQUA)
+								.append(Text.literal(String.format(" %s, %d blocks in %d chunks", subscription.active ? "active" : "inactive", subscription.size, subscription.chunks.size())).formatted(Formatting.GRAY)));
+					}
+					return Command.SINGLE_SUCCESS;
+				});
+	}
+
+	/**
+	 * The blocks matching a subscriber in the loaded chunks. Only accessed on the render thread.
+	 */
+	public static final class Subscription {
+		private final String name;
+		private final int index;
+		private final long bit;
+		private final BooleanSupplier activePredicate;
+		private final Predicate<BlockState> statePredicate;
+		private final Long2ObjectMap<LongOpenHashSet> chunks = new Long2ObjectOpenHashMap<>();
+		@Nullable
+		private BiPredicate<ClientWorld, BlockPos> filter;
+		@Nullable
+		private Listener listener;
+		private boolean active;
+		private int size;
+
+		@VisibleForTesting
+		Subscription(String name, int index, BooleanSupplier activePredicate, Predicate<BlockState> statePredicate) {
+			this.name = name;
+			this.index = index;
+			this.bit = 1L << index;
+			this.activePredicate = activePredicate;
+			this.statePredicate = statePredicate;
+		}
+
+		/**
+		 * Sets a filter for the blocks matching the state predicate that also depends on their surroundings, such as the block below.
+		 * It is tested on the render thread when a block is found or updated, but not when its neighbours change.
+		 */
+		public Subscription filter(BiPredicate<ClientWorld, BlockPos> filter) {
+			this.filter = filter;
+			return this;
+		}
+
+		public Subscription listener(Listener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		/**
+		 * Drops the matches of the subscription when it becomes inactive. The loaded chunks have to be scanned by the caller when it becomes active.
+		 *
+		 * @return whether the subscription was activated or deactivated
+		 */
+		@VisibleForTesting
+		boolean setActive(boolean active) {
+			if (active == this.active) return false;
+
+			this.active = active;
+			if (!active) clear();
+			return true;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Calls the action with the position of each matching block. The position is mutable and reused between calls, so it must be copied to be kept.
+		 */
+		public void forEach(Consumer<BlockPos> action) {
+			BlockPos.Mutable pos = new BlockPos.Mutable();
+			for (LongOpenHashSet positions : chunks.values()) {
+				for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+					action.accept(pos.set(it.nextLong()));
+				}
+			}
+		}
+
+		private boolean matches(ClientWorld world, BlockPos pos, BlockState state) {
+			return statePredicate.test(state) && (filter == null || filter.test(world, pos));
+		}
+
+		/**
+		 * Adds the matches of a scan, leaving out the positions updated since the scan started which are checked separately.
+		 */
+		private void addScanned(ClientWorld world, long chunkPos, LongArrayList matches, LongOpenHashSet updated, Function<BlockPos, BlockState> states) {
+			LongOpenHashSet positions = chunks.get(chunkPos);
+			BlockPos.Mutable pos = new BlockPos.Mutable();
+
+			for (int i = 0; i < matches.size(); i++) {
+				long packed = matches.getLong(i);
+				if (updated.contains(packed) || positions != null && positions.contains(packed)) continue;
+				if (filter != null && !filter.test(world, pos.set(packed))) continue;
+
+				if (positions == null) chunks.put(chunkPos, positions = new LongOpenHashSet());
+				positions.add(packed);
+				size++;
+				if (listener != null) listener.onAdded(BlockPos.fromLong(packed), states.apply(pos.set(packed)), true);
+			}
+		}
+
+		private void update(ClientWorld world, long chunkPos, BlockPos pos, long packed, BlockState state) {
+			LongOpenHashSet positions = chunks.get(chunkPos);
+
+			if (matches(world, pos, state)) {
+				if (positions == null) chunks.put(chunkPos, positions = new LongOpenHashSet());
+				if (!positions.add(packed)) return;
+
+				size++;
+				if (listener != null) listener.onAdded(pos.toImmutable(), state, false);
+			} else if (positions != null && positions.remove(packed)) {
+				size--;
+				if (positions.isEmpty()) chunks.remove(chunkPos);
+				if (listener != null) listener.onRemoved(pos.toImmutable());
+			}
+		}
+
+		private void removeChunk(long chunkPos) {
+			LongOpenHashSet positions = chunks.remove(chunkPos);
+			if (positions == null) return;
+
+			size -= positions.size();
+			if (listener != null) {
+				for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+					listener.onRemoved(BlockPos.fromLong(it.nextLong()));
+				}
+			}
+		}
+
+		private void clear() {
+			if (listener != null) {
+				for (LongOpenHashSet positions : chunks.values()) {
+					for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+						listener.onRemoved(BlockPos.fromLong(it.nextLong()));
+					}
+				}
+			}
+			chunks.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Notified on the render thread when blocks are added to or removed from a subscription, for features that keep their own state per block.
+	 */
+	public interface Listener {
+		/**
+		 * @param scanned whether the block was found by scanning a loaded chunk, rather than placed by a block update
+		 */
+		default void onAdded(BlockPos pos, BlockState state, boolean scanned) {}
+
+		/**
+		 * Called when the block no longer matches, its chunk is unloaded, or the subscription becomes inactive.
+		 */
+		default void onRemoved(BlockPos pos) {}
+	}
+
+	private static final class LoadedChunk {
+		private final WorldChunk chunk;
+		private final int generation;
+		/**
+		 * The positions updated while a scan of this chunk is running.
+		 */
+		private final LongOpenHashSet updated = new LongOpenHashSet();
+		private int scans;
+
+		private LoadedChunk(WorldChunk chunk, int generation) {
+			this.chunk = chunk;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * @param sectionY      the section coordinate of the section
+	 * @param subscriptions the bits of the subscriptions whose predicates match a state in the palette of the section
+	 * @param states        a copy of the block states of the section
+	 */
+	@VisibleForTesting
+	record SectionSnapshot(int sectionY, long subscriptions, PalettedContainer<BlockState> states) {}
+
+	/**
+	 * @param matches the packed positions of the matching blocks by subscription index, {@code null} for subscriptions without matches
+	 */
+	@VisibleForTesting
+	record ScanResult(long chunkPos, int generation, long subscriptions, LongArrayList[] matches) {}
+}
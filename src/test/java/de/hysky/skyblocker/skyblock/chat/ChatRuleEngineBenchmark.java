@@ -0,0 +1,47 @@
+package de.hysky.skyblocker.skyblock.chat;
+
+import de.hysky.skyblocker.utils.Location;
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Replays the recorded chat log through the sequential {@link ChatRule#isMatch(String)} checks and the {@link ChatRuleEngine}.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class ChatRuleEngineBenchmark {
+	private static final int REPLAYS = 200;
+
+	@Test
+	void replayRecordedChat() throws IOException {
+		List<String> messages = ChatRuleEngineTest.readRecordedChat();
+		List<ChatRule> rules = ChatRuleEngineTest.createRules();
+		ChatRuleEngine engine = ChatRuleEngine.compile(rules);
+		int operations = messages.size() * REPLAYS;
+
+		MicroBenchmark.run("ChatRule#isMatch sequential", operations, () -> {
+			for (int i = 0; i < REPLAYS; i++) {
+				for (String message : messages) {
+					for (ChatRule rule : rules) {
+						ChatRule.Match match = rule.isMatch(message);
+						if (match.matches()) {
+							MicroBenchmark.consume(match);
+							break;
+						}
+					}
+				}
+			}
+		});
+
+		MicroBenchmark.run("ChatRuleEngine#match", operations, () -> {
+			for (int i = 0; i < REPLAYS; i++) {
+				for (String message : messages) {
+					MicroBenchmark.consume(engine.match(message, Location.DUNGEON));
+				}
+			}
+		});
+	}
+}
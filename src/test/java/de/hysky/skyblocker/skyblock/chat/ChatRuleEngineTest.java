@@ -0,0 +1,137 @@
+package de.hysky.skyblocker.skyblock.chat;
+
+import de.hysky.skyblocker.utils.Location;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+class ChatRuleEngineTest {
+	static List<String> readRecordedChat() throws IOException {
+		try (InputStream stream = ChatRuleEngineTest.class.getResourceAsStream("/assets/skyblocker/chat/recorded_chat.txt")) {
+			return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)).lines().toList();
+		}
+	}
+
+	/**
+	 * A mix of partial, exact and regex rules resembling a heavily customized rule list. All rules apply everywhere so that
+	 * {@link ChatRule#isMatch(String)} does not need the current location.
+	 */
+	static List<ChatRule> createRules() {
+		List<ChatRule> rules = new ArrayList<>();
+		rules.add(rule("Clean Hub Chat", true, true, true, "(selling)|(buying)|(lowb)|(visit)|(/p)|(/ah)|(my ah)"));
+		rules.add(rule("Mining Ability Alert", true, false, true, "is now available!"));
+		rules.add(rule("Hide Healing", true, false, true, "Healed you for"));
+		rules.add(rule("Hide Implosion", false, true, true, "Your Implosion hit \\d+ enem(?:y|ies) for [\\d,.]+ damage\\."));
+		rules.add(rule("Hide Cooldown", true, false, false, "This ability is on cooldown for"));
+		rules.add(rule("Hide Blocks", false, false, true, "There are blocks in the way!"));
+		rules.add(rule("Mort", true, false, true, "[npc] mort:"));
+		rules.add(rule("Kill Combo", false, true, false, "^\\+(\\d+) Kill Combo (.+)$"));
+		rules.add(rule("Combo Expired", true, false, true, "kill combo has expired"));
+		rules.add(rule("Wither Key", false, true, false, "(\\w+) has obtained Wither Key!"));
+		rules.add(rule("Blood Door", true, false, false, "The BLOOD DOOR has been opened!"));
+		rules.add(rule("Watcher", true, true, true, "^\\[boss] the watcher: (.*)$"));
+		rules.add(rule("Puzzle Fail", true, true, false, "PUZZLE FAIL! (\\w+) (.*)"));
+		rules.add(rule("Recombobulator", true, false, true, "auto recombobulator"));
+		rules.add(rule("Party Chat Ping", true, true, false, "^Party > (?:\\[[A-Z+]+] )?(\\w+): (.*f7.*)$"));
+		rules.add(rule("Starting", false, false, false, "Starting in 1 second."));
+		rules.add(rule("Sacks", true, true, false, "^\\[Sacks] \\+([\\d,]+) items"));
+		rules.add(rule("Bazaar Buy", true, true, false, "^Bazaar! Bought (\\d+)x (.+) for ([\\d,]+) coins!$"));
+		rules.add(rule("Auction Sold", true, false, true, "[auction]"));
+		rules.add(rule("Rare Drop", true, true, false, "^(?:VERY |CRAZY )?RARE DROP! (.+) \\(\\+(\\d+)% ✯ Magic Find\\)$"));
+		rules.add(rule("Pet Drop", true, false, false, "PET DROP!"));
+		rules.add(rule("Slayer", true, false, true, "slayer quest"));
+		rules.add(rule("Died", true, true, true, "you have died\\. you lost ([\\d,]+) coins!"));
+		rules.add(rule("Autopet", true, false, true, "autopet equipped your"));
+		rules.add(rule("Welcome", false, false, false, "Welcome to Hypixel SkyBlock!"));
+		rules.add(rule("Profile ID", true, true, false, "^Profile ID: ([0-9a-f-]+)$"));
+		rules.add(rule("Warping", false, false, true, "warping..."));
+		rules.add(rule("Fetchur", true, true, false, "^\\[NPC] Fetchur: (.+)$"));
+		rules.add(rule("Bits", true, false, true, "bits!"));
+		rules.add(rule("Mailbox", true, false, true, "unread messages in your mailbox"));
+		rules.add(rule("Hyperion Damage", true, true, false, "Your Hyperion hit (\\d+) enemies for ([\\d,.]+) damage\\."));
+		rules.add(rule("SkyBlock XP", true, true, false, "^\\+(\\d+) SkyBlock XP \\((.+)\\)$"));
+		rules.add(rule("Limbo", true, false, true, "limbo"));
+		rules.add(rule("Bone Plating", true, false, true, "bone plating blocked"));
+		rules.add(rule("Guided Bat", true, false, true, "guided bat hit you"));
+		rules.add(rule("Fire Sale", true, false, true, "fire sale"));
+		rules.add(rule("Loot Share", true, false, false, "LOOT SHARE"));
+		rules.add(rule("Daily Quest", true, true, false, "^DAILY QUEST! You completed (.+)!$"));
+		rules.add(rule("Kuudra Supplies", true, true, false, "(\\w+) recovered one of Elle's supplies! \\((\\d)/6\\)"));
+		rules.add(rule("Essence", true, true, true, "^essence! you found (\\w+) essence x(\\d+)!$"));
+		rules.add(rule("Chest Locked", false, false, true, "that chest is locked!"));
+		rules.add(rule("Silverfish", true, false, true, "silverfish"));
+		rules.add(rule("Maxor", true, true, false, "\\[BOSS] Maxor: .*"));
+		rules.add(rule("Terminals", true, true, false, "(\\w+) (?:activated a terminal|completed a device)! \\((\\d)/(\\d)\\)"));
+		rules.add(rule("Blessing", true, true, true, "blessing of (power|wisdom|life|stone|time) ([ivx]+)"));
+		rules.add(rule("Kat", true, false, true, "[npc] kat:"));
+		rules.add(rule("Skyblock Level", true, true, false, "Your Skyblock Level increased from (\\d+) to (\\d+)!"));
+		rules.add(rule("Bank Interest", true, false, true, "bank interest"));
+		rules.add(rule("AFK", true, false, true, "you are afk"));
+		rules.add(rule("Tips", true, true, false, "You tipped \\d+ players? in \\d+ different games?!"));
+		rules.add(rule("Election", true, false, true, "election is now open"));
+		rules.add(rule("Storage Tip", true, false, true, "don't forget to check out your storage"));
+		rules.add(rule("Digits Only", true, true, false, "[0-9]+"));
+		rules.add(rule("Disabled", true, false, true, "Aaron"));
+		rules.getLast().setEnabled(false);
+
+		return rules;
+	}
+
+	private static ChatRule rule(String name, boolean partialMatch, boolean regex, boolean ignoreCase, String filter) {
+		return new ChatRule(name, true, partialMatch, regex, ignoreCase, filter, EnumSet.noneOf(Location.class), true, false, false, "", null);
+	}
+
+	@Test
+	void matchesSameRulesAsSequentialCheck() throws IOException {
+		List<ChatRule> rules = createRules();
+		ChatRuleEngine engine = ChatRuleEngine.compile(rules);
+		int matched = 0;
+
+		for (String message : readRecordedChat()) {
+			ChatRule expected = rules.stream().filter(rule -> rule.isMatch(message).matches()).findFirst().orElse(null);
+			ChatRuleEngine.Result result = engine.match(message, Location.DUNGEON);
+
+			Assertions.assertEquals(expected, result == null ? null : result.rule(), message);
+			if (result != null) matched++;
+		}
+
+		// Make sure the log actually exercises the rules
+		Assertions.assertTrue(matched > 50);
+	}
+
+	@Test
+	void captureGroups() {
+		ChatRule rule = rule("Party", true, true, false, "^Party > (?:\\[[A-Z+]+] )?(\\w+): (.*)$");
+		rule.setReplaceMessage("$1 said $2");
+		ChatRuleEngine.Result result = ChatRuleEngine.compile(List.of(rule)).match("Party > [MVP+] Aaron: hi", Location.HUB);
+
+		Assertions.assertNotNull(result);
+		Assertions.assertEquals("Aaron said hi", result.match().insertCaptureGroups(rule.getReplaceMessage()));
+	}
+
+	@Test
+	void caseSensitivity() {
+		ChatRuleEngine engine = ChatRuleEngine.compile(List.of(rule("Case Sensitive", true, false, false, "Blood Door")));
+
+		Assertions.assertNotNull(engine.match("The Blood Door has been opened!", Location.DUNGEON));
+		Assertions.assertNull(engine.match("The BLOOD DOOR has been opened!", Location.DUNGEON));
+	}
+
+	@Test
+	void locations() {
+		ChatRule rule = rule("Mining Ability Alert", true, false, true, "is now available!");
+		rule.setValidLocations(EnumSet.of(Location.DWARVEN_MINES, Location.CRYSTAL_HOLLOWS));
+		ChatRuleEngine engine = ChatRuleEngine.compile(List.of(rule));
+
+		Assertions.assertNotNull(engine.match("Mining Speed Boost is now available!", Location.DWARVEN_MINES));
+		Assertions.assertNull(engine.match("Mining Speed Boost is now available!", Location.HUB));
+	}
+}
@@ -0,0 +1,125 @@
+package de.hysky.skyblocker.skyblock.dungeon.puzzle;
+
+import de.hysky.skyblocker.skyblock.dungeon.puzzle.boulder.BoulderSolver;
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Solves every board of each puzzle recorded in {@code src/test/resources/assets/skyblocker/dungeons/puzzleboards.txt}.
+ * Reports the time per board.
+ * <p>
+ * Since boulder layouts change with every push, the boulder search is also run on random layouts, most of which can't be solved,
+ * which is the worst case of the search.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class PuzzleSolverBenchmark {
+	private static final String BOARDS = "/assets/skyblocker/dungeons/puzzleboards.txt";
+	private static final int RANDOM_LAYOUTS = 100;
+	private static final List<Long> boulderLayouts = new ArrayList<>();
+	private static final List<boolean[][]> iceFillBoards = new ArrayList<>();
+	private static final List<int[]> silverfishBoards = new ArrayList<>();
+
+	@BeforeAll
+	static void loadBoards() throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(PuzzleSolverBenchmark.class.getResourceAsStream(BOARDS)), StandardCharsets.UTF_8))) {
+			String puzzle = null;
+			List<String> rows = new ArrayList<>();
+			for (String line = reader.readLine(); ; line = reader.readLine()) {
+				if (line != null && line.startsWith("//")) continue;
+				if (line == null || line.isBlank()) {
+					if (puzzle != null) addBoard(puzzle, parseCells(rows));
+					if (line == null) break;
+					puzzle = null;
+					rows = new ArrayList<>();
+				} else if (puzzle == null) {
+					puzzle = line.strip();
+				} else {
+					rows.add(line.strip());
+				}
+			}
+		}
+	}
+
+	private static boolean[][] parseCells(List<String> rows) {
+		boolean[][] cells = new boolean[rows.size()][];
+		for (int i = 0; i < cells.length; i++) {
+			String row = rows.get(i);
+			cells[i] = new boolean[row.length()];
+			for (int j = 0; j < row.length(); j++) {
+				cells[i][j] = row.charAt(j) == '#' || row.charAt(j) == 'B';
+			}
+		}
+		return cells;
+	}
+
+	private static void addBoard(String puzzle, boolean[][] cells) {
+		switch (puzzle) {
+			case "boulder" -> {
+				// The recorded rows are the rows of the board between the wall and the starting row
+				char[][] grid = new char[BoulderSolver.HEIGHT][BoulderSolver.WIDTH];
+				for (int i = 0; i < cells.length; i++) {
+					for (int j = 0; j < cells[i].length; j++) {
+						grid[i + 1][j] = cells[i][j] ? 'B' : '.';
+					}
+				}
+				boulderLayouts.add(BoulderSolver.encode(grid));
+			}
+			case "icefill" -> iceFillBoards.add(cells);
+			case "silverfish" -> silverfishBoards.add(SilverfishSolver.encode(cells));
+			default -> throw new IllegalArgumentException("Unknown puzzle " + puzzle);
+		}
+	}
+
+	@Test
+	void boulder() {
+		BoulderSolver solver = new BoulderSolver();
+		if (!boulderLayouts.isEmpty()) {
+			MicroBenchmark.run("Boulder search per recorded board", boulderLayouts.size(), () -> boulderLayouts.forEach(layout -> MicroBenchmark.consume(solver.solve(layout))));
+		}
+
+		Random random = new Random(0);
+		long[] randomLayouts = new long[RANDOM_LAYOUTS];
+		for (int i = 0; i < randomLayouts.length; i++) {
+			// About half of the cells are boulders
+			randomLayouts[i] = random.nextLong() & (1L << (BoulderSolver.HEIGHT - 2) * BoulderSolver.WIDTH) - 1;
+		}
+		MicroBenchmark.run("Boulder search per random board", randomLayouts.length, () -> {
+			for (long layout : randomLayouts) {
+				MicroBenchmark.consume(solver.solve(layout));
+			}
+		});
+	}
+
+	@Test
+	void iceFill() {
+		MicroBenchmark.run("Ice fill search per recorded board", iceFillBoards.size(), () -> {
+			for (boolean[][] board : iceFillBoards) {
+				MicroBenchmark.consume(IceFillSolver.solve(board.length, board[0].length, IceFillSolver.encode(board)));
+			}
+		});
+	}
+
+	@Test
+	void silverfish() {
+		int cells = SilverfishSolver.SIZE * SilverfishSolver.SIZE;
+		// Start from every cell, since the silverfish moves around the board
+		MicroBenchmark.run("Silverfish search per recorded board and start", silverfishBoards.size() * cells, () -> {
+			for (int[] rows : silverfishBoards) {
+				for (int start = 0; start < cells; start++) {
+					MicroBenchmark.consume(SilverfishSolver.solve(rows, start));
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,71 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+public class RoomArchiveTest {
+	private static final Path SKELETONS_DIR = Path.of("src/main/resources/assets/skyblocker/dungeons");
+
+	static RoomArchive readArchive() throws IOException {
+		return RoomArchive.read(openArchive());
+	}
+
+	private static InputStream openArchive() {
+		return RoomArchiveTest.class.getResourceAsStream("/assets/skyblocker/dungeons/rooms.bin");
+	}
+
+	@Test
+	void testMatchesSkeletons() throws IOException, ClassNotFoundException {
+		RoomArchive archive = readArchive();
+		Assertions.assertTrue(archive.verify());
+
+		List<Path> skeletons;
+		try (Stream<Path> files = Files.walk(SKELETONS_DIR)) {
+			skeletons = files.filter(path -> path.toString().endsWith(".skeleton")).toList();
+		}
+		Assertions.assertEquals(skeletons.size(), archive.getRoomCount());
+
+		for (Path skeleton : skeletons) {
+			Path relative = SKELETONS_DIR.relativize(skeleton);
+			String dungeon = relative.getName(0).toString();
+			String shape = relative.getName(1).toString();
+			String room = relative.getFileName().toString().replace(".skeleton", "");
+			try (ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(Files.newInputStream(skeleton)))) {
+				Assertions.assertArrayEquals((int[]) in.readObject(), archive.readShape(dungeon, shape).get(room), room);
+			}
+			Assertions.assertEquals(shape, archive.getShape(dungeon, room));
+		}
+	}
+
+	@Test
+	void testOpenCachesArchive(@TempDir Path dir) throws IOException {
+		Map<String, int[]> expected = readArchive().readShape("catacombs", "puzzle");
+		long size;
+		try (InputStream in = openArchive()) {
+			size = in.readAllBytes().length;
+		}
+
+		Path cacheFile = dir.resolve("dungeon_rooms.bin");
+		Assertions.assertEquals(expected.keySet(), RoomArchive.open(openArchive(), cacheFile).readShape("catacombs", "puzzle").keySet());
+		Assertions.assertEquals(size, Files.size(cacheFile));
+
+		// A cache file with a different header is replaced
+		Path staleCacheFile = dir.resolve("stale_dungeon_rooms.bin");
+		Files.write(staleCacheFile, new byte[]{1, 2, 3});
+		RoomArchive archive = RoomArchive.open(openArchive(), staleCacheFile);
+		Assertions.assertEquals(size, Files.size(staleCacheFile));
+		Assertions.assertTrue(archive.verify());
+		archive.readShape("catacombs", "puzzle").forEach((room, blocks) -> Assertions.assertArrayEquals(expected.get(room), blocks, room));
+	}
+}
@@ -0,0 +1,77 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import net.minecraft.util.math.BlockPos;
+import org.joml.Vector2i;
+import org.joml.Vector2ic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the blocks of every 1x1 room in all four directions, first by searching the blocks of each possible room like
+ * room matching used to, then with the {@link RoomIndex}. Reports the time per checked block.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class RoomIndexBenchmark {
+	private static final int BLOCKS_PER_ROOM = 200;
+
+	@Test
+	void checkBlocks() throws IOException {
+		Map<String, int[]> roomsData = RoomIndexTest.readRooms("1x1");
+		RoomIndex index = RoomIndex.build(roomsData);
+		Vector2ic corner = new Vector2i(-200, -200);
+		Room.Direction[] directions = Room.Direction.values();
+		// Scan each room as if it was placed facing north-west
+		List<int[]> scans = new ArrayList<>();
+		for (int[] blocks : roomsData.values()) {
+			int[] scan = new int[Math.min(BLOCKS_PER_ROOM, blocks.length)];
+			for (int i = 0; i < scan.length; i++) {
+				scan[i] = blocks[(int) ((long) i * blocks.length / scan.length)];
+			}
+			scans.add(scan);
+		}
+		int operations = scans.stream().mapToInt(scan -> scan.length).sum();
+
+		MicroBenchmark.run("Room data binary search per room", operations, () -> {
+			for (int[] scan : scans) {
+				List<List<String>> possibleRooms = new ArrayList<>();
+				for (int i = 0; i < directions.length; i++) possibleRooms.add(new ArrayList<>(roomsData.keySet()));
+				for (int block : scan) {
+					BlockPos pos = new BlockPos((block >> 24) + corner.x(), block >> 16 & 0xFF, (block >> 8 & 0xFF) + corner.y());
+					for (int i = 0; i < directions.length; i++) {
+						BlockPos relative = DungeonMapUtils.actualToRelative(directions[i], corner, pos);
+						int encoded = relative.getX() << 24 | relative.getY() << 16 | relative.getZ() << 8 | (byte) block;
+						List<String> possibleDirectionRooms = new ArrayList<>();
+						for (String room : possibleRooms.get(i)) {
+							if (Arrays.binarySearch(roomsData.get(room), encoded) >= 0) possibleDirectionRooms.add(room);
+						}
+						possibleRooms.set(i, possibleDirectionRooms);
+					}
+				}
+				MicroBenchmark.consume(possibleRooms);
+			}
+		});
+
+		MicroBenchmark.run("RoomIndex#retain", operations, () -> {
+			for (int[] scan : scans) {
+				long[][] possibleRooms = new long[directions.length][];
+				for (int i = 0; i < directions.length; i++) possibleRooms[i] = index.allRooms();
+				for (int block : scan) {
+					int x = (block >> 24) + corner.x();
+					int y = block >> 16 & 0xFF;
+					int z = (block >> 8 & 0xFF) + corner.y();
+					for (int i = 0; i < directions.length; i++) {
+						index.retain(possibleRooms[i], RoomIndex.encode(directions[i], corner, x, y, z, (byte) block));
+					}
+				}
+				MicroBenchmark.consume(possibleRooms);
+			}
+		});
+	}
+}
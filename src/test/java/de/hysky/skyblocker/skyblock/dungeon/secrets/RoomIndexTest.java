@@ -0,0 +1,105 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import net.minecraft.util.math.BlockPos;
+import org.joml.Vector2i;
+import org.joml.Vector2ic;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RoomIndexTest {
+	@Test
+	void testRetain() {
+		RoomIndex index = RoomIndex.build(Map.of(
+				"a", new int[]{1, 2, 3},
+				"b", new int[]{2, 3, 4},
+				"c", new int[]{3, 4, 5}
+		));
+		Assertions.assertEquals(List.of("a", "b", "c"), index.getNames());
+		Assertions.assertEquals(5, index.blockCount());
+
+		long[] candidates = index.allRooms();
+		Assertions.assertEquals(3, index.retain(candidates, 3));
+		Assertions.assertEquals(2, index.retain(candidates, 4));
+		Assertions.assertEquals(1, index.retain(candidates, 2));
+		Assertions.assertEquals(index.indexOf("b"), Long.numberOfTrailingZeros(candidates[0]));
+		Assertions.assertEquals(0, index.retain(candidates, 6));
+	}
+
+	@Test
+	void testContains() {
+		RoomIndex index = RoomIndex.build(Map.of("a", new int[]{-5, 1}, "b", new int[]{1, 7}));
+		int a = index.indexOf("a");
+		int b = index.indexOf("b");
+		Assertions.assertTrue(index.contains(a, -5));
+		Assertions.assertFalse(index.contains(b, -5));
+		Assertions.assertTrue(index.contains(a, 1));
+		Assertions.assertTrue(index.contains(b, 1));
+		Assertions.assertFalse(index.contains(a, 7));
+		Assertions.assertEquals(-1, index.indexOf("c"));
+	}
+
+	@Test
+	void testManyRooms() {
+		Map<String, int[]> roomsData = new HashMap<>();
+		for (int room = 0; room < 130; room++) {
+			roomsData.put("room-%03d".formatted(room), new int[]{0, room + 1});
+		}
+		RoomIndex index = RoomIndex.build(roomsData);
+		Assertions.assertEquals(3, index.words());
+
+		long[] candidates = index.allRooms();
+		Assertions.assertEquals(130, index.retain(candidates, 0));
+		Assertions.assertEquals(1, index.retain(candidates, 129));
+		Assertions.assertEquals(128, 2 << 6 | Long.numberOfTrailingZeros(candidates[2]));
+		Assertions.assertEquals("room-128", index.getName(128));
+	}
+
+	@Test
+	void testEncode() {
+		Vector2ic physicalCornerPos = new Vector2i(-104, -200);
+		BlockPos pos = new BlockPos(-90, 70, -180);
+		for (Room.Direction direction : Room.Direction.values()) {
+			BlockPos relative = DungeonMapUtils.actualToRelative(direction, physicalCornerPos, pos);
+			int expected = relative.getX() << 24 | relative.getY() << 16 | relative.getZ() << 8 | 12;
+			Assertions.assertEquals(expected, RoomIndex.encode(direction, physicalCornerPos, pos.getX(), pos.getY(), pos.getZ(), (byte) 12));
+		}
+	}
+
+	/**
+	 * Checks that the index narrows down the 1x1 rooms the same way as searching the blocks of each room.
+	 */
+	@Test
+	void testMatchesRoomsData() throws IOException {
+		Map<String, int[]> roomsData = readRooms("1x1");
+		RoomIndex index = RoomIndex.build(roomsData);
+		Assertions.assertEquals(roomsData.size(), index.size());
+
+		for (String name : roomsData.keySet()) {
+			int[] blocks = roomsData.get(name);
+			long[] candidates = index.allRooms();
+			List<String> possibleRooms = new ArrayList<>(roomsData.keySet());
+			for (int i = 0; i < blocks.length; i += 97) {
+				int block = blocks[i];
+				int remaining = index.retain(candidates, block);
+				possibleRooms.removeIf(room -> Arrays.binarySearch(roomsData.get(room), block) < 0);
+				Assertions.assertEquals(possibleRooms.size(), remaining);
+			}
+			Assertions.assertTrue(possibleRooms.contains(name));
+			for (String room : possibleRooms) {
+				int roomId = index.indexOf(room);
+				Assertions.assertNotEquals(0, candidates[roomId >>> 6] & 1L << roomId);
+			}
+		}
+	}
+
+	static Map<String, int[]> readRooms(String shape) throws IOException {
+		return RoomArchiveTest.readArchive().readShape("catacombs", shape);
+	}
+}
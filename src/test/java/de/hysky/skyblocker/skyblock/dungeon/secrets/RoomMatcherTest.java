@@ -0,0 +1,97 @@
+package de.hysky.skyblocker.skyblock.dungeon.secrets;
+
+import net.minecraft.util.math.BlockPos;
+import org.joml.Vector2i;
+import org.joml.Vector2ic;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class RoomMatcherTest {
+	@Test
+	void testBlockPosBitSet() {
+		BlockPosBitSet set = new BlockPosBitSet();
+		Assertions.assertTrue(set.add(-200, 70, -185));
+		Assertions.assertTrue(set.add(-199, 70, -185));
+		Assertions.assertTrue(set.add(15, 255, 0));
+		Assertions.assertFalse(set.add(-200, 70, -185));
+		Assertions.assertEquals(3, set.size());
+
+		Assertions.assertTrue(set.contains(-200, 70, -185));
+		Assertions.assertTrue(set.contains(15, 255, 0));
+		Assertions.assertFalse(set.contains(-200, 71, -185));
+		Assertions.assertFalse(set.contains(-184, 70, -185));
+	}
+
+	@Test
+	void testOrderSkipsCheckedBlocks() {
+		RoomIndex index = RoomIndex.build(Map.of("a", new int[]{1, 2}, "b", new int[]{1}));
+		Room.Direction[] directions = {Room.Direction.NW};
+		Vector2ic[] corners = {new Vector2i(0, 0)};
+		// Block 1 is in both rooms and block 2 is only in room a, block 3 isn't in any room
+		RoomMatcher.Snapshot snapshot = new RoomMatcher.Snapshot(new long[]{BlockPos.asLong(0, 0, 0), BlockPos.asLong(0, 0, 0), BlockPos.asLong(0, 0, 0)}, new byte[]{1, 3, 2}, 3);
+
+		Assertions.assertArrayEquals(new int[]{2, 0, 1}, RoomMatcher.order(snapshot, new BlockPosBitSet(), index, directions, corners));
+
+		BlockPosBitSet checked = new BlockPosBitSet();
+		checked.add(0, 0, 0);
+		Assertions.assertArrayEquals(new int[0], RoomMatcher.order(snapshot, checked, index, directions, corners));
+	}
+
+	/**
+	 * Checks that scanning the blocks of the 1x1 rooms in the order of {@link RoomMatcher#order(RoomMatcher.Snapshot, BlockPosBitSet, RoomIndex, Room.Direction[], Vector2ic[])}
+	 * needs fewer blocks to narrow down the room than scanning them in position order.
+	 */
+	@Test
+	void testOrderNeedsFewerBlocks() throws IOException {
+		Map<String, int[]> roomsData = RoomIndexTest.readRooms("1x1");
+		RoomIndex index = RoomIndex.build(roomsData);
+		Room.Direction[] directions = Room.Direction.values();
+		Vector2ic[] corners = new Vector2ic[directions.length];
+		Arrays.fill(corners, new Vector2i(-200, -200));
+
+		int positionOrderBlocks = 0;
+		int orderedBlocks = 0;
+		for (int[] blocks : roomsData.values()) {
+			long[] positions = new long[blocks.length];
+			byte[] ids = new byte[blocks.length];
+			for (int i = 0; i < blocks.length; i++) {
+				positions[i] = BlockPos.asLong((blocks[i] >> 24) - 200, blocks[i] >> 16 & 0xFF, (blocks[i] >> 8 & 0xFF) - 200);
+				ids[i] = (byte) blocks[i];
+			}
+			RoomMatcher.Snapshot snapshot = new RoomMatcher.Snapshot(positions, ids, blocks.length);
+
+			int positionOrder = blocksToNarrowDown(index, directions, corners, snapshot, IntStream.range(0, blocks.length).toArray());
+			int ordered = blocksToNarrowDown(index, directions, corners, snapshot, RoomMatcher.order(snapshot, new BlockPosBitSet(), index, directions, corners));
+			// Rooms with identical blocks can't be narrowed down to one room in either order
+			if (positionOrder < 0 || ordered < 0) continue;
+
+			positionOrderBlocks += positionOrder;
+			orderedBlocks += ordered;
+		}
+
+		Assertions.assertTrue(orderedBlocks < positionOrderBlocks, "Ordered scanning checked " + orderedBlocks + " blocks, position order checked " + positionOrderBlocks + " blocks");
+	}
+
+	/**
+	 * @return the number of blocks checked in the given order until only one room is left, or -1 if there's more than one room left after all blocks
+	 */
+	private static int blocksToNarrowDown(RoomIndex index, Room.Direction[] directions, Vector2ic[] corners, RoomMatcher.Snapshot snapshot, int[] order) {
+		long[][] possibleRooms = new long[directions.length][];
+		for (int i = 0; i < directions.length; i++) possibleRooms[i] = index.allRooms();
+
+		for (int checked = 0; checked < order.length; checked++) {
+			long pos = snapshot.positions()[order[checked]];
+			int remaining = 0;
+			for (int i = 0; i < directions.length; i++) {
+				remaining += index.retain(possibleRooms[i], RoomIndex.encode(directions[i], corners[i], BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos), snapshot.ids()[order[checked]]));
+			}
+			if (remaining == 1) return checked + 1;
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,72 @@
+package de.hysky.skyblocker.skyblock.item;
+
+import de.hysky.skyblocker.utils.ItemUtils;
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the values that tooltip adders, slot text adders and item backgrounds read for every slot of a full 54-slot chest,
+ * first by recomputing them from the components like before {@link DerivedStackData}, then through {@link de.hysky.skyblocker.injected.SkyblockerStack SkyblockerStack}.
+ * Reports the time per slot and the bytes allocated per frame.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class DerivedStackDataBenchmark {
+	private static final int SLOTS = 54;
+	private static final int FRAMES = 1000;
+
+	@BeforeAll
+	static void setup() {
+		DerivedStackDataTest.setup();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void readFrame() {
+		List<ItemStack> stacks = new ArrayList<>();
+		for (int i = 0; i < SLOTS; i++) {
+			// Half Skyblock items, half vanilla items like the glass panes of most menus
+			stacks.add(i % 2 == 0 ? DerivedStackDataTest.createStack("ITEM_" + i, "LEGENDARY") : new ItemStack(Items.BLACK_STAINED_GLASS_PANE));
+		}
+
+		measure("Recomputed per slot", () -> {
+			for (ItemStack stack : stacks) {
+				MicroBenchmark.consume(ItemUtils.getItemId(stack));
+				MicroBenchmark.consume(ItemUtils.getItemUuid(stack));
+				MicroBenchmark.consume(ItemUtils.getNeuId(stack));
+				MicroBenchmark.consume(ItemUtils.getItemRarity(stack));
+				MicroBenchmark.consume(ItemUtils.getLore(stack).stream().map(Text::getString).filter(line -> line.contains("Fuel: ")).findFirst());
+			}
+		});
+		measure("Derived stack data per slot", () -> {
+			for (ItemStack stack : stacks) {
+				MicroBenchmark.consume(stack.getSkyblockId());
+				MicroBenchmark.consume(stack.getUuid());
+				MicroBenchmark.consume(stack.getNeuName());
+				MicroBenchmark.consume(stack.getSkyblockRarity());
+				MicroBenchmark.consume(ItemUtils.getLoreLineIf(stack, ItemUtils.FUEL_PREDICATE));
+			}
+		});
+	}
+
+	private static void measure(String name, Runnable frame) {
+		MicroBenchmark.run(name, SLOTS * FRAMES, () -> {
+			for (int i = 0; i < FRAMES; i++) frame.run();
+		});
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long before = threadBean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < FRAMES; i++) frame.run();
+		long bytes = threadBean.getCurrentThreadAllocatedBytes() - before;
+		System.out.printf(Locale.ENGLISH, "[Benchmark] %s: %,d bytes allocated per frame%n", name, bytes / FRAMES);
+	}
+}
@@ -0,0 +1,85 @@
+package de.hysky.skyblocker.skyblock.item;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.LoreComponent;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class DerivedStackDataTest {
+	@BeforeAll
+	public static void setup() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	void testVanillaStack() {
+		ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+		Assertions.assertEquals("", stack.getSkyblockId());
+		Assertions.assertEquals("", stack.getUuid());
+		Assertions.assertTrue(stack.getPetInfo().isEmpty());
+		Assertions.assertEquals(SkyblockItemRarity.UNKNOWN, stack.getSkyblockRarity());
+		Assertions.assertNull(stack.getSkyblockDurability());
+		Assertions.assertEquals(List.of(), stack.getLoreStrings());
+	}
+
+	@Test
+	void testComponentChanges() {
+		ItemStack stack = createStack("ASPECT_OF_THE_END", "RARE");
+		Assertions.assertEquals("ASPECT_OF_THE_END", stack.getSkyblockId());
+		Assertions.assertEquals("ASPECT_OF_THE_END", stack.getNeuName());
+		Assertions.assertEquals(SkyblockItemRarity.RARE, stack.getSkyblockRarity());
+
+		// The cached values are replaced when the custom data or lore changes
+		stack.set(DataComponentTypes.CUSTOM_DATA, createCustomData("ASPECT_OF_THE_VOID"));
+		Assertions.assertEquals("ASPECT_OF_THE_VOID", stack.getSkyblockId());
+		Assertions.assertEquals("ASPECT_OF_THE_VOID", stack.getNeuName());
+		stack.set(DataComponentTypes.LORE, createLore("EPIC"));
+		Assertions.assertEquals(SkyblockItemRarity.EPIC, stack.getSkyblockRarity());
+		Assertions.assertEquals(List.of("Teleports you forwards.", "EPIC SWORD"), stack.getLoreStrings());
+
+		stack.remove(DataComponentTypes.CUSTOM_DATA);
+		Assertions.assertEquals("", stack.getSkyblockId());
+	}
+
+	@Test
+	void testCopy() {
+		ItemStack stack = createStack("ASPECT_OF_THE_END", "RARE");
+		Assertions.assertEquals("ASPECT_OF_THE_END", stack.getSkyblockId());
+
+		ItemStack copy = stack.copy();
+		Assertions.assertEquals("ASPECT_OF_THE_END", copy.getSkyblockId());
+		copy.set(DataComponentTypes.CUSTOM_DATA, createCustomData("ASPECT_OF_THE_VOID"));
+		Assertions.assertEquals("ASPECT_OF_THE_VOID", copy.getSkyblockId());
+		// Modifying the copy doesn't affect the original
+		Assertions.assertEquals("ASPECT_OF_THE_END", stack.getSkyblockId());
+	}
+
+	static ItemStack createStack(String id, String rarity) {
+		ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+		stack.set(DataComponentTypes.CUSTOM_DATA, createCustomData(id));
+		stack.set(DataComponentTypes.LORE, createLore(rarity));
+		return stack;
+	}
+
+	private static NbtComponent createCustomData(String id) {
+		NbtCompound nbt = new NbtCompound();
+		nbt.putString("id", id);
+		nbt.putString("uuid", "098f4ac1-bf99-4829-a183-70e3a6bc8b2a");
+		return NbtComponent.of(nbt);
+	}
+
+	private static LoreComponent createLore(String rarity) {
+		return new LoreComponent(List.of(Text.literal("Teleports you forwards."), Text.literal(rarity + " SWORD")));
+	}
+}
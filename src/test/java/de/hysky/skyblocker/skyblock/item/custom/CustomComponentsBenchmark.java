@@ -0,0 +1,66 @@
+package de.hysky.skyblocker.skyblock.item.custom;
+
+import de.hysky.skyblocker.skyblock.item.DerivedStackDataTest;
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import de.hysky.skyblocker.utils.Utils;
+import net.minecraft.component.ComponentType;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Looks up the components that item rendering reads for armor and player heads, first from the component map directly and then
+ * through {@link net.minecraft.component.ComponentHolder#get(ComponentType) ComponentHolder#get}, which the custom trims and helmet textures hook.
+ * Reports the time per lookup while on Skyblock.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class CustomComponentsBenchmark {
+	private static final int ITERATIONS = 100_000;
+	private static final List<ComponentType<?>> TYPES = List.of(DataComponentTypes.CUSTOM_DATA, DataComponentTypes.LORE, DataComponentTypes.DYED_COLOR, DataComponentTypes.TRIM, DataComponentTypes.PROFILE);
+
+	@BeforeAll
+	static void setup() throws ReflectiveOperationException {
+		DerivedStackDataTest.setup();
+		setOnSkyblock(true);
+	}
+
+	@AfterAll
+	static void cleanup() throws ReflectiveOperationException {
+		setOnSkyblock(false);
+	}
+
+	@Test
+	void get() {
+		// A Skyblock item without any customizations and a vanilla item
+		List<ItemStack> stacks = List.of(DerivedStackDataTest.createStack("ASPECT_OF_THE_END", "RARE"), new ItemStack(Items.PLAYER_HEAD));
+		int operations = ITERATIONS * stacks.size() * TYPES.size();
+
+		MicroBenchmark.run("Component map get", operations, () -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				for (ItemStack stack : stacks) {
+					for (ComponentType<?> type : TYPES) MicroBenchmark.consume(stack.getComponents().get(type));
+				}
+			}
+		});
+		MicroBenchmark.run("Hooked ComponentHolder get", operations, () -> {
+			for (int i = 0; i < ITERATIONS; i++) {
+				for (ItemStack stack : stacks) {
+					for (ComponentType<?> type : TYPES) MicroBenchmark.consume(stack.get(type));
+				}
+			}
+		});
+	}
+
+	private static void setOnSkyblock(boolean onSkyblock) throws ReflectiveOperationException {
+		Field field = Utils.class.getDeclaredField("isOnSkyblock");
+		field.setAccessible(true);
+		field.setBoolean(null, onSkyblock);
+	}
+}
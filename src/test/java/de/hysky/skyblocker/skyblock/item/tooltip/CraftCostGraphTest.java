@@ -0,0 +1,85 @@
+package de.hysky.skyblocker.skyblock.item.tooltip;
+
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCostGraph.Ingredient;
+import de.hysky.skyblocker.skyblock.item.tooltip.CraftCostGraph.Recipe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+public class CraftCostGraphTest {
+	@Test
+	void testChain() {
+		CraftCostGraph graph = CraftCostGraph.build(Map.of(
+				"ENCHANTED_IRON", List.of(new Recipe(1, List.of(new Ingredient("IRON_INGOT", 160)))),
+				"ENCHANTED_IRON_BLOCK", List.of(new Recipe(1, List.of(new Ingredient("ENCHANTED_IRON", 160)))),
+				"IRON_CHESTPLATE", List.of(new Recipe(1, List.of(new Ingredient("IRON_INGOT", 8))))
+		));
+		Assertions.assertEquals(4, graph.size());
+		Assertions.assertEquals(4, graph.componentCount());
+
+		CraftCostGraph.Costs costs = graph.compute(prices(Map.of("IRON_INGOT", 5d, "ENCHANTED_IRON", 1000d)));
+		Assertions.assertEquals(800, costs.getCraftCost("ENCHANTED_IRON"));
+		// The enchanted iron is cheaper to craft than to buy
+		Assertions.assertEquals(800, costs.getUnitCost("ENCHANTED_IRON"));
+		Assertions.assertEquals(128_000, costs.getCraftCost("ENCHANTED_IRON_BLOCK"));
+		Assertions.assertEquals(40, costs.getCraftCost("IRON_CHESTPLATE"));
+		Assertions.assertEquals(0, costs.getCraftCost("IRON_INGOT"));
+		Assertions.assertEquals(0, costs.getCraftCost("UNKNOWN"));
+	}
+
+	@Test
+	void testCycle() {
+		// Compressing and decompressing slime forms a cycle
+		CraftCostGraph graph = CraftCostGraph.build(Map.of(
+				"SLIME_BALL", List.of(new Recipe(9, List.of(new Ingredient("SLIME_BLOCK", 1)))),
+				"SLIME_BLOCK", List.of(new Recipe(1, List.of(new Ingredient("SLIME_BALL", 9)))),
+				"ENCHANTED_SLIME_BALL", List.of(new Recipe(1, List.of(new Ingredient("SLIME_BALL", 160))))
+		));
+		Assertions.assertEquals(2, graph.componentCount());
+
+		// Only the block can be bought, so the balls cost a ninth of a block
+		CraftCostGraph.Costs costs = graph.compute(item -> item.equals("SLIME_BLOCK") ? 90 : 0);
+		Assertions.assertEquals(10, costs.getCraftCost("SLIME_BALL"));
+		Assertions.assertEquals(90, costs.getUnitCost("SLIME_BLOCK"));
+		Assertions.assertEquals(90, costs.getCraftCost("SLIME_BLOCK"));
+		Assertions.assertEquals(1600, costs.getCraftCost("ENCHANTED_SLIME_BALL"));
+
+		// Nothing can be bought, so nothing in the cycle has a cost
+		costs = graph.compute(item -> 0);
+		Assertions.assertEquals(0, costs.getCraftCost("SLIME_BALL"));
+		Assertions.assertEquals(0, costs.getCraftCost("ENCHANTED_SLIME_BALL"));
+	}
+
+	@Test
+	void testCheapestRecipe() {
+		CraftCostGraph graph = CraftCostGraph.build(Map.of(
+				"REFINED_DIAMOND", List.of(
+						new Recipe(1, List.of(new Ingredient("ENCHANTED_DIAMOND_BLOCK", 2))),
+						new Recipe(1, List.of(new Ingredient("ENCHANTED_DIAMOND", 320)))
+				),
+				"ENCHANTED_DIAMOND_BLOCK", List.of(new Recipe(1, List.of(new Ingredient("ENCHANTED_DIAMOND", 160))))
+		));
+
+		CraftCostGraph.Costs costs = graph.compute(prices(Map.of("ENCHANTED_DIAMOND", 10d, "ENCHANTED_DIAMOND_BLOCK", 1000d)));
+		Assertions.assertEquals(2000, costs.getCraftCost("REFINED_DIAMOND"));
+
+		CraftCosts.Breakdown breakdown = costs.getBreakdown("REFINED_DIAMOND");
+		Assertions.assertNotNull(breakdown);
+		Assertions.assertTrue(breakdown.crafted());
+		Assertions.assertEquals(2000, breakdown.cost());
+		CraftCosts.Breakdown block = breakdown.inputs().getFirst();
+		Assertions.assertEquals("ENCHANTED_DIAMOND_BLOCK", block.item());
+		Assertions.assertEquals(2, block.amount());
+		// Buying the blocks is cheaper than crafting them, so they aren't broken down further
+		Assertions.assertFalse(block.crafted());
+		Assertions.assertEquals(List.of(), block.inputs());
+		Assertions.assertNull(costs.getBreakdown("ENCHANTED_DIAMOND"));
+	}
+
+	private static ToDoubleFunction<String> prices(Map<String, Double> prices) {
+		return item -> prices.getOrDefault(item, 0d);
+	}
+}
@@ -0,0 +1,87 @@
+package de.hysky.skyblocker.skyblock.itemlist;
+
+import de.hysky.skyblocker.skyblock.itemlist.recipebook.FilterOption;
+import de.hysky.skyblocker.utils.ItemUtils;
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.LoreComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays typing queries into the recipe book search over an item repository of about the size of the NEU repo,
+ * first with the linear scan that lower-cases every item on every keystroke, then with {@link ItemSearchIndex}.
+ * Reports the time per keystroke.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class ItemSearchIndexBenchmark {
+	private static final int ITEMS = 8000;
+	private static final String[] WORDS = {"aspect", "void", "hyperion", "enchanted", "diamond", "sword", "helmet", "dragon", "crystal", "shard", "pickaxe", "rod"};
+	private static final List<String> QUERIES = List.of("hyperion", "enchanted dia", "ability damage", "dragon");
+	private static List<ItemStack> items;
+
+	@BeforeAll
+	static void setup() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+
+		items = new ArrayList<>(ITEMS);
+		for (int i = 0; i < ITEMS; i++) {
+			ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+			stack.set(DataComponentTypes.CUSTOM_NAME, Text.literal(WORDS[i % WORDS.length] + " " + WORDS[i * 7 % WORDS.length] + " " + i));
+			stack.set(DataComponentTypes.LORE, new LoreComponent(List.of(
+					Text.literal("Damage: +" + i % 300),
+					Text.literal("Strength: +" + i % 150),
+					Text.literal(""),
+					Text.literal("Ability: " + WORDS[i * 3 % WORDS.length] + " RIGHT CLICK"),
+					Text.literal("Deals ability damage to nearby enemies."),
+					Text.literal("LEGENDARY SWORD")
+			)));
+			items.add(stack);
+		}
+	}
+
+	@Test
+	void typeQueries() {
+		ItemSearchIndex index = new ItemSearchIndex(items);
+		int keystrokes = QUERIES.stream().mapToInt(String::length).sum();
+
+		MicroBenchmark.run("Linear scan per keystroke", keystrokes, () -> {
+			for (String query : QUERIES) {
+				for (int length = 1; length <= query.length(); length++) {
+					MicroBenchmark.consume(linearScan(query.substring(0, length)));
+				}
+			}
+		});
+		MicroBenchmark.run("Search index per keystroke", keystrokes, () -> {
+			for (String query : QUERIES) {
+				ItemSearchIndex.Result result = null;
+				for (int length = 1; length <= query.length(); length++) {
+					result = index.search(query.substring(0, length), FilterOption.ALL, result);
+				}
+				MicroBenchmark.consume(result);
+			}
+		});
+	}
+
+	private static List<ItemStack> linearScan(String query) {
+		List<ItemStack> results = new ArrayList<>();
+		for (ItemStack stack : items) {
+			String name = stack.getName().getString().toLowerCase(Locale.ENGLISH);
+			if (name.contains(query) || ItemUtils.getLore(stack).stream().map(Text::getString).map(line -> line.toLowerCase(Locale.ENGLISH)).anyMatch(line -> line.contains(query))) {
+				results.add(stack);
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,48 @@
+package de.hysky.skyblocker.utils;
+
+import com.google.gson.stream.JsonReader;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class JsonStreamDecoderTest {
+	@Test
+	void testObject2DoubleMap() throws IOException {
+		Object2DoubleMap<String> map = decode(JsonStreamDecoder.object2DoubleMap(), "{\"ENCHANTED_DIAMOND\": 1234.5, \"HYPERION\": 900000000, \"NO_PRICE\": null}");
+		Assertions.assertEquals(2, map.size());
+		Assertions.assertEquals(1234.5, map.getDouble("ENCHANTED_DIAMOND"));
+		Assertions.assertEquals(900_000_000, map.getDouble("HYPERION"));
+		Assertions.assertFalse(map.containsKey("NO_PRICE"));
+	}
+
+	@Test
+	void testObject2IntMap() throws IOException {
+		Object2IntMap<String> map = decode(JsonStreamDecoder.object2IntMap(), "{\"RIFT_TROPHY_WYLD\": 12000, \"NO_PRICE\": null}");
+		Assertions.assertEquals(1, map.size());
+		Assertions.assertEquals(12000, map.getInt("RIFT_TROPHY_WYLD"));
+	}
+
+	@Test
+	void testObject2ObjectMap() throws IOException {
+		Object2ObjectMap<String, BazaarProduct> map = decode(JsonStreamDecoder.object2ObjectMap(BazaarProduct.CODEC), """
+				{
+				  "ENCHANTED_DIAMOND": {"id": "ENCHANTED_DIAMOND", "name": "Enchanted Diamond", "buyPrice": 1300.0, "sellPrice": 1200.0, "buyVolume": 100, "sellVolume": 200},
+				  "NO_ORDERS": {"id": "NO_ORDERS", "name": "No Orders", "buyVolume": 0, "sellVolume": 0}
+				}
+				""");
+		Assertions.assertEquals(2, map.size());
+		Assertions.assertEquals(1300, map.get("ENCHANTED_DIAMOND").buyPrice().orElseThrow());
+		Assertions.assertTrue(map.get("NO_ORDERS").sellPrice().isEmpty());
+	}
+
+	private static <T> T decode(JsonStreamDecoder<T> decoder, String json) throws IOException {
+		try (JsonReader reader = new JsonReader(new StringReader(json))) {
+			return decoder.decode(reader);
+		}
+	}
+}
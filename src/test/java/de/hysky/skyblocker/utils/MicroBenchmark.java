@@ -0,0 +1,57 @@
+package de.hysky.skyblocker.utils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A minimal JMH-style harness for benchmarks that live alongside the unit tests. Each benchmark runs a number of warmup
+ * iterations followed by measured iterations and reports the mean time per operation.
+ * <p>
+ * Benchmarks are skipped unless the {@value #ENABLED_PROPERTY} system property is set to {@code true}, for example with
+ * {@code ./gradlew test -Dskyblocker.benchmark=true}, so that they do not slow down regular test runs.
+ */
+public class MicroBenchmark {
+	public static final String ENABLED_PROPERTY = "skyblocker.benchmark";
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int MEASUREMENT_ITERATIONS = 10;
+	/**
+	 * Written to by {@link #consume(Object)} so that the JIT can't eliminate the benchmarked work.
+	 */
+	@SuppressWarnings("unused")
+	private static volatile Object sink;
+
+	/**
+	 * Runs a benchmark and prints the result.
+	 *
+	 * @param name                   the name of the benchmark to print
+	 * @param operationsPerIteration how many operations a single call of {@code iteration} performs
+	 * @param iteration              performs one iteration of the benchmark
+	 * @return the mean time per operation in nanoseconds
+	 */
+	public static double run(String name, int operationsPerIteration, Runnable iteration) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iteration.run();
+		}
+
+		double[] nanosPerOperation = new double[MEASUREMENT_ITERATIONS];
+
+		for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+			long start = System.nanoTime();
+			iteration.run();
+			nanosPerOperation[i] = (double) (System.nanoTime() - start) / operationsPerIteration;
+		}
+
+		double mean = Arrays.stream(nanosPerOperation).average().orElse(0);
+		double deviation = Math.sqrt(Arrays.stream(nanosPerOperation).map(n -> (n - mean) * (n - mean)).average().orElse(0));
+		System.out.printf(Locale.ENGLISH, "[Benchmark] %s: %.1f ± %.1f ns/op%n", name, mean, deviation);
+
+		return mean;
+	}
+
+	/**
+	 * Consumes a benchmark result so that the work producing it is not optimized away.
+	 */
+	public static void consume(Object result) {
+		sink = result;
+	}
+}
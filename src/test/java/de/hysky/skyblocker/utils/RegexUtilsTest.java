@@ -0,0 +1,30 @@
+package de.hysky.skyblocker.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+class RegexUtilsTest {
+	@Test
+	void testRequiredLiterals() {
+		Assertions.assertEquals(Optional.of(List.of("selling", "buying")), RegexUtils.requiredLiterals("(selling)|(buying)"));
+		Assertions.assertEquals(Optional.of(List.of(" Kill Combo ")), RegexUtils.requiredLiterals("^\\+(\\d+) Kill Combo (.+)$"));
+		Assertions.assertEquals(Optional.of(List.of("foo", "bar")), RegexUtils.requiredLiterals("(?:foo|bar)baz?"));
+		Assertions.assertEquals(Optional.empty(), RegexUtils.requiredLiterals("[0-9]+"));
+		Assertions.assertEquals(Optional.empty(), RegexUtils.requiredLiterals("a|\\d"));
+		Assertions.assertEquals(Optional.empty(), RegexUtils.requiredLiterals("(?i)abc"));
+	}
+
+	@Test
+	void testLiteralPrefixes() {
+		Assertions.assertEquals(Optional.of(List.of("There are blocks in the way!")), RegexUtils.literalPrefixes("^There are blocks in the way!$"));
+		Assertions.assertEquals(Optional.of(List.of("+", "Your Kill Combo has expired! You reached a ")), RegexUtils.literalPrefixes("^(\\+\\d+ Kill Combo|Your Kill Combo has expired! You reached a \\d+ Kill Combo!)$"));
+		Assertions.assertEquals(Optional.of(List.of("foobaz", "barbaz")), RegexUtils.literalPrefixes("(?:foo|bar)baz"));
+		Assertions.assertEquals(Optional.of(List.of("ab")), RegexUtils.literalPrefixes("ab+c"));
+		Assertions.assertEquals(Optional.of(List.of(" ☠ ")), RegexUtils.literalPrefixes(" \\u2620 .*"));
+		Assertions.assertEquals(Optional.of(List.of("")), RegexUtils.literalPrefixes("(?:\\[[0-9]+] )?(\\w+): (.+)"));
+		Assertions.assertEquals(Optional.empty(), RegexUtils.literalPrefixes("a(?=b)"));
+	}
+}
@@ -0,0 +1,42 @@
+package de.hysky.skyblocker.utils;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TrigramIndexTest {
+	private static final List<String> TEXTS = List.of("aspect of the end", "aspect of the void", "hyperion\nlegendary sword", "enchanted diamond", "diamond", "end stone sword", "aaaa");
+	private static final TrigramIndex INDEX = new TrigramIndex(TEXTS);
+
+	@Test
+	void testSearchMatchesLinearScan() {
+		for (String query : List.of("", "a", "as", "asp", "aspect of", "of the", "end", "sword", "dia", "mond", "aaa", "aaaa", "aaaaa", "xyz", "d\nl", "ne s")) {
+			Assertions.assertEquals(linearScan(query), INDEX.search(query), query);
+		}
+	}
+
+	@Test
+	void testTrigramsInDifferentOrder() {
+		// Contains the trigrams "end" and "nd " but not the query
+		TrigramIndex index = new TrigramIndex(List.of("end, and ", "bend "));
+		Assertions.assertEquals(IntList.of(1), index.search("end "));
+	}
+
+	@Test
+	void testNarrow() {
+		IntList matches = INDEX.search("end");
+		Assertions.assertEquals(IntList.of(0, 5), matches);
+		Assertions.assertEquals(IntList.of(5), INDEX.narrow(matches, "end st"));
+	}
+
+	private static IntList linearScan(String query) {
+		IntList matches = new IntArrayList();
+		for (int i = 0; i < TEXTS.size(); i++) {
+			if (TEXTS.get(i).contains(query)) matches.add(i);
+		}
+		return matches;
+	}
+}
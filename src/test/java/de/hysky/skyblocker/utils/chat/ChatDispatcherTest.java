@@ -0,0 +1,22 @@
+package de.hysky.skyblocker.utils.chat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+class ChatDispatcherTest {
+	@Test
+	void testPrefixes() {
+		Assertions.assertArrayEquals(new String[]{"[Skyblocker] "}, ChatDispatcher.prefixes(Pattern.compile("^\\[Skyblocker] (.+)$")));
+		Assertions.assertArrayEquals(new String[]{"You found ", "You already found "}, ChatDispatcher.prefixes(Pattern.compile("You found .+"), Pattern.compile("You already found .+")));
+		Assertions.assertArrayEquals(new String[]{"Your ", ""}, ChatDispatcher.prefixes(Pattern.compile("Your .+"), Pattern.compile("\\w+ died")));
+	}
+
+	@Test
+	void testUnroutablePrefixes() {
+		Assertions.assertArrayEquals(new String[]{""}, ChatDispatcher.prefixes(Pattern.compile("abc", Pattern.CASE_INSENSITIVE)));
+		Assertions.assertArrayEquals(new String[]{""}, ChatDispatcher.prefixes(Pattern.compile("(?i)abc")));
+		Assertions.assertArrayEquals(new String[]{""}, ChatDispatcher.prefixes(Pattern.compile("§aabc")));
+	}
+}
@@ -1,5 +1,6 @@
 package de.hysky.skyblocker.utils.chat;
 
+import java.util.List;
 import java.util.regex.Matcher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,10 +19,20 @@ public abstract class ChatPatternListenerTest<T extends ChatPatternListener> {
 
     protected void assertMatches(String message) {
         assertTrue(matcher(message).matches());
+        assertRouted(message);
     }
 
     protected void assertGroup(String message, int group, String expect) {
         assertGroup(matcher(message), group, expect);
+        assertRouted(message);
+    }
+
+    /**
+     * Asserts that the {@link ChatDispatcher} routes the message to the listener.
+     */
+    protected void assertRouted(String message) {
+        List<String> prefixes = listener.prefixes();
+        assertTrue(prefixes.isEmpty() || prefixes.stream().anyMatch(message::startsWith), () -> "Message is not routed to the listener by its prefixes " + prefixes);
     }
 
     public static void assertGroup(Matcher matcher, int group, String expect) {
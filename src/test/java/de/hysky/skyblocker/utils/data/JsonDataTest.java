@@ -0,0 +1,97 @@
+package de.hysky.skyblocker.utils.data;
+
+import com.mojang.serialization.Codec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class JsonDataTest {
+	private static final Codec<Map<String, Integer>> CODEC = Codec.unboundedMap(Codec.STRING, Codec.INT);
+	private static final UUID PLAYER = UUID.fromString("098f4ac1-bf99-4829-a183-70e3a6bc8b2a");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testSaveAndLoad() throws IOException {
+		Path file = dir.resolve("data.json");
+		JsonData<Map<String, Integer>> data = new JsonData<>(file, CODEC, Map.of(), false, false, false);
+		data.load().join();
+		data.setData(Map.of("coins", 100));
+		data.save().join();
+
+		Assertions.assertEquals("{\n  \"coins\": 100\n}", Files.readString(file));
+		// The temporary file was moved into place
+		Assertions.assertFalse(Files.exists(dir.resolve("data.json.tmp")));
+
+		JsonData<Map<String, Integer>> reloaded = new JsonData<>(file, CODEC, Map.of(), false, false, false);
+		reloaded.load().join();
+		Assertions.assertEquals(Map.of("coins", 100), reloaded.getData());
+	}
+
+	@Test
+	void testDebouncedSavesCoalesce() {
+		Path file = dir.resolve("debounced.json");
+		JsonData<Map<String, Integer>> data = new JsonData<>(file, CODEC, Map.of(), false, false, true);
+		data.load().join();
+
+		data.setData(Map.of("coins", 1));
+		CompletableFuture<Void> first = data.save();
+		data.setData(Map.of("coins", 2));
+		Assertions.assertSame(first, data.save());
+		Assertions.assertFalse(Files.exists(file));
+
+		data.flush().join();
+		JsonData<Map<String, Integer>> reloaded = new JsonData<>(file, CODEC, Map.of(), false, false, false);
+		reloaded.load().join();
+		Assertions.assertEquals(Map.of("coins", 2), reloaded.getData());
+	}
+
+	@Test
+	void testSaveEncodesOnCallingThread() {
+		Path file = dir.resolve("snapshot.json");
+		JsonData<Map<String, Integer>> data = new JsonData<>(file, CODEC, new HashMap<>(), false, false, true);
+		data.load().join();
+
+		data.getData().put("coins", 1);
+		CompletableFuture<Void> save = data.save();
+		// Changes after the save are not part of it until the next save
+		data.getData().put("coins", 2);
+		data.flush().join();
+		Assertions.assertTrue(save.isDone());
+
+		JsonData<Map<String, Integer>> reloaded = new JsonData<>(file, CODEC, Map.of(), false, false, false);
+		reloaded.load().join();
+		Assertions.assertEquals(Map.of("coins", 1), reloaded.getData());
+	}
+
+	@Test
+	void testGzipMigratesPlainFile() throws IOException {
+		Path file = dir.resolve("profiled.json");
+		ProfiledData<Integer> plain = new ProfiledData<>(file, Codec.INT, false, false);
+		plain.load().join();
+		plain.put(PLAYER, "profile", 5);
+		plain.save().join();
+
+		ProfiledData<Integer> data = new ProfiledData<>(file, Codec.INT, false, false, false, true);
+		data.load().join();
+		Assertions.assertEquals(5, data.get(PLAYER, "profile"));
+		data.put(PLAYER, "profile", 6);
+		data.save().join();
+
+		Assertions.assertFalse(Files.exists(file));
+		Assertions.assertTrue(Files.exists(dir.resolve("profiled.json.gz")));
+
+		ProfiledData<Integer> reloaded = new ProfiledData<>(file, Codec.INT, false, false, false, true);
+		reloaded.load().join();
+		Assertions.assertEquals(6, reloaded.get(PLAYER, "profile"));
+	}
+}
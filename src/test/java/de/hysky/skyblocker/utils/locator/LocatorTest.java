@@ -0,0 +1,122 @@
+package de.hysky.skyblocker.utils.locator;
+
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.Vec3i;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LocatorTest {
+	@Test
+	void testRingCandidates() {
+		for (Vec3d center : List.of(new Vec3d(0, 0, 0), new Vec3d(10.3, 64.7, -5.6), new Vec3d(-20.5, 3, 7.25))) {
+			for (double distance : new double[]{0.1, 2.5, 10, 24.9}) {
+				// Every block in the square around the center
+				List<Vec3i> expected = new ArrayList<>();
+				int max = (int) distance;
+				for (int x = -max; x <= distance; x++) {
+					for (int z = -max; z <= distance; z++) {
+						Vec3i candidate = new Vec3i((int) center.x + x, (int) center.y, (int) center.z + z);
+						if (DistanceLocator.isConsistent(center, Vec3d.of(candidate), distance, 0.25)) expected.add(candidate);
+					}
+				}
+				Assertions.assertEquals(expected, DistanceLocator.ringCandidates(center, distance, 0.25));
+			}
+		}
+	}
+
+	@Test
+	void testDistanceLocator() {
+		Vec3d target = new Vec3d(12, -20, 7);
+		DistanceLocator locator = new DistanceLocator(0.25);
+		Vec3d[] positions = {new Vec3d(0, 0, 0), new Vec3d(5, 1, 0), new Vec3d(10, 0, 10), new Vec3d(-3, 4, 8), new Vec3d(2, -2, -6), new Vec3d(7, 3, 3)};
+		for (Vec3d position : positions) {
+			// At least five samples are needed
+			if (locator.getSamples() < 5) Assertions.assertNull(locator.getEstimate());
+			// Rounded to a tenth like the metal detector
+			locator.addSample(position, Math.round(position.distanceTo(target) * 10) / 10.0);
+		}
+
+		Estimate estimate = locator.getEstimate();
+		Assertions.assertNotNull(estimate);
+		Assertions.assertTrue(estimate.position().distanceTo(target) < 0.5);
+		Assertions.assertTrue(estimate.radius() < 1);
+
+		// A wrong sample only moves the estimate a little
+		locator.addSample(new Vec3d(1, 1, 1), 5);
+		Assertions.assertTrue(locator.getEstimate().position().distanceTo(target) < 1);
+	}
+
+	@Test
+	void testRayIntersection() {
+		RayIntersection intersection = new RayIntersection(false);
+		intersection.add(new Vec3d(0, 0, 0), new Vec3d(1, 0, 0));
+		Assertions.assertNull(intersection.solve());
+		intersection.add(new Vec3d(5, 0, 5), new Vec3d(0, 0, -1));
+		Assertions.assertEquals(new Estimate(new Vec3d(5, 0, 0), 0), intersection.solve());
+
+		intersection.add(new Vec3d(5, 10, 0), new Vec3d(0, 1, 0));
+		Estimate estimate = intersection.solve();
+		Assertions.assertNotNull(estimate);
+		Assertions.assertEquals(0, estimate.position().distanceTo(new Vec3d(5, 0, 0)), 1e-9);
+		Assertions.assertEquals(0, estimate.radius(), 1e-6);
+
+		intersection.reset();
+		intersection.add(new Vec3d(0, 0, 0), new Vec3d(1, 0, 0));
+		intersection.add(new Vec3d(0, 1, 0), new Vec3d(2, 0, 0));
+		Assertions.assertNull(intersection.solve());
+	}
+
+	@Test
+	void testRayIntersectionOfTrails() {
+		RayIntersection intersection = new RayIntersection(true);
+		TrailFit trail = new TrailFit(true);
+		trail.add(new Vec3d(0, 64, 0));
+		trail.add(new Vec3d(1, 64, 0));
+		// Without an angular error the trail can't be weighted
+		Assertions.assertFalse(intersection.add(trail));
+
+		// Three trails pointing at (20, 64, 20), the last one much noisier than the others
+		addTrail(intersection, new Vec3d(0, 64, 20), new Vec3d(1, 0, 0), 0.01);
+		addTrail(intersection, new Vec3d(20, 70, 0), new Vec3d(0, 0, 1), 0.01);
+		addTrail(intersection, new Vec3d(0, 64, 0), new Vec3d(1, 0, 1.2), 0.3);
+		Assertions.assertEquals(3, intersection.getRays());
+
+		Estimate estimate = intersection.solve();
+		Assertions.assertNotNull(estimate);
+		// The noisy trail misses the target by a few blocks but barely moves the estimate
+		Assertions.assertEquals(0, new Vec3d(estimate.position().x, 0, estimate.position().z).distanceTo(new Vec3d(20, 0, 20)), 0.5);
+		Assertions.assertEquals(64, estimate.position().y, 1e-9);
+	}
+
+	private static void addTrail(RayIntersection intersection, Vec3d start, Vec3d direction, double noise) {
+		TrailFit trail = new TrailFit(true);
+		Vec3d step = direction.normalize().multiply(0.5);
+		Vec3d side = new Vec3d(-step.z, 0, step.x);
+		for (int i = 0; i < 10; i++) {
+			trail.add(start.add(step.multiply(i)).add(side.multiply(i % 2 == 0 ? noise : -noise)));
+		}
+		Assertions.assertFalse(trail.isComplete(11, 20, 0));
+		Assertions.assertTrue(trail.isComplete(3, 20, 1));
+		Assertions.assertTrue(trail.isComplete(11, 10, 0));
+		Assertions.assertTrue(intersection.add(trail));
+	}
+
+	@Test
+	void testTrailFit() {
+		TrailFit trail = new TrailFit(false);
+		Assertions.assertNull(trail.getDirection());
+		// A trail straight along the z axis, which a regression of z on x can't fit
+		for (int i = 0; i < 10; i++) {
+			trail.add(new Vec3d(3 + (i % 2 == 0 ? 0.01 : -0.01), 64, -i * 0.5));
+		}
+
+		Vec3d direction = trail.getDirection();
+		Assertions.assertNotNull(direction);
+		Assertions.assertEquals(-1, direction.z, 1e-3);
+		Assertions.assertTrue(trail.getAngularError() < 0.01);
+		Assertions.assertEquals(3, trail.getCentroid().x, 1e-9);
+	}
+}
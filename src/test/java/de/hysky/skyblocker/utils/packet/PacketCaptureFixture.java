@@ -0,0 +1,121 @@
+package de.hysky.skyblocker.utils.packet;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.OverlayMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListHeaderS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardObjectiveUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScoreboardScoreUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.TeamS2CPacket;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.scoreboard.ScoreboardCriterion;
+import net.minecraft.scoreboard.ScoreboardDisplaySlot;
+import net.minecraft.scoreboard.ScoreboardObjective;
+import net.minecraft.scoreboard.Scoreboard;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextCodecs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Records a small Skyblock session with {@link PacketCaptureWriter}: a sidebar, a player list and some chat and action bar messages,
+ * followed by updates to each of them. This is replayed by the tests and the benchmark instead of a checked in capture,
+ * since {@link PacketReplay} rejects captures recorded with another protocol version and a checked in capture would have to be recorded again on every update.
+ */
+final class PacketCaptureFixture {
+	static final String SIDEBAR_TITLE = "SKYBLOCK";
+	static final String AREA = "⏣ Village";
+	static final String FOOTER = "Active Effects\nNo effects active.";
+	private static final String OBJECTIVE = "SBScoreboard";
+	private static final List<String> SIDEBAR = List.of("07/12/25 m12AB", " ", "Early Spring 3rd", " 7:10pm ☀", " " + AREA, " ", "Purse: 1,000", "Bits: 50", " ", "www.hypixel.net");
+	private static final int TIME_LINE = 3;
+	private static final List<String> PLAYER_LIST = List.of("Players (1)", "[300] Player", "Info", "Area: Hub", "Server: m12AB", "Profile: Apple", "Skills:", " Farming 50: 10.1%");
+	private static final int SKILL_LINE = 7;
+
+	private PacketCaptureFixture() {
+	}
+
+	/**
+	 * @param updates how many times the sidebar, player list and messages are updated after the session is set up
+	 * @return the number of packets written
+	 */
+	static int write(Path file, DynamicRegistryManager registryManager, int updates) throws IOException {
+		try (PacketCaptureWriter writer = new PacketCaptureWriter(file, PacketReplay.bind(registryManager))) {
+			long millis = 0;
+			Scoreboard scoreboard = new Scoreboard();
+			ScoreboardObjective objective = scoreboard.addObjective(OBJECTIVE, ScoreboardCriterion.DUMMY, Text.literal(SIDEBAR_TITLE), ScoreboardCriterion.RenderType.INTEGER, false, null);
+			writer.write(new ScoreboardObjectiveUpdateS2CPacket(objective, ScoreboardObjectiveUpdateS2CPacket.ADD_MODE), millis);
+			writer.write(new ScoreboardDisplayS2CPacket(ScoreboardDisplaySlot.SIDEBAR, objective), millis);
+
+			Team[] teams = new Team[SIDEBAR.size()];
+			for (int i = 0; i < SIDEBAR.size(); i++) {
+				// Hypixel uses a team per line, whose only player is a color code that is also the score holder
+				String scoreHolder = "§" + Integer.toHexString(i);
+				teams[i] = scoreboard.addTeam("team_" + i);
+				teams[i].setPrefix(Text.literal(SIDEBAR.get(i)));
+				scoreboard.addScoreHolderToTeam(scoreHolder, teams[i]);
+				writer.write(TeamS2CPacket.updateTeam(teams[i], true), millis);
+				writer.write(new ScoreboardScoreUpdateS2CPacket(scoreHolder, OBJECTIVE, SIDEBAR.size() - i, Optional.empty(), Optional.empty()), millis);
+			}
+
+			UUID[] profileIds = new UUID[PLAYER_LIST.size()];
+			for (int i = 0; i < PLAYER_LIST.size(); i++) {
+				profileIds[i] = new UUID(0, i);
+				writer.write(playerList(registryManager, EnumSet.of(PlayerListS2CPacket.Action.ADD_PLAYER, PlayerListS2CPacket.Action.UPDATE_LISTED, PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME), profileIds[i], String.format("!A-%c", 'a' + i), Text.literal(PLAYER_LIST.get(i))), millis);
+			}
+			writer.write(new PlayerListHeaderS2CPacket(Text.literal("You are playing on SKYBLOCK"), Text.literal(FOOTER)), millis);
+
+			for (int i = 0; i < updates; i++) {
+				millis += 50;
+				writer.write(new OverlayMessageS2CPacket(Text.literal("§c1000/1000❤     §a500§a❈ Defense     §b" + i + "/500✎ Mana")), millis);
+				if (i % 20 == 0) {
+					writer.write(new GameMessageS2CPacket(Text.literal("You found a secret!"), false), millis);
+					writer.write(new GameMessageS2CPacket(Text.literal("[NPC] Jacob: Come see me in the Hub!"), false), millis);
+					teams[TIME_LINE].setPrefix(Text.literal(" " + (i / 20 % 12 + 1) + ":00pm ☀"));
+					writer.write(TeamS2CPacket.updateTeam(teams[TIME_LINE], false), millis);
+					writer.write(playerList(registryManager, EnumSet.of(PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME), profileIds[SKILL_LINE], null, Text.literal(" Farming 50: " + i + ".0%")), millis);
+				}
+			}
+
+			return writer.getPackets();
+		}
+	}
+
+	/**
+	 * Player list packets can only be created from server players, so this encodes the fields of the actions and decodes the packet from them.
+	 *
+	 * @param name the name of the player, only used with {@link PlayerListS2CPacket.Action#ADD_PLAYER}
+	 */
+	private static PlayerListS2CPacket playerList(DynamicRegistryManager registryManager, EnumSet<PlayerListS2CPacket.Action> actions, UUID profileId, String name, Text displayName) {
+		RegistryByteBuf buf = new RegistryByteBuf(Unpooled.buffer(), registryManager);
+
+		try {
+			buf.writeEnumSet(actions, PlayerListS2CPacket.Action.class);
+			buf.writeVarInt(1);
+			buf.writeUuid(profileId);
+			// The fields are read in the order of the actions
+			if (actions.contains(PlayerListS2CPacket.Action.ADD_PLAYER)) {
+				buf.writeString(name, 16);
+				buf.writeVarInt(0); // No properties
+			}
+			if (actions.contains(PlayerListS2CPacket.Action.UPDATE_LISTED)) buf.writeBoolean(true);
+			if (actions.contains(PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME)) {
+				buf.writeBoolean(true);
+				TextCodecs.UNLIMITED_REGISTRY_PACKET_CODEC.encode(buf, displayName);
+			}
+
+			return PlayerListS2CPacket.CODEC.decode(buf);
+		} finally {
+			buf.release();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package de.hysky.skyblocker.utils.packet;
+
+import de.hysky.skyblocker.skyblock.tabhud.util.PlayerListManager;
+import de.hysky.skyblocker.utils.Utils;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.GameMessageS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlaySoundS2CPacket;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.Registries;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class PacketCaptureTest {
+	private static DynamicRegistryManager registryManager;
+
+	@TempDir
+	Path dir;
+
+	@BeforeAll
+	static void setup() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+		registryManager = DynamicRegistryManager.of(Registries.REGISTRIES);
+	}
+
+	@Test
+	void testCaptureAndReplay() throws IOException {
+		Path file = dir.resolve("capture.bin.gz");
+		try (PacketCaptureWriter writer = new PacketCaptureWriter(file, PacketReplay.bind(registryManager))) {
+			writer.write(new GameMessageS2CPacket(Text.literal("You found a secret!"), false), 1000);
+			writer.write(new PlaySoundS2CPacket(Registries.SOUND_EVENT.getEntry(SoundEvents.BLOCK_CHEST_OPEN), SoundCategory.BLOCKS, 1.5, 70, -3.5, 1, 0.5f, 42), 1250);
+			writer.write(new GameMessageS2CPacket(Text.literal("Health"), true), 1300);
+			Assertions.assertEquals(3, writer.getPackets());
+		}
+
+		List<Packet<? super ClientPlayPacketListener>> packets = new ArrayList<>();
+		List<Long> times = new ArrayList<>();
+		int read = PacketReplay.replay(file, registryManager, (packet, millis) -> {
+			packets.add(packet);
+			times.add(millis);
+		});
+
+		Assertions.assertEquals(3, read);
+		GameMessageS2CPacket message = Assertions.assertInstanceOf(GameMessageS2CPacket.class, packets.get(0));
+		Assertions.assertEquals("You found a secret!", message.content().getString());
+		Assertions.assertFalse(message.overlay());
+
+		PlaySoundS2CPacket sound = Assertions.assertInstanceOf(PlaySoundS2CPacket.class, packets.get(1));
+		Assertions.assertEquals(SoundEvents.BLOCK_CHEST_OPEN, sound.getSound().value());
+		Assertions.assertEquals(SoundCategory.BLOCKS, sound.getCategory());
+		Assertions.assertEquals(0.5f, sound.getPitch());
+
+		Assertions.assertTrue(Assertions.assertInstanceOf(GameMessageS2CPacket.class, packets.get(2)).overlay());
+		// The writer was created before the first packet, so only the gaps between packets are known exactly
+		Assertions.assertEquals(250, times.get(1) - times.get(0));
+		Assertions.assertEquals(50, times.get(2) - times.get(1));
+	}
+
+	@Test
+	void testDispatchesSidebarAndPlayerList() throws IOException {
+		Path file = dir.resolve("capture.bin.gz");
+		int written = PacketCaptureFixture.write(file, registryManager, 1);
+
+		PacketReplay.Dispatcher dispatcher = new PacketReplay.Dispatcher();
+		List<Packet<? super ClientPlayPacketListener>> packets = new ArrayList<>();
+		Assertions.assertEquals(written, PacketReplay.replay(file, registryManager, (packet, millis) -> packets.add(packet)));
+		Assertions.assertTrue(packets.stream().allMatch(dispatcher::dispatch));
+
+		Assertions.assertEquals(PacketCaptureFixture.SIDEBAR_TITLE, Utils.STRING_SCOREBOARD.getFirst());
+		Assertions.assertTrue(Utils.STRING_SCOREBOARD.contains(" 1:00pm ☀"));
+		Assertions.assertFalse(Utils.STRING_SCOREBOARD.contains(" 7:10pm ☀"));
+		Assertions.assertEquals(PacketCaptureFixture.AREA, Utils.getIslandArea());
+		Assertions.assertEquals(50, Utils.getBits());
+
+		Assertions.assertEquals("Area: Hub", PlayerListManager.getLine("Area:"));
+		Assertions.assertEquals("Farming 50: 0.0%", PlayerListManager.getLine("Farming 50:"));
+		Assertions.assertEquals("Players (1)", PlayerListManager.getPlayerStringList().getFirst());
+		Assertions.assertEquals(PacketCaptureFixture.FOOTER, PlayerListManager.getFooter());
+	}
+
+	@Test
+	void testRejectsTruncatedCaptures() throws IOException {
+		Path file = dir.resolve("capture.bin.gz");
+		try (PacketCaptureWriter writer = new PacketCaptureWriter(file, PacketReplay.bind(registryManager))) {
+			for (int i = 0; i < 100; i++) {
+				writer.write(new GameMessageS2CPacket(Text.literal("Message " + i), false), i);
+			}
+		}
+		// Like a capture that was never closed, without the end of the gzip stream
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+		Assertions.assertThrows(IOException.class, () -> PacketReplay.replay(file, registryManager, (packet, millis) -> {}));
+	}
+
+	@Test
+	void testWriteAfterCloseIsIgnored() throws IOException {
+		Path file = dir.resolve("capture.bin.gz");
+		PacketCaptureWriter writer = new PacketCaptureWriter(file, PacketReplay.bind(registryManager));
+		writer.write(new GameMessageS2CPacket(Text.literal("Before"), false), 0);
+		writer.close();
+		writer.write(new GameMessageS2CPacket(Text.literal("After"), false), 1);
+		writer.close();
+
+		Assertions.assertEquals(1, writer.getPackets());
+		Assertions.assertEquals(1, PacketReplay.replay(file, registryManager, (packet, millis) -> {}));
+	}
+
+	@Test
+	void testRejectsOtherFiles() throws IOException {
+		Path file = dir.resolve("other.bin.gz");
+		try (DataOutputStream output = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+			output.writeInt(0x12345678);
+		}
+
+		Assertions.assertThrows(IOException.class, () -> PacketReplay.replay(file, registryManager, (packet, millis) -> {}));
+	}
+}
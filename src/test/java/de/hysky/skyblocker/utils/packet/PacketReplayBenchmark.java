@@ -0,0 +1,71 @@
+package de.hysky.skyblocker.utils.packet;
+
+import de.hysky.skyblocker.utils.MicroBenchmark;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.Registries;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a capture at full speed, first only decoding the packets and then also dispatching them to the handlers that run without a world.
+ * Reports the time per packet.
+ * <p>
+ * Runs with {@code ./gradlew test -Dskyblocker.benchmark=true}, which replays the session of {@link PacketCaptureFixture}.
+ * A capture recorded with {@code /skyblocker debug capture} can be replayed instead with {@code -Dskyblocker.capture=<path to the capture>}.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class PacketReplayBenchmark {
+	static final String CAPTURE_PROPERTY = "skyblocker.capture";
+	private static final int FIXTURE_UPDATES = 2000;
+	private static DynamicRegistryManager registryManager;
+	private static Path capture;
+
+	@BeforeAll
+	static void setup(@TempDir Path dir) throws IOException {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+		registryManager = DynamicRegistryManager.of(Registries.REGISTRIES);
+
+		String property = System.getProperty(CAPTURE_PROPERTY);
+		if (property != null) {
+			capture = Path.of(property);
+		} else {
+			capture = dir.resolve("capture.bin.gz");
+			PacketCaptureFixture.write(capture, registryManager, FIXTURE_UPDATES);
+		}
+	}
+
+	@Test
+	void replay() throws IOException {
+		List<Packet<? super ClientPlayPacketListener>> packets = new ArrayList<>();
+		PacketReplay.replay(capture, registryManager, (packet, millis) -> packets.add(packet));
+		long dispatched = packets.stream().filter(new PacketReplay.Dispatcher()::dispatch).count();
+		System.out.printf("[Benchmark] Replaying %d packets, %d of which are dispatched without a world%n", packets.size(), dispatched);
+
+		MicroBenchmark.run("Decode captured packets", packets.size(), () -> {
+			try {
+				MicroBenchmark.consume(PacketReplay.replay(capture, registryManager, (packet, millis) -> MicroBenchmark.consume(packet)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		MicroBenchmark.run("Dispatch captured packets", packets.size(), () -> {
+			PacketReplay.Dispatcher dispatcher = new PacketReplay.Dispatcher();
+			for (Packet<? super ClientPlayPacketListener> packet : packets) {
+				dispatcher.dispatch(packet);
+			}
+		});
+	}
+}
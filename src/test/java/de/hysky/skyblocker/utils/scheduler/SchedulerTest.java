@@ -4,6 +4,9 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 public class SchedulerTest {
     private final MutableInt currentTick = new MutableInt(0);
     private final MutableInt cycleCount1 = new MutableInt(0);
@@ -81,6 +84,33 @@ public class SchedulerTest {
         Assertions.assertEquals(1818, cycleCount8.intValue());
     }
 
+    @Test
+    public void testOneOffMultithreadedTasksAreNotCoalesced() throws InterruptedException {
+        // A separate scheduler so the cyclic tasks of the other test don't run here
+        Scheduler scheduler = new Scheduler();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch runs = new CountDownLatch(2);
+        Runnable task = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            runs.countDown();
+        };
+        scheduler.schedule(task, 0, true);
+        scheduler.tick();
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Submitting the same task again while the first run is still in progress must not drop it
+        scheduler.schedule(task, 0, true);
+        scheduler.tick();
+        release.countDown();
+        Assertions.assertTrue(runs.await(5, TimeUnit.SECONDS));
+    }
+
     private void tick() {
         Scheduler.INSTANCE.tick();
         currentTick.increment();
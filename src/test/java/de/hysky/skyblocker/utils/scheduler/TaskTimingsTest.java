@@ -0,0 +1,29 @@
+package de.hysky.skyblocker.utils.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TaskTimingsTest {
+	private final TaskTimings timings = new TaskTimings("test");
+
+	@Test
+	void testPercentiles() {
+		for (int i = 1; i <= 1000; i++) {
+			timings.record(i * 1000L);
+		}
+
+		Assertions.assertEquals(1000, timings.count());
+		Assertions.assertEquals(500_500, timings.meanNanos(), 1);
+		Assertions.assertEquals(990_000, timings.percentileNanos(0.99), 990_000 / 8d);
+		Assertions.assertEquals(1_000_000, timings.maxNanos());
+	}
+
+	@Test
+	void testTaskNames() {
+		Runnable methodReference = TaskTimingsTest::noop;
+
+		Assertions.assertEquals("TaskTimingsTest", TaskTimings.nameOf(methodReference));
+	}
+
+	private static void noop() {}
+}
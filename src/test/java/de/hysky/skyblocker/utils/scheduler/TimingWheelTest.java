@@ -0,0 +1,65 @@
+package de.hysky.skyblocker.utils.scheduler;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+	private final TimingWheel wheel = new TimingWheel();
+	private final TaskTimings timings = new TaskTimings("test");
+
+	@Test
+	void testDelays() {
+		IntList ranAt = new IntArrayList();
+		int[] delays = {0, 1, 5, 255, 256, 257, 1000, 16383, 16384, 20000, 300000};
+
+		for (int delay : delays) {
+			wheel.insert(wheel.obtain(() -> ranAt.add(wheel.currentTick()), timings, 0, false, false, false), delay);
+		}
+
+		while (wheel.size() > 0) {
+			wheel.advance(slot -> {
+				slot.task.run();
+				wheel.release(slot);
+			});
+		}
+
+		Assertions.assertEquals(IntList.of(delays), ranAt);
+	}
+
+	@Test
+	void testCyclic() {
+		IntList ranAt = new IntArrayList();
+		wheel.insert(wheel.obtain(() -> ranAt.add(wheel.currentTick()), timings, 100, false, false, false), 0);
+
+		for (int i = 0; i < 1000; i++) {
+			wheel.advance(slot -> {
+				slot.task.run();
+				wheel.insert(slot, slot.interval);
+			});
+		}
+
+		Assertions.assertEquals(IntList.of(0, 100, 200, 300, 400, 500, 600, 700, 800, 900), ranAt);
+	}
+
+	@Test
+	void testSameTickInsertion() {
+		IntList ranAt = new IntArrayList();
+		wheel.insert(wheel.obtain(() -> wheel.insert(wheel.obtain(() -> ranAt.add(wheel.currentTick()), timings, 0, false, false, false), 0), timings, 0, false, false, false), 3);
+
+		for (int i = 0; i < 5; i++) {
+			wheel.advance(slot -> slot.task.run());
+		}
+
+		Assertions.assertEquals(IntList.of(3), ranAt);
+	}
+
+	@Test
+	void testSlotsArePooled() {
+		TimingWheel.Slot slot = wheel.obtain(() -> {}, timings, 0, false, false, false);
+		wheel.release(slot);
+
+		Assertions.assertSame(slot, wheel.obtain(() -> {}, timings, 0, false, false, false));
+	}
+}
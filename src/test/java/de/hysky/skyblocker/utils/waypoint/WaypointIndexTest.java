@@ -0,0 +1,70 @@
+package de.hysky.skyblocker.utils.waypoint;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WaypointIndexTest {
+	@Test
+	void testForEachNear() {
+		List<Waypoint> waypoints = List.of(
+				new Waypoint(new BlockPos(0, 64, 0), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f}),
+				// Across the chunk border from the first waypoint
+				new Waypoint(new BlockPos(-1, 64, 0), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f}),
+				new Waypoint(new BlockPos(0, 80, 0), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f}),
+				new Waypoint(new BlockPos(100, 64, -100), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f})
+		);
+		WaypointIndex<Waypoint> index = new WaypointIndex<>(waypoints);
+
+		Assertions.assertEquals(List.of(0, 1), near(index, new Vec3d(0, 64, 0), 2));
+		Assertions.assertEquals(List.of(3), near(index, new Vec3d(100.5, 65, -99.5), 2));
+		Assertions.assertEquals(List.of(), near(index, new Vec3d(50, 64, 50), 2));
+	}
+
+	@Test
+	void testMatchesLinearScan() {
+		List<Waypoint> waypoints = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			waypoints.add(new Waypoint(new BlockPos(i * 7 % 200 - 100, 60 + i % 20, i * 13 % 200 - 100), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f}));
+		}
+		WaypointIndex<Waypoint> index = new WaypointIndex<>(waypoints);
+
+		// The small radius looks up the chunks around the position, the large one checks every column
+		for (double radius : new double[]{10, 32, 200}) {
+			for (Vec3d pos : List.of(new Vec3d(0, 64, 0), new Vec3d(-15.5, 70, 16.5), new Vec3d(99, 60, -99), new Vec3d(-16, 64, -32))) {
+				IntList expected = new IntArrayList();
+				for (int i = 0; i < waypoints.size(); i++) {
+					if (waypoints.get(i).pos.isWithinDistance(pos, radius)) expected.add(i);
+				}
+				Assertions.assertEquals(expected, near(index, pos, radius));
+			}
+		}
+	}
+
+	@Test
+	void testSortByDistance() {
+		Waypoint far = new Waypoint(new BlockPos(40, 64, 0), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f});
+		Waypoint near = new Waypoint(new BlockPos(2, 64, 0), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f});
+		Waypoint middle = new Waypoint(new BlockPos(0, 64, -10), Waypoint.Type.WAYPOINT, new float[]{0f, 1f, 0f});
+
+		List<Waypoint> waypoints = new ArrayList<>(List.of(far, near, middle));
+		WaypointIndex.sortByDistance(waypoints, new Vec3d(0, 64, 0), Integer.MAX_VALUE);
+		Assertions.assertEquals(List.of(near, middle, far), waypoints);
+
+		WaypointIndex.sortByDistance(waypoints, new Vec3d(0, 64, 0), 2);
+		Assertions.assertEquals(List.of(near, middle), waypoints);
+	}
+
+	private static IntList near(WaypointIndex<Waypoint> index, Vec3d pos, double radius) {
+		IntList indices = new IntArrayList();
+		index.forEachNear(pos, radius, indices::add);
+		indices.sort(null);
+		return indices;
+	}
+}
@@ -0,0 +1,108 @@
+package de.hysky.skyblocker.utils.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class BlockIndexTest {
+	private static final ChunkPos CHUNK_POS = new ChunkPos(2, -3);
+	private static BlockIndex.Subscription diamonds;
+	private static BlockIndex.Subscription gold;
+
+	@BeforeAll
+	static void setup() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+		diamonds = new BlockIndex.Subscription("Diamonds", 0, () -> true, state -> state.isOf(Blocks.DIAMOND_ORE));
+		gold = new BlockIndex.Subscription("Gold", 1, () -> true, state -> state.isOf(Blocks.GOLD_BLOCK));
+	}
+
+	@Test
+	void testScanSections() {
+		PalettedContainer<BlockState> lower = section();
+		lower.set(1, 2, 3, Blocks.DIAMOND_ORE.getDefaultState());
+		lower.set(15, 15, 15, Blocks.GOLD_BLOCK.getDefaultState());
+		PalettedContainer<BlockState> upper = section();
+		upper.set(0, 0, 0, Blocks.DIAMOND_ORE.getDefaultState());
+		upper.set(4, 5, 6, Blocks.GOLD_BLOCK.getDefaultState());
+
+		// Gold is only scanned for in the upper section, like when the palette of the lower section doesn't contain it
+		List<BlockIndex.SectionSnapshot> snapshots = List.of(new BlockIndex.SectionSnapshot(-1, 0b01, lower), new BlockIndex.SectionSnapshot(4, 0b11, upper));
+		BlockIndex.ScanResult result = BlockIndex.scanSections(CHUNK_POS, 7, 0b11, snapshots, new BlockIndex.Subscription[]{diamonds, gold});
+
+		Assertions.assertEquals(CHUNK_POS.toLong(), result.chunkPos());
+		Assertions.assertEquals(7, result.generation());
+		Assertions.assertEquals(LongSet.of(pos(1, -14, 3), pos(0, 64, 0)), new LongOpenHashSet(result.matches()[0]));
+		Assertions.assertEquals(LongSet.of(pos(4, 69, 6)), new LongOpenHashSet(result.matches()[1]));
+	}
+
+	@Test
+	void testScanSectionsWithoutMatches() {
+		BlockIndex.ScanResult result = BlockIndex.scanSections(CHUNK_POS, 0, 0b01, List.of(new BlockIndex.SectionSnapshot(0, 0b01, section())), new BlockIndex.Subscription[]{diamonds, gold});
+
+		Assertions.assertNull(result.matches()[0]);
+		Assertions.assertNull(result.matches()[1]);
+	}
+
+	@Test
+	void testApplyWithConcurrentUpdates() {
+		BlockIndex.Subscription subscription = new BlockIndex.Subscription("Diamonds", 0, () -> true, state -> state.isOf(Blocks.DIAMOND_ORE));
+		subscription.setActive(true);
+		long kept = pos(1, 70, 1);
+		long mined = pos(2, 70, 2);
+		long placed = pos(3, 70, 3);
+		// The block at mined was broken and a block was placed at placed while the scan was running
+		Map<Long, BlockState> world = Map.of(kept, Blocks.DIAMOND_ORE.getDefaultState(), placed, Blocks.DIAMOND_ORE.getDefaultState());
+		LongOpenHashSet updated = LongOpenHashSet.of(mined, placed);
+		BlockIndex.ScanResult result = new BlockIndex.ScanResult(CHUNK_POS.toLong(), 0, 0b01, new LongArrayList[]{LongArrayList.of(kept, mined)});
+
+		BlockIndex.apply(result, List.of(subscription), updated, null, pos -> world.getOrDefault(pos.asLong(), Blocks.AIR.getDefaultState()));
+		Assertions.assertEquals(LongSet.of(kept, placed), positions(subscription));
+		Assertions.assertEquals(2, subscription.size());
+
+		// A second scan that finished after the first one adds nothing twice
+		BlockIndex.apply(result, List.of(subscription), updated, null, pos -> world.getOrDefault(pos.asLong(), Blocks.AIR.getDefaultState()));
+		Assertions.assertEquals(LongSet.of(kept, placed), positions(subscription));
+		Assertions.assertEquals(2, subscription.size());
+	}
+
+	@Test
+	void testApplySkipsInactiveSubscriptions() {
+		BlockIndex.Subscription subscription = new BlockIndex.Subscription("Diamonds", 0, () -> false, state -> state.isOf(Blocks.DIAMOND_ORE));
+		BlockIndex.ScanResult result = new BlockIndex.ScanResult(CHUNK_POS.toLong(), 0, 0b01, new LongArrayList[]{LongArrayList.of(pos(1, 70, 1))});
+
+		BlockIndex.apply(result, List.of(subscription), new LongOpenHashSet(), null, pos -> Blocks.DIAMOND_ORE.getDefaultState());
+		Assertions.assertEquals(0, subscription.size());
+	}
+
+	private static PalettedContainer<BlockState> section() {
+		return new PalettedContainer<>(Block.STATE_IDS, Blocks.AIR.getDefaultState(), PalettedContainer.PaletteProvider.BLOCK_STATE);
+	}
+
+	/**
+	 * @return the packed position of the block at the coordinates relative to the start of {@link #CHUNK_POS}
+	 */
+	private static long pos(int x, int y, int z) {
+		return BlockPos.asLong(CHUNK_POS.getStartX() + x, y, CHUNK_POS.getStartZ() + z);
+	}
+
+	private static LongSet positions(BlockIndex.Subscription subscription) {
+		LongSet positions = new LongOpenHashSet();
+		subscription.forEach(pos -> positions.add(pos.asLong()));
+		return positions;
+	}
+}